@@ -454,6 +454,10 @@ public class Properties {
     @Parameter(key = "dse_variable_resets", group = "DSE", description = "Times DSE resets the int and real variables with random values")
     public static int DSE_VARIABLE_RESETS = 2;
 
+    @Parameter(key = "dse_solver_restart_threads", group = "DSE", description = "Number of threads running the first search and the dse_variable_resets random restarts of the EvoSuite solver independently, each on its own copy of the constraints and with its own seed. With 1, the restarts run one after another on the search thread")
+    @IntValue(min = 1)
+    public static int DSE_SOLVER_RESTART_THREADS = 1;
+
     // By default the target is 100
     @Parameter(key = "dse_target_coverage", group = "DSE", description = "Percentage (out of 100) of target coverage to cover")
     public static int DSE_TARGET_COVERAGE = 100;
@@ -496,6 +500,20 @@ public class Properties {
     @Parameter(key = "dse_solver", group = "DSE", description = "Specify which constraint solver to use. Note: external solver will need to be installed and cofigured separately")
     public static SolverType DSE_SOLVER = SolverType.EVOSUITE_SOLVER;
 
+    @Parameter(key = "dse_solver_threads", group = "DSE", description = "Number of threads solving the path conditions generated from the same concolic execution. Only used with the external SMT solvers (dse_solver other than EVOSUITE_SOLVER): the EvoSuite solver works on the concrete values of shared variables, so with it this value is ignored and its queries are solved one at a time. Concolic execution itself is always sequential")
+    @IntValue(min = 1)
+    public static int DSE_SOLVER_THREADS = 1;
+
+    @Parameter(key = "dse_solver_cache_size", group = "DSE", description = "Maximum number of constraint solver results that are cached")
+    @IntValue(min = 1)
+    public static int DSE_SOLVER_CACHE_SIZE = 10000;
+
+    @Parameter(key = "dse_solver_cache_file", group = "DSE", description = "File in which constraint solver results are stored, so that later runs can reuse them. Empty to only cache in memory")
+    public static String DSE_SOLVER_CACHE_FILE = "";
+
+    @Parameter(key = "dse_solver_sessions", group = "DSE", description = "Keep external SMT solvers running between queries, and only send them the assertions that differ from the previous query")
+    public static boolean DSE_SOLVER_SESSIONS = false;
+
     @Parameter(key = "z3_path", group = "DSE", description = "Indicates the path to the Z3 solver")
     public static String Z3_PATH = null;
 
@@ -670,6 +688,65 @@ public class Properties {
     @Parameter(key = "max_num_fitness_evaluations_before_giving_up", group = "Search Algorithm", description = "Maximum number of fitness evaluations allowed to be done on the same individual before sampling a new one")
     public static int MAX_NUM_FITNESS_EVALUATIONS_BEFORE_GIVING_UP = 10;
 
+    @Parameter(key = "summit_candidates", group = "Search Algorithm", description = "Number of individuals SUMMIT mutates and evaluates in each iteration. With more than one, the LLM queries of the individuals are sent concurrently while they are mutated and evaluated one after another")
+    @IntValue(min = 1)
+    public static int SUMMIT_CANDIDATES = 1;
+
+    @Parameter(key = "checkpoint_dir", group = "Search Algorithm", description = "If specified, MOSA, DynaMOSA and SUMMIT periodically save the archive and the population to this directory")
+    public static String CHECKPOINT_DIR = "";
+
+    @Parameter(key = "checkpoint_interval", group = "Search Algorithm", description = "Minimum time in seconds between two checkpoints of the search")
+    @LongValue(min = 1)
+    public static long CHECKPOINT_INTERVAL = 30;
+
+    @Parameter(key = "checkpoint_resume", group = "Search Algorithm", description = "Continue the search from the checkpoint in checkpoint_dir, if there is one")
+    public static boolean CHECKPOINT_RESUME = false;
+
+    public enum LLMBackend {
+        /**
+         * OpenAI-style chat completion API configured in llm.properties
+         */
+        HTTP,
+        /**
+         * Answers recorded in llm_transcript
+         */
+        REPLAY,
+        /**
+         * Local stand-in applying the selection guidelines in-process
+         */
+        HEURISTIC
+    }
+
+    @Parameter(key = "llm_provider", group = "Search Algorithm", description = "Backend that answers LLM queries")
+    public static LLMBackend LLM_PROVIDER = LLMBackend.HTTP;
+
+    @Parameter(key = "llm_transcript", group = "Search Algorithm", description = "File of recorded LLM answers. Read by the REPLAY provider, and appended to by the HTTP provider if set")
+    public static String LLM_TRANSCRIPT = "";
+
+    @Parameter(key = "llm_async_queries", group = "Search Algorithm", description = "Send LLM selection queries asynchronously and fall back to random selection if no answer arrives within llm_query_deadline")
+    public static boolean LLM_ASYNC_QUERIES = false;
+
+    @Parameter(key = "llm_max_in_flight", group = "Search Algorithm", description = "Maximum number of asynchronous LLM queries that can be pending at the same time")
+    @IntValue(min = 1)
+    public static int LLM_MAX_IN_FLIGHT = 4;
+
+    @Parameter(key = "llm_query_deadline", group = "Search Algorithm", description = "Milliseconds to wait for an asynchronous LLM answer before falling back to random selection. SUMMIT with several candidates waits at most this long for the answers of all of them, and never beyond the search budget")
+    @LongValue(min = 0)
+    public static long LLM_QUERY_DEADLINE = 1000;
+
+    @Parameter(key = "llm_batch_selection", group = "Search Algorithm", description = "Decide all LLM-guided selections of a new test with a single LLM query once the test has been constructed")
+    public static boolean LLM_BATCH_SELECTION = false;
+
+    @Parameter(key = "llm_cache", group = "Search Algorithm", description = "Reuse LLM answers for selection queries that are equivalent to previous ones")
+    public static boolean LLM_CACHE = false;
+
+    @Parameter(key = "llm_cache_size", group = "Search Algorithm", description = "Maximum number of LLM answers kept in memory")
+    @IntValue(min = 1)
+    public static int LLM_CACHE_SIZE = 10000;
+
+    @Parameter(key = "llm_cache_dir", group = "Search Algorithm", description = "Directory in which LLM answers are persisted across runs. If empty, answers are only cached in memory")
+    public static String LLM_CACHE_DIR = "";
+
     @Parameter(key = "population", group = "Search Algorithm", description = "Population size of genetic algorithm")
     @IntValue(min = 1)
     public static int POPULATION = 50;
@@ -957,6 +1034,10 @@ public class Properties {
     @Parameter(key = "ctg_extra_args", group = "Continuous Test Generation", description = "Extra '-D' arguments to pass to EvoSuite test generation processes")
     public static String CTG_EXTRA_ARGS = null;
 
+    @Parameter(key = "ctg_jobs_per_worker", group = "Continuous Test Generation", description = "How many jobs each CTG worker JVM runs before being replaced by a new one. With 1, each job starts its own JVM. With higher values, the EvoSuite master JVMs are kept warm and reset between jobs. Only the master is reused: each job still starts its own client JVM, so the saving is the master startup and warm-up, about 1s per job. Keeping the client JVMs warm is not supported yet")
+    @IntValue(min = 1)
+    public static int CTG_JOBS_PER_WORKER = 1;
+
 
     // ---------------------------------------------------------------
     // Single branch mode
@@ -1190,6 +1271,10 @@ public class Properties {
     @Parameter(key = "new_statistics", group = "Output", description = "Use the new statistics backend on the master")
     public static boolean NEW_STATISTICS = true;
 
+    @Parameter(key = "statistics_interval", group = "Output", description = "Minimum time in milliseconds between two batches of statistics sent from a client to the master")
+    @LongValue(min = 0)
+    public static long STATISTICS_INTERVAL = 1000;
+
     @Parameter(key = "ignore_missing_statistics", group = "Output", description = "Return an empty string for missing output variables")
     public static boolean IGNORE_MISSING_STATISTICS = false;
 
@@ -1296,6 +1381,9 @@ public class Properties {
     @Parameter(key = "inheritance_file", description = "Cached version of inheritance tree")
     public static String INHERITANCE_FILE = "";
 
+    @Parameter(key = "inheritance_cache_dir", description = "Directory in which the inheritance data of the jars on the classpath is cached across runs. Empty to disable the cache")
+    public static String INHERITANCE_CACHE_DIR = "";
+
     @Parameter(key = "branch_eval", description = "Jeremy's branch evaluation")
     public static boolean BRANCH_EVAL = false;
 
@@ -1325,6 +1413,9 @@ public class Properties {
     @Parameter(key = "instrumentation_skip_debug", description = "Skip debug information in bytecode instrumentation (needed for compatibility with classes transformed by Emma code instrumentation due to an ASM bug)")
     public static boolean INSTRUMENTATION_SKIP_DEBUG = false;
 
+    @Parameter(key = "instrumentation_cache_dir", description = "Directory in which instrumented classes that do not get coverage instrumentation are cached across runs. Empty to disable the cache")
+    public static String INSTRUMENTATION_CACHE_DIR = "";
+
     @Parameter(key = "instrument_parent", description = "Also count coverage goals in superclasses")
     public static boolean INSTRUMENT_PARENT = false;
 
@@ -1454,6 +1545,16 @@ public class Properties {
     @Parameter(key = "timeout_reset", group = "Test Execution", description = "Milliseconds allowed to execute the static reset of a test")
     public static int TIMEOUT_RESET = 2000;
 
+    @Parameter(key = "thread_confined_tracing", group = "Test Execution", description = "Record the execution trace without synchronization in the executing thread, and only check for timeouts periodically")
+    public static boolean THREAD_CONFINED_TRACING = false;
+
+    @Parameter(key = "suffix_execution", group = "Test Execution", description = "Keep the state after executing a test without side effects on static state, and only execute the statements appended to it when it is executed again")
+    public static boolean SUFFIX_EXECUTION = false;
+
+    @Parameter(key = "suffix_execution_snapshots", group = "Test Execution", description = "Maximum number of test executions whose state is kept for suffix_execution")
+    @IntValue(min = 1)
+    public static int SUFFIX_EXECUTION_SNAPSHOTS = 100;
+
 
     @Parameter(key = "concolic_timeout", group = "Test Execution", description = "Milliseconds allowed per test during concolic execution")
     public static int CONCOLIC_TIMEOUT = 15000;
@@ -288,6 +288,19 @@ public class TimeController {
         return true;
     }
 
+    /**
+     * Counts time a previous client already spent in the current phase, e.g., when resuming
+     * the search from a checkpoint, so that the phase only gets the time that was left
+     *
+     * @param ms time in milliseconds
+     */
+    public synchronized void creditTimeInCurrentPhase(long ms) {
+        if (state.equals(ClientState.NOT_STARTED)) {
+            return;
+        }
+        currentPhaseStartTime -= ms;
+    }
+
     private long getLeftTimeBeforeEnd() {
         long timeSinceStart = System.currentTimeMillis() - clientStartTime;
         long totalTimeLimit = 1000 * calculateForHowLongClientWillRunInSeconds();
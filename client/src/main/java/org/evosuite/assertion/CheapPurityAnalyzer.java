@@ -20,6 +20,8 @@
 package org.evosuite.assertion;
 
 import org.evosuite.instrumentation.BytecodeInstrumentation;
+import org.evosuite.instrumentation.InstrumentedClassCache;
+import org.evosuite.instrumentation.InstrumentedClassCache.Registration;
 import org.evosuite.runtime.classhandling.ClassResetter;
 import org.evosuite.runtime.mock.MockList;
 import org.evosuite.setup.DependencyAnalysis;
@@ -412,6 +414,7 @@ public class CheapPurityAnalyzer {
 
     public void addMethod(String className, String methodName,
                           String methodDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_METHOD, className, methodName, methodDescriptor);
         MethodEntry entry = new MethodEntry(className, methodName,
                 methodDescriptor);
         methodEntries.add(entry);
@@ -419,6 +422,7 @@ public class CheapPurityAnalyzer {
 
     public void addUpdatesFieldMethod(String className, String methodName,
                                       String descriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_UPDATES_FIELD_METHOD, className, methodName, descriptor);
         String classNameWithDots = className.replace('/', '.');
         MethodEntry entry = new MethodEntry(classNameWithDots, methodName,
                 descriptor);
@@ -433,6 +437,8 @@ public class CheapPurityAnalyzer {
     public void addStaticCall(String sourceClassName, String sourceMethodName,
                               String sourceDescriptor, String targetClassName,
                               String targetMethodName, String targetDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_STATIC_CALL, sourceClassName, sourceMethodName, sourceDescriptor,
+                targetClassName, targetMethodName, targetDescriptor);
 
         addCall(staticCalls, sourceClassName, sourceMethodName,
                 sourceDescriptor, targetClassName, targetMethodName,
@@ -443,6 +449,8 @@ public class CheapPurityAnalyzer {
     public void addVirtualCall(String sourceClassName, String sourceMethodName,
                                String sourceDescriptor, String targetClassName,
                                String targetMethodName, String targetDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_VIRTUAL_CALL, sourceClassName, sourceMethodName, sourceDescriptor,
+                targetClassName, targetMethodName, targetDescriptor);
 
         addCall(virtualCalls, sourceClassName, sourceMethodName,
                 sourceDescriptor, targetClassName, targetMethodName,
@@ -454,6 +462,8 @@ public class CheapPurityAnalyzer {
                                  String sourceMethodName, String sourceDescriptor,
                                  String targetClassName, String targetMethodName,
                                  String targetDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_INTERFACE_CALL, sourceClassName, sourceMethodName, sourceDescriptor,
+                targetClassName, targetMethodName, targetDescriptor);
 
         addCall(interfaceCalls, sourceClassName, sourceMethodName,
                 sourceDescriptor, targetClassName, targetMethodName,
@@ -479,6 +489,8 @@ public class CheapPurityAnalyzer {
     public void addSpecialCall(String sourceClassName, String sourceMethodName,
                                String sourceDescriptor, String targetClassName,
                                String targetMethodName, String targetDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_SPECIAL_CALL, sourceClassName, sourceMethodName, sourceDescriptor,
+                targetClassName, targetMethodName, targetDescriptor);
 
         addCall(specialCalls, sourceClassName, sourceMethodName,
                 sourceDescriptor, targetClassName, targetMethodName,
@@ -491,6 +503,7 @@ public class CheapPurityAnalyzer {
 
     public void addInterfaceMethod(String className, String methodName,
                                    String methodDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_INTERFACE_METHOD, className, methodName, methodDescriptor);
         MethodEntry entry = new MethodEntry(className, methodName,
                 methodDescriptor);
         interfaceMethodEntries.add(entry);
@@ -498,6 +511,7 @@ public class CheapPurityAnalyzer {
 
     public void addMethodWithBody(String className, String methodName,
                                   String methodDescriptor) {
+        InstrumentedClassCache.record(Registration.PURITY_METHOD_WITH_BODY, className, methodName, methodDescriptor);
         MethodEntry entry = new MethodEntry(className, methodName,
                 methodDescriptor);
         methodsWithBodies.add(entry);
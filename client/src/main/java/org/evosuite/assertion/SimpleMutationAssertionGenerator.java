@@ -145,6 +145,9 @@ public class SimpleMutationAssertionGenerator extends MutationAssertionGenerator
         Randomness.shuffle(executedMutants);
         logger.debug("Executed mutants: " + origResult.getTrace().getTouchedMutants());
 
+        // Mutants are executed one at a time: the active mutant in MutationObserver, the ExecutionTracer,
+        // the output trace observers and the static state of the SUT classes are shared by the whole JVM,
+        // so concurrent executions would mix up their traces
         int numExecutedMutants = 0;
         for (Mutation m : executedMutants) {
 
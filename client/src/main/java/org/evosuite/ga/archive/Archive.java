@@ -101,6 +101,7 @@ public abstract class Archive implements Serializable {
             this.nonCoveredTargetsOfEachMethod.put(targetMethod, new LinkedHashSet<>());
         }
         this.nonCoveredTargetsOfEachMethod.get(targetMethod).add(target);
+        TestCluster.uncoveredTargetsChanged();
     }
 
     /**
@@ -113,6 +114,7 @@ public abstract class Archive implements Serializable {
         if (this.nonCoveredTargetsOfEachMethod.containsKey(targetMethod)) {
             // target has been covered, therefore we can remove it from the list of non-covered
             this.nonCoveredTargetsOfEachMethod.get(targetMethod).remove(target);
+            TestCluster.uncoveredTargetsChanged();
 
             if (this.nonCoveredTargetsOfEachMethod.get(targetMethod).isEmpty()) {
                 // method is fully covered, therefore we do not need to keep track of it
@@ -505,6 +507,7 @@ public abstract class Archive implements Serializable {
      */
     public void reset() {
         this.nonCoveredTargetsOfEachMethod.clear();
+        TestCluster.uncoveredTargetsChanged();
     }
 
     /**
@@ -5,8 +5,15 @@ import org.evosuite.TimeController;
 import org.evosuite.ga.ChromosomeFactory;
 import org.evosuite.ga.archive.Archive;
 import org.evosuite.ga.metaheuristics.mosa.AbstractMOSA;
+import org.evosuite.ga.stoppingconditions.GlobalTimeStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.factories.LLMBasedTestFactory;
+import org.evosuite.testcase.llm.LLMSelectionBatch;
+import org.evosuite.testcase.llm.LLMService;
 import org.evosuite.testsuite.TestSuiteChromosome;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -15,6 +22,15 @@ import org.slf4j.LoggerFactory;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Implementation of the SUMMIT algorithm
@@ -29,7 +45,18 @@ public class Summit extends AbstractMOSA {
 
     private int n = Properties.NUMBER_OF_TESTS_PER_TARGET;
 
-    private TestChromosome solution = null;
+    /**
+     * The individuals that are currently mutated and evaluated, at most
+     * {@link Properties#SUMMIT_CANDIDATES} of them
+     */
+    private final List<TestChromosome> solutions = new ArrayList<>();
+
+    /**
+     * Sends the LLM queries of the candidates, created on first use and shut down when the
+     * search ends. It has one thread and one queue slot per candidate; queries that do not fit
+     * are not sent at all.
+     */
+    private transient ExecutorService llmQueries = null;
 
     /**
      * Constructor.
@@ -53,37 +80,33 @@ public class Summit extends AbstractMOSA {
         // Note: in SUMMIT there is an extra parameter m which controls how many mutations and
         // fitness evaluations should be done on the same individual before sampling a new
         // one.
-
-        if (this.solution == null || (this.solution
-                .getNumberOfMutations() >= Properties.MAX_NUM_MUTATIONS_BEFORE_GIVING_UP
-                || this.solution
-                .getNumberOfEvaluations() >= Properties.MAX_NUM_FITNESS_EVALUATIONS_BEFORE_GIVING_UP)) {
-
-            TestChromosome test = null;
-            if (Randomness.nextDouble() < this.pr) {
-                test = this.llmFactory.getChromosome();
-                if (test.size() == 0) {
-                    // in case EvoSuite fails to generate a new test
-                    // case, get one from the archive
-                    test = Archive.getArchiveInstance().getSolution();
-                }
-            } else {
-                test = Archive.getArchiveInstance().getSolution();
-                if (test == null || test.size() == 0) {
-                    test = this.llmFactory.getChromosome();
-                }
+        //
+        // Several candidates can be kept at the same time (summit_candidates), each of which is
+        // replaced independently once it has been mutated or evaluated too often. Their LLM
+        // queries are sent concurrently, see mutateAndEvaluate.
+
+        for (int i = 0; i < Properties.SUMMIT_CANDIDATES; i++) {
+            if (i >= this.solutions.size()) {
+                this.solutions.add(this.sampleSolution());
+            } else if (this.hasGivenUp(this.solutions.get(i))) {
+                this.solutions.set(i, this.sampleSolution());
             }
-            assert test != null && test.size() != 0;
-            this.solution = test;
         }
-        assert this.solution != null;
+        assert !this.solutions.isEmpty();
 
-        // mutate it
-        notifyMutation(this.solution);
-        this.solution.mutate();
+        if (this.solutions.size() == 1) {
+            TestChromosome solution = this.solutions.get(0);
+            if (!this.isFinished()) {
+                // mutate it
+                notifyMutation(solution);
+                solution.mutate();
 
-        // evaluate it
-        this.calculateFitness(this.solution);
+                // evaluate it
+                this.calculateFitness(solution);
+            }
+        } else {
+            this.mutateAndEvaluate();
+        }
 
         double usedBudget = this.progress();
         if (Double.compare(usedBudget, Properties.EXPLOITATION_STARTS_AT_PERCENT) >= 0) {
@@ -108,6 +131,161 @@ public class Summit extends AbstractMOSA {
         this.currentIteration++;
     }
 
+    /**
+     * Mutates all candidates, then evaluates them. The LLM selections made while mutating a
+     * candidate are deferred to an {@link LLMSelectionBatch}, whose query is sent on
+     * {@link #llmQueries} as soon as the candidate has been mutated. The queries of all
+     * candidates are therefore in flight at the same time, and the evaluation of a candidate
+     * overlaps with the queries of the following ones. Mutation and evaluation themselves stay
+     * on the search thread, as the test factory, the test executor and the archive are shared
+     * by the whole client.
+     * <p>
+     * All answers have to arrive within {@link Properties#LLM_QUERY_DEADLINE} of the last query,
+     * and before the search budget runs out. A candidate whose answer is late keeps the
+     * selections made at random during its mutation, and its query is cancelled.
+     */
+    private void mutateAndEvaluate() {
+        final LLMService llmService = LLMService.getInstance();
+        final List<TestChromosome> mutated = new ArrayList<>();
+        final List<LLMSelectionBatch> batches = new ArrayList<>();
+        final List<Future<String>> answers = new ArrayList<>();
+
+        for (TestChromosome solution : this.solutions) {
+            if (this.isFinished()) {
+                break;
+            }
+            TestCase test = solution.getTestCase();
+            LLMSelectionBatch batch = test instanceof DefaultTestCase ? new LLMSelectionBatch() : null;
+            if (batch != null) {
+                ((DefaultTestCase) test).setLLMSelectionBatch(batch);
+            }
+
+            // mutate it
+            notifyMutation(solution);
+            try {
+                solution.mutate();
+            } finally {
+                if (batch != null) {
+                    ((DefaultTestCase) test).setLLMSelectionBatch(null);
+                }
+            }
+
+            String prompt = batch == null ? null : batch.getPrompt(test);
+            Future<String> answer = null;
+            if (prompt != null) {
+                try {
+                    answer = this.getLLMQueries().submit(() -> llmService.queryLLM(prompt));
+                } catch (RejectedExecutionException e) {
+                    logger.debug("Too many SUMMIT LLM queries in flight, keeping random selections");
+                }
+            }
+            mutated.add(solution);
+            batches.add(batch);
+            answers.add(answer);
+        }
+
+        final long waitUntil = System.currentTimeMillis()
+                + Math.min(Properties.LLM_QUERY_DEADLINE, this.getRemainingSearchTime());
+        for (int i = 0; i < mutated.size(); i++) {
+            TestChromosome solution = mutated.get(i);
+            LLMSelectionBatch batch = batches.get(i);
+            if (batch != null) {
+                String answer = answers.get(i) == null ? null
+                        : getAnswer(answers.get(i), waitUntil - System.currentTimeMillis());
+                if (batch.apply(solution.getTestCase(), answer) > 0) {
+                    solution.setChanged(true);
+                }
+            }
+
+            // evaluate it
+            this.calculateFitness(solution);
+        }
+    }
+
+    /**
+     * Waits at most {@code waitMillis} for the answer to a query, and cancels the query if the
+     * answer is not ready by then
+     *
+     * @return the answer, or {@code null} if the query failed or did not complete in time
+     */
+    static String getAnswer(Future<String> answer, long waitMillis) {
+        try {
+            return answer.get(Math.max(waitMillis, 0), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("No LLM answer within {} ms, keeping random selections", waitMillis);
+            answer.cancel(true);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            answer.cancel(true);
+            return null;
+        } catch (ExecutionException | CancellationException e) {
+            logger.debug("LLM query failed, keeping random selections: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * @return the time in milliseconds left before a time-based stopping condition ends the
+     * search, or {@link Long#MAX_VALUE} if there is none
+     */
+    private long getRemainingSearchTime() {
+        if (this.isFinished()) {
+            return 0;
+        }
+        long remaining = Long.MAX_VALUE;
+        for (StoppingCondition<TestChromosome> condition : this.getStoppingConditions()) {
+            if (condition instanceof MaxTimeStoppingCondition || condition instanceof GlobalTimeStoppingCondition) {
+                remaining = Math.min(remaining, 1000 * (condition.getLimit() - condition.getCurrentValue()));
+            }
+        }
+        return Math.max(remaining, 0);
+    }
+
+    private ExecutorService getLLMQueries() {
+        if (this.llmQueries == null) {
+            int threads = Properties.SUMMIT_CANDIDATES;
+            this.llmQueries = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads), r -> {
+                Thread thread = new Thread(r, "SUMMIT-LLM-query");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return this.llmQueries;
+    }
+
+    private void shutDownLLMQueries() {
+        if (this.llmQueries != null) {
+            this.llmQueries.shutdownNow();
+            this.llmQueries = null;
+        }
+    }
+
+    private boolean hasGivenUp(TestChromosome solution) {
+        return solution.getNumberOfMutations() >= Properties.MAX_NUM_MUTATIONS_BEFORE_GIVING_UP
+                || solution.getNumberOfEvaluations() >= Properties.MAX_NUM_FITNESS_EVALUATIONS_BEFORE_GIVING_UP;
+    }
+
+    private TestChromosome sampleSolution() {
+        TestChromosome test = null;
+        if (Randomness.nextDouble() < this.pr) {
+            test = this.llmFactory.getChromosome();
+            if (test.size() == 0) {
+                // in case EvoSuite fails to generate a new test
+                // case, get one from the archive
+                test = Archive.getArchiveInstance().getSolution();
+            }
+        } else {
+            test = Archive.getArchiveInstance().getSolution();
+            if (test == null || test.size() == 0) {
+                test = this.llmFactory.getChromosome();
+            }
+        }
+        assert test != null && test.size() != 0;
+        return test;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -121,7 +299,8 @@ public class Summit extends AbstractMOSA {
         // will be randomly generated.
         this.generateInitialPopulation(1);
         assert this.population.size() == 1;
-        this.solution = this.population.get(0).clone();
+        this.solutions.clear();
+        this.solutions.add(this.population.get(0).clone());
 
         // update fitness values of all individuals
         this.calculateFitnessAndSortPopulation();
@@ -134,7 +313,7 @@ public class Summit extends AbstractMOSA {
      */
     @Override
     public void generateSolution() {
-        if (this.population.isEmpty()) {
+        if (this.population.isEmpty() && !this.resumeFromCheckpoint()) {
             this.initializePopulation();
             assert !this.population
                     .isEmpty() : "Initial population is empty, i.e., EvoSuite could not create any test!";
@@ -146,6 +325,17 @@ public class Summit extends AbstractMOSA {
         }
 
         logger.debug("Starting evolution");
+        try {
+            this.evolveUntilFinished();
+        } finally {
+            this.shutDownLLMQueries();
+        }
+
+        TimeController.execute(this::updateBestIndividualFromArchive, "Update from archive", 5_000);
+        this.notifySearchFinished();
+    }
+
+    private void evolveUntilFinished() {
         while (!this.isFinished()) {
             this.evolve();
 
@@ -172,9 +362,6 @@ public class Summit extends AbstractMOSA {
             logger.info("Current iteration: " + currentIteration);
             this.notifyIteration();
         }
-
-        TimeController.execute(this::updateBestIndividualFromArchive, "Update from archive", 5_000);
-        this.notifySearchFinished();
     }
 
     @Override
@@ -21,6 +21,7 @@ package org.evosuite.ga.metaheuristics.mosa;
 
 import org.evosuite.Properties;
 import org.evosuite.Properties.SelectionFunction;
+import org.evosuite.TimeController;
 import org.evosuite.coverage.FitnessFunctions;
 import org.evosuite.coverage.exception.ExceptionCoverageSuiteFitness;
 import org.evosuite.ga.ChromosomeFactory;
@@ -73,6 +74,11 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
      */
     protected final BudgetConsumptionMonitor budgetMonitor;
 
+    /**
+     * Saves checkpoints of the search, {@code null} if checkpoints are disabled
+     */
+    protected final transient SearchCheckpointer checkpointer = SearchCheckpointer.forTargetClass();
+
     /**
      * Constructor.
      *
@@ -469,18 +475,66 @@ public abstract class AbstractMOSA extends GeneticAlgorithm<TestChromosome> {
     @Override
     protected void notifySearchStarted() {
         super.notifySearchStarted();
+        if (this.checkpointer != null) {
+            this.checkpointer.searchStarted();
+        }
     }
 
     @Override
     protected void notifyIteration() {
         super.notifyIteration();
+        if (this.checkpointer != null) {
+            this.checkpointer.iteration(this.population, this.currentIteration, this.stoppingConditions);
+        }
     }
 
     @Override
     protected void notifySearchFinished() {
+        if (this.checkpointer != null) {
+            this.checkpointer.searchFinished(this.population, this.currentIteration, this.stoppingConditions);
+        }
         super.notifySearchFinished();
     }
 
+    /**
+     * Continues the search of a previous client from its last checkpoint, if
+     * {@link Properties#CHECKPOINT_RESUME} is set and there is one. The tests of the archive and
+     * of the population are executed again, which also restores the covered and uncovered goals.
+     * Subclasses call this instead of {@link #initializePopulation()}.
+     *
+     * @return {@code true} if the search was resumed, {@code false} if the population still has
+     * to be initialized
+     */
+    protected boolean resumeFromCheckpoint() {
+        if (this.checkpointer == null || !Properties.CHECKPOINT_RESUME) {
+            return false;
+        }
+        SearchCheckpoint checkpoint = this.checkpointer.load();
+        if (checkpoint == null || checkpoint.getPopulation().isEmpty()) {
+            return false;
+        }
+
+        this.notifySearchStarted();
+
+        checkpoint.getArchive().forEach(this::calculateFitness);
+        this.population.clear();
+        for (TestChromosome test : checkpoint.getPopulation()) {
+            this.calculateFitness(test);
+            this.population.add(test);
+        }
+
+        this.currentIteration = checkpoint.getIteration();
+        checkpoint.restoreStoppingConditions(this.stoppingConditions);
+        TimeController.getInstance().creditTimeInCurrentPhase(checkpoint.getSearchTime());
+        this.checkpointer.resumedFrom(checkpoint);
+
+        LoggingUtils.getEvoLogger().info("* Resumed search from checkpoint at iteration {}: {} of {} covered goals recovered",
+                checkpoint.getIteration(), this.getNumberOfCoveredGoals(), checkpoint.getNumberOfCoveredTargets());
+
+        this.notifyIteration();
+        return true;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -150,7 +150,7 @@ public class DynaMOSA extends AbstractMOSA {
 
         logger.debug("Initial Number of Goals = " + this.goalsManager.getCurrentGoals().size());
 
-        if (this.population.isEmpty()) {
+        if (this.population.isEmpty() && !this.resumeFromCheckpoint()) {
             // Initialize the population by creating solutions at random.
             this.initializePopulation();
         }
@@ -167,7 +167,7 @@ public class MOSA extends AbstractMOSA {
         this.fitnessFunctions.forEach(this::addUncoveredGoal);
 
         // initialize population
-        if (this.population.isEmpty()) {
+        if (this.population.isEmpty() && !this.resumeFromCheckpoint()) {
             this.initializePopulation();
         }
 
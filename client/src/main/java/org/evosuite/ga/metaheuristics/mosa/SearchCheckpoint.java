@@ -0,0 +1,274 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.ga.stoppingconditions.MaxFitnessEvaluationsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxGenerationStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testsuite.TestCaseCodec;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteSerialization;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The state of a many-objective search at the end of an iteration: the tests in the archive,
+ * the population, and how much of the search budget was used.
+ *
+ * <p>
+ * The targets are not part of a checkpoint: executing the tests of the archive again covers
+ * the same targets, and all others are still uncovered.
+ *
+ * <p>
+ * A checkpoint is stored in two files: the tests, written with {@link TestCaseCodec}, and a
+ * properties file with the rest of the state, which is replaced last and checked against the
+ * tests when reading them back.
+ */
+public class SearchCheckpoint {
+
+    private static final String ARCHIVE_TESTS = "archive_tests";
+
+    private static final String POPULATION_TESTS = "population_tests";
+
+    private static final String ITERATION = "iteration";
+
+    private static final String SEARCH_TIME = "search_time";
+
+    private static final String COVERED_TARGETS = "covered_targets";
+
+    private static final String STOPPING_CONDITION = "stopping_condition.";
+
+    /**
+     * The stopping conditions whose current value is saved, all others start from scratch
+     */
+    private static final List<Class<?>> RESUMABLE_STOPPING_CONDITIONS = Arrays.asList(
+            MaxTimeStoppingCondition.class, MaxFitnessEvaluationsStoppingCondition.class,
+            MaxGenerationStoppingCondition.class, MaxStatementsStoppingCondition.class,
+            MaxTestsStoppingCondition.class);
+
+    private final List<TestChromosome> archive;
+
+    private final List<TestChromosome> population;
+
+    private final int iteration;
+
+    private final long searchTime;
+
+    private final int coveredTargets;
+
+    /**
+     * Current value of each resumable stopping condition, by class name
+     */
+    private final Map<String, Long> stoppingConditions;
+
+    private SearchCheckpoint(List<TestChromosome> archive, List<TestChromosome> population, int iteration,
+                             long searchTime, int coveredTargets, Map<String, Long> stoppingConditions) {
+        this.archive = archive;
+        this.population = population;
+        this.iteration = iteration;
+        this.searchTime = searchTime;
+        this.coveredTargets = coveredTargets;
+        this.stoppingConditions = stoppingConditions;
+    }
+
+    /**
+     * Copies the current state of the search, so that it can be written while the search goes on
+     *
+     * @param population    the current population
+     * @param iteration     the current iteration
+     * @param searchTime    time in milliseconds the search has been running
+     * @param conditions    the stopping conditions of the search
+     * @return the checkpoint
+     */
+    public static SearchCheckpoint take(Collection<TestChromosome> population, int iteration, long searchTime,
+                                        Collection<? extends StoppingCondition<?>> conditions) {
+        List<TestChromosome> archiveCopy = new ArrayList<>();
+        for (TestChromosome test : Archive.getArchiveInstance().getSolutions()) {
+            archiveCopy.add(test.clone());
+        }
+        List<TestChromosome> populationCopy = new ArrayList<>(population.size());
+        for (TestChromosome test : population) {
+            populationCopy.add(test.clone());
+        }
+
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (StoppingCondition<?> condition : conditions) {
+            if (RESUMABLE_STOPPING_CONDITIONS.contains(condition.getClass())) {
+                values.put(condition.getClass().getName(), condition.getCurrentValue());
+            }
+        }
+
+        return new SearchCheckpoint(archiveCopy, populationCopy, iteration, searchTime,
+                Archive.getArchiveInstance().getNumberOfCoveredTargets(), values);
+    }
+
+    /**
+     * Writes the checkpoint, replacing the one in the given files, if any
+     *
+     * @param testsFile
+     * @param stateFile
+     * @throws IOException
+     */
+    public void write(File testsFile, File stateFile) throws IOException {
+        File tmpTests = new File(testsFile.getPath() + ".tmp");
+        TestSuiteChromosome tests = new TestSuiteChromosome();
+        archive.forEach(tests::addTest);
+        population.forEach(tests::addTest);
+        if (!TestSuiteSerialization.saveTests(tests, tmpTests)) {
+            throw new IOException("Failed to write " + tmpTests.getAbsolutePath());
+        }
+
+        java.util.Properties state = new java.util.Properties();
+        state.setProperty(ARCHIVE_TESTS, Integer.toString(archive.size()));
+        state.setProperty(POPULATION_TESTS, Integer.toString(population.size()));
+        state.setProperty(ITERATION, Integer.toString(iteration));
+        state.setProperty(SEARCH_TIME, Long.toString(searchTime));
+        state.setProperty(COVERED_TARGETS, Integer.toString(coveredTargets));
+        for (Map.Entry<String, Long> condition : stoppingConditions.entrySet()) {
+            state.setProperty(STOPPING_CONDITION + condition.getKey(), Long.toString(condition.getValue()));
+        }
+        File tmpState = new File(stateFile.getPath() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmpState)) {
+            state.store(out, "EvoSuite search checkpoint");
+        }
+
+        Files.move(tmpTests.toPath(), testsFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmpState.toPath(), stateFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Reads a checkpoint written by {@link #write}
+     *
+     * @param testsFile
+     * @param stateFile
+     * @return the checkpoint
+     * @throws IOException if a file is missing or does not belong to the other one, or a test
+     *                     cannot be decoded anymore
+     */
+    public static SearchCheckpoint read(File testsFile, File stateFile) throws IOException {
+        java.util.Properties state = new java.util.Properties();
+        try (InputStream in = new FileInputStream(stateFile)) {
+            state.load(in);
+        }
+
+        int archiveSize;
+        int populationSize;
+        int iteration;
+        long searchTime;
+        int coveredTargets;
+        Map<String, Long> values = new LinkedHashMap<>();
+        try {
+            archiveSize = Integer.parseInt(state.getProperty(ARCHIVE_TESTS));
+            populationSize = Integer.parseInt(state.getProperty(POPULATION_TESTS));
+            iteration = Integer.parseInt(state.getProperty(ITERATION));
+            searchTime = Long.parseLong(state.getProperty(SEARCH_TIME));
+            coveredTargets = Integer.parseInt(state.getProperty(COVERED_TARGETS));
+            for (String key : state.stringPropertyNames()) {
+                if (key.startsWith(STOPPING_CONDITION)) {
+                    values.put(key.substring(STOPPING_CONDITION.length()), Long.parseLong(state.getProperty(key)));
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint " + stateFile.getAbsolutePath(), e);
+        }
+
+        List<TestChromosome> archive = new ArrayList<>(archiveSize);
+        List<TestChromosome> population = new ArrayList<>(populationSize);
+        try (TestCaseCodec.Reader in = TestSuiteSerialization.openTests(testsFile)) {
+            if (in.size() != archiveSize + populationSize) {
+                throw new IOException("Checkpoint " + stateFile.getAbsolutePath() + " does not belong to "
+                        + testsFile.getAbsolutePath());
+            }
+            for (int i = 0; i < in.size(); i++) {
+                TestChromosome test = in.read(i);
+                for (Statement st : test.getTestCase()) {
+                    st.changeClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+                }
+                (i < archiveSize ? archive : population).add(test);
+            }
+        }
+
+        return new SearchCheckpoint(archive, population, iteration, searchTime, coveredTargets, values);
+    }
+
+    /**
+     * Sets the stopping conditions of a resumed search to the budget used before the checkpoint
+     *
+     * @param conditions
+     */
+    public void restoreStoppingConditions(Collection<? extends StoppingCondition<?>> conditions) {
+        for (StoppingCondition<?> condition : conditions) {
+            Long value = stoppingConditions.get(condition.getClass().getName());
+            if (value == null) {
+                continue;
+            }
+            if (condition instanceof MaxTimeStoppingCondition) {
+                // its current value is the start time
+                condition.forceCurrentValue(System.currentTimeMillis() - value * 1000);
+            } else {
+                condition.forceCurrentValue(value);
+            }
+        }
+    }
+
+    public List<TestChromosome> getArchive() {
+        return Collections.unmodifiableList(archive);
+    }
+
+    public List<TestChromosome> getPopulation() {
+        return Collections.unmodifiableList(population);
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * @return time in milliseconds the search had been running
+     */
+    public long getSearchTime() {
+        return searchTime;
+    }
+
+    public int getNumberOfCoveredTargets() {
+        return coveredTargets;
+    }
+}
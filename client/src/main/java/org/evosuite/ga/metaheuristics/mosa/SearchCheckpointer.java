@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.testcase.TestChromosome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Periodically saves a {@link SearchCheckpoint} of a search, and loads it again to resume the
+ * search in a new client.
+ *
+ * <p>
+ * Taking a checkpoint only copies the tests on the search thread, they are written on a
+ * background thread. If a checkpoint is still being written when the next one is due, the next
+ * one is postponed.
+ */
+public class SearchCheckpointer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchCheckpointer.class);
+
+    private final File testsFile;
+
+    private final File stateFile;
+
+    /**
+     * Minimum time in milliseconds between two checkpoints
+     */
+    private final long interval;
+
+    private ExecutorService writer;
+
+    private Future<?> pendingWrite;
+
+    private long searchStartTime;
+
+    private long lastCheckpointTime;
+
+    /**
+     * Search time in milliseconds of the previous clients, if the search was resumed
+     */
+    private long resumedSearchTime = 0;
+
+    /**
+     * @param directory where to keep the checkpoint
+     * @param name      name of the checkpoint, e.g., the class under test
+     * @param interval  minimum time in milliseconds between two checkpoints
+     */
+    public SearchCheckpointer(File directory, String name, long interval) {
+        this.testsFile = new File(directory, name + ".tests");
+        this.stateFile = new File(directory, name + ".checkpoint");
+        this.interval = interval;
+    }
+
+    /**
+     * @return a checkpointer for the current class under test, or {@code null} if checkpoints
+     * are disabled
+     */
+    public static SearchCheckpointer forTargetClass() {
+        if (Properties.CHECKPOINT_DIR == null || Properties.CHECKPOINT_DIR.isEmpty()) {
+            return null;
+        }
+        return new SearchCheckpointer(new File(Properties.CHECKPOINT_DIR), Properties.TARGET_CLASS,
+                Properties.CHECKPOINT_INTERVAL * 1000);
+    }
+
+    public void searchStarted() {
+        searchStartTime = System.currentTimeMillis();
+        lastCheckpointTime = searchStartTime;
+        resumedSearchTime = 0;
+    }
+
+    /**
+     * Takes a checkpoint if the last one is older than the interval and has been written
+     *
+     * @param population
+     * @param iteration
+     * @param conditions
+     */
+    public void iteration(Collection<TestChromosome> population, int iteration,
+                          Collection<? extends StoppingCondition<?>> conditions) {
+        long now = System.currentTimeMillis();
+        if (now - lastCheckpointTime < interval || (pendingWrite != null && !pendingWrite.isDone())) {
+            return;
+        }
+        lastCheckpointTime = now;
+
+        SearchCheckpoint checkpoint = SearchCheckpoint.take(population, iteration, getSearchTime(now), conditions);
+        pendingWrite = getWriter().submit(() -> write(checkpoint));
+    }
+
+    /**
+     * Takes a last checkpoint and waits until it is written, so that a client failing after the
+     * search can resume right at its end
+     *
+     * @param population
+     * @param iteration
+     * @param conditions
+     */
+    public void searchFinished(Collection<TestChromosome> population, int iteration,
+                               Collection<? extends StoppingCondition<?>> conditions) {
+        SearchCheckpoint checkpoint = SearchCheckpoint.take(population, iteration,
+                getSearchTime(System.currentTimeMillis()), conditions);
+        pendingWrite = getWriter().submit(() -> write(checkpoint));
+        try {
+            pendingWrite.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            logger.warn("Failed to write checkpoint: " + e.getCause());
+        }
+        writer.shutdown();
+        writer = null;
+        pendingWrite = null;
+    }
+
+    /**
+     * @return the last checkpoint, or {@code null} if there is none or it cannot be read
+     */
+    public SearchCheckpoint load() {
+        if (!stateFile.exists() || !testsFile.exists()) {
+            logger.info("No checkpoint to resume from in " + stateFile.getParentFile());
+            return null;
+        }
+        try {
+            return SearchCheckpoint.read(testsFile, stateFile);
+        } catch (IOException e) {
+            logger.warn("Cannot resume from checkpoint " + stateFile.getAbsolutePath() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Informs the checkpointer that the search was resumed from a checkpoint, so that the search
+     * time of later checkpoints includes the time before it
+     *
+     * @param checkpoint
+     */
+    public void resumedFrom(SearchCheckpoint checkpoint) {
+        resumedSearchTime = checkpoint.getSearchTime();
+    }
+
+    private long getSearchTime(long now) {
+        return resumedSearchTime + now - searchStartTime;
+    }
+
+    private void write(SearchCheckpoint checkpoint) {
+        File directory = stateFile.getParentFile();
+        if (directory != null && !directory.exists()) {
+            directory.mkdirs();
+        }
+        try {
+            checkpoint.write(testsFile, stateFile);
+            logger.debug("Wrote checkpoint at iteration " + checkpoint.getIteration());
+        } catch (IOException e) {
+            logger.warn("Failed to write checkpoint " + stateFile.getAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    private ExecutorService getWriter() {
+        if (writer == null) {
+            writer = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "Search checkpoint writer");
+                t.setDaemon(true);
+                // checkpoints are written while tests of the SUT are executed
+                Sandbox.addPrivilegedThread(t);
+                return t;
+            });
+        }
+        return writer;
+    }
+}
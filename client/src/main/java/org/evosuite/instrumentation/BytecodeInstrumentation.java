@@ -24,6 +24,7 @@ import org.evosuite.Properties;
 import org.evosuite.assertion.CheapPurityAnalyzer;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.graphs.cfg.CFGClassAdapter;
+import org.evosuite.instrumentation.InstrumentedClassCache.Registration;
 import org.evosuite.instrumentation.error.ErrorConditionClassAdapter;
 import org.evosuite.instrumentation.testability.BooleanTestabilityTransformation;
 import org.evosuite.instrumentation.testability.ComparisonTransformation;
@@ -134,6 +135,22 @@ public class BytecodeInstrumentation {
         return TestCluster.isTargetClassName(className);
     }
 
+    /**
+     * Whether the instrumentation of a class only depends on its bytecode and on the
+     * configuration, so that it can be reused by other runs: this is not the case if the class
+     * gets coverage instrumentation, as that fills the branch, line and CFG pools of this run.
+     *
+     * @param className name of the class, with dots
+     * @return true if the instrumented bytecode can be taken from the {@link InstrumentedClassCache}
+     */
+    public boolean isCacheable(String className) {
+        return !DependencyAnalysis.shouldAnalyze(className)
+                && !(Properties.TT && className.startsWith(Properties.CLASS_PREFIX))
+                && !isTargetClassName(className)
+                && !shouldTransform(className)
+                && !Properties.TEST_CARVING;
+    }
+
     /**
      * <p>
      * transformBytes
@@ -183,6 +200,7 @@ public class BytecodeInstrumentation {
 
         if (Properties.MAX_LOOP_ITERATIONS >= 0) {
             cv = new LoopCounterClassAdapter(cv);
+            InstrumentedClassCache.record(Registration.LOOP_CHECKS);
         }
 
         // Apply transformations to class under test and its owned classes
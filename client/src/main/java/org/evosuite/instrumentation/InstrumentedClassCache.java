@@ -0,0 +1,534 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import org.evosuite.Properties;
+import org.evosuite.assertion.CheapPurityAnalyzer;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.junit.writer.TestSuiteWriterUtils;
+import org.evosuite.runtime.LoopCounter;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of instrumented bytecode, shared by all the runs that use the same
+ * {@link Properties#INSTRUMENTATION_CACHE_DIR}.
+ * <p>
+ * Entries are keyed by the name and original bytecode of the class, and by the properties that
+ * affect its instrumentation. Only classes whose instrumentation does not build coverage
+ * metadata (CFGs, branches, lines) are cached: that metadata is numbered by global counters in
+ * loading order, and cannot be reused by another run. The other side effects of instrumenting a
+ * class (constants collected for seeding, facts for the purity analysis) are recorded with the
+ * bytecode, and replayed when the bytecode is taken from the cache. The loop checks added by the
+ * {@link org.evosuite.runtime.instrumentation.LoopCounterClassAdapter} are numbered in loading order
+ * too, so they get fresh indices from the {@link LoopCounter} when their class is taken from the cache.
+ */
+public class InstrumentedClassCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedClassCache.class);
+
+    private static final int MAGIC = 0x45564943;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String LOOP_COUNTER = Type.getInternalName(LoopCounter.class);
+
+    private static InstrumentedClassCache instance = null;
+
+    /**
+     * Registrations recorded while instrumenting a class on the current thread
+     */
+    private static final ThreadLocal<Journal> currentJournal = new ThreadLocal<>();
+
+    /**
+     * Registrations done by the instrumentation into global registries
+     */
+    public enum Registration {
+        SUT_CONSTANT,
+        NON_SUT_CONSTANT,
+        PURITY_METHOD,
+        PURITY_INTERFACE_METHOD,
+        PURITY_METHOD_WITH_BODY,
+        PURITY_UPDATES_FIELD_METHOD,
+        PURITY_STATIC_CALL,
+        PURITY_VIRTUAL_CALL,
+        PURITY_INTERFACE_CALL,
+        PURITY_SPECIAL_CALL,
+        FINAL_CLASS,
+        /**
+         * The class got loop checks, whose {@link LoopCounter} indices are not valid in another run
+         */
+        LOOP_CHECKS
+    }
+
+    private static class Journal {
+
+        private final List<Registration> registrations = new ArrayList<>();
+
+        private final List<Object[]> arguments = new ArrayList<>();
+
+        /**
+         * Set if a registration cannot be stored, in which case the class is not cached
+         */
+        private boolean unsupported = false;
+    }
+
+    private final File directory;
+
+    private final String configuration;
+
+    InstrumentedClassCache(File directory, String configuration) {
+        this.directory = directory;
+        this.configuration = configuration;
+    }
+
+    /**
+     * @return the cache, or {@code null} if {@link Properties#INSTRUMENTATION_CACHE_DIR} is not set
+     */
+    public static synchronized InstrumentedClassCache getInstance() {
+        String dir = Properties.INSTRUMENTATION_CACHE_DIR;
+        if (dir == null || dir.isEmpty()) {
+            return null;
+        }
+        if (instance == null || !instance.directory.equals(new File(dir))) {
+            instance = new InstrumentedClassCache(new File(dir), getConfiguration());
+        }
+        return instance;
+    }
+
+    /**
+     * Called by the global registries filled during instrumentation, so that their registrations
+     * can be replayed when the class is taken from the cache
+     *
+     * @param registration the kind of registration
+     * @param arguments    the arguments of the registration
+     */
+    public static void record(Registration registration, Object... arguments) {
+        Journal journal = currentJournal.get();
+        if (journal == null) {
+            return;
+        }
+        for (Object argument : arguments) {
+            if (!isSupported(argument)) {
+                journal.unsupported = true;
+                return;
+            }
+        }
+        journal.registrations.add(registration);
+        journal.arguments.add(arguments);
+    }
+
+    /**
+     * Get the instrumented bytecode of a class from the cache, or instrument it and store the result
+     *
+     * @param className       name of the class, with slashes
+     * @param originalBytes   bytecode before instrumentation
+     * @param instrumentation instruments the original bytecode
+     * @return the instrumented bytecode
+     */
+    public byte[] getTransformedBytes(String className, byte[] originalBytes, Supplier<byte[]> instrumentation) {
+        File file = new File(directory, getKey(className, originalBytes) + ".class.cache");
+        if (file.exists()) {
+            try {
+                byte[] cached = load(file);
+                logger.debug("Loaded instrumented class {} from cache", className);
+                return cached;
+            } catch (IOException e) {
+                logger.info("Cannot read cached instrumentation of {}: {}", className, e.getMessage());
+            }
+        }
+
+        Journal previous = currentJournal.get();
+        Journal journal = new Journal();
+        currentJournal.set(journal);
+        byte[] transformed;
+        try {
+            transformed = instrumentation.get();
+        } finally {
+            currentJournal.set(previous);
+        }
+
+        if (!journal.unsupported) {
+            try {
+                store(file, transformed, journal);
+            } catch (IOException e) {
+                logger.info("Cannot cache instrumentation of {}: {}", className, e.getMessage());
+            }
+        }
+        return transformed;
+    }
+
+    private String getKey(String className, byte[] originalBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(configuration.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(className.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update(originalBytes);
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The properties the instrumentation of a class depends on, other than whether it gets
+     * coverage instrumentation, and the EvoSuite build doing it. Computing the stack map frames
+     * of a class reads the hierarchy of other classes, so the JDK and the state of the target
+     * classpath are part of the configuration as well.
+     */
+    private static String getConfiguration() {
+        StringBuilder configuration = new StringBuilder();
+        URL location = InstrumentedClassCache.class.getProtectionDomain().getCodeSource() == null ? null
+                : InstrumentedClassCache.class.getProtectionDomain().getCodeSource().getLocation();
+        if (location != null && "file".equals(location.getProtocol())) {
+            File build = new File(location.getPath());
+            configuration.append(build.getAbsolutePath()).append(';')
+                    .append(build.lastModified()).append(';').append(build.length());
+        }
+        configuration.append(";version=").append(InstrumentedClassCache.class.getPackage().getImplementationVersion());
+        configuration.append(";java=").append(System.getProperty("java.version"));
+        configuration.append(";classpath=").append(
+                getClasspathFingerprint(ClassPathHandler.getInstance().getClassPathElementsForTargetProject()));
+        configuration.append(";reset_static_fields=").append(Properties.RESET_STATIC_FIELDS);
+        configuration.append(";reset_static_final_fields=").append(Properties.RESET_STATIC_FINAL_FIELDS);
+        configuration.append(";pure_inspectors=").append(Properties.PURE_INSPECTORS);
+        configuration.append(";loop_counter=").append(Properties.MAX_LOOP_ITERATIONS >= 0);
+        configuration.append(";make_accessible=").append(Properties.MAKE_ACCESSIBLE);
+        configuration.append(";tt=").append(Properties.TT);
+        configuration.append(";class_prefix=").append(Properties.CLASS_PREFIX);
+        configuration.append(";project_prefix=").append(Properties.PROJECT_PREFIX);
+        configuration.append(";target_class_prefix=").append(Properties.TARGET_CLASS_PREFIX);
+        configuration.append(";string_replacement=").append(Properties.STRING_REPLACEMENT);
+        configuration.append(";skip_debug=").append(Properties.INSTRUMENTATION_SKIP_DEBUG);
+        configuration.append(";agent=").append(TestSuiteWriterUtils.needToUseAgent());
+        configuration.append(";uid=").append(RuntimeSettings.applyUIDTransformation);
+        configuration.append(";jvm=").append(RuntimeSettings.mockJVMNonDeterminism);
+        configuration.append(";system_in=").append(RuntimeSettings.mockSystemIn);
+        configuration.append(";gui=").append(RuntimeSettings.mockGUI);
+        configuration.append(";vfs=").append(RuntimeSettings.useVFS);
+        configuration.append(";vnet=").append(RuntimeSettings.useVNET);
+        configuration.append(";jee=").append(RuntimeSettings.useJEE);
+        configuration.append(";reset_static_state=").append(RuntimeSettings.resetStaticState);
+        return configuration.toString();
+    }
+
+    /**
+     * Hash of the path, size and modification time of every jar and class file on the given
+     * classpath, so that a change to any class the frame computation may read gives new keys
+     *
+     * @param elements classpath elements
+     * @return hex-encoded SHA-256 hash
+     */
+    static String getClasspathFingerprint(String[] elements) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String element : elements) {
+                if (element.isEmpty()) {
+                    continue;
+                }
+                Path root = Paths.get(element).toAbsolutePath();
+                List<Path> files = new ArrayList<>();
+                if (Files.isDirectory(root)) {
+                    try (Stream<Path> walk = Files.walk(root)) {
+                        walk.filter(Files::isRegularFile).sorted().forEach(files::add);
+                    }
+                } else {
+                    files.add(root);
+                }
+                for (Path file : files) {
+                    File f = file.toFile();
+                    String entry = file + ";" + f.length() + ";" + f.lastModified() + "\n";
+                    digest.update(entry.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            return toHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            logger.info("Cannot fingerprint classpath: {}", e.getMessage());
+            // an unreadable classpath never matches a previous run
+            return "unreadable-" + System.nanoTime();
+        }
+    }
+
+    private static String toHex(byte[] hash) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    private static boolean isSupported(Object argument) {
+        return argument instanceof String || argument instanceof Integer || argument instanceof Long
+                || argument instanceof Float || argument instanceof Double || argument instanceof Type;
+    }
+
+    private static void store(File file, byte[] transformed, Journal journal) throws IOException {
+        if (!parentOf(file).exists() && !parentOf(file).mkdirs() && !parentOf(file).exists()) {
+            throw new IOException("Cannot create directory " + parentOf(file));
+        }
+        // written aside and renamed, as several runs may share the cache
+        File tmp = File.createTempFile(file.getName(), ".tmp", parentOf(file));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(transformed.length);
+            out.write(transformed);
+            out.writeInt(journal.registrations.size());
+            for (int i = 0; i < journal.registrations.size(); i++) {
+                out.writeByte(journal.registrations.get(i).ordinal());
+                Object[] arguments = journal.arguments.get(i);
+                out.writeByte(arguments.length);
+                for (Object argument : arguments) {
+                    writeValue(out, argument);
+                }
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    private static File parentOf(File file) {
+        return file.getAbsoluteFile().getParentFile();
+    }
+
+    /**
+     * Reads an entry entirely before replaying its registrations, so that a corrupted entry has no effect
+     */
+    private static byte[] load(File file) throws IOException {
+        byte[] transformed;
+        List<Registration> registrations = new ArrayList<>();
+        List<Object[]> arguments = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown format of " + file);
+            }
+            transformed = new byte[in.readInt()];
+            in.readFully(transformed);
+            int count = in.readInt();
+            Registration[] kinds = Registration.values();
+            for (int i = 0; i < count; i++) {
+                int kind = in.readUnsignedByte();
+                if (kind >= kinds.length) {
+                    throw new IOException("Unknown registration in " + file);
+                }
+                registrations.add(kinds[kind]);
+                Object[] values = new Object[in.readUnsignedByte()];
+                for (int j = 0; j < values.length; j++) {
+                    values[j] = readValue(in);
+                }
+                arguments.add(values);
+            }
+        }
+
+        if (registrations.contains(Registration.LOOP_CHECKS)) {
+            transformed = renumberLoopChecks(transformed);
+        }
+
+        // registrations replayed while instrumenting another class belong to this one only
+        Journal journal = currentJournal.get();
+        currentJournal.remove();
+        try {
+            for (int i = 0; i < registrations.size(); i++) {
+                replay(registrations.get(i), arguments.get(i));
+            }
+        } finally {
+            currentJournal.set(journal);
+        }
+        return transformed;
+    }
+
+    private static void replay(Registration registration, Object[] a) {
+        CheapPurityAnalyzer purity = CheapPurityAnalyzer.getInstance();
+        switch (registration) {
+            case SUT_CONSTANT:
+                ConstantPoolManager.getInstance().addSUTConstant(a[0]);
+                break;
+            case NON_SUT_CONSTANT:
+                ConstantPoolManager.getInstance().addNonSUTConstant(a[0]);
+                break;
+            case PURITY_METHOD:
+                purity.addMethod((String) a[0], (String) a[1], (String) a[2]);
+                break;
+            case PURITY_INTERFACE_METHOD:
+                purity.addInterfaceMethod((String) a[0], (String) a[1], (String) a[2]);
+                break;
+            case PURITY_METHOD_WITH_BODY:
+                purity.addMethodWithBody((String) a[0], (String) a[1], (String) a[2]);
+                break;
+            case PURITY_UPDATES_FIELD_METHOD:
+                purity.addUpdatesFieldMethod((String) a[0], (String) a[1], (String) a[2]);
+                break;
+            case PURITY_STATIC_CALL:
+                purity.addStaticCall((String) a[0], (String) a[1], (String) a[2], (String) a[3], (String) a[4], (String) a[5]);
+                break;
+            case PURITY_VIRTUAL_CALL:
+                purity.addVirtualCall((String) a[0], (String) a[1], (String) a[2], (String) a[3], (String) a[4], (String) a[5]);
+                break;
+            case PURITY_INTERFACE_CALL:
+                purity.addInterfaceCall((String) a[0], (String) a[1], (String) a[2], (String) a[3], (String) a[4], (String) a[5]);
+                break;
+            case PURITY_SPECIAL_CALL:
+                purity.addSpecialCall((String) a[0], (String) a[1], (String) a[2], (String) a[3], (String) a[4], (String) a[5]);
+                break;
+            case FINAL_CLASS:
+                RemoveFinalClassAdapter.finalClasses.add((String) a[0]);
+                break;
+            case LOOP_CHECKS:
+                // already done by renumberLoopChecks when loading the bytecode
+                break;
+            default:
+                throw new IllegalStateException("Unknown registration " + registration);
+        }
+    }
+
+    /**
+     * Gives every loop check of a cached class a new index, in the order the
+     * {@link org.evosuite.runtime.instrumentation.LoopCounterMethodAdapter} added them
+     *
+     * @param transformed cached bytecode, with the loop indices of the run that instrumented it
+     * @return the bytecode with indices allocated by this run
+     */
+    static byte[] renumberLoopChecks(byte[] transformed) throws IOException {
+        try {
+            ClassReader reader = new ClassReader(transformed);
+            ClassNode classNode = new ClassNode();
+            reader.accept(classNode, 0);
+            for (MethodNode method : classNode.methods) {
+                for (AbstractInsnNode insn : method.instructions) {
+                    if (isLoopCheckIndex(insn)) {
+                        ((LdcInsnNode) insn).cst = LoopCounter.getInstance().getNewIndex();
+                    }
+                }
+            }
+            ClassWriter writer = new ClassWriter(reader, 0);
+            classNode.accept(writer);
+            return writer.toByteArray();
+        } catch (RuntimeException e) {
+            throw new IOException("Cannot renumber loop checks: " + e, e);
+        }
+    }
+
+    /**
+     * @return true for the index pushed between LoopCounter.getInstance() and checkLoop(int)
+     */
+    private static boolean isLoopCheckIndex(AbstractInsnNode insn) {
+        if (!(insn instanceof LdcInsnNode) || !(((LdcInsnNode) insn).cst instanceof Integer)) {
+            return false;
+        }
+        return isLoopCounterCall(insn.getPrevious(), Opcodes.INVOKESTATIC, "getInstance")
+                && isLoopCounterCall(insn.getNext(), Opcodes.INVOKEVIRTUAL, "checkLoop");
+    }
+
+    private static boolean isLoopCounterCall(AbstractInsnNode insn, int opcode, String name) {
+        return insn instanceof MethodInsnNode && insn.getOpcode() == opcode
+                && LOOP_COUNTER.equals(((MethodInsnNode) insn).owner) && name.equals(((MethodInsnNode) insn).name);
+    }
+
+    private static void writeValue(DataOutputStream out, Object value) throws IOException {
+        if (value instanceof String) {
+            out.writeByte('S');
+            writeString(out, (String) value);
+        } else if (value instanceof Integer) {
+            out.writeByte('I');
+            out.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            out.writeByte('J');
+            out.writeLong((Long) value);
+        } else if (value instanceof Float) {
+            out.writeByte('F');
+            out.writeFloat((Float) value);
+        } else if (value instanceof Double) {
+            out.writeByte('D');
+            out.writeDouble((Double) value);
+        } else {
+            out.writeByte('T');
+            writeString(out, ((Type) value).getDescriptor());
+        }
+    }
+
+    private static Object readValue(DataInputStream in) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'S':
+                return readString(in);
+            case 'I':
+                return in.readInt();
+            case 'J':
+                return in.readLong();
+            case 'F':
+                return in.readFloat();
+            case 'D':
+                return in.readDouble();
+            case 'T':
+                return Type.getType(readString(in));
+            default:
+                throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -27,6 +27,8 @@ import org.objectweb.asm.ClassReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -83,18 +85,30 @@ public class InstrumentingClassLoader extends ClassLoader {
 
     public Class<?> loadClassFromFile(String fullyQualifiedTargetClass, String fileName) throws ClassNotFoundException {
 
-        String className = fullyQualifiedTargetClass.replace('.', '/');
-
         try (InputStream is = new FileInputStream(new File(fileName))) {
+            Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+            logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from " + fileName);
+            return result;
+        } catch (Throwable t) {
+            logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
+            throw new ClassNotFoundException(t.getMessage(), t);
+        }
+    }
 
-            byte[] byteBuffer = getTransformedBytes(className, is);
-
-            createPackageDefinition(fullyQualifiedTargetClass);
-            Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
-
-            classes.put(fullyQualifiedTargetClass, result);
+    /**
+     * Load a class from bytecode that is held in memory, e.g. the output of a compilation
+     * that did not write any file
+     *
+     * @param fullyQualifiedTargetClass name of the class
+     * @param bytecode                  content of the class file
+     * @return the loaded class
+     * @throws ClassNotFoundException if the class cannot be defined
+     */
+    public Class<?> loadClassFromBytes(String fullyQualifiedTargetClass, byte[] bytecode) throws ClassNotFoundException {
 
-            logger.info("Loaded class " + fullyQualifiedTargetClass + " directly from " + fileName);
+        try (InputStream is = new ByteArrayInputStream(bytecode)) {
+            Class<?> result = defineClassFromStream(fullyQualifiedTargetClass, is);
+            logger.info("Loaded class " + fullyQualifiedTargetClass + " from memory");
             return result;
         } catch (Throwable t) {
             logger.info("Error while loading class " + fullyQualifiedTargetClass + " : " + t);
@@ -102,6 +116,18 @@ public class InstrumentingClassLoader extends ClassLoader {
         }
     }
 
+    private Class<?> defineClassFromStream(String fullyQualifiedTargetClass, InputStream is) throws IOException {
+        String className = fullyQualifiedTargetClass.replace('.', '/');
+
+        byte[] byteBuffer = getTransformedBytes(className, is);
+
+        createPackageDefinition(fullyQualifiedTargetClass);
+        Class<?> result = defineClass(fullyQualifiedTargetClass, byteBuffer, 0, byteBuffer.length);
+
+        classes.put(fullyQualifiedTargetClass, result);
+        return result;
+    }
+
     @Override
     public Class<?> loadClass(String name) throws ClassNotFoundException {
         synchronized (getClassLoadingLock(name)) {
@@ -132,7 +158,19 @@ public class InstrumentingClassLoader extends ClassLoader {
 
     //This is needed, as it is overridden in subclasses
     protected byte[] getTransformedBytes(String className, InputStream is) throws IOException {
-        return instrumentation.transformBytes(this, className, new ClassReader(is));
+        InstrumentedClassCache cache = InstrumentedClassCache.getInstance();
+        if (cache == null || !instrumentation.isCacheable(className.replace('/', '.'))) {
+            return instrumentation.transformBytes(this, className, new ClassReader(is));
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = is.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        byte[] originalBytes = buffer.toByteArray();
+        return cache.getTransformedBytes(className, originalBytes,
+                () -> instrumentation.transformBytes(this, className, new ClassReader(originalBytes)));
     }
 
     private Class<?> instrumentClass(String fullyQualifiedTargetClass) throws ClassNotFoundException {
@@ -20,6 +20,7 @@
 
 package org.evosuite.instrumentation;
 
+import org.evosuite.instrumentation.InstrumentedClassCache.Registration;
 import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
 import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.MethodVisitor;
@@ -50,6 +51,7 @@ public class NonTargetClassAdapter extends ClassVisitor {
     public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
         if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
             RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+            InstrumentedClassCache.record(Registration.FINAL_CLASS, name.replace('/', '.'));
         }
 
         // We are removing final access to allow mocking
@@ -74,6 +76,7 @@ public class NonTargetClassAdapter extends ClassVisitor {
     public void visitInnerClass(String name, String outerName, String innerName, int access) {
         if ((access & Opcodes.ACC_FINAL) == Opcodes.ACC_FINAL) {
             RemoveFinalClassAdapter.finalClasses.add(name.replace('/', '.'));
+            InstrumentedClassCache.record(Registration.FINAL_CLASS, name.replace('/', '.'));
         }
         // We are removing final access to allow mocking
         super.visitInnerClass(name, outerName, innerName, access & ~Opcodes.ACC_FINAL);
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.junit;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compiles Java sources held in memory with a single compilation task, and keeps the
+ * generated bytecode in memory as well. Nothing is written to disk.
+ */
+public class InMemoryJavaCompiler {
+
+    /**
+     * Outcome of a compilation
+     */
+    public static class Result {
+
+        private final boolean successful;
+
+        private final Map<String, byte[]> classes;
+
+        private final Map<String, List<Diagnostic<? extends JavaFileObject>>> errors;
+
+        private final List<Diagnostic<? extends JavaFileObject>> unattributedErrors;
+
+        private Result(boolean successful, Map<String, byte[]> classes,
+                       Map<String, List<Diagnostic<? extends JavaFileObject>>> errors,
+                       List<Diagnostic<? extends JavaFileObject>> unattributedErrors) {
+            this.successful = successful;
+            this.classes = classes;
+            this.errors = errors;
+            this.unattributedErrors = unattributedErrors;
+        }
+
+        public boolean isSuccessful() {
+            return successful;
+        }
+
+        /**
+         * @return bytecode of all generated classes (including inner and anonymous ones),
+         * by fully qualified name
+         */
+        public Map<String, byte[]> getClasses() {
+            return classes;
+        }
+
+        /**
+         * @return compilation errors, by fully qualified name of the source unit they refer to
+         */
+        public Map<String, List<Diagnostic<? extends JavaFileObject>>> getErrors() {
+            return errors;
+        }
+
+        /**
+         * @return compilation errors that do not refer to any source unit
+         */
+        public List<Diagnostic<? extends JavaFileObject>> getUnattributedErrors() {
+            return unattributedErrors;
+        }
+    }
+
+    private static class SourceFile extends SimpleJavaFileObject {
+
+        private final String className;
+
+        private final String content;
+
+        private SourceFile(String className, String content) {
+            super(URI.create("string:///" + className.replace('.', '/') + Kind.SOURCE.extension), Kind.SOURCE);
+            this.className = className;
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private ClassFile(String className) {
+            super(URI.create("bytes:///" + className.replace('.', '/') + Kind.CLASS.extension), Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            return bytes;
+        }
+    }
+
+    private static class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+        private final Map<String, ClassFile> output = new LinkedHashMap<>();
+
+        private MemoryFileManager(StandardJavaFileManager fileManager) {
+            super(fileManager);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className,
+                                                   JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+            ClassFile file = new ClassFile(className);
+            output.put(className, file);
+            return file;
+        }
+    }
+
+    private final String classpath;
+
+    /**
+     * @param classpath classpath against which the sources are compiled
+     */
+    public InMemoryJavaCompiler(String classpath) {
+        this.classpath = classpath;
+    }
+
+    /**
+     * Compile the given sources in one task
+     *
+     * @param sources source code, by fully qualified class name
+     * @return the result of the compilation, or {@code null} if no Java compiler is available
+     */
+    public Result compile(Map<String, String> sources) {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            return null;
+        }
+
+        List<SourceFile> units = new ArrayList<>(sources.size());
+        for (Map.Entry<String, String> entry : sources.entrySet()) {
+            units.add(new SourceFile(entry.getKey(), entry.getValue()));
+        }
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        StandardJavaFileManager standardManager = compiler.getStandardFileManager(diagnostics,
+                Locale.getDefault(), StandardCharsets.UTF_8);
+        MemoryFileManager fileManager = new MemoryFileManager(standardManager);
+
+        List<String> options = new ArrayList<>(Arrays.asList("-classpath", classpath));
+        boolean compiled;
+        try {
+            compiled = compiler.getTask(null, fileManager, diagnostics, options, null, units).call();
+        } finally {
+            try {
+                fileManager.close();
+            } catch (IOException e) {
+                // nothing was written to disk, so there is nothing to recover
+            }
+        }
+
+        Map<String, List<Diagnostic<? extends JavaFileObject>>> errors = new LinkedHashMap<>();
+        List<Diagnostic<? extends JavaFileObject>> unattributed = new ArrayList<>();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() != Diagnostic.Kind.ERROR) {
+                continue;
+            }
+            if (diagnostic.getSource() instanceof SourceFile) {
+                String className = ((SourceFile) diagnostic.getSource()).className;
+                errors.computeIfAbsent(className, k -> new ArrayList<>()).add(diagnostic);
+            } else {
+                unattributed.add(diagnostic);
+            }
+        }
+
+        Map<String, byte[]> classes = new LinkedHashMap<>();
+        if (compiled) {
+            for (Map.Entry<String, ClassFile> entry : fileManager.output.entrySet()) {
+                classes.put(entry.getKey(), entry.getValue().bytes.toByteArray());
+            }
+        }
+
+        return new Result(compiled, Collections.unmodifiableMap(classes),
+                Collections.unmodifiableMap(errors), Collections.unmodifiableList(unattributed));
+    }
+
+    /**
+     * @param diagnostic a compilation error
+     * @return a one-line description of the error
+     */
+    public static String describe(Diagnostic<?> diagnostic) {
+        return diagnostic.getMessage(null) + ": " + diagnostic.getLineNumber();
+    }
+}
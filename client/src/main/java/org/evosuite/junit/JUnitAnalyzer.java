@@ -43,11 +43,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.tools.*;
-import javax.tools.JavaCompiler.CompilationTask;
 import java.io.File;
-import java.io.IOException;
-import java.nio.charset.Charset;
-import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -66,9 +62,6 @@ public abstract class JUnitAnalyzer {
 
     private static int dirCounter = 0;
 
-    private static final String JAVA = ".java";
-    private static final String CLASS = ".class";
-
     private static NonInstrumentingClassLoader loader = new NonInstrumentingClassLoader();
 
     private static final VersionDependentAnalyzing versionDependentAnalyzer;
@@ -80,7 +73,12 @@ public abstract class JUnitAnalyzer {
 
     /**
      * Try to compile each test separately, and remove the ones that cannot be
-     * compiled
+     * compiled.
+     *
+     * <p>
+     * Each test is written to its own test class, but all classes are compiled
+     * in memory with a single compilation task. Compilation errors are mapped
+     * back to the tests through the classes they are reported for.
      *
      * @param tests
      */
@@ -92,44 +90,74 @@ public abstract class JUnitAnalyzer {
             return;
         }
 
-        Iterator<TestCase> iter = tests.iterator();
-
-        while (iter.hasNext()) {
+        List<TestCase> candidates = new ArrayList<>();
+        List<Map<String, String>> candidateSources = new ArrayList<>();
+        for (TestCase test : tests) {
             if (!TimeController.getInstance().hasTimeToExecuteATestCase()) {
                 break;
             }
+            candidates.add(test);
+            candidateSources.add(generateSources(Collections.singletonList(test)));
+        }
 
-            TestCase test = iter.next();
+        while (!candidates.isEmpty()) {
+            Map<String, String> sources = new LinkedHashMap<>();
+            for (Map<String, String> testSources : candidateSources) {
+                sources.putAll(testSources);
+            }
 
-            File dir = createNewTmpDir();
-            if (dir == null) {
-                logger.warn("Failed to create tmp dir");
+            InMemoryJavaCompiler.Result result = new InMemoryJavaCompiler(getCompilationClasspath()).compile(sources);
+            if (result == null) {
+                logger.error("No Java compiler is available");
+                return;
+            }
+            if (result.isSuccessful()) {
                 return;
             }
-            logger.debug("Created tmp folder: " + dir.getAbsolutePath());
 
-            try {
-                List<TestCase> singleList = new ArrayList<>();
-                singleList.add(test);
-                List<File> generated = compileTests(singleList, dir);
-                if (generated == null) {
-                    iter.remove();
-                    String code = test.toCode();
-                    logger.error("Failed to compile test case:\n" + code);
+            boolean anyRemoved = false;
+            for (int i = candidates.size() - 1; i >= 0; i--) {
+                if (Collections.disjoint(candidateSources.get(i).keySet(), result.getErrors().keySet())) {
+                    continue;
                 }
-            } finally {
-                //let's be sure we clean up all what we wrote on disk
-                if (dir != null) {
-                    try {
-                        FileUtils.deleteDirectory(dir);
-                        logger.debug("Deleted tmp folder: " + dir.getAbsolutePath());
-                    } catch (Exception e) {
-                        logger.error("Cannot delete tmp dir: " + dir.getAbsolutePath(), e);
+                logCompilationFailure(candidateSources.get(i), result);
+                removeTest(tests, candidates.get(i));
+                candidates.remove(i);
+                candidateSources.remove(i);
+                anyRemoved = true;
+            }
+
+            if (!anyRemoved) {
+                /*
+                 * the errors cannot be related to any test, so fall back to
+                 * compile each remaining test on its own
+                 */
+                for (int i = 0; i < candidates.size(); i++) {
+                    Map<String, String> testSources = candidateSources.get(i);
+                    InMemoryJavaCompiler.Result single = new InMemoryJavaCompiler(getCompilationClasspath()).compile(testSources);
+                    if (single != null && !single.isSuccessful()) {
+                        logCompilationFailure(testSources, single);
+                        removeTest(tests, candidates.get(i));
                     }
                 }
+                return;
             }
+            /*
+             * javac may stop before reporting the errors of all classes, so the
+             * remaining tests are compiled again
+             */
+        }
+    }
 
-        } // end of while
+    private static void removeTest(List<TestCase> tests, TestCase test) {
+        Iterator<TestCase> iter = tests.iterator();
+        while (iter.hasNext()) {
+            if (iter.next() == test) {
+                iter.remove();
+                logger.error("Failed to compile test case:\n" + test.toCode());
+                return;
+            }
+        }
     }
 
     /**
@@ -152,16 +180,10 @@ public abstract class JUnitAnalyzer {
             return numUnstable;
         }
 
-        File dir = createNewTmpDir();
-        if (dir == null) {
-            logger.error("Failed to create tmp dir");
-            return numUnstable;
-        }
-        logger.debug("Created tmp folder: " + dir.getAbsolutePath());
-
         try {
-            List<File> generated = compileTests(tests, dir);
-            if (generated == null) {
+            Map<String, String> sources = generateSources(tests);
+            InMemoryJavaCompiler.Result compiled = compileTests(sources);
+            if (compiled == null) {
                 /*
                  * Note: in theory this shouldn't really happen, as check for compilation
                  * is done before calling this method
@@ -177,14 +199,14 @@ public abstract class JUnitAnalyzer {
 
             // Create a new classloader so that each test gets freshly loaded classes
             loader = new NonInstrumentingClassLoader();
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(sources.keySet(), compiled.getClasses());
 
             if (testClasses == null) {
                 logger.error("Found no classes for compiled tests");
                 return numUnstable;
             }
 
-            JUnitResult result = runTests(testClasses, dir);
+            JUnitResult result = runTests(testClasses);
 
             if (result.wasSuccessful()) {
                 return numUnstable; //everything is OK
@@ -264,24 +286,13 @@ public abstract class JUnitAnalyzer {
         } catch (Exception e) {
             logger.error("" + e, e);
             return numUnstable;
-        } finally {
-            //let's be sure we clean up all what we wrote on disk
-
-            if (dir != null) {
-                try {
-                    FileUtils.deleteDirectory(dir);
-                } catch (Exception e) {
-                    logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-                }
-            }
-
         }
 
         //if we arrive here, then it means at least one test was unstable
         return numUnstable;
     }
 
-    private static JUnitResult runTests(Class<?>[] testClasses, File testClassDir)
+    private static JUnitResult runTests(Class<?>[] testClasses)
             throws JUnitExecutionException {
         return runJUnitOnCurrentProcess(testClasses);
     }
@@ -305,7 +316,12 @@ public abstract class JUnitAnalyzer {
     // EvoSuite classloader, and thus cannot easily be re-loaded
     private static int NUM = 0;
 
-    private static List<File> compileTests(List<TestCase> tests, File dir) {
+    /**
+     * Write the given tests into a new test suite, without writing anything to disk
+     *
+     * @return the source code of the generated classes, by fully qualified name
+     */
+    private static Map<String, String> generateSources(List<TestCase> tests) {
 
         TestSuiteWriter suite = new TestSuiteWriter();
         suite.insertAllTests(tests);
@@ -315,88 +331,79 @@ public abstract class JUnitAnalyzer {
         String name = Properties.TARGET_CLASS.substring(beginIndex);
         name += "_" + (NUM++) + "_tmp_" + Properties.JUNIT_SUFFIX; //postfix
 
-        try {
-            //now generate the JUnit test case
-            List<File> generated = suite.writeTestSuite(name, dir.getAbsolutePath(), Collections.EMPTY_LIST);
-            for (File file : generated) {
-                if (!file.exists()) {
-                    logger.error("Supposed to generate " + file
-                            + " but it does not exist");
-                    return null;
-                }
-            }
-
-            //try to compile the test cases
-            JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-            if (compiler == null) {
-                logger.error("No Java compiler is available");
-                return null;
-            }
-
-            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
-            Locale locale = Locale.getDefault();
-            Charset charset = StandardCharsets.UTF_8;
-            StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics,
-                    locale,
-                    charset);
-
-            Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(generated);
-
-            String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
-            if (JarPathing.containsAPathingJar(evosuiteCP)) {
-                evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
-            }
-
-            String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
-            if (JarPathing.containsAPathingJar(targetProjectCP)) {
-                targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
-            }
+        String packagePrefix = getPackagePrefix();
+        Map<String, String> sources = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : suite.generateTestSuite(name, Collections.emptyList()).entrySet()) {
+            sources.put(packagePrefix + entry.getKey(), entry.getValue());
+        }
+        return sources;
+    }
 
-            String classpath = targetProjectCP + File.pathSeparator + evosuiteCP;
+    /**
+     * @return the compiled classes, or {@code null} if the sources cannot be compiled
+     */
+    private static InMemoryJavaCompiler.Result compileTests(Map<String, String> sources) {
 
-            List<String> optionList = new ArrayList<>(Arrays.asList("-classpath", classpath));
+        InMemoryJavaCompiler.Result result = new InMemoryJavaCompiler(getCompilationClasspath()).compile(sources);
+        if (result == null) {
+            logger.error("No Java compiler is available");
+            return null;
+        }
 
-            CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
-                    optionList, null, compilationUnits);
-            boolean compiled = task.call();
-            fileManager.close();
+        if (!result.isSuccessful()) {
+            logger.error("Compilation failed on compilation units: " + sources.keySet());
+            logger.error("Classpath: " + getCompilationClasspath());
+            logCompilationFailure(sources, result);
+            return null;
+        }
 
-            if (!compiled) {
-                logger.error("Compilation failed on compilation units: " + compilationUnits);
-                logger.error("Classpath: " + classpath);
-                //TODO remove
-                logger.error("evosuiteCP: " + evosuiteCP);
+        return result;
+    }
 
+    private static String getCompilationClasspath() {
+        String evosuiteCP = ClassPathHandler.getInstance().getEvoSuiteClassPath();
+        if (JarPathing.containsAPathingJar(evosuiteCP)) {
+            evosuiteCP = JarPathing.expandPathingJars(evosuiteCP);
+        }
 
-                for (Diagnostic<?> diagnostic : diagnostics.getDiagnostics()) {
-                    if (diagnostic.getMessage(null).startsWith("error while writing")) {
-                        logger.error("Error is due to file permissions, ignoring...");
-                        return generated;
-                    }
-                    logger.error("Diagnostic: " + diagnostic.getMessage(null) + ": "
-                            + diagnostic.getLineNumber());
-                }
+        String targetProjectCP = ClassPathHandler.getInstance().getTargetProjectClasspath();
+        if (JarPathing.containsAPathingJar(targetProjectCP)) {
+            targetProjectCP = JarPathing.expandPathingJars(targetProjectCP);
+        }
 
-                StringBuffer buffer = new StringBuffer();
-                for (JavaFileObject sourceFile : compilationUnits) {
-                    List<String> lines = FileUtils.readLines(new File(sourceFile.toUri().getPath()));
+        return targetProjectCP + File.pathSeparator + evosuiteCP;
+    }
 
-                    buffer.append(compilationUnits.iterator().next().toString() + "\n");
+    private static void logCompilationFailure(Map<String, String> sources, InMemoryJavaCompiler.Result result) {
+        for (Diagnostic<?> diagnostic : result.getUnattributedErrors()) {
+            logger.error("Diagnostic: " + InMemoryJavaCompiler.describe(diagnostic));
+        }
 
-                    for (int i = 0; i < lines.size(); i++) {
-                        buffer.append((i + 1) + ": " + lines.get(i) + "\n");
-                    }
-                }
-                logger.error(buffer.toString());
-                return null;
+        StringBuilder buffer = new StringBuilder();
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            List<Diagnostic<? extends JavaFileObject>> errors = result.getErrors().get(source.getKey());
+            if (errors == null) {
+                continue;
+            }
+            for (Diagnostic<?> diagnostic : errors) {
+                logger.error("Diagnostic: " + InMemoryJavaCompiler.describe(diagnostic));
             }
 
-            return generated;
+            buffer.append(source.getKey()).append("\n");
+            String[] lines = source.getValue().split("\n");
+            for (int i = 0; i < lines.length; i++) {
+                buffer.append(i + 1).append(": ").append(lines[i]).append("\n");
+            }
+        }
+        logger.error(buffer.toString());
+    }
 
-        } catch (IOException e) {
-            logger.error("" + e, e);
-            return null;
+    private static String getPackagePrefix() {
+        String packagePrefix = Properties.CLASS_PREFIX;
+        if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
+            packagePrefix += ".";
         }
+        return packagePrefix;
     }
 
     protected static File createNewTmpDir() {
@@ -420,7 +427,7 @@ public abstract class JUnitAnalyzer {
         return dir;
     }
 
-    private static Class<?>[] loadTests(List<File> tests) {
+    private static Class<?>[] loadTests(Set<String> sourceClasses, Map<String, byte[]> bytecode) {
 
         /*
          * Ideally, when we run a generated test case, it
@@ -434,67 +441,42 @@ public abstract class JUnitAnalyzer {
          * non-instrumenting classloader to re-load the CUT, and so see
          * if the JavaAgent works properly.
          */
-        Class<?>[] testClasses = getClassesFromFiles(tests);
-        List<File> otherClasses = listOnlyFiles(tests);
+
         /*
-         * this is important to force the loading of all files generated
-         * in the target folder.
-         * If we do not do that, then we will miss all the anonymous classes
+         * first load only the scaffolding classes
          */
-        getClassesFromFiles(otherClasses);
-
-        return testClasses;
-    }
-
-    private static List<File> listOnlyFiles(List<File> tests) throws IllegalArgumentException {
-        if (tests == null || tests.isEmpty()) {
-            return null;
-        }
-
-        Set<String> classNames = new LinkedHashSet<>();
-
-        File parentFolder = tests.get(0).getParentFile();
-        for (File file : tests) {
-            if (!file.getParentFile().equals(parentFolder)) {
-                throw new IllegalArgumentException("Tests file are not in the same folder");
+        for (String className : sourceClasses) {
+            if (isScaffolding(className)) {
+                loadClass(className, bytecode);
             }
-            classNames.add(removeFileExtension(file.getName()));
         }
 
         /*
-         * if we already loaded a CUT due to its .java, do not want
-         * to re-loaded it for a .class file that is in the same folder
+         * once the scaffoldings are loaded, we can load the tests that
+         * depend on them
          */
-
-        List<File> otherClasses = new LinkedList<>();
-
-        for (File file : parentFolder.listFiles()) {
-            String name = removeFileExtension(file.getName());
-
-            if (classNames.contains(name)) {
+        List<Class<?>> testClasses = new ArrayList<>();
+        for (String className : sourceClasses) {
+            if (isScaffolding(className)) {
                 continue;
             }
-
-            classNames.add(name);
-            otherClasses.add(file);
-        }
-
-        return otherClasses;
-    }
-
-
-    private static String removeFileExtension(String str) {
-        if (str == null) {
-            return null;
+            Class<?> clazz = loadClass(className, bytecode);
+            if (clazz != null) {
+                testClasses.add(clazz);
+            }
         }
 
-        int pos = str.lastIndexOf(".");
-
-        if (pos == -1) {
-            return str;
+        /*
+         * this is important to force the loading of all the other generated
+         * classes. If we do not do that, then we will miss all the anonymous classes
+         */
+        for (String className : bytecode.keySet()) {
+            if (!sourceClasses.contains(className)) {
+                loadClass(className, bytecode);
+            }
         }
 
-        return str.substring(0, pos);
+        return testClasses.toArray(new Class<?>[testClasses.size()]);
     }
 
     /**
@@ -507,8 +489,7 @@ public abstract class JUnitAnalyzer {
      * </p>
      *
      * <p>
-     * Here we compile to a tmp folder, load and execute the test cases, and
-     * then clean up (ie delete all generated files).
+     * Here we compile the test cases in memory, and load and execute them.
      * </p>
      *
      * @param tests
@@ -522,29 +503,24 @@ public abstract class JUnitAnalyzer {
             return true;
         }
 
-        File dir = createNewTmpDir();
-        if (dir == null) {
-            logger.warn("Failed to create tmp dir");
-            return false;
-        }
-
         try {
-            List<File> generated = compileTests(tests, dir);
-            if (generated == null) {
+            Map<String, String> sources = generateSources(tests);
+            InMemoryJavaCompiler.Result compiled = compileTests(sources);
+            if (compiled == null) {
                 logger.warn("Failed to compile the test cases ");
                 return false;
             }
 
             //as last step, execute the generated/compiled test cases
 
-            Class<?>[] testClasses = loadTests(generated);
+            Class<?>[] testClasses = loadTests(sources.keySet(), compiled.getClasses());
 
             if (testClasses == null) {
                 logger.error("Found no classes for compiled tests");
                 return false;
             }
 
-            JUnitResult result = runTests(testClasses, dir);
+            JUnitResult result = runTests(testClasses);
 
             if (!result.wasSuccessful()) {
                 logger.error("" + result.getFailureCount() + " test cases failed");
@@ -568,15 +544,6 @@ public abstract class JUnitAnalyzer {
         } catch (Exception e) {
             logger.error("" + e, e);
             return false;
-        } finally {
-            //let's be sure we clean up all what we wrote on disk
-            if (dir != null) {
-                try {
-                    FileUtils.deleteDirectory(dir);
-                } catch (IOException e) {
-                    logger.warn("Cannot delete tmp dir: " + dir.getName(), e);
-                }
-            }
         }
 
         logger.debug("Successfully compiled and run test cases generated for "
@@ -584,89 +551,23 @@ public abstract class JUnitAnalyzer {
         return true;
     }
 
-    /**
-     * Given a list of files representing .java/.class classes, load them (it
-     * assumes the classpath to be correctly set)
-     *
-     * @param files
-     * @return
-     */
-    private static Class<?>[] getClassesFromFiles(Collection<File> files) {
-        /*
-         * first load only the scaffolding files
-         */
-        for (File file : files) {
-            if (!isScaffolding(file)) {
-                continue;
-            }
-            loadClass(file);
-        }
-
-        List<Class<?>> classes = new ArrayList<>();
-
-        /*
-         * once the scaffoldings are loaded, we can load the tests that
-         * depend on them
-         */
-        for (File file : files) {
-            if (isScaffolding(file)) {
-                continue;
-            }
-            Class<?> clazz = loadClass(file);
-            if (clazz != null) {
-                classes.add(clazz);
-            }
-        }
-
-        return classes.toArray(new Class<?>[classes.size()]);
-    }
-
-    private static boolean isScaffolding(File file) {
-        String name = file.getName();
-        return name.endsWith("_" + Properties.SCAFFOLDING_SUFFIX + JAVA) ||
-                name.endsWith("_" + Properties.SCAFFOLDING_SUFFIX + CLASS);
+    private static boolean isScaffolding(String className) {
+        return className.endsWith("_" + Properties.SCAFFOLDING_SUFFIX);
     }
 
-    private static Class<?> loadClass(File file) {
-        if (!file.isFile()) {
-            return null;
-        }
-
-        String packagePrefix = Properties.CLASS_PREFIX;
-        if (!packagePrefix.isEmpty() && !packagePrefix.endsWith(".")) {
-            packagePrefix += ".";
-        }
-
-        String name = file.getName();
-
-        if (!name.endsWith(JAVA) && !name.endsWith(CLASS)) {
-            /*
-             * this could happen when we scan a folder for all src/compiled
-             * files
-             */
+    private static Class<?> loadClass(String className, Map<String, byte[]> bytecode) {
+        byte[] bytes = bytecode.get(className);
+        if (bytes == null) {
+            logger.error("No bytecode was generated for " + className);
             return null;
         }
 
-        String fileName = file.getAbsolutePath();
-
-        if (name.endsWith(JAVA)) {
-            name = name.substring(0, name.length() - JAVA.length());
-            fileName = fileName.substring(0, fileName.length() - JAVA.length()) + ".class";
-        } else {
-            assert name.endsWith(CLASS);
-            name = name.substring(0, name.length() - CLASS.length());
-        }
-
-        String className = packagePrefix + name;
-
         Class<?> testClass = null;
         try {
             logger.info("Loading class " + className);
-            //testClass = ((InstrumentingClassLoader) TestGenerationContext.getInstance().getClassLoaderForSUT()).loadClassFromFile(className,
-            testClass = loader.loadClassFromFile(className, fileName);
+            testClass = loader.loadClassFromBytes(className, bytes);
         } catch (ClassNotFoundException e) {
-            logger.error("Failed to load test case " + className + " from file "
-                    + file.getAbsolutePath() + " , error " + e, e);
+            logger.error("Failed to load test case " + className + " from memory, error " + e, e);
         }
         return testClass;
     }
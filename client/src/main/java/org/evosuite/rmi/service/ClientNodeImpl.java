@@ -21,7 +21,6 @@ package org.evosuite.rmi.service;
 
 import org.evosuite.Properties;
 import org.evosuite.*;
-import org.evosuite.Properties.NoSuchParameterException;
 import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.coverage.ClassStatisticsPrinter;
 import org.evosuite.ga.Chromosome;
@@ -85,12 +84,10 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
     protected final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
 
-    private final BlockingQueue<OutputVariable> outputVariableQueue = new LinkedBlockingQueue<>();
+    private final StatisticsChannel<T> statisticsChannel = new StatisticsChannel<>();
 
     private Collection<Set<T>> bestSolutions;
 
-    private Thread statisticsThread;
-
     //only for testing
     protected ClientNodeImpl() {
     }
@@ -104,17 +101,6 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         this.bestSolutions = Collections.synchronizedList(new ArrayList<>(Properties.NUM_PARALLEL_CLIENTS));
     }
 
-    private static class OutputVariable {
-        public RuntimeVariable variable;
-        public Object value;
-
-        public OutputVariable(RuntimeVariable variable, Object value) {
-            super();
-            this.variable = variable;
-            this.value = value;
-        }
-    }
-
     @Override
     public void startNewSearch() throws RemoteException, IllegalStateException {
         if (!state.equals(ClientState.NOT_STARTED)) {
@@ -228,6 +214,9 @@ public class ClientNodeImpl<T extends Chromosome<T>>
 
         TimeController.getInstance().updateState(state);
 
+        // the master may rely on the statistics sent so far when handling the new state
+        statisticsChannel.flush();
+
         try {
             masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state, information);
         } catch (RemoteException e) {
@@ -247,18 +236,18 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public void updateStatistics(T individual) {
         logger.info("Sending current best individual to master process");
 
-        try {
-            masterNode.evosuite_collectStatistics(clientRmiIdentifier, individual);
-        } catch (RemoteException e) {
-            logger.error("Cannot inform master of change of state", e);
-            throw new IllegalStateException(e);
-        }
+        /*
+         * The individual is sent asynchronously, and only the latest one if they arrive
+         * faster than they are sent, so search threads never wait for the master
+         */
+        statisticsChannel.offerIndividual(individual.clone());
     }
 
     @Override
     public void flushStatisticsForClassChange() {
         logger.info("Flushing output variables to master process");
 
+        statisticsChannel.flush();
         try {
             masterNode.evosuite_flushStatisticsForClassChange(clientRmiIdentifier);
         } catch (RemoteException e) {
@@ -270,11 +259,7 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public void updateProperty(String propertyName, Object value) {
         logger.info("Updating property '" + propertyName + "' with value '" + value + "' on master process");
 
-        try {
-            masterNode.evosuite_updateProperty(clientRmiIdentifier, propertyName, value);
-        } catch (RemoteException | IllegalArgumentException | IllegalAccessException | NoSuchParameterException e) {
-            logger.error("Cannot inform master of change of state", e);
-        }
+        statisticsChannel.offerProperty(propertyName, value);
     }
 
     @Override
@@ -282,10 +267,10 @@ public class ClientNodeImpl<T extends Chromosome<T>>
         logger.info("Sending output variable to master process: " + variable + " = " + value);
 
         /*
-         * As this code might be called from unsafe blocks, we just put the values
-         * on a queue, and have a privileged thread doing the RMI connection to master
+         * As this code might be called from unsafe blocks, we just hand the values
+         * over to a privileged thread doing the RMI connection to master
          */
-        outputVariableQueue.offer(new OutputVariable(variable, value));
+        statisticsChannel.offerVariable(variable, value);
     }
 
     @Override
@@ -331,26 +316,7 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     }
 
     public void stop() {
-        if (statisticsThread != null) {
-            statisticsThread.interrupt();
-            List<OutputVariable> vars = new ArrayList<>();
-            outputVariableQueue.drainTo(vars);
-            for (OutputVariable ov : vars) {
-                try {
-                    masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
-                } catch (RemoteException e) {
-                    logger.error("Error when exporting statistics: " + ov.variable + "=" + ov.value, e);
-                    break;
-                }
-            }
-
-            try {
-                statisticsThread.join(3000);
-            } catch (InterruptedException e) {
-                logger.error("Failed to stop statisticsThread in time");
-            }
-            statisticsThread = null;
-        }
+        statisticsChannel.stop();
 
         changeState(ClientState.FINISHED);
     }
@@ -359,31 +325,16 @@ public class ClientNodeImpl<T extends Chromosome<T>>
     public boolean init() {
         try {
             masterNode = (MasterNodeRemote) registry.lookup(MasterNodeRemote.RMI_SERVICE_NAME);
+            /*
+             * once registered, the master can start the search right away, which activates
+             * the sandbox. The sender thread has to be privileged before that happens
+             */
+            statisticsChannel.start(masterNode, clientRmiIdentifier, Properties.STATISTICS_INTERVAL);
+
             masterNode.evosuite_registerClientNode(clientRmiIdentifier);
             masterNode.evosuite_informChangeOfStateInClient(clientRmiIdentifier, state,
                     new ClientStateInformation(state));
 
-            statisticsThread = new Thread() {
-                @Override
-                public void run() {
-                    while (!this.isInterrupted()) {
-                        OutputVariable ov = null;
-                        try {
-                            ov = outputVariableQueue.take(); //this is blocking
-                            masterNode.evosuite_collectStatistics(clientRmiIdentifier, ov.variable, ov.value);
-                        } catch (InterruptedException e) {
-                            break;
-                        } catch (RemoteException e) {
-                            logger.error("Error when exporting statistics: " + ov.variable + "=" + ov.value, e);
-                            break;
-                        }
-                    }
-                }
-            };
-            statisticsThread.setName("Statistics sender in client process");
-            Sandbox.addPrivilegedThread(statisticsThread);
-            statisticsThread.start();
-
         } catch (Exception e) {
             logger.error("Error when connecting to master via RMI", e);
             return false;
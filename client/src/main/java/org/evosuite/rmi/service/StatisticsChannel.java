@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import org.evosuite.Properties.NoSuchParameterException;
+import org.evosuite.ga.Chromosome;
+import org.evosuite.runtime.sandbox.Sandbox;
+import org.evosuite.statistics.RuntimeVariable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.rmi.RemoteException;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends statistics from a client to the master in batches, on a privileged thread.
+ *
+ * <p>
+ * Updates only replace the pending value of what they update (the current best individual, an
+ * output variable, or a property), so the pending data is bounded and nothing ever blocks the
+ * threads producing it: if the master is slow, intermediate values are simply skipped. Output
+ * variables are only sent when their value changed since they were last sent.
+ */
+class StatisticsChannel<T extends Chromosome<T>> {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatisticsChannel.class);
+
+    private final Object lock = new Object();
+
+    /*
+     * Pending data, guarded by lock
+     */
+    private T pendingIndividual = null;
+    private final Map<RuntimeVariable, Object> pendingVariables = new EnumMap<>(RuntimeVariable.class);
+    private final Map<String, Object> pendingProperties = new LinkedHashMap<>();
+
+    /**
+     * Held while sending, so that batches reach the master in the order they were taken
+     */
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    /**
+     * Values last sent to the master, guarded by sendLock
+     */
+    private final Map<RuntimeVariable, Object> sentVariables = new EnumMap<>(RuntimeVariable.class);
+
+    private MasterNodeRemote masterNode;
+
+    private String clientRmiIdentifier;
+
+    private Thread senderThread;
+
+    /**
+     * Starts sending the pending and future updates
+     *
+     * @param masterNode
+     * @param clientRmiIdentifier
+     * @param interval            time in milliseconds updates are collected before being sent
+     */
+    public void start(MasterNodeRemote masterNode, String clientRmiIdentifier, long interval) {
+        this.masterNode = masterNode;
+        this.clientRmiIdentifier = clientRmiIdentifier;
+
+        senderThread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    synchronized (lock) {
+                        while (isEmpty()) {
+                            lock.wait();
+                        }
+                    }
+                    // give further updates the chance to join this batch
+                    Thread.sleep(interval);
+                    send();
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            }
+        });
+        senderThread.setName("Statistics sender in client process");
+        Sandbox.addPrivilegedThread(senderThread);
+        senderThread.start();
+    }
+
+    /**
+     * Sends all pending updates and stops the sender thread
+     */
+    public void stop() {
+        if (senderThread == null) {
+            return;
+        }
+        senderThread.interrupt();
+        try {
+            senderThread.join(3000);
+        } catch (InterruptedException e) {
+            logger.error("Failed to stop statistics sender in time");
+        }
+        senderThread = null;
+        send();
+    }
+
+    /**
+     * Sends all pending updates on the calling thread, e.g., before informing the master of
+     * something that relies on them
+     */
+    public void flush() {
+        if (masterNode != null) {
+            send();
+        }
+    }
+
+    /**
+     * @param individual a copy, as the individual is sent later on
+     */
+    public void offerIndividual(T individual) {
+        synchronized (lock) {
+            pendingIndividual = individual;
+            lock.notifyAll();
+        }
+    }
+
+    public void offerVariable(RuntimeVariable variable, Object value) {
+        synchronized (lock) {
+            pendingVariables.put(variable, value);
+            lock.notifyAll();
+        }
+    }
+
+    public void offerProperty(String propertyName, Object value) {
+        synchronized (lock) {
+            // a property updated again is sent after those updated meanwhile
+            pendingProperties.remove(propertyName);
+            pendingProperties.put(propertyName, value);
+            lock.notifyAll();
+        }
+    }
+
+    private boolean isEmpty() {
+        return pendingIndividual == null && pendingVariables.isEmpty() && pendingProperties.isEmpty();
+    }
+
+    private void send() {
+        sendLock.lock();
+        try {
+            T individual;
+            Map<RuntimeVariable, Object> variables;
+            Map<String, Object> properties;
+            synchronized (lock) {
+                individual = pendingIndividual;
+                variables = new EnumMap<>(RuntimeVariable.class);
+                variables.putAll(pendingVariables);
+                properties = new LinkedHashMap<>(pendingProperties);
+                pendingIndividual = null;
+                pendingVariables.clear();
+                pendingProperties.clear();
+            }
+
+            for (Map.Entry<String, Object> property : properties.entrySet()) {
+                try {
+                    masterNode.evosuite_updateProperty(clientRmiIdentifier, property.getKey(), property.getValue());
+                } catch (RemoteException | IllegalArgumentException | IllegalAccessException
+                         | NoSuchParameterException e) {
+                    logger.error("Cannot inform master of change of state", e);
+                }
+            }
+
+            variables.entrySet().removeIf(e -> sentVariables.containsKey(e.getKey())
+                    && Objects.equals(sentVariables.get(e.getKey()), e.getValue()));
+            if (variables.isEmpty() && individual == null) {
+                return;
+            }
+            try {
+                masterNode.evosuite_collectStatistics(clientRmiIdentifier, new LinkedHashMap<>(variables), individual);
+                sentVariables.putAll(variables);
+            } catch (RemoteException e) {
+                logger.error("Error when exporting statistics: " + variables, e);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+}
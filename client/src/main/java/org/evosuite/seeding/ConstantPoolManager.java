@@ -21,6 +21,8 @@
 package org.evosuite.seeding;
 
 import org.evosuite.Properties;
+import org.evosuite.instrumentation.InstrumentedClassCache;
+import org.evosuite.instrumentation.InstrumentedClassCache.Registration;
 import org.evosuite.utils.Randomness;
 
 /**
@@ -88,10 +90,12 @@ public class ConstantPoolManager {
      */
 
     public void addSUTConstant(Object value) {
+        InstrumentedClassCache.record(Registration.SUT_CONSTANT, value);
         pools[0].add(value);
     }
 
     public void addNonSUTConstant(Object value) {
+        InstrumentedClassCache.record(Registration.NON_SUT_CONSTANT, value);
         pools[1].add(value);
     }
 
@@ -31,6 +31,7 @@ import org.slf4j.LoggerFactory;
 
 import java.io.File;
 import java.util.*;
+import java.util.function.Supplier;
 
 /**
  * @author Gordon Fraser
@@ -49,6 +50,38 @@ public class InheritanceTree {
     private DirectedMultigraph<String, DefaultEdge> inheritanceGraph = new DirectedMultigraph<>(
             DefaultEdge.class);
 
+    /**
+     * Builds the content of the tree on first use, if it was created with {@link #InheritanceTree(Supplier)}
+     */
+    private transient Supplier<InheritanceTree> loader;
+
+    public InheritanceTree() {
+    }
+
+    /**
+     * Creates a tree whose content is only built by <code>loader</code> when the tree is first used
+     *
+     * @param loader
+     */
+    InheritanceTree(Supplier<InheritanceTree> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Runs the loader of the tree, if it has not run yet
+     */
+    void load() {
+        if (loader == null) {
+            return;
+        }
+        InheritanceTree loaded = loader.get();
+        loader = null;
+        interfacesSet = loaded.interfacesSet;
+        abstractClassesSet = loaded.abstractClassesSet;
+        analyzedMethods = loaded.analyzedMethods;
+        inheritanceGraph = loaded.inheritanceGraph;
+    }
+
     private void initialiseMap() {
         if (analyzedMethods == null)
             analyzedMethods = new LinkedHashMap<>();
@@ -59,29 +92,35 @@ public class InheritanceTree {
     }
 
     public boolean isClassDefined(String className) {
+        load();
         initialiseMap();
         return analyzedMethods.containsKey(className);
     }
 
     public boolean isInterface(String classname) {
+        load();
         return interfacesSet.contains(classname);
     }
 
     public boolean isAbstractClass(String classname) {
+        load();
         return abstractClassesSet.contains(classname);
     }
 
     public void registerAbstractClass(String abstractClassName) {
+        load();
         initialiseMap();
         abstractClassesSet.add(ResourceList.getClassNameFromResourcePath(abstractClassName));
     }
 
     public void registerInterface(String interfaceName) {
+        load();
         initialiseMap();
         interfacesSet.add(ResourceList.getClassNameFromResourcePath(interfaceName));
     }
 
     public boolean isMethodDefined(String className, String methodNameWdescriptor) {
+        load();
         initialiseMap();
 
         if (analyzedMethods.get(className) == null) return false;
@@ -89,6 +128,7 @@ public class InheritanceTree {
     }
 
     public boolean isMethodDefined(String className, String methodName, String descriptor) {
+        load();
         initialiseMap();
 
         if (analyzedMethods.get(className) == null) return false;
@@ -97,6 +137,7 @@ public class InheritanceTree {
 
     //TODO the initialization in the clinit dosen't work, no idea why - mattia
     public void addAnalyzedMethod(String classname, String methodname, String descriptor) {
+        load();
         initialiseMap();
         classname = classname.replace(File.separator, ".");
         Set<String> tmp = analyzedMethods.get(classname);
@@ -107,6 +148,7 @@ public class InheritanceTree {
 
 
     public void addSuperclass(String className, String superName, int access) {
+        load();
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
         String superNameWithDots = ResourceList.getClassNameFromResourcePath(superName);
 
@@ -121,6 +163,7 @@ public class InheritanceTree {
     }
 
     public void addInterface(String className, String interfaceName) {
+        load();
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
         String interfaceNameWithDots = ResourceList.getClassNameFromResourcePath(interfaceName);
 
@@ -131,6 +174,7 @@ public class InheritanceTree {
     }
 
     public Set<String> getSubclasses(String className) {
+        load();
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
 
         if (subclassCache.containsKey(classNameWithDots))
@@ -153,6 +197,7 @@ public class InheritanceTree {
     }
 
     public Set<String> getSuperclasses(String className) {
+        load();
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
         if (!inheritanceGraph.containsVertex(classNameWithDots)) {
             LoggingUtils.logWarnAtMostOnce(logger, "Class not in inheritance graph: " + classNameWithDots);
@@ -172,6 +217,7 @@ public class InheritanceTree {
     }
 
     public List<String> getOrderedSuperclasses(String className) {
+        load();
         String classNameWithDots = ResourceList.getClassNameFromResourcePath(className);
         if (!inheritanceGraph.containsVertex(classNameWithDots)) {
             LoggingUtils.logWarnAtMostOnce(logger, "Class not in inheritance graph: " + classNameWithDots);
@@ -190,18 +236,22 @@ public class InheritanceTree {
 
 
     public Set<String> getAllClasses() {
+        load();
         return inheritanceGraph.vertexSet();
     }
 
     public void removeClass(String className) {
+        load();
         inheritanceGraph.removeVertex(className);
     }
 
     public boolean hasClass(String className) {
+        load();
         return inheritanceGraph.containsVertex(className);
     }
 
     public int getNumClasses() {
+        load();
         return inheritanceGraph.vertexSet().size();
     }
 
@@ -24,6 +24,7 @@ import org.evosuite.ClientProcess;
 import org.evosuite.PackageInfo;
 import org.evosuite.Properties;
 import org.evosuite.TestGenerationContext;
+import org.evosuite.classpath.ClassPathHandler;
 import org.evosuite.classpath.ResourceList;
 import org.evosuite.rmi.ClientServices;
 import org.evosuite.statistics.RuntimeVariable;
@@ -37,8 +38,18 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.*;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemNotFoundException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.ProviderNotFoundException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
@@ -54,9 +65,11 @@ public class InheritanceTreeGenerator {
     private static final String resourceFolder = "client/src/main/resources/";
     private static final String jdkFile = "JDK_inheritance.xml";
     private static final String shadedJdkFile = "JDK_inheritance_shaded.xml";
+    private static final String jdkIndexFile = "JDK_inheritance.bin";
 
     /**
-     * Iterate over items in classpath and analyze them
+     * Iterate over items in classpath and analyze them. Unless the tree is read from
+     * {@link Properties#INHERITANCE_FILE}, this is only done when the returned tree is first used.
      *
      * @param classPath
      * @return
@@ -75,6 +88,12 @@ public class InheritanceTreeGenerator {
             }
         }
 
+        // the classes are only analyzed when the tree is first used
+        ClassLoader classLoader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+        return new InheritanceTree(() -> analyzeClassPath(classPath, classLoader));
+    }
+
+    private static InheritanceTree analyzeClassPath(List<String> classPath, ClassLoader classLoader) {
         logger.debug("Reading JDK data");
         InheritanceTree inheritanceTree = readJDKData();
         if (inheritanceTree == null) {
@@ -92,11 +111,14 @@ public class InheritanceTreeGenerator {
 
             logger.debug("Analyzing classpath entry {}", classPathEntry);
             LoggingUtils.getEvoLogger().info("  - " + classPathEntry);
-            for (String className : ResourceList.getInstance(
-                    TestGenerationContext.getInstance().getClassLoaderForSUT()).getAllClasses(classPathEntry, "", true, false)) {
+            File cachedIndex = getCachedIndexFile(classPathEntry);
+            if (cachedIndex != null) {
+                analyzeCachedJarFile(inheritanceTree, new File(classPathEntry), cachedIndex);
+                continue;
+            }
+            for (String className : ResourceList.getInstance(classLoader).getAllClasses(classPathEntry, "", true, false)) {
                 // handle individual class
-                analyzeClassStream(inheritanceTree, ResourceList.getInstance(
-                        TestGenerationContext.getInstance().getClassLoaderForSUT()).getClassAsStream(className), false);
+                analyzeClassStream(inheritanceTree, ResourceList.getInstance(classLoader).getClassAsStream(className), false);
             }
 
             // analyze(inheritanceTree, classPathEntry);
@@ -104,6 +126,85 @@ public class InheritanceTreeGenerator {
         return inheritanceTree;
     }
 
+    /**
+     * Jars do not change between most runs, so their classes are analyzed once and then read from
+     * an index in {@link Properties#INHERITANCE_CACHE_DIR}, keyed on the content of the jar: the
+     * name, CRC-32 and size of each of its entries, as listed in its central directory.
+     *
+     * @param classPathEntry
+     * @return the index file of the jar, or null if the entry is not a jar or there is no cache
+     */
+    private static File getCachedIndexFile(String classPathEntry) {
+        if (Properties.INHERITANCE_CACHE_DIR == null || Properties.INHERITANCE_CACHE_DIR.isEmpty())
+            return null;
+        File jar = new File(classPathEntry);
+        if (!jar.isFile() || !jar.getName().endsWith(".jar"))
+            return null;
+
+        try (ZipFile zf = new ZipFile(jar)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            final Enumeration<? extends ZipEntry> e = zf.entries();
+            while (e.hasMoreElements()) {
+                final ZipEntry ze = e.nextElement();
+                digest.update((ze.getName() + ";" + ze.getCrc() + ";" + ze.getSize() + "\n")
+                        .getBytes(StandardCharsets.UTF_8));
+            }
+            StringBuilder key = new StringBuilder();
+            for (byte b : digest.digest()) {
+                key.append(String.format("%02x", b));
+            }
+            return new File(Properties.INHERITANCE_CACHE_DIR, key + ".bin");
+        } catch (IOException | NoSuchAlgorithmException e) {
+            logger.info("Cannot cache inheritance data of {}: {}", classPathEntry, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Unlike the uncached analysis, classes are read from the jar itself rather than looked up on
+     * the classpath, so that the index only depends on the jar it is keyed on
+     */
+    private static void analyzeCachedJarFile(InheritanceTree inheritanceTree, File jarFile, File indexFile) {
+        if (indexFile.exists()) {
+            try {
+                InheritanceTreeIndex index = InheritanceTreeIndex.read(indexFile);
+                if (!index.isOnlyPublic()) {
+                    index.applyTo(inheritanceTree);
+                    return;
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read cached inheritance data of " + jarFile.getAbsolutePath()
+                        + " , " + e.getMessage());
+            }
+        }
+
+        InheritanceTreeIndex index = new InheritanceTreeIndex(false);
+        try (ZipFile zf = new ZipFile(jarFile)) {
+            final Enumeration<? extends ZipEntry> e = zf.entries();
+            while (e.hasMoreElements()) {
+                final ZipEntry ze = e.nextElement();
+                if (!ze.getName().endsWith(".class"))
+                    continue;
+                try (InputStream stream = zf.getInputStream(ze)) {
+                    ClassNode cn = readClassNode(stream);
+                    if (cn != null)
+                        index.addClass(cn);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to open/analyze jar file " + jarFile.getAbsolutePath()
+                    + " , " + e.getMessage());
+            return;
+        }
+        index.applyTo(inheritanceTree);
+
+        try {
+            index.write(indexFile);
+        } catch (IOException e) {
+            logger.info("Cannot cache inheritance data of {}: {}", jarFile, e.getMessage());
+        }
+    }
+
     /**
      * Create inheritance tree only for the classes passed as parameter
      *
@@ -229,6 +330,12 @@ public class InheritanceTreeGenerator {
 
     private static void analyzeClassStream(InheritanceTree inheritanceTree,
                                            InputStream inputStream, boolean onlyPublic) {
+        ClassNode cn = readClassNode(inputStream);
+        if (cn != null)
+            analyzeClassNode(inheritanceTree, cn, onlyPublic);
+    }
+
+    private static ClassNode readClassNode(InputStream inputStream) {
         try {
             ClassReader reader = new ClassReader(inputStream);
             inputStream.close();
@@ -236,40 +343,50 @@ public class InheritanceTreeGenerator {
             ClassNode cn = new ClassNode();
             reader.accept(cn, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG
                     | ClassReader.SKIP_CODE);
-            analyzeClassNode(inheritanceTree, cn, onlyPublic);
-
+            return cn;
 
         } catch (IOException e) {
             logger.error("", e);
         } catch (java.lang.ArrayIndexOutOfBoundsException e) {
             logger.error("ASM Error while reading class (" + e.getMessage() + ")");
         }
+        return null;
     }
 
-    @SuppressWarnings("unchecked")
     private static void analyzeClassNode(InheritanceTree inheritanceTree,
                                          ClassNode cn, boolean onlyPublic) {
+        List<String[]> methods = new ArrayList<>(cn.methods.size());
+        for (MethodNode mn : cn.methods) {
+            methods.add(new String[]{mn.name, mn.desc});
+        }
+        analyzeClass(inheritanceTree, cn.name, cn.access, cn.superName, cn.interfaces, methods, onlyPublic);
+    }
 
-        logger.info("Analyzing class {}", cn.name);
+    /**
+     * @param methods name and descriptor of each method declared by the class
+     */
+    static void analyzeClass(InheritanceTree inheritanceTree, String name, int access, String superName,
+                             List<String> interfaces, List<String[]> methods, boolean onlyPublic) {
+
+        logger.info("Analyzing class {}", name);
 
         // Don't load classes already seen from a different CP entry
-        if (inheritanceTree.hasClass(cn.name))
+        if (inheritanceTree.hasClass(name))
             return;
 
-        if ((Opcodes.ACC_INTERFACE & cn.access) != Opcodes.ACC_INTERFACE) {
-            for (Object m : cn.methods) {
-                MethodNode mn = (MethodNode) m;
+        if ((Opcodes.ACC_INTERFACE & access) != Opcodes.ACC_INTERFACE) {
+            for (String[] method : methods) {
                 inheritanceTree
-                        .addAnalyzedMethod(cn.name, mn.name, mn.desc);
+                        .addAnalyzedMethod(name, method[0], method[1]);
             }
-            if ((Opcodes.ACC_ABSTRACT & cn.access) == Opcodes.ACC_ABSTRACT) {
-                inheritanceTree.registerAbstractClass(cn.name);
+            if ((Opcodes.ACC_ABSTRACT & access) == Opcodes.ACC_ABSTRACT) {
+                inheritanceTree.registerAbstractClass(name);
             }
         } else {
-            inheritanceTree.registerInterface(cn.name);
+            inheritanceTree.registerInterface(name);
         }
         if (onlyPublic) {
-            if ((cn.access & Opcodes.ACC_PUBLIC) == 0) {
+            if ((access & Opcodes.ACC_PUBLIC) == 0) {
                 return;
             }
 //		} else {
@@ -279,12 +396,11 @@ public class InheritanceTreeGenerator {
 //			}
         }
 
-        if (cn.superName != null)
-            inheritanceTree.addSuperclass(cn.name, cn.superName, cn.access);
+        if (superName != null)
+            inheritanceTree.addSuperclass(name, superName, access);
 
-        List<String> interfaces = cn.interfaces;
         for (String interfaceName : interfaces) {
-            inheritanceTree.addInterface(cn.name, interfaceName);
+            inheritanceTree.addInterface(name, interfaceName);
         }
     }
 
@@ -369,6 +485,7 @@ public class InheritanceTreeGenerator {
 
         Collection<String> list = getAllResources();
         InheritanceTree inheritanceTree = new InheritanceTree();
+        InheritanceTreeIndex index = new InheritanceTreeIndex(true);
         List<InheritanceTree> others = new ArrayList<>();
 
         /*
@@ -415,7 +532,11 @@ public class InheritanceTreeGenerator {
             if (stream == null) {
                 logger.warn("Cannot open/find " + name);
             } else {
-                analyzeClassStream(inheritanceTree, stream, true);
+                ClassNode cn = readClassNode(stream);
+                if (cn != null) {
+                    index.addClass(cn);
+                    analyzeClassNode(inheritanceTree, cn, true);
+                }
                 counter++;
             }
         }
@@ -432,9 +553,42 @@ public class InheritanceTreeGenerator {
         } catch (FileNotFoundException e) {
             logger.error("", e);
         }
+
+        // Write the same data in the binary format, which is much faster to load
+        try {
+            index.write(new File(resourceFolder + jdkIndexFile));
+        } catch (IOException e) {
+            logger.error("", e);
+        }
     }
 
+    /**
+     * Reads the JDK classes from the binary index if it was generated with the Java version in
+     * use, and from the XML resource otherwise
+     */
     public static InheritanceTree readJDKData() {
+        String indexFileName = "/" + jdkIndexFile;
+        InputStream index = InheritanceTreeGenerator.class.getResourceAsStream(indexFileName);
+        if (index != null) {
+            try (InputStream in = index) {
+                InheritanceTreeIndex jdkIndex = InheritanceTreeIndex.read(in);
+                String javaVersion = System.getProperty("java.specification.version");
+                if (javaVersion.equals(jdkIndex.getJavaVersion())) {
+                    if (PackageInfo.isCurrentlyShaded()) {
+                        jdkIndex.relocate(PackageInfo.getEvoSuitePackage().replace('.', '/') + "/",
+                                PackageInfo.getShadedEvoSuitePackage().replace('.', '/') + "/");
+                    }
+                    InheritanceTree inheritanceTree = new InheritanceTree();
+                    jdkIndex.applyTo(inheritanceTree);
+                    return inheritanceTree;
+                }
+                logger.info("Not using {}, generated for Java {} rather than {}", indexFileName,
+                        jdkIndex.getJavaVersion(), javaVersion);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("Failed to read JDK inheritance tree from " + indexFileName + " , " + e.getMessage());
+            }
+        }
+
         XStream xstream = new XStream();
         XStream.setupDefaultSecurity(xstream);
         xstream.allowTypesByWildcard(new String[]{"org.evosuite.**", "org.jgrapht.**"});
@@ -475,6 +629,8 @@ public class InheritanceTreeGenerator {
     }
 
     public static void writeInheritanceTree(InheritanceTree tree, File file) throws IOException {
+        // XStream reads the fields directly
+        tree.load();
         XStream xstream = new XStream();
         XStream.setupDefaultSecurity(xstream);
         xstream.allowTypesByWildcard(new String[]{"org.evosuite.**", "org.jgrapht.**"});
@@ -486,7 +642,30 @@ public class InheritanceTreeGenerator {
 
     public static Collection<String> getAllResources() {
         Collection<String> retval = getResources(System.getProperty("java.class.path", "."));
-        retval.addAll(getResources(System.getProperty("sun.boot.class.path")));
+        String bootClassPath = System.getProperty("sun.boot.class.path");
+        if (bootClassPath != null) {
+            retval.addAll(getResources(bootClassPath));
+        } else {
+            // Java 9+: the JDK classes are in the runtime image instead of the boot classpath
+            retval.addAll(getRuntimeImageClasses());
+        }
+        return retval;
+    }
+
+    private static Collection<String> getRuntimeImageClasses() {
+        final List<String> retval = new ArrayList<>();
+        try {
+            Path modules = FileSystems.getFileSystem(URI.create("jrt:/")).getPath("/modules");
+            try (Stream<Path> files = Files.walk(modules)) {
+                files.map(file -> modules.relativize(file).toString())
+                        .filter(name -> name.endsWith(".class") && !name.endsWith("module-info.class"))
+                        // strip the module name and the extension
+                        .map(name -> name.substring(name.indexOf('/') + 1, name.length() - ".class".length()))
+                        .forEach(name -> retval.add(name.replace('/', '.')));
+            }
+        } catch (FileSystemNotFoundException | ProviderNotFoundException | IOException e) {
+            logger.error("Cannot list the classes of the runtime image", e);
+        }
         return retval;
     }
 
@@ -509,7 +688,7 @@ public class InheritanceTreeGenerator {
     }
 
     private static void makeShadedCopy() {
-
+        // there is no shaded copy of the binary index, its class names are relocated when it is read
         String content = null;
         try {
             content = new Scanner(new File(resourceFolder + jdkFile)).useDelimiter("\\Z").next();
@@ -538,6 +717,9 @@ public class InheritanceTreeGenerator {
 
      */
     public static void main(String[] args) {
+        // classes are looked up through the SUT class loader, which needs a target classpath
+        ClassPathHandler.getInstance().changeTargetClassPath(
+                System.getProperty("java.class.path").split(File.pathSeparator));
         generateJDKCluster(args);
         makeShadedCopy();
     }
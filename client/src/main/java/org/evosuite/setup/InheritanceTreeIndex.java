@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary form of the class headers an {@link InheritanceTree} is built from: the name,
+ * access flags, superclass, interfaces and methods of each analyzed class. All names are interned
+ * in a string table and classes refer to them by index, so the index is small and decodes each
+ * distinct name (e.g., a method descriptor) only once, when it is first needed. Files are read
+ * through a memory-mapped buffer.
+ *
+ * <p>
+ * The index records the <code>java.specification.version</code> it was built with, as the headers
+ * of JDK classes differ between Java versions.
+ *
+ * <p>
+ * Layout: magic, version, the Java version (length and UTF-8 bytes), the <code>onlyPublic</code> flag, the string table (count, then length
+ * and UTF-8 bytes of each string), and the class records (count of ints, then the ints). Each
+ * class record is: name, access, superclass (-1 if none), number of interfaces, interfaces,
+ * number of methods, and a name and a descriptor for each method.
+ */
+class InheritanceTreeIndex {
+
+    private static final int MAGIC = 0x45564954;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final String javaVersion;
+
+    private final boolean onlyPublic;
+
+    private final List<String> strings = new ArrayList<>();
+
+    /**
+     * Only set while building an index
+     */
+    private final Map<String, Integer> stringIds;
+
+    /**
+     * Only set for an index that was read, which decodes its strings lazily
+     */
+    private final ByteBuffer encodedStrings;
+
+    private final int[] stringOffsets;
+
+    private int[] records;
+
+    private int recordsLength = 0;
+
+    private int numClasses = 0;
+
+    /**
+     * Class names starting with <code>relocatedPrefix</code> are decoded as starting with
+     * <code>relocatedReplacement</code> instead, see {@link #relocate(String, String)}
+     */
+    private String relocatedPrefix = null;
+
+    private String relocatedReplacement = null;
+
+    InheritanceTreeIndex(boolean onlyPublic) {
+        this.javaVersion = System.getProperty("java.specification.version");
+        this.onlyPublic = onlyPublic;
+        this.stringIds = new HashMap<>();
+        this.encodedStrings = null;
+        this.stringOffsets = null;
+        this.records = new int[1024];
+    }
+
+    private InheritanceTreeIndex(String javaVersion, boolean onlyPublic, ByteBuffer encodedStrings,
+                                 int[] stringOffsets, int[] records, int numClasses) {
+        this.javaVersion = javaVersion;
+        this.onlyPublic = onlyPublic;
+        this.stringIds = null;
+        this.encodedStrings = encodedStrings;
+        this.stringOffsets = stringOffsets;
+        this.strings.addAll(Collections.nCopies(stringOffsets.length, null));
+        this.records = records;
+        this.recordsLength = records.length;
+        this.numClasses = numClasses;
+    }
+
+    /**
+     * @return the <code>java.specification.version</code> of the JVM that built the index
+     */
+    public String getJavaVersion() {
+        return javaVersion;
+    }
+
+    public boolean isOnlyPublic() {
+        return onlyPublic;
+    }
+
+    public int getNumClasses() {
+        return numClasses;
+    }
+
+    /**
+     * Adds the header of a class read with {@link org.objectweb.asm.ClassReader#SKIP_CODE}
+     *
+     * @param cn
+     */
+    public void addClass(ClassNode cn) {
+        if (stringIds == null) {
+            throw new IllegalStateException("Cannot add classes to an index that was read");
+        }
+        append(intern(cn.name));
+        append(cn.access);
+        append(cn.superName == null ? -1 : intern(cn.superName));
+        append(cn.interfaces.size());
+        for (String interfaceName : cn.interfaces) {
+            append(intern(interfaceName));
+        }
+        append(cn.methods.size());
+        for (MethodNode mn : cn.methods) {
+            append(intern(mn.name));
+            append(intern(mn.desc));
+        }
+        numClasses++;
+    }
+
+    /**
+     * Analyzes all indexed classes, in the order in which they were added, as if they were read
+     * from their bytecode
+     *
+     * @param inheritanceTree
+     */
+    public void applyTo(InheritanceTree inheritanceTree) {
+        int position = 0;
+        for (int i = 0; i < numClasses; i++) {
+            String name = getString(records[position++]);
+            int access = records[position++];
+            int superName = records[position++];
+            List<String> interfaces = new ArrayList<>(records[position]);
+            for (int j = records[position++]; j > 0; j--) {
+                interfaces.add(getString(records[position++]));
+            }
+            List<String[]> methods = new ArrayList<>(records[position]);
+            for (int j = records[position++]; j > 0; j--) {
+                methods.add(new String[]{getString(records[position]), getString(records[position + 1])});
+                position += 2;
+            }
+            InheritanceTreeGenerator.analyzeClass(inheritanceTree, name, access,
+                    superName < 0 ? null : getString(superName), interfaces, methods, onlyPublic);
+        }
+    }
+
+    /**
+     * Makes all class names starting with <code>prefix</code> start with <code>replacement</code>
+     * instead. Names are only relocated when they are decoded, so this costs nothing up front.
+     */
+    public void relocate(String prefix, String replacement) {
+        if (stringIds != null) {
+            throw new IllegalStateException("Can only relocate an index that was read");
+        }
+        relocatedPrefix = prefix;
+        relocatedReplacement = replacement;
+        for (int i = 0; i < strings.size(); i++) {
+            if (strings.get(i) != null) {
+                strings.set(i, relocate(strings.get(i)));
+            }
+        }
+    }
+
+    private String relocate(String value) {
+        if (relocatedPrefix == null) {
+            return value;
+        }
+        return value.startsWith(relocatedPrefix) ? relocatedReplacement + value.substring(relocatedPrefix.length())
+                : value.replace("L" + relocatedPrefix, "L" + relocatedReplacement);
+    }
+
+    private int intern(String value) {
+        Integer id = stringIds.get(value);
+        if (id == null) {
+            id = strings.size();
+            strings.add(value);
+            stringIds.put(value, id);
+        }
+        return id;
+    }
+
+    private String getString(int id) {
+        String value = strings.get(id);
+        if (value == null) {
+            ByteBuffer buffer = encodedStrings.duplicate();
+            buffer.position(stringOffsets[id]);
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            value = relocate(new String(bytes, StandardCharsets.UTF_8));
+            strings.set(id, value);
+        }
+        return value;
+    }
+
+    private void append(int value) {
+        if (recordsLength == records.length) {
+            records = Arrays.copyOf(records, records.length * 2);
+        }
+        records[recordsLength++] = value;
+    }
+
+    public void write(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        byte[] version = javaVersion.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(version.length);
+        out.write(version);
+        out.writeBoolean(onlyPublic);
+        out.writeInt(strings.size());
+        for (int i = 0; i < strings.size(); i++) {
+            byte[] bytes = getString(i).getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+        out.writeInt(numClasses);
+        out.writeInt(recordsLength);
+        for (int i = 0; i < recordsLength; i++) {
+            out.writeInt(records[i]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the index aside and renames it, so that concurrent readers never see a partial file
+     */
+    public void write(File file) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (!directory.exists() && !directory.mkdirs() && !directory.exists()) {
+            throw new IOException("Cannot create directory " + directory);
+        }
+        File tmp = File.createTempFile(file.getName(), ".tmp", directory);
+        try (OutputStream out = new FileOutputStream(tmp)) {
+            write(out);
+        }
+        if (!tmp.renameTo(file)) {
+            tmp.delete();
+        }
+    }
+
+    public static InheritanceTreeIndex read(File file) throws IOException {
+        try (FileInputStream in = new FileInputStream(file); FileChannel channel = in.getChannel()) {
+            // the mapping stays valid after the channel is closed
+            return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static InheritanceTreeIndex read(InputStream in) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int length;
+        while ((length = in.read(buffer)) >= 0) {
+            bytes.write(buffer, 0, length);
+        }
+        return read(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    private static InheritanceTreeIndex read(ByteBuffer buffer) throws IOException {
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IOException("Unknown inheritance index format");
+            }
+            byte[] version = new byte[buffer.getInt()];
+            buffer.get(version);
+            String javaVersion = new String(version, StandardCharsets.UTF_8);
+            boolean onlyPublic = buffer.get() != 0;
+            int[] stringOffsets = new int[buffer.getInt()];
+            for (int i = 0; i < stringOffsets.length; i++) {
+                stringOffsets[i] = buffer.position();
+                int length = buffer.getInt();
+                if (length < 0) {
+                    throw new IOException("Corrupted inheritance index");
+                }
+                buffer.position(buffer.position() + length);
+            }
+            ByteBuffer encodedStrings = buffer.duplicate();
+            int numClasses = buffer.getInt();
+            int[] records = new int[buffer.getInt()];
+            buffer.asIntBuffer().get(records);
+            return new InheritanceTreeIndex(javaVersion, onlyPublic, encodedStrings, stringOffsets, records, numClasses);
+        } catch (RuntimeException e) {
+            // BufferUnderflowException, IllegalArgumentException on truncated files
+            throw new IOException("Corrupted inheritance index", e);
+        }
+    }
+}
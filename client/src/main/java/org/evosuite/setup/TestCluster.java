@@ -69,6 +69,11 @@ public class TestCluster {
      */
     private final static Set<GenericAccessibleObject<?>> testMethods = new LinkedHashSet<>();
 
+    /**
+     * UUT methods that still have uncovered targets in the archive
+     */
+    private final static UncoveredTestCallIndex uncoveredTestMethods = new UncoveredTestCallIndex();
+
     /**
      * Methods used to modify and set the environment of the UUT
      */
@@ -118,6 +123,7 @@ public class TestCluster {
     public static void reset() {
         analyzedClasses.clear();
         testMethods.clear();
+        uncoveredTestMethods.invalidate();
         generators.clear();
         generatorCache.clear();
         modifiers.clear();
@@ -360,10 +366,19 @@ public class TestCluster {
     public void addTestCall(GenericAccessibleObject<?> call) throws IllegalArgumentException {
         Inputs.checkNull(call);
         testMethods.add(call);
+        uncoveredTestMethods.invalidate();
     }
 
     public void removeTestCall(GenericAccessibleObject<?> call) {
         testMethods.remove(call);
+        uncoveredTestMethods.invalidate();
+    }
+
+    /**
+     * Has to be called whenever the targets of the archive that are not covered yet change
+     */
+    public static void uncoveredTargetsChanged() {
+        uncoveredTestMethods.invalidate();
     }
 
 
@@ -1176,20 +1191,6 @@ public class TestCluster {
         return testMethods.stream().filter(call -> !call.isConstructor()).collect(Collectors.toList());
     }
 
-    private String getKey(GenericAccessibleObject<?> call) {
-        String name = call.getDeclaringClass().getCanonicalName();
-        if (call.isMethod()) {
-            GenericMethod method = (GenericMethod) call;
-            name += method.getNameWithDescriptor();
-        } else if (call.isConstructor()) {
-            GenericConstructor constructor = (GenericConstructor) call;
-            name += constructor.getNameWithDescriptor();
-        } else {
-            throw new RuntimeException("Coverage goals must be methods or constructors");
-        }
-        return name;
-    }
-
     /**
      * Sort by remaining uncovered goals to bias search towards most rewarding methods
      *
@@ -1281,14 +1282,8 @@ public class TestCluster {
     public GenericAccessibleObject<?> getRandomUncoveredTestCall(TestCase test)
             throws ConstructionFailedException {
 
-        // Get all candidate test methods
-        List<GenericAccessibleObject<?>> candidateTestMethods = new ArrayList<>(testMethods);
-
-        // Filter out covered methods
-        candidateTestMethods.removeIf(call -> {
-            String methodKey = getKey(call);
-            return Archive.getArchiveInstance().getNumOfRemainingTargets(methodKey) == 0;
-        });
+        // Get all uncovered test methods, sorted if needed
+        List<GenericAccessibleObject<?>> candidateTestMethods = uncoveredTestMethods.getUncovered(testMethods);
 
         if (candidateTestMethods.isEmpty()) {
             logger.debug("No uncovered calls left, use getRandomTestCall instead");
@@ -1297,14 +1292,10 @@ public class TestCluster {
 
         // If test already has a SUT call, remove all constructors
         if (doesTestHaveSUTInstance(test)) {
-            candidateTestMethods = filterConstructors(candidateTestMethods);
+            candidateTestMethods = uncoveredTestMethods.getUncoveredNonConstructors(testMethods);
             // If only constructors remain, restore the full list
             if (candidateTestMethods.isEmpty())
-                candidateTestMethods = new ArrayList<>(testMethods);
-        }
-
-        if (Properties.SORT_CALLS) {
-            candidateTestMethods = sortCalls(candidateTestMethods);
+                candidateTestMethods = uncoveredTestMethods.getAll(testMethods);
         }
 
         // Select a random uncovered call
@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the test calls that still have uncovered targets in the archive, so that
+ * {@link TestCluster#getRandomUncoveredTestCall} does not have to copy, filter and
+ * sort all test calls each time it is asked for a call.
+ * <p>
+ * The archive reports each change of its uncovered targets, and the test cluster
+ * reports each change of its test calls. The lists are only rebuilt on the next
+ * query after such a change. Rebuilding keeps the order of the test calls, and
+ * with {@link Properties#SORT_CALLS} the calls are stably sorted by decreasing
+ * number of uncovered targets. Selecting from these lists therefore gives the same
+ * choices as filtering and sorting the test calls on demand.
+ */
+class UncoveredTestCallIndex {
+
+    private boolean valid = false;
+
+    private boolean sorted = false;
+
+    /**
+     * Calls with uncovered targets
+     */
+    private List<GenericAccessibleObject<?>> uncovered = new ArrayList<>();
+
+    /**
+     * Calls with uncovered targets that are not constructors
+     */
+    private List<GenericAccessibleObject<?>> uncoveredNonConstructors = new ArrayList<>();
+
+    /**
+     * All calls, whether they are covered or not
+     */
+    private List<GenericAccessibleObject<?>> all = new ArrayList<>();
+
+    /**
+     * Has to be called whenever the test calls or the uncovered targets change
+     */
+    void invalidate() {
+        valid = false;
+    }
+
+    List<GenericAccessibleObject<?>> getUncovered(Collection<GenericAccessibleObject<?>> calls) {
+        update(calls);
+        return uncovered;
+    }
+
+    List<GenericAccessibleObject<?>> getUncoveredNonConstructors(Collection<GenericAccessibleObject<?>> calls) {
+        update(calls);
+        return uncoveredNonConstructors;
+    }
+
+    List<GenericAccessibleObject<?>> getAll(Collection<GenericAccessibleObject<?>> calls) {
+        update(calls);
+        return all;
+    }
+
+    private void update(Collection<GenericAccessibleObject<?>> calls) {
+        if (valid && sorted == Properties.SORT_CALLS) {
+            return;
+        }
+
+        Archive archive = Archive.getArchiveInstance();
+        Map<GenericAccessibleObject<?>, Integer> remainingTargets = new IdentityHashMap<>();
+        List<GenericAccessibleObject<?>> newUncovered = new ArrayList<>();
+        for (GenericAccessibleObject<?> call : calls) {
+            int remaining = archive.getNumOfRemainingTargets(getKey(call));
+            remainingTargets.put(call, remaining);
+            if (remaining > 0) {
+                newUncovered.add(call);
+            }
+        }
+        List<GenericAccessibleObject<?>> newAll = new ArrayList<>(calls);
+
+        if (Properties.SORT_CALLS) {
+            Comparator<GenericAccessibleObject<?>> byRemainingTargets =
+                    Comparator.comparingInt(remainingTargets::get);
+            newUncovered.sort(byRemainingTargets.reversed());
+            newAll.sort(byRemainingTargets.reversed());
+        }
+
+        List<GenericAccessibleObject<?>> newUncoveredNonConstructors = new ArrayList<>();
+        for (GenericAccessibleObject<?> call : newUncovered) {
+            if (!call.isConstructor()) {
+                newUncoveredNonConstructors.add(call);
+            }
+        }
+
+        uncovered = newUncovered;
+        uncoveredNonConstructors = newUncoveredNonConstructors;
+        all = newAll;
+        sorted = Properties.SORT_CALLS;
+        valid = true;
+    }
+
+    /**
+     * @param call a method or constructor
+     * @return the name under which the archive keeps the targets of the call
+     */
+    static String getKey(GenericAccessibleObject<?> call) {
+        String name = call.getDeclaringClass().getCanonicalName();
+        if (call.isMethod()) {
+            GenericMethod method = (GenericMethod) call;
+            name += method.getNameWithDescriptor();
+        } else if (call.isConstructor()) {
+            GenericConstructor constructor = (GenericConstructor) call;
+            name += constructor.getNameWithDescriptor();
+        } else {
+            throw new RuntimeException("Coverage goals must be methods or constructors");
+        }
+        return name;
+    }
+}
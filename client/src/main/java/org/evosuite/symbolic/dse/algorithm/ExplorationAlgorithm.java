@@ -44,6 +44,12 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Structure of a DSE Exploration algorithm,
@@ -121,6 +127,12 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     private final transient ConcolicExecutor engine;
     private final transient Solver solver;
 
+    /**
+     * Pool solving the children of a path condition, see {@link #getSolverThreads()}.
+     * Concolic execution and test scoring stay on the search thread, as they run instrumented code.
+     **/
+    private transient ExecutorService solverPool;
+
     public ExplorationAlgorithm() {
         this(
                 SHOW_PROGRESS_DEFAULT_VALUE,
@@ -243,6 +255,38 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
         testCasesWorkList.add(initialTestCase);
         addNewTestCaseToTestSuite(initialTestCase);
 
+        int solverThreads = getSolverThreads();
+        if (solverThreads > 1) {
+            solverPool = Executors.newWorkStealingPool(solverThreads);
+        }
+        try {
+            exploreWorkList(testCasesWorkList, seenChildren);
+        } finally {
+            if (solverPool != null) {
+                solverPool.shutdownNow();
+                solverPool = null;
+            }
+        }
+    }
+
+    /**
+     * Number of threads solving the children of a path condition. Only the external SMT solvers run in their own
+     * process and gain from this: the EvoSuite solver searches on the concrete values of shared variables, so any
+     * value of {@link Properties#DSE_SOLVER_THREADS} is ignored for it and its queries are solved on the search thread.
+     *
+     * @return the size of the solver pool, 1 meaning no pool
+     */
+    static int getSolverThreads() {
+        if (Properties.DSE_SOLVER == Properties.SolverType.EVOSUITE_SOLVER) {
+            if (Properties.DSE_SOLVER_THREADS > 1) {
+                logger.debug("Ignoring dse_solver_threads={} as the EvoSuite solver is used", Properties.DSE_SOLVER_THREADS);
+            }
+            return 1;
+        }
+        return Properties.DSE_SOLVER_THREADS;
+    }
+
+    private void exploreWorkList(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren) {
         while (keepSearchingCriteriaStrategy.shouldKeepSearching(testCasesWorkList)) {
             // This gets wrapped into the building and fitness strategy selected due to the PriorityQueue sorting nature
             DSETestCase currentTestCase = testCaseSelectionStrategy.getCurrentIterationBasedTestCase(testCasesWorkList);
@@ -294,64 +338,123 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
                         || PathConditionUtils.isConstraintSetSubSetOf(seenPathCondition, seenChildren));
     }
 
-    private void processChildren(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
-        // We look at all the children
-        for (GenerationalSearchPathCondition child : children) {
-            List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
-            Set<Constraint<?>> normalizedChildQuery = normalize(childQuery);
-
-            if (shouldSkipChild(seenChildren, normalizedChildQuery)) continue;
-            if (this.isFinished()) return;
-
-            CacheQueryResult cacheQueryResult = cachingStrategy.checkCache(normalizedChildQuery, queryCache);
-
-            // Path condition previously explored and unsatisfiable
-            if (!cacheQueryResult.hitUnSat()) {
-                logger.debug(CACHE_CALL_HIT_UNSAT);
-                statisticsLogger.reportNewConstraints(childQuery);
-                Map<String, Object> smtSolution;
-
-                // Path condition already solved before
-                if (cacheQueryResult.hitSat()) {
-                    logger.debug(CACHE_CALL_HIT_SAT);
-                    smtSolution = cacheQueryResult.getSmtSolution();
-                } else {
-                    // Path condition not explored
-                    assert (cacheQueryResult.missed());
-                    logger.debug(CACHE_CALL_MISSED);
-                    logger.debug(SOLVING_QUERY_WITH_CONSTRAINTS, childQuery.size());
-
-                    childQuery.addAll(
-                            SolverUtils.createBoundsForQueryVariables(childQuery)
-                    );
-
-                    // Solves the SMT query
-                    logger.debug(SOLVER_QUERY_STARTED_MESSAGE, childQuery.size());
-                    SolverResult smtQueryResult = solveQuery(childQuery);
-                    smtSolution = getQuerySolution(
-                            normalizedChildQuery,
-                            smtQueryResult
-                    );
-                }
+    /**
+     * A child path condition that has to be turned into a test case
+     */
+    private static class ChildQuery {
+
+        private final GenerationalSearchPathCondition child;
+
+        private final Set<Constraint<?>> normalizedQuery;
+
+        private Map<String, Object> cachedSolution;
 
-                if (smtSolution != null) {
-                    // Generates the new tests based on the current solution
-                    DSETestCase newTestCase = generateNewTestCase(
-                            currentTestCase,
-                            child,
-                            smtSolution,
-                            hasPathConditionDiverged);
+        private Future<SolverResult> result;
 
-                    testCasesWorkList.offer(newTestCase);
-                    addNewTestCaseToTestSuite(newTestCase);
+        private long solvingTime;
+
+        private ChildQuery(GenerationalSearchPathCondition child, Set<Constraint<?>> normalizedQuery) {
+            this.child = child;
+            this.normalizedQuery = normalizedQuery;
+        }
+    }
+
+    /**
+     * Solves the children of the current path condition and adds the test cases built from their solutions to the
+     * work list. With a solver pool, the queries of all children are solved concurrently, and their results are
+     * processed in the order of the children.
+     */
+    private void processChildren(Queue<DSETestCase> testCasesWorkList, HashSet<Set<Constraint<?>>> seenChildren, DSETestCase currentTestCase, List<GenerationalSearchPathCondition> children, boolean hasPathConditionDiverged) {
+        List<ChildQuery> pendingQueries = new ArrayList<>();
+        Set<Set<Constraint<?>>> submittedQueries = new HashSet<>();
 
-                    // NOTE: We consider adding a test case an iteration
-                    notifyIteration();
+        try {
+            // We look at all the children
+            for (GenerationalSearchPathCondition child : children) {
+                List<Constraint<?>> childQuery = SolverUtils.buildQuery(child.getPathCondition());
+                Set<Constraint<?>> normalizedChildQuery = normalize(childQuery);
+
+                if (shouldSkipChild(seenChildren, normalizedChildQuery)) continue;
+                // Siblings solved concurrently are not in the query cache yet
+                if (solverPool != null && !submittedQueries.add(normalizedChildQuery)) continue;
+                if (this.isFinished()) return;
+
+                CacheQueryResult cacheQueryResult = cachingStrategy.checkCache(normalizedChildQuery, queryCache);
+
+                // Path condition previously explored and unsatisfiable
+                if (!cacheQueryResult.hitUnSat()) {
+                    logger.debug(CACHE_CALL_HIT_UNSAT);
+                    statisticsLogger.reportNewConstraints(childQuery);
+                    ChildQuery query = new ChildQuery(child, normalizedChildQuery);
+
+                    // Path condition already solved before
+                    if (cacheQueryResult.hitSat()) {
+                        logger.debug(CACHE_CALL_HIT_SAT);
+                        query.cachedSolution = cacheQueryResult.getSmtSolution();
+                    } else {
+                        // Path condition not explored
+                        assert (cacheQueryResult.missed());
+                        logger.debug(CACHE_CALL_MISSED);
+                        logger.debug(SOLVING_QUERY_WITH_CONSTRAINTS, childQuery.size());
+
+                        childQuery.addAll(
+                                SolverUtils.createBoundsForQueryVariables(childQuery)
+                        );
+
+                        // Solves the SMT query
+                        logger.debug(SOLVER_QUERY_STARTED_MESSAGE, childQuery.size());
+                        query.result = submitQuery(query, childQuery);
+                    }
+
+                    if (solverPool == null) {
+                        processChild(testCasesWorkList, currentTestCase, query, hasPathConditionDiverged);
+                    } else {
+                        pendingQueries.add(query);
+                    }
+                }
+            }
+
+            for (ChildQuery query : pendingQueries) {
+                if (this.isFinished()) return;
+                processChild(testCasesWorkList, currentTestCase, query, hasPathConditionDiverged);
+            }
+        } finally {
+            for (ChildQuery query : pendingQueries) {
+                if (query.result != null) {
+                    query.result.cancel(true);
                 }
             }
         }
     }
 
+    private void processChild(Queue<DSETestCase> testCasesWorkList, DSETestCase currentTestCase, ChildQuery query, boolean hasPathConditionDiverged) {
+        Map<String, Object> smtSolution;
+        if (query.result == null) {
+            smtSolution = query.cachedSolution;
+        } else {
+            SolverResult smtQueryResult = awaitQuery(query);
+            smtSolution = getQuerySolution(
+                    query.normalizedQuery,
+                    smtQueryResult
+            );
+        }
+
+        if (smtSolution != null) {
+            // Generates the new tests based on the current solution
+            DSETestCase newTestCase = generateNewTestCase(
+                    currentTestCase,
+                    query.child,
+                    smtSolution,
+                    hasPathConditionDiverged);
+
+            testCasesWorkList.offer(newTestCase);
+            addNewTestCaseToTestSuite(newTestCase);
+
+            // NOTE: We consider adding a test case an iteration
+            notifyIteration();
+        }
+    }
+
     /**
      * Child PC is not processed if it was already explored, this is:
      * - Their constraints were already solved by a previous SMT query
@@ -463,16 +566,23 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
     }
 
     /**
-     * Solves an SMT query
+     * Solves an SMT query, in the solver pool if there is one
      * <p>
      * TODO: check how much moving the time estimation to a lower implementation layer improves precision.
      *
+     * @param query
      * @param SMTQuery
      * @return
      */
-    private SolverResult solveQuery(List<Constraint<?>> SMTQuery) {
+    private Future<SolverResult> submitQuery(ChildQuery query, List<Constraint<?>> SMTQuery) {
+        if (solverPool == null) {
+            return CompletableFuture.completedFuture(solveQuery(query, SMTQuery));
+        }
+        return solverPool.submit(() -> solveQuery(query, SMTQuery));
+    }
+
+    private SolverResult solveQuery(ChildQuery query, List<Constraint<?>> SMTQuery) {
         long startSolvingTime;
-        long estimatedSolvingTime;
         SolverResult smtQueryResult;
 
         logger.debug(SOLVING_CURRENT_SMT_QUERY_DEBUG_MESSAGE);
@@ -480,12 +590,30 @@ public abstract class ExplorationAlgorithm extends ExplorationAlgorithmBase {
         /** Track solving time and solve the query **/
         startSolvingTime = System.currentTimeMillis();
         smtQueryResult = doSolveQuery(SMTQuery);
-        estimatedSolvingTime = System.currentTimeMillis() - startSolvingTime;
-        DSEStatistics.getInstance().reportNewSolvingTime(estimatedSolvingTime);
+        query.solvingTime = System.currentTimeMillis() - startSolvingTime;
 
         return smtQueryResult;
     }
 
+    /**
+     * Waits for the result of a query submitted with {@link #submitQuery(ChildQuery, List)}
+     *
+     * @param query
+     * @return the result, or null if the solver failed
+     */
+    private SolverResult awaitQuery(ChildQuery query) {
+        SolverResult smtQueryResult = null;
+        try {
+            smtQueryResult = query.result.get();
+            DSEStatistics.getInstance().reportNewSolvingTime(query.solvingTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            logger.debug(SOLVER_ERROR_DEBUG_MESSAGE, e.getMessage());
+        }
+        return smtQueryResult;
+    }
+
     /**
      * Normalizes the query
      *
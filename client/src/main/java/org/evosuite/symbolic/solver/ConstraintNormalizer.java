@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.BinaryExpression;
+import org.evosuite.symbolic.expr.Cast;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Expression;
+import org.evosuite.symbolic.expr.MultipleExpression;
+import org.evosuite.symbolic.expr.UnaryExpression;
+import org.evosuite.symbolic.expr.bv.IntegerComparison;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.RealComparison;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.constraint.IntegerConstraint;
+import org.evosuite.symbolic.expr.constraint.RealConstraint;
+import org.evosuite.symbolic.expr.constraint.StringConstraint;
+import org.evosuite.symbolic.expr.fp.RealConstant;
+import org.evosuite.symbolic.expr.fp.RealVariable;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringVariable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Computes a canonical form of a constraint system, so that systems that only
+ * differ in the order of their constraints or in the names of their variables
+ * are recognized as equivalent.
+ * <p>
+ * The canonical form renders every constraint with all of its structure
+ * (operators, constants, variable types and bounds). Constraints are ordered by
+ * their rendering with anonymous variables, and variables are then renamed in
+ * order of their first occurrence. Constraint systems containing expressions
+ * that are not known to be rendered faithfully (e.g. references, arrays or
+ * tokenizers) have no canonical form.
+ */
+final class ConstraintNormalizer {
+
+    /**
+     * Canonical form of a constraint system
+     */
+    static final class NormalizedConstraints {
+
+        private final String key;
+
+        private final Map<String, String> canonicalNames;
+
+        private NormalizedConstraints(String key, Map<String, String> canonicalNames) {
+            this.key = key;
+            this.canonicalNames = canonicalNames;
+        }
+
+        /**
+         * @return a string that is equal for all equivalent constraint systems
+         */
+        String getKey() {
+            return key;
+        }
+
+        /**
+         * @return the canonical name of each variable, by its name in the constraint system
+         */
+        Map<String, String> getCanonicalNames() {
+            return canonicalNames;
+        }
+    }
+
+    private static final class UnsupportedExpressionException extends Exception {
+        private static final long serialVersionUID = 6358203596326370546L;
+    }
+
+    private ConstraintNormalizer() {
+    }
+
+    /**
+     * @param constraints a constraint system
+     * @return the canonical form, or {@code null} if the constraint system has none
+     */
+    static NormalizedConstraints normalize(Collection<Constraint<?>> constraints) {
+        try {
+            List<Constraint<?>> sorted = new ArrayList<>(constraints);
+            Map<Constraint<?>, String> shapes = new LinkedHashMap<>();
+            for (Constraint<?> constraint : sorted) {
+                shapes.put(constraint, render(constraint, null));
+            }
+            sorted.sort((c1, c2) -> shapes.get(c1).compareTo(shapes.get(c2)));
+
+            Map<String, String> canonicalNames = new LinkedHashMap<>();
+            Set<String> rendered = new LinkedHashSet<>();
+            for (Constraint<?> constraint : sorted) {
+                rendered.add(render(constraint, canonicalNames));
+            }
+
+            return new NormalizedConstraints(String.join("\n", rendered),
+                    Collections.unmodifiableMap(canonicalNames));
+        } catch (UnsupportedExpressionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param canonicalNames if {@code null}, all variables are rendered anonymously
+     */
+    private static String render(Constraint<?> constraint, Map<String, String> canonicalNames)
+            throws UnsupportedExpressionException {
+        if (!(constraint instanceof IntegerConstraint)
+                && !(constraint instanceof RealConstraint)
+                && !(constraint instanceof StringConstraint)) {
+            throw new UnsupportedExpressionException();
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append(constraint.getClass().getSimpleName()).append('(')
+                .append(constraint.getComparator().name()).append(',');
+        render(constraint.getLeftOperand(), canonicalNames, builder);
+        builder.append(',');
+        render(constraint.getRightOperand(), canonicalNames, builder);
+        builder.append(')');
+        return builder.toString();
+    }
+
+    private static void render(Expression<?> expr, Map<String, String> canonicalNames, StringBuilder builder)
+            throws UnsupportedExpressionException {
+        String type = expr.getClass().getSimpleName();
+
+        if (expr instanceof IntegerVariable) {
+            IntegerVariable v = (IntegerVariable) expr;
+            renderVariable(type, v.getName(), v.getMinValue() + ".." + v.getMaxValue(), canonicalNames, builder);
+        } else if (expr instanceof RealVariable) {
+            RealVariable v = (RealVariable) expr;
+            renderVariable(type, v.getName(), v.getMinValue() + ".." + v.getMaxValue(), canonicalNames, builder);
+        } else if (expr instanceof StringVariable) {
+            renderVariable(type, ((StringVariable) expr).getName(), "", canonicalNames, builder);
+        } else if (expr instanceof IntegerConstant) {
+            builder.append(type).append('(').append(((IntegerConstant) expr).getConcreteValue()).append(')');
+        } else if (expr instanceof RealConstant) {
+            double value = ((RealConstant) expr).getConcreteValue();
+            builder.append(type).append('(').append(Double.doubleToLongBits(value)).append(')');
+        } else if (expr instanceof StringConstant) {
+            String value = ((StringConstant) expr).getConcreteValue();
+            builder.append(type).append('(').append(value.length()).append(':').append(value).append(')');
+        } else if (expr instanceof IntegerComparison) {
+            IntegerComparison comparison = (IntegerComparison) expr;
+            renderOperation(type, null, canonicalNames, builder,
+                    comparison.getLeftOperant(), comparison.getRightOperant());
+        } else if (expr instanceof RealComparison) {
+            RealComparison comparison = (RealComparison) expr;
+            renderOperation(type, null, canonicalNames, builder,
+                    comparison.getLeftOperant(), comparison.getRightOperant());
+        } else if (expr instanceof StringBinaryComparison) {
+            StringBinaryComparison comparison = (StringBinaryComparison) expr;
+            renderOperation(type, comparison.getOperator().name(), canonicalNames, builder,
+                    comparison.getLeftOperand(), comparison.getRightOperand());
+        } else if (expr instanceof MultipleExpression) {
+            MultipleExpression<?> multiple = (MultipleExpression<?>) expr;
+            List<Expression<?>> operands = new ArrayList<>();
+            operands.add(multiple.getLeftOperand());
+            operands.add(multiple.getRightOperand());
+            operands.addAll(multiple.getOther());
+            renderOperation(type, multiple.getOperator().name(), canonicalNames, builder,
+                    operands.toArray(new Expression<?>[0]));
+        } else if (expr instanceof BinaryExpression) {
+            BinaryExpression<?> binary = (BinaryExpression<?>) expr;
+            renderOperation(type, binary.getOperator().name(), canonicalNames, builder,
+                    binary.getLeftOperand(), binary.getRightOperand());
+        } else if (expr instanceof UnaryExpression) {
+            UnaryExpression<?> unary = (UnaryExpression<?>) expr;
+            renderOperation(type, unary.getOperator().name(), canonicalNames, builder, unary.getOperand());
+        } else if (expr instanceof Cast) {
+            renderOperation(type, null, canonicalNames, builder, ((Cast<?>) expr).getArgument());
+        } else {
+            throw new UnsupportedExpressionException();
+        }
+    }
+
+    private static void renderOperation(String type, String operator, Map<String, String> canonicalNames,
+                                        StringBuilder builder, Expression<?>... operands)
+            throws UnsupportedExpressionException {
+        builder.append(type).append('(');
+        if (operator != null) {
+            builder.append(operator);
+        }
+        for (Expression<?> operand : operands) {
+            builder.append(',');
+            if (operand == null) {
+                throw new UnsupportedExpressionException();
+            }
+            render(operand, canonicalNames, builder);
+        }
+        builder.append(')');
+    }
+
+    private static void renderVariable(String type, String name, String bounds,
+                                       Map<String, String> canonicalNames, StringBuilder builder) {
+        builder.append(type).append('[').append(bounds).append(']');
+        if (canonicalNames == null) {
+            builder.append('?');
+            return;
+        }
+        String canonicalName = canonicalNames.get(name);
+        if (canonicalName == null) {
+            canonicalName = "v" + canonicalNames.size();
+            canonicalNames.put(name, canonicalName);
+        }
+        builder.append(canonicalName);
+    }
+}
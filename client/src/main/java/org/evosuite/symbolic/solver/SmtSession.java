@@ -0,0 +1,404 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.apache.commons.exec.CommandLine;
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtConstantDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDeclaration;
+import org.evosuite.symbolic.solver.smt.SmtFunctionDefinition;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.evosuite.symbolic.solver.smt.SmtQueryPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A long-lived SMT solver process that is fed queries incrementally over its standard input.
+ * <p>
+ * Each assertion is asserted in its own {@code (push 1)} scope. A new query only pops the
+ * assertions that are not a prefix of it and asserts the remaining ones, so that successive
+ * path conditions sharing a prefix (as the ones generated by negating conditions of the same
+ * path) only send their differing suffix. Declarations are kept at the scope level at which
+ * they were first needed, and dropped when that scope is popped.
+ * <p>
+ * Idle sessions are pooled by solver command and options; a session is used by one thread at a
+ * time. Any failure closes the session, as its state is then unknown.
+ */
+final class SmtSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(SmtSession.class);
+
+    /**
+     * Maximum number of idle sessions kept for the same solver command
+     */
+    private static final int MAX_IDLE_SESSIONS = 4;
+
+    private static final String END_OF_OUTPUT = new String("<eof>");
+
+    private static final Map<String, Deque<SmtSession>> idleSessions = new HashMap<>();
+
+    private static boolean shutdownHookRegistered = false;
+
+    private final String poolKey;
+
+    private final List<String> preamble;
+
+    private final Process process;
+
+    private final Writer stdin;
+
+    private final BlockingQueue<String> stdout = new LinkedBlockingQueue<>();
+
+    /**
+     * Assertions currently asserted, one per scope level
+     */
+    private final List<String> assertions = new ArrayList<>();
+
+    /**
+     * Declarations and definitions currently known by the solver, by name, with the scope level
+     * they were issued at
+     */
+    private final Map<String, Declaration> declarations = new LinkedHashMap<>();
+
+    private boolean closed = false;
+
+    private static class Declaration {
+
+        private final String text;
+
+        private final int level;
+
+        private Declaration(String text, int level) {
+            this.text = text;
+            this.level = level;
+        }
+    }
+
+    private SmtSession(String poolKey, String solverCmd, List<String> preamble) throws IOException {
+        this.poolKey = poolKey;
+        this.preamble = preamble;
+        this.process = new ProcessBuilder(CommandLine.parse(solverCmd).toStrings()).start();
+        this.stdin = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), StandardCharsets.UTF_8));
+        startReader(process.getInputStream(), stdout);
+        startReader(process.getErrorStream(), null);
+        for (String command : preamble) {
+            send(command);
+        }
+    }
+
+    /**
+     * Get an idle session for the given solver command and query options, or start a new one
+     *
+     * @param solverCmd command line of a solver reading SMT-LIB from its standard input
+     * @param query     query whose logic and options the session must be started with
+     * @return a session reserved to the caller until it is released or closed
+     * @throws IOException if the solver cannot be started
+     */
+    static SmtSession acquire(String solverCmd, SmtQuery query) throws IOException {
+        List<String> preamble = getPreamble(query);
+        String poolKey = solverCmd + "\n" + String.join("\n", preamble);
+        synchronized (idleSessions) {
+            Deque<SmtSession> idle = idleSessions.get(poolKey);
+            while (idle != null && !idle.isEmpty()) {
+                SmtSession session = idle.pollLast();
+                if (session.isAlive()) {
+                    return session;
+                }
+                session.close();
+            }
+            if (!shutdownHookRegistered) {
+                Runtime.getRuntime().addShutdownHook(new Thread(SmtSession::closeAll));
+                shutdownHookRegistered = true;
+            }
+        }
+        logger.debug("Starting new solver session: {}", solverCmd);
+        return new SmtSession(poolKey, solverCmd, preamble);
+    }
+
+    /**
+     * Give back a session obtained from {@link #acquire(String, SmtQuery)}, keeping its state
+     * for the next query
+     */
+    static void release(SmtSession session) {
+        if (session.closed) {
+            return;
+        }
+        synchronized (idleSessions) {
+            Deque<SmtSession> idle = idleSessions.computeIfAbsent(session.poolKey, k -> new ArrayDeque<>());
+            idle.addLast(session);
+            if (idle.size() > MAX_IDLE_SESSIONS) {
+                idle.pollFirst().close();
+            }
+        }
+    }
+
+    /**
+     * Close all idle sessions
+     */
+    static void closeAll() {
+        synchronized (idleSessions) {
+            for (Deque<SmtSession> idle : idleSessions.values()) {
+                for (SmtSession session : idle) {
+                    session.close();
+                }
+            }
+            idleSessions.clear();
+        }
+    }
+
+    private static List<String> getPreamble(SmtQuery query) {
+        List<String> preamble = new ArrayList<>();
+        for (String optionName : query.getOptions()) {
+            preamble.add(String.format("(set-option %s %s)", optionName, query.getOptionValue(optionName)));
+        }
+        if (query.hasLogic()) {
+            preamble.add("(set-logic " + query.getLogic() + ")");
+        }
+        return preamble;
+    }
+
+    /**
+     * Solve the query, reusing the assertions it shares with the previous query as prefix
+     *
+     * @param query       declarations, definitions and assertions to check
+     * @param hardTimeout milliseconds to wait for the solver to answer
+     * @return the solver output in the same form as a solver process run on the whole query,
+     * i.e. the {@code check-sat} answer followed by the model if it is satisfiable
+     * @throws SolverTimeoutException if the solver does not answer in time
+     * @throws SolverErrorException   if the solver reports an error or terminates
+     * @throws IOException            if the solver cannot be written to
+     */
+    String solve(SmtQuery query, long hardTimeout)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        SmtQueryPrinter printer = new SmtQueryPrinter();
+
+        Map<String, String> required = new LinkedHashMap<>();
+        for (SmtConstantDeclaration declaration : query.getConstantDeclarations()) {
+            required.put(declaration.getConstantName(), printer.print(declaration));
+        }
+        for (SmtFunctionDeclaration declaration : query.getFunctionDeclarations()) {
+            required.put(declaration.getFunctionName(), printer.print(declaration));
+        }
+        for (SmtFunctionDefinition definition : query.getFunctionDefinitions()) {
+            String text = printer.print(definition);
+            required.put(text, text);
+        }
+
+        List<String> queryAssertions = new ArrayList<>();
+        for (SmtAssertion assertion : query.getAssertions()) {
+            queryAssertions.add(printer.print(assertion));
+        }
+
+        int common = 0;
+        while (common < assertions.size() && common < queryAssertions.size()
+                && assertions.get(common).equals(queryAssertions.get(common))) {
+            common++;
+        }
+
+        popTo(common);
+
+        for (Map.Entry<String, String> entry : required.entrySet()) {
+            Declaration known = declarations.get(entry.getKey());
+            if (known != null && !known.text.equals(entry.getValue())) {
+                // the name was declared with another sort, which cannot be undone by popping
+                reset();
+                common = 0;
+                break;
+            }
+        }
+
+        for (Map.Entry<String, String> entry : required.entrySet()) {
+            if (!declarations.containsKey(entry.getKey())) {
+                send(entry.getValue());
+                declarations.put(entry.getKey(), new Declaration(entry.getValue(), assertions.size()));
+            }
+        }
+
+        for (String assertion : queryAssertions.subList(common, queryAssertions.size())) {
+            send("(push 1)");
+            send(assertion);
+            assertions.add(assertion);
+        }
+
+        logger.debug("Solver session reused {} of {} assertions", common, queryAssertions.size());
+
+        send("(check-sat)");
+        stdin.flush();
+        long deadline = System.currentTimeMillis() + hardTimeout;
+        String answer = readLine(deadline);
+        while (answer.isEmpty()) {
+            answer = readLine(deadline);
+        }
+        if (answer.startsWith("(error")) {
+            close();
+            throw new SolverErrorException("Solver session error: " + answer);
+        }
+        if (!answer.equals("sat")) {
+            return answer + "\n";
+        }
+
+        send("(get-model)");
+        stdin.flush();
+        StringBuilder model = new StringBuilder();
+        int depth = 0;
+        boolean inString = false;
+        do {
+            String line = readLine(deadline);
+            model.append(line).append("\n");
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '"') {
+                    inString = !inString;
+                } else if (!inString && c == '(') {
+                    depth++;
+                } else if (!inString && c == ')') {
+                    depth--;
+                }
+            }
+        } while (depth > 0 || model.toString().trim().isEmpty());
+
+        if (model.toString().startsWith("(error")) {
+            close();
+            throw new SolverErrorException("Solver session error: " + model.toString().trim());
+        }
+        return answer + "\n" + model;
+    }
+
+    private void popTo(int level) throws IOException {
+        int pops = assertions.size() - level;
+        if (pops <= 0) {
+            return;
+        }
+        send("(pop " + pops + ")");
+        assertions.subList(level, assertions.size()).clear();
+        Iterator<Declaration> it = declarations.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().level > level) {
+                it.remove();
+            }
+        }
+    }
+
+    private void reset() throws IOException {
+        send("(reset)");
+        for (String command : preamble) {
+            send(command);
+        }
+        assertions.clear();
+        declarations.clear();
+    }
+
+    private void send(String command) throws IOException {
+        stdin.write(command);
+        stdin.write("\n");
+    }
+
+    private String readLine(long deadline) throws SolverTimeoutException, SolverErrorException {
+        String line;
+        try {
+            line = stdout.poll(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            close();
+            throw new SolverTimeoutException();
+        }
+        if (line == null) {
+            logger.debug("Solver session stopped due to solver timeout");
+            close();
+            throw new SolverTimeoutException();
+        }
+        if (line == END_OF_OUTPUT) {
+            close();
+            throw new SolverErrorException("Solver session terminated unexpectedly");
+        }
+        return line.trim();
+    }
+
+    private boolean isAlive() {
+        try {
+            process.exitValue();
+            return false;
+        } catch (IllegalThreadStateException e) {
+            return !closed;
+        }
+    }
+
+    /**
+     * Terminate the solver process
+     */
+    void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            stdin.close();
+        } catch (IOException e) {
+            // the process is destroyed anyway
+        }
+        process.destroy();
+    }
+
+    /**
+     * Lines of the stream are added to the queue (if any), followed by {@link #END_OF_OUTPUT}
+     */
+    private static void startReader(InputStream stream, BlockingQueue<String> lines) {
+        Thread reader = new Thread(() -> {
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (lines != null) {
+                        lines.add(line);
+                    } else {
+                        logger.debug("Solver session: {}", line);
+                    }
+                }
+            } catch (IOException e) {
+                // the process was destroyed
+            } finally {
+                if (lines != null) {
+                    lines.add(END_OF_OUTPUT);
+                }
+            }
+        }, "SmtSession-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+}
@@ -20,12 +20,15 @@
 package org.evosuite.symbolic.solver;
 
 import org.apache.commons.exec.ExecuteException;
+import org.evosuite.Properties;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
 import org.evosuite.utils.ProcessLauncher;
 import org.evosuite.utils.ProcessTimeoutException;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 public abstract class SmtSolver extends Solver {
 
@@ -37,6 +40,44 @@ public abstract class SmtSolver extends Solver {
         super();
     }
 
+    /**
+     * Runs the solver on the query, either in a pooled incremental session (if
+     * {@link Properties#DSE_SOLVER_SESSIONS} is enabled) or in a new solver process. If the
+     * session fails, the query is retried in a new process. Other solvers can run while waiting
+     * for the solver.
+     *
+     * @param solverCmd
+     * @param query
+     * @param smtQueryStr the query as printed by {@link org.evosuite.symbolic.solver.smt.SmtQueryPrinter}
+     * @param hardTimeout
+     * @param stdout
+     * @throws IOException
+     * @throws SolverTimeoutException
+     * @throws SolverErrorException
+     */
+    protected static void launchSolver(String solverCmd, SmtQuery query, String smtQueryStr, int hardTimeout, OutputStream stdout)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+
+        runWithoutConcreteValues(() -> {
+            if (Properties.DSE_SOLVER_SESSIONS) {
+                SmtSession session = SmtSession.acquire(solverCmd, query);
+                try {
+                    String output = session.solve(query, hardTimeout);
+                    SmtSession.release(session);
+                    stdout.write(output.getBytes(StandardCharsets.UTF_8));
+                    return;
+                } catch (SolverErrorException ex) {
+                    logger.debug("Solver session failed, retrying with a new solver process: {}", ex.getMessage());
+                } catch (SolverTimeoutException | IOException ex) {
+                    session.close();
+                    throw ex;
+                }
+            }
+
+            launchNewSolvingProcess(solverCmd, smtQueryStr, hardTimeout, stdout);
+        });
+    }
+
     /**
      * @param solverCmd
      * @param smtQueryStr
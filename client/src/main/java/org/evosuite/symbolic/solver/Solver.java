@@ -33,6 +33,7 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.lang.reflect.Array;
 import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Interface for SMT solvers
@@ -41,6 +42,16 @@ import java.util.*;
  */
 public abstract class Solver {
 
+    /**
+     * Solvers read and temporarily overwrite the concrete values of the variables (and thereby of
+     * the expressions) of the constraints they solve. Constraint systems solved at the same time
+     * share these variables, so solvers only touch concrete values while holding this lock.
+     * External SMT solvers release it while they wait for the solver process (see
+     * {@link #runWithoutConcreteValues(SolverTask)}); the EvoSuite solver keeps it for its whole
+     * search, so its queries never run in parallel.
+     */
+    private static final ReentrantLock concreteValuesLock = new ReentrantLock();
+
     private final boolean addMissingVariables;
     private final SolverCache solverCache;
 
@@ -70,11 +81,13 @@ public abstract class Solver {
      * @throws SolverErrorException      the solver reported an error after its execution
      */
     public SolverResult solve(Collection<Constraint<?>> constraints) throws SolverTimeoutException, SolverParseException, SolverEmptyQueryException, SolverErrorException, IOException {
-        if (solverCache.hasCachedResult(constraints)) {
-            return solverCache.getCachedResult();
+        SolverResult cachedResult = solverCache.getCachedResult(constraints);
+        if (cachedResult != null) {
+            return cachedResult;
         }
 
         SolverResult solverResult;
+        concreteValuesLock.lock();
         try {
             solverResult = executeSolver(constraints);
 
@@ -83,11 +96,42 @@ public abstract class Solver {
             }
         } catch (IllegalArgumentException | IOException e) {
             solverResult = null;
+        } finally {
+            concreteValuesLock.unlock();
         }
 
         return solverResult;
     }
 
+    /**
+     * Runs a task that does not access concrete values (e.g., waiting for an external solver)
+     * without blocking other solvers that are solving at the same time.
+     *
+     * @param task
+     * @throws IOException
+     * @throws SolverTimeoutException
+     * @throws SolverErrorException
+     */
+    protected static void runWithoutConcreteValues(SolverTask task)
+            throws IOException, SolverTimeoutException, SolverErrorException {
+        int holdCount = concreteValuesLock.getHoldCount();
+        for (int i = 0; i < holdCount; i++) {
+            concreteValuesLock.unlock();
+        }
+        try {
+            task.run();
+        } finally {
+            for (int i = 0; i < holdCount; i++) {
+                concreteValuesLock.lock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    protected interface SolverTask {
+        void run() throws IOException, SolverTimeoutException, SolverErrorException;
+    }
+
     /**
      * @param constraints
      * @return
@@ -19,25 +19,62 @@
  */
 package org.evosuite.symbolic.solver;
 
+import org.evosuite.Properties;
 import org.evosuite.symbolic.expr.Constraint;
-
+import org.evosuite.symbolic.solver.ConstraintNormalizer.NormalizedConstraints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.HashMap;
-
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of the results of the constraint solver.
+ * <p>
+ * Constraint systems are looked up by their canonical form (see {@link ConstraintNormalizer}),
+ * so that systems that only differ in the order of their constraints or in the names of their
+ * variables share the same result. Systems without canonical form are looked up by the set of
+ * their constraints. The cache is thread-safe and keeps at most
+ * {@link Properties#DSE_SOLVER_CACHE_SIZE} results, evicting the least recently used ones.
+ * <p>
+ * If {@link Properties#DSE_SOLVER_CACHE_FILE} is set, results of canonical systems are also
+ * appended to that file and loaded from it when the cache is created, so that later runs on the
+ * same class can reuse them.
+ */
 public final class SolverCache {
 
-    private static final SolverCache instance = new SolverCache();
-    private static final String CONTRAINT_NOT_CACHED_EXCEPTION_MESSAGE = "The constraint is not cached!";
+    private static final Logger logger = LoggerFactory.getLogger(SolverCache.class);
+
+    private static SolverCache instance = null;
     private static final String SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE = "Unable to save solver result as its null.";
 
     private int number_of_hits = 0;
     private int number_of_accesses = 0;
     private int cached_sat_result_count = 0;
     private int cached_unsat_result_count = 0;
-    private boolean valid_cached_solution = false;
 
-    private final HashMap<Collection<Constraint<?>>, SolverResult> cached_solver_results = new HashMap<>();
-    private SolverResult cached_solution = null;
+    /**
+     * Results by key: canonical keys are strings, other keys are sets of constraints.
+     * Models of canonical keys use the canonical variable names.
+     */
+    private final LinkedHashMap<Object, SolverResult> cached_solver_results;
+
+    private final File store;
 
     public int getNumberOfUNSATs() {
         return cached_unsat_result_count;
@@ -47,73 +84,151 @@ public final class SolverCache {
         return cached_sat_result_count;
     }
 
-    private SolverCache() {
-        /* empty constructor */
+    SolverCache(final int capacity, File store) {
+        this.cached_solver_results = new LinkedHashMap<Object, SolverResult>(16, 0.75f, true) {
+            private static final long serialVersionUID = -2283813451213536484L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, SolverResult> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.store = store;
+        if (store != null && store.exists()) {
+            load();
+        }
     }
 
-    public static SolverCache getInstance() {
+    public static synchronized SolverCache getInstance() {
+        if (instance == null) {
+            String file = Properties.DSE_SOLVER_CACHE_FILE;
+            instance = new SolverCache(Properties.DSE_SOLVER_CACHE_SIZE,
+                    file == null || file.isEmpty() ? null : new File(file));
+        }
         return instance;
     }
 
-    private void addUNSAT(Collection<Constraint<?>> unsat_constraints, SolverResult unsatResult) {
-        cached_solver_results.put(unsat_constraints, unsatResult);
-        cached_unsat_result_count++;
-    }
-
-    private void addSAT(Collection<Constraint<?>> sat_constraints, SolverResult satResult) {
-        cached_solver_results.put(sat_constraints, satResult);
-        cached_sat_result_count++;
-    }
-
-    public boolean hasCachedResult(Collection<Constraint<?>> constraints) {
-        number_of_accesses++;
-
-        if (this.cached_solver_results.containsKey(constraints)) {
-            valid_cached_solution = true;
-            cached_solution = this.cached_solver_results.get(constraints);
+    /**
+     * Returns the cached result for a constraint system
+     *
+     * @param constraints the constraint system
+     * @return the result, or {@code null} if the system is not cached
+     */
+    public SolverResult getCachedResult(Collection<Constraint<?>> constraints) {
+        NormalizedConstraints normalized = ConstraintNormalizer.normalize(constraints);
+        SolverResult result;
+        synchronized (this) {
+            number_of_accesses++;
+            result = cached_solver_results.get(getKey(constraints, normalized));
+            if (result == null) {
+                return null;
+            }
             number_of_hits++;
-            return true;
-        } else {
-            valid_cached_solution = false;
-            return false;
         }
+        if (normalized == null || !result.isSAT()) {
+            return result;
+        }
+        return renameModel(result, invert(normalized.getCanonicalNames()));
     }
 
-    public double getHitRate() {
+    public synchronized double getHitRate() {
         return (double) this.number_of_hits / (double) this.number_of_accesses;
     }
 
     /**
-     * If not in cache returns IllegalArgumentException()
+     * Saves result to cache
      *
-     * @return
+     * @param constraints
+     * @param solverResult
      */
-    public SolverResult getCachedResult() {
+    public void saveSolverResult(Collection<Constraint<?>> constraints, SolverResult solverResult) {
+        if (solverResult == null) {
+            throw new IllegalArgumentException(SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
+        }
 
-        if (valid_cached_solution == false) {
-            throw new IllegalArgumentException(CONTRAINT_NOT_CACHED_EXCEPTION_MESSAGE);
+        NormalizedConstraints normalized = ConstraintNormalizer.normalize(constraints);
+        SolverResult result = solverResult;
+        if (normalized != null && solverResult.isSAT()) {
+            result = renameModel(solverResult, normalized.getCanonicalNames());
         }
 
-        valid_cached_solution = false;
-        return this.cached_solution;
+        synchronized (this) {
+            cached_solver_results.put(getKey(constraints, normalized), result);
+            if (solverResult.isUNSAT()) {
+                cached_unsat_result_count++;
+            } else {
+                cached_sat_result_count++;
+            }
+            if (store != null && normalized != null) {
+                append(normalized.getKey(), result);
+            }
+        }
+    }
+
+    private static Object getKey(Collection<Constraint<?>> constraints, NormalizedConstraints normalized) {
+        if (normalized != null) {
+            return normalized.getKey();
+        }
+        return new HashSet<>(constraints);
     }
 
     /**
-     * Saves result to cache
-     *
-     * @param constraints
-     * @param solverResult
+     * Variables of the model that are not renamed keep their name
      */
-    public void saveSolverResult(Collection<Constraint<?>> constraints, SolverResult solverResult) {
-        if (solverResult == null) {
-            throw new IllegalArgumentException(SOLVER_RESULT_CANNOT_BE_NULL_EXCEPTION_MESSAGE);
+    private static SolverResult renameModel(SolverResult result, Map<String, String> names) {
+        Map<String, Object> model = new HashMap<>();
+        for (Map.Entry<String, Object> entry : result.getModel().entrySet()) {
+            model.put(names.getOrDefault(entry.getKey(), entry.getKey()), entry.getValue());
         }
+        return SolverResult.newSAT(model);
+    }
 
-        if (solverResult.isUNSAT()) {
-            addUNSAT(constraints, solverResult);
-        } else {
-            addSAT(constraints, solverResult);
+    private static Map<String, String> invert(Map<String, String> names) {
+        Map<String, String> inverse = new HashMap<>();
+        for (Map.Entry<String, String> entry : names.entrySet()) {
+            inverse.put(entry.getValue(), entry.getKey());
         }
+        return inverse;
     }
 
+    /**
+     * Records are [int keyLength][key][int resultLength][serialized result]
+     */
+    private void append(String key, SolverResult result) {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(store, true))) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream objects = new ObjectOutputStream(bytes)) {
+                objects.writeObject(result);
+            }
+            byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(keyBytes.length);
+            out.write(keyBytes);
+            out.writeInt(bytes.size());
+            bytes.writeTo(out);
+        } catch (IOException e) {
+            logger.warn("Cannot write solver cache file {}: {}", store, e.getMessage());
+        }
+    }
+
+    private void load() {
+        int loaded = 0;
+        try (DataInputStream in = new DataInputStream(new FileInputStream(store))) {
+            while (true) {
+                byte[] key = new byte[in.readInt()];
+                in.readFully(key);
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                try (ObjectInputStream objects = new ObjectInputStream(new ByteArrayInputStream(value))) {
+                    cached_solver_results.put(new String(key, StandardCharsets.UTF_8),
+                            (SolverResult) objects.readObject());
+                }
+                loaded++;
+            }
+        } catch (EOFException e) {
+            // end of the store, possibly in the middle of an incomplete record
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            logger.warn("Cannot read solver cache file {}: {}", store, e.getMessage());
+        }
+        logger.debug("Loaded {} solver results from {}", loaded, store);
+    }
 }
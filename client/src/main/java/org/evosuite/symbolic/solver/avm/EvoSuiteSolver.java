@@ -26,14 +26,31 @@ import org.evosuite.symbolic.expr.bv.IntegerVariable;
 import org.evosuite.symbolic.expr.fp.RealVariable;
 import org.evosuite.symbolic.expr.str.StringVariable;
 import org.evosuite.symbolic.solver.*;
+import org.evosuite.utils.MersenneTwister;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Solves a collection of constraints using the Alternating Variable method.
@@ -62,44 +79,30 @@ public final class EvoSuiteSolver extends Solver {
             return satResult;
         }
 
-        for (int attempt = 0; attempt <= Properties.DSE_VARIABLE_RESETS; attempt++) {
-            for (Variable<?> v : variables) {
-                long currentTimeMillis = System.currentTimeMillis();
-
-                long elapsed_solving_time = currentTimeMillis - startTimeMillis;
-                if (elapsed_solving_time > timeout) {
-                    throw new SolverTimeoutException();
-                }
-
-                log.debug("Variable: " + v + ", " + variables);
-
-                if (v instanceof IntegerVariable) {
-                    IntegerVariable integerVariable = (IntegerVariable) v;
-                    IntegerAVM avm = new IntegerAVM(integerVariable, constraints, startTimeMillis, timeout);
-                    avm.applyAVM();
-                } else if (v instanceof RealVariable) {
-                    RealVariable realVariable = (RealVariable) v;
-                    RealAVM avm = new RealAVM(realVariable, constraints, startTimeMillis, timeout);
-                    avm.applyAVM();
-                } else if (v instanceof StringVariable) {
-                    StringVariable strVariable = (StringVariable) v;
-                    StringAVM avm = new StringAVM(strVariable, constraints, startTimeMillis, timeout);
-                    avm.applyAVM();
-                } else {
-                    throw new RuntimeException("Unknown variable type " + v.getClass().getName());
-                }
-                distance = DistanceEstimator.getDistance(constraints);
-                if (distance <= 0.0) {
-                    log.info("Distance is 0, ending search");
-                    break;
+        if (Properties.DSE_SOLVER_RESTART_THREADS > 1 && Properties.DSE_VARIABLE_RESETS > 0) {
+            try {
+                Map<String, Object> model = solveWithParallelRestarts(constraints, startTimeMillis, timeout);
+                if (model != null) {
+                    log.debug("Found solution in a parallel restart");
+                    return SolverResult.newSAT(model);
                 }
+                log.debug("Returning unknown, search was not successful");
+                return SolverResult.newUnknown();
+            } catch (IOException e) {
+                log.info("Cannot copy constraints for parallel restarts, searching sequentially: " + e);
             }
+        }
+
+        Map<Variable<?>, List<Constraint<?>>> constraintsByVariable = getConstraintsByVariable(constraints);
+
+        for (int attempt = 0; attempt <= Properties.DSE_VARIABLE_RESETS; attempt++) {
+            distance = searchVariables(variables, constraints, constraintsByVariable, startTimeMillis, timeout);
             if (distance <= 0.0) {
                 log.info("Distance is 0, ending search");
                 break;
             } else {
                 log.info("Randomizing variables");
-                randomizeValues(variables, getConstants(constraints));
+                randomizeValues(variables, getConstants(constraints), null);
             }
         }
 
@@ -119,7 +122,154 @@ public final class EvoSuiteSolver extends Solver {
 
     }
 
-    private static void randomizeValues(Set<Variable<?>> variables, Set<Object> constants) {
+    /**
+     * Applies the AVM to each variable in turn, until the distance is 0
+     *
+     * @return the distance of the constraints after the search
+     */
+    private static double searchVariables(Set<Variable<?>> variables, Collection<Constraint<?>> constraints,
+                                          Map<Variable<?>, List<Constraint<?>>> constraintsByVariable,
+                                          long startTimeMillis, long timeout) throws SolverTimeoutException {
+        double distance = DistanceEstimator.getDistance(constraints);
+        for (Variable<?> v : variables) {
+            long currentTimeMillis = System.currentTimeMillis();
+
+            long elapsed_solving_time = currentTimeMillis - startTimeMillis;
+            if (elapsed_solving_time > timeout || Thread.currentThread().isInterrupted()) {
+                throw new SolverTimeoutException();
+            }
+
+            log.debug("Variable: " + v + ", " + variables);
+
+            if (v instanceof IntegerVariable) {
+                IntegerVariable integerVariable = (IntegerVariable) v;
+                IntegerAVM avm = new IntegerAVM(integerVariable, constraints, constraintsByVariable.get(v), startTimeMillis, timeout);
+                avm.applyAVM();
+            } else if (v instanceof RealVariable) {
+                RealVariable realVariable = (RealVariable) v;
+                RealAVM avm = new RealAVM(realVariable, constraints, constraintsByVariable.get(v), startTimeMillis, timeout);
+                avm.applyAVM();
+            } else if (v instanceof StringVariable) {
+                StringVariable strVariable = (StringVariable) v;
+                StringAVM avm = new StringAVM(strVariable, constraints, constraintsByVariable.get(v), startTimeMillis, timeout);
+                avm.applyAVM();
+            } else {
+                throw new RuntimeException("Unknown variable type " + v.getClass().getName());
+            }
+            distance = DistanceEstimator.getDistance(constraints);
+            if (distance <= 0.0) {
+                log.info("Distance is 0, ending search");
+                break;
+            }
+        }
+        return distance;
+    }
+
+    /**
+     * Runs the first search and the {@link Properties#DSE_VARIABLE_RESETS} random restarts
+     * independently, on {@link Properties#DSE_SOLVER_RESTART_THREADS} threads. The AVMs search by
+     * changing the concrete values of the variables, so each restart works on its own copy of the
+     * constraints, and draws its random values with its own seed. The constraints passed in are
+     * not changed.
+     *
+     * @return the model of the first restart, in restart order, that found a solution among those
+     * that finished, or null if none did
+     * @throws SolverTimeoutException if no restart found a solution and one of them timed out
+     * @throws IOException            if the constraints cannot be copied
+     */
+    private static Map<String, Object> solveWithParallelRestarts(Collection<Constraint<?>> constraints,
+                                                                 long startTimeMillis, long timeout)
+            throws SolverTimeoutException, IOException {
+        byte[] serializedConstraints = serialize(constraints);
+        Set<Object> constants = getConstants(constraints);
+
+        int restarts = Properties.DSE_VARIABLE_RESETS + 1;
+        List<Callable<Map<String, Object>>> tasks = new ArrayList<>();
+        for (int restart = 0; restart < restarts; restart++) {
+            // the first search starts from the current values, as in the sequential search
+            Random random = restart == 0 ? null : new MersenneTwister(Randomness.nextLong());
+            tasks.add(() -> {
+                Collection<Constraint<?>> copy = deserialize(serializedConstraints);
+                Set<Variable<?>> variables = getVariables(copy);
+                if (random != null) {
+                    randomizeValues(variables, constants, random);
+                }
+                double distance = searchVariables(variables, copy, getConstraintsByVariable(copy),
+                        startTimeMillis, timeout);
+                return distance <= 0 ? getConcreteValues(variables) : null;
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.min(Properties.DSE_SOLVER_RESTART_THREADS, restarts));
+        try {
+            CompletionService<Map<String, Object>> completion = new ExecutorCompletionService<>(pool);
+            List<Future<Map<String, Object>>> futures = new ArrayList<>();
+            for (Callable<Map<String, Object>> task : tasks) {
+                futures.add(completion.submit(task));
+            }
+
+            boolean timedOut = false;
+            for (int finished = 0; finished < restarts; finished++) {
+                Future<Map<String, Object>> future = completion.take();
+                try {
+                    if (future.get() != null) {
+                        break;
+                    }
+                } catch (ExecutionException e) {
+                    if (!(e.getCause() instanceof SolverTimeoutException)) {
+                        throw new RuntimeException(e.getCause());
+                    }
+                    timedOut = true;
+                }
+            }
+            pool.shutdownNow();
+
+            // merged in restart order, so that the result does not depend on which thread was faster
+            for (Future<Map<String, Object>> future : futures) {
+                if (future.isDone() && !future.isCancelled()) {
+                    try {
+                        Map<String, Object> model = future.get();
+                        if (model != null) {
+                            return model;
+                        }
+                    } catch (ExecutionException e) {
+                        // timed out or interrupted
+                    }
+                }
+            }
+            if (timedOut) {
+                throw new SolverTimeoutException();
+            }
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SolverTimeoutException();
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static byte[] serialize(Collection<Constraint<?>> constraints) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(new ArrayList<>(constraints));
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<Constraint<?>> deserialize(byte[] serializedConstraints) throws IOException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serializedConstraints))) {
+            return (Collection<Constraint<?>>) in.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    /**
+     * @param random the random number generator of a parallel restart, or null to use {@link Randomness}
+     */
+    private static void randomizeValues(Set<Variable<?>> variables, Set<Object> constants, Random random) {
         Set<String> stringConstants = new HashSet<>();
         Set<Long> longConstants = new HashSet<>();
         Set<Double> realConstants = new HashSet<>();
@@ -137,29 +287,66 @@ public final class EvoSuiteSolver extends Solver {
         for (Variable<?> v : variables) {
             if (v instanceof StringVariable) {
                 StringVariable sv = (StringVariable) v;
-                if (!stringConstants.isEmpty() && Randomness.nextDouble() < Properties.DSE_CONSTANT_PROBABILITY) {
-                    sv.setConcreteValue(Randomness.choice(stringConstants));
+                if (!stringConstants.isEmpty() && nextDouble(random) < Properties.DSE_CONSTANT_PROBABILITY) {
+                    sv.setConcreteValue(choice(random, stringConstants));
                 } else {
-                    sv.setConcreteValue(Randomness.nextString(Properties.STRING_LENGTH));
+                    sv.setConcreteValue(nextString(random, Properties.STRING_LENGTH));
                 }
             } else if (v instanceof IntegerVariable) {
                 IntegerVariable iv = (IntegerVariable) v;
-                if (!longConstants.isEmpty() && Randomness.nextDouble() < Properties.DSE_CONSTANT_PROBABILITY) {
-                    iv.setConcreteValue(Randomness.choice(longConstants));
+                if (!longConstants.isEmpty() && nextDouble(random) < Properties.DSE_CONSTANT_PROBABILITY) {
+                    iv.setConcreteValue(choice(random, longConstants));
                 } else {
-                    iv.setConcreteValue((long) Randomness.nextInt(Properties.MAX_INT * 2) - Properties.MAX_INT);
+                    iv.setConcreteValue((long) nextInt(random, Properties.MAX_INT * 2) - Properties.MAX_INT);
                 }
             } else if (v instanceof RealVariable) {
                 RealVariable rv = (RealVariable) v;
-                if (!realConstants.isEmpty() && Randomness.nextDouble() < Properties.DSE_CONSTANT_PROBABILITY) {
-                    rv.setConcreteValue(Randomness.choice(realConstants));
+                if (!realConstants.isEmpty() && nextDouble(random) < Properties.DSE_CONSTANT_PROBABILITY) {
+                    rv.setConcreteValue(choice(random, realConstants));
                 } else {
-                    rv.setConcreteValue((long) Randomness.nextInt(Properties.MAX_INT * 2) - Properties.MAX_INT);
+                    rv.setConcreteValue((long) nextInt(random, Properties.MAX_INT * 2) - Properties.MAX_INT);
                 }
             }
         }
     }
 
+    private static double nextDouble(Random random) {
+        return random == null ? Randomness.nextDouble() : random.nextDouble();
+    }
+
+    private static int nextInt(Random random, int max) {
+        return random == null ? Randomness.nextInt(max) : random.nextInt(max);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T choice(Random random, Set<T> set) {
+        return random == null ? Randomness.choice(set) : (T) set.toArray()[random.nextInt(set.size())];
+    }
+
+    private static String nextString(Random random, int length) {
+        if (random == null) {
+            return Randomness.nextString(length);
+        }
+        char[] characters = new char[length];
+        for (int i = 0; i < length; i++)
+            characters[i] = (char) (random.nextInt(128 - 32) + 32);
+        return new String(characters);
+    }
+
+    /**
+     * Index of the constraints by the variables they mention, so that the search on a variable
+     * only re-evaluates the constraints that variable can change.
+     */
+    private static Map<Variable<?>, List<Constraint<?>>> getConstraintsByVariable(Collection<Constraint<?>> constraints) {
+        Map<Variable<?>, List<Constraint<?>>> constraintsByVariable = new HashMap<>();
+        for (Constraint<?> c : constraints) {
+            for (Variable<?> v : c.getVariables()) {
+                constraintsByVariable.computeIfAbsent(v, k -> new ArrayList<>()).add(c);
+            }
+        }
+        return constraintsByVariable;
+    }
+
     private static Set<Object> getConstants(Collection<Constraint<?>> constraints) {
         Set<Object> constants = new HashSet<>();
         for (Constraint<?> c : constraints) {
@@ -21,7 +21,6 @@ package org.evosuite.symbolic.solver.avm;
 
 import org.evosuite.symbolic.expr.Constraint;
 import org.evosuite.symbolic.expr.bv.IntegerVariable;
-import org.evosuite.symbolic.solver.DistanceEstimator;
 import org.evosuite.symbolic.solver.SolverTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +35,11 @@ final class IntegerAVM extends VariableAVM {
         this.intVar = intVar;
     }
 
+    public IntegerAVM(IntegerVariable intVar, Collection<Constraint<?>> cnstr, Collection<Constraint<?>> dependentCnstr, long startTimeMillis, long timeout) {
+        super(cnstr, dependentCnstr, startTimeMillis, timeout);
+        this.intVar = intVar;
+    }
+
     static Logger log = LoggerFactory.getLogger(IntegerAVM.class);
 
     private long checkpointedConcreteValue;
@@ -106,7 +110,7 @@ final class IntegerAVM extends VariableAVM {
         boolean improvement = false;
 
         log.debug("Initial distance calculation " + intVar);
-        final double initial_distance = DistanceEstimator.getDistance(cnstr);
+        final double initial_distance = getDistance();
         checkpointVar(initial_distance);
         log.debug("Initial distance calculation done");
 
@@ -123,7 +127,7 @@ final class IntegerAVM extends VariableAVM {
             // Try increment
             log.debug("Trying to increment " + intVar);
             incrementVar(1);
-            newDist = DistanceEstimator.getDistance(cnstr);
+            newDist = getDistance();
             log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
             if (distImpr(newDist)) {
                 improvement = true;
@@ -140,7 +144,7 @@ final class IntegerAVM extends VariableAVM {
                 // Try decrement
                 log.debug("Trying to decrement " + intVar);
                 incrementVar(-1);
-                newDist = DistanceEstimator.getDistance(cnstr);
+                newDist = getDistance();
                 log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
                 if (distImpr(newDist)) {
                     improvement = true;
@@ -182,7 +186,7 @@ final class IntegerAVM extends VariableAVM {
         log.debug("Trying increment " + delta + " of " + intVar.toString());
 
         incrementVar(delta);
-        double newDist = DistanceEstimator.getDistance(cnstr);
+        double newDist = getDistance();
         log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
         while (distImpr(newDist)) {
             if (isFinished()) {
@@ -198,7 +202,7 @@ final class IntegerAVM extends VariableAVM {
             delta = 2 * delta;
             log.debug("Trying increment " + delta + " of " + intVar);
             incrementVar(delta);
-            newDist = DistanceEstimator.getDistance(cnstr);
+            newDist = getDistance();
             log.debug("newDist: " + newDist + " oldDist: " + checkpointedDistance);
         }
         log.debug("No improvement on " + intVar);
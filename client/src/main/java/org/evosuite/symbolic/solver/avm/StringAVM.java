@@ -25,7 +25,6 @@ import org.evosuite.symbolic.expr.constraint.StringConstraint;
 import org.evosuite.symbolic.expr.str.StringValue;
 import org.evosuite.symbolic.expr.str.StringVariable;
 import org.evosuite.symbolic.expr.token.HasMoreTokensExpr;
-import org.evosuite.symbolic.solver.DistanceEstimator;
 import org.evosuite.symbolic.solver.SolverTimeoutException;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
@@ -42,6 +41,11 @@ final class StringAVM extends VariableAVM {
         this.strVar = strVar;
     }
 
+    public StringAVM(StringVariable strVar, Collection<Constraint<?>> cnstr, Collection<Constraint<?>> dependentCnstr, long start_time, long timeout) {
+        super(cnstr, dependentCnstr, start_time, timeout);
+        this.strVar = strVar;
+    }
+
     static Logger log = LoggerFactory.getLogger(StringAVM.class);
 
     private double checkpointDistance = Double.MAX_VALUE;
@@ -64,7 +68,7 @@ final class StringAVM extends VariableAVM {
         log.debug("Trying to remove characters");
         boolean improvement = false;
 
-        checkpointVar(DistanceEstimator.getDistance(cnstr));
+        checkpointVar(getDistance());
 
         // First chop characters from the back until distance doesn't improve
         String oldString = strVar.getConcreteValue();
@@ -80,7 +84,7 @@ final class StringAVM extends VariableAVM {
             log.debug("Current attempt: " + newStr);
             improved = false;
 
-            double newDist = DistanceEstimator.getDistance(cnstr);
+            double newDist = getDistance();
 
             // if (distImpr(newDist)) {
             if (newDist <= checkpointDistance) {
@@ -113,7 +117,7 @@ final class StringAVM extends VariableAVM {
         // try to add at the end
         log.debug("Trying to add characters");
 
-        checkpointVar(DistanceEstimator.getDistance(cnstr));
+        checkpointVar(getDistance());
 
         // Finally add new characters at the end of the string
         improved = true;
@@ -127,7 +131,7 @@ final class StringAVM extends VariableAVM {
             char charToInsert = Randomness.nextChar();
             String newStr = oldString + charToInsert;
             strVar.setConcreteValue(newStr);
-            double newDist = DistanceEstimator.getDistance(cnstr);
+            double newDist = getDistance();
             log.debug("Adding: " + newStr + ": " + newDist);
             if (distImpr(newDist)) {
                 improvement = true;
@@ -165,7 +169,7 @@ final class StringAVM extends VariableAVM {
                 char charToInsert = Randomness.nextChar();
                 String newStr = oldString + delimiterStr + charToInsert;
                 strVar.setConcreteValue(newStr);
-                double newDist = DistanceEstimator.getDistance(cnstr);
+                double newDist = getDistance();
                 log.debug("Adding: " + newStr + ": " + newDist);
                 if (distImpr(newDist)) {
                     improvement = true;
@@ -209,7 +213,7 @@ final class StringAVM extends VariableAVM {
      * @return
      */
     private boolean doCharacterAVM(int position) throws SolverTimeoutException {
-        checkpointVar(DistanceEstimator.getDistance(cnstr));
+        checkpointVar(getDistance());
         boolean done = false;
         boolean hasImproved = false;
 
@@ -231,7 +235,7 @@ final class StringAVM extends VariableAVM {
             characters[position] = replacement;
             String newString = new String(characters);
             strVar.setConcreteValue(newString);
-            double newDist = DistanceEstimator.getDistance(cnstr);
+            double newDist = getDistance();
             log.debug("Probing increment " + position + ": " + newString + ": " + newDist + " replacement = "
                     + (int) replacement);
             if (distImpr(newDist)) {
@@ -247,7 +251,7 @@ final class StringAVM extends VariableAVM {
                 characters[position] = replacement;
                 newString = new String(characters);
                 strVar.setConcreteValue(newString);
-                newDist = DistanceEstimator.getDistance(cnstr);
+                newDist = getDistance();
                 log.debug("Probing decrement " + position + ": " + newString + ": " + newDist + " replacement = "
                         + (int) replacement);
                 if (distImpr(newDist)) {
@@ -266,7 +270,7 @@ final class StringAVM extends VariableAVM {
                     characters[position] = replacement;
                     newString = new String(characters);
                     strVar.setConcreteValue(newString);
-                    newDist = DistanceEstimator.getDistance(cnstr);
+                    newDist = getDistance();
                     log.debug("Probing increment [32] " + position + ": " + newString + ": " + newDist
                             + " replacement = " + (int) replacement);
                     if (distImpr(newDist)) {
@@ -282,7 +286,7 @@ final class StringAVM extends VariableAVM {
                         characters[position] = replacement;
                         newString = new String(characters);
                         strVar.setConcreteValue(newString);
-                        newDist = DistanceEstimator.getDistance(cnstr);
+                        newDist = getDistance();
                         log.debug("Probing increment [32] " + position + ": " + newString + ": " + newDist
                                 + " replacement = " + (int) replacement);
                         if (distImpr(newDist)) {
@@ -345,7 +349,7 @@ final class StringAVM extends VariableAVM {
         characters[position] = replacement;
         String newString = new String(characters);
         strVar.setConcreteValue(newString);
-        double newDist = DistanceEstimator.getDistance(cnstr);
+        double newDist = getDistance();
 
         while (distImpr(newDist)) {
             if (isFinished()) {
@@ -367,7 +371,7 @@ final class StringAVM extends VariableAVM {
             log.info(" " + position + " " + oldString + "/" + oldString.length() + " -> " + newString + "/"
                     + newString.length());
             strVar.setConcreteValue(newString);
-            newDist = DistanceEstimator.getDistance(cnstr);
+            newDist = getDistance();
         }
         log.debug("No improvement on " + oldString);
         restoreVar();
@@ -20,9 +20,15 @@
 package org.evosuite.symbolic.solver.avm;
 
 import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.solver.DistanceEstimator;
 import org.evosuite.symbolic.solver.SolverTimeoutException;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
 
 abstract class VariableAVM {
 
@@ -30,15 +36,68 @@ abstract class VariableAVM {
     private final long start_time;
     private final long timeout;
 
+    /**
+     * Constraints mentioning the variable under search, the only ones whose distance changes
+     */
+    private final Collection<Constraint<?>> dependentCnstr;
+
+    /**
+     * Distance of the constraints not mentioning the variable under search
+     */
+    private final double independentDistance;
+
     public VariableAVM(Collection<Constraint<?>> cnstr, long startTimeMillis, long timeout) {
+        this(cnstr, cnstr, startTimeMillis, timeout);
+    }
+
+    /**
+     * @param cnstr           the constraint system
+     * @param dependentCnstr  the constraints of the system that mention the variable under search
+     * @param startTimeMillis
+     * @param timeout
+     */
+    public VariableAVM(Collection<Constraint<?>> cnstr, Collection<Constraint<?>> dependentCnstr, long startTimeMillis, long timeout) {
         this.cnstr = cnstr;
         this.start_time = startTimeMillis;
         this.timeout = timeout;
+        this.dependentCnstr = dependentCnstr;
+
+        if (dependentCnstr == cnstr) {
+            this.independentDistance = 0.0;
+        } else {
+            Set<Constraint<?>> dependent = Collections.newSetFromMap(new IdentityHashMap<>());
+            dependent.addAll(dependentCnstr);
+            List<Constraint<?>> independentCnstr = new ArrayList<>();
+            for (Constraint<?> c : cnstr) {
+                if (!dependent.contains(c)) {
+                    independentCnstr.add(c);
+                }
+            }
+            this.independentDistance = DistanceEstimator.getDistance(independentCnstr);
+        }
     }
 
     protected boolean isFinished() {
         long current_time = System.currentTimeMillis();
-        return (current_time - start_time) > timeout;
+        // interrupted when a parallel restart of the same search found a solution
+        return (current_time - start_time) > timeout || Thread.currentThread().isInterrupted();
+    }
+
+    /**
+     * Distance of the constraint system for the current value of the variable under search. Only
+     * the constraints mentioning the variable are evaluated.
+     *
+     * @return normalized distance, as computed by {@link DistanceEstimator#getDistance(Collection)}
+     */
+    protected double getDistance() {
+        if (independentDistance == Double.MAX_VALUE) {
+            return Double.MAX_VALUE;
+        }
+        double dependentDistance = DistanceEstimator.getDistance(dependentCnstr);
+        if (dependentDistance == Double.MAX_VALUE) {
+            return Double.MAX_VALUE;
+        }
+        return independentDistance + dependentDistance;
     }
 
     public abstract boolean applyAVM() throws SolverTimeoutException;
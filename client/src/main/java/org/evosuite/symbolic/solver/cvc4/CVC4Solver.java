@@ -109,7 +109,7 @@ public final class CVC4Solver extends SmtSolver {
 
         ByteArrayOutputStream stdout = new ByteArrayOutputStream();
         try {
-            launchNewSolvingProcess(cmd, smtQueryStr, (int) cvcTimeout, stdout);
+            launchSolver(cmd, query, smtQueryStr, (int) cvcTimeout, stdout);
             String output = stdout.toString("UTF-8");
 
             if (output.startsWith("unknown")) {
@@ -263,7 +263,12 @@ public final class CVC4Solver extends SmtSolver {
          * More details on both of these points can be found in Sections 5.2 - 5.4 of
          * http://homepage.cs.uiowa.edu/~ajreynol/thesis.pdf.
          */
-        cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        if (Properties.DSE_SOLVER_SESSIONS) {
+            cmd += " --incremental"; // allow push and pop in a long-lived session
+            cmd += " --tlimit-per=" + cvcTimeout; // set timeout of each query to cvcTimeout
+        } else {
+            cmd += " --tlimit=" + cvcTimeout; // set timeout to cvcTimeout
+        }
         return cmd;
     }
 
@@ -20,6 +20,7 @@
 package org.evosuite.testcase;
 
 import org.apache.commons.lang3.reflect.MethodUtils;
+import org.evosuite.Properties;
 import org.evosuite.assertion.Assertion;
 import org.evosuite.assertion.InspectorAssertion;
 import org.evosuite.assertion.PrimitiveFieldAssertion;
@@ -28,7 +29,10 @@ import org.evosuite.ga.ConstructionFailedException;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.setup.TestClusterUtils;
 import org.evosuite.testcase.execution.CodeUnderTestException;
+import org.evosuite.testcase.execution.ExecutionSnapshot;
 import org.evosuite.testcase.execution.Scope;
+import org.evosuite.testcase.llm.LLMResponseCache;
+import org.evosuite.testcase.llm.LLMSelectionBatch;
 import org.evosuite.testcase.llm.LLMService;
 import org.evosuite.testcase.statements.*;
 import org.evosuite.testcase.statements.environment.AccessedEnvironment;
@@ -51,6 +55,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 /**
@@ -64,6 +70,8 @@ public class DefaultTestCase implements TestCase, Serializable {
 
     private static final Logger logger = LoggerFactory.getLogger(DefaultTestCase.class);
 
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_$][\\w$]*");
+
     protected static final AtomicInteger idGenerator = new AtomicInteger(0);
 
     private final AccessedEnvironment accessedEnvironment = new AccessedEnvironment();
@@ -89,6 +97,11 @@ public class DefaultTestCase implements TestCase, Serializable {
 
     private int id;
 
+    /**
+     * LLM selections that are decided once this test has been constructed, if any
+     */
+    private transient LLMSelectionBatch selectionBatch = null;
+
     /**
      * Constructs an empty test case, i.e., initially containing no statements.
      */
@@ -101,6 +114,16 @@ public class DefaultTestCase implements TestCase, Serializable {
         return id;
     }
 
+    /**
+     * While a batch is set, LLM-guided selections are answered provisionally and recorded in
+     * the batch instead of querying the LLM for each of them.
+     *
+     * @param selectionBatch the batch, or {@code null} to query the LLM immediately again
+     */
+    public void setLLMSelectionBatch(LLMSelectionBatch selectionBatch) {
+        this.selectionBatch = selectionBatch;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.TestCase#accept(org.evosuite.testcase.TestVisitor)
      */
@@ -218,6 +241,9 @@ public class DefaultTestCase implements TestCase, Serializable {
     @Override
     public VariableReference addStatement(Statement statement) {
         statements.add(statement);
+        if (selectionBatch != null) {
+            selectionBatch.statementAdded(statement);
+        }
         try {
             assert (isValid());
         } catch (AssertionError e) {
@@ -258,6 +284,9 @@ public class DefaultTestCase implements TestCase, Serializable {
     @Override
     public VariableReference addStatement(Statement statement, int position) {
         statements.add(position, statement);
+        if (selectionBatch != null) {
+            selectionBatch.statementAdded(statement);
+        }
         assert (isValid());
         return statement.getReturnValue();
     }
@@ -290,6 +319,20 @@ public class DefaultTestCase implements TestCase, Serializable {
         return changedClassLoader;
     }
 
+    /**
+     * State after the last execution of this test (or of the test it was cloned from), see
+     * {@link Properties#SUFFIX_EXECUTION}
+     */
+    private transient ExecutionSnapshot executionSnapshot = null;
+
+    public ExecutionSnapshot getExecutionSnapshot() {
+        return executionSnapshot;
+    }
+
+    public void setExecutionSnapshot(ExecutionSnapshot executionSnapshot) {
+        this.executionSnapshot = executionSnapshot;
+    }
+
     /* (non-Javadoc)
      * @see org.evosuite.testcase.TestCase#chop(int)
      */
@@ -386,6 +429,7 @@ public class DefaultTestCase implements TestCase, Serializable {
         t.coveredGoals.addAll(coveredGoals);
         t.accessedEnvironment.copyFrom(accessedEnvironment);
         t.isFailing = isFailing;
+        t.executionSnapshot = executionSnapshot;
         t.id = idGenerator.getAndIncrement(); //always create new ID when making a clone
         //t.exception_statement = exception_statement;
         //t.exceptionThrown = exceptionThrown;
@@ -763,10 +807,39 @@ public class DefaultTestCase implements TestCase, Serializable {
                     + " at position " + position);
         }
 
+        LLMResponseCache cache = Properties.LLM_CACHE ? LLMResponseCache.getInstance() : null;
+        String cacheKey = null;
+        if (cache != null) {
+            cacheKey = buildSelectionKey(type, position, variables);
+            String cached = cache.get(cacheKey);
+            if (cached != null) {
+                int index = parseSelectedIndex(cached, variables.size());
+                if (index >= 0) {
+                    logger.debug("Reusing cached LLM selection {}", index);
+                    return variables.get(index);
+                }
+            }
+        }
+
+        if (selectionBatch != null) {
+            // Decide later together with the other selections of this test
+            VariableReference provisional = Randomness.choice(variables);
+            StringBuilder description = new StringBuilder();
+            description.append("We need a variable of type: ").append(type)
+                    .append(" at position: ").append(position).append("\n");
+            appendCandidates(description, position, variables);
+            selectionBatch.defer(type, variables, provisional, description.toString(), cacheKey);
+            return provisional;
+        }
+
         // Use LLM service to select the most appropriate object
         LLMService llmService = LLMService.getInstance();
         String context = buildSelectionContext(type, position, variables);
 
+        if (Properties.LLM_ASYNC_QUERIES) {
+            return getLLMSelectedObjectAsync(llmService, context, variables, cache, cacheKey);
+        }
+
         int maxRetries = 3;  // 最大重试次数
         int currentRetry = 0;
         Exception lastException = null;
@@ -790,6 +863,9 @@ public class DefaultTestCase implements TestCase, Serializable {
                 if (index >= 0 && index < variables.size()) {
                     logger.debug("LLM successfully selected index {} on attempt {}",
                             index, currentRetry + 1);
+                    if (cache != null) {
+                        cache.put(cacheKey, String.valueOf(index));
+                    }
                     return variables.get(index);
                 } else {
                     logger.debug("LLM returned invalid index {} on attempt {}, valid range: [0, {}]",
@@ -826,6 +902,98 @@ public class DefaultTestCase implements TestCase, Serializable {
         return Randomness.choice(variables);
     }
 
+    /**
+     * Sends the selection query without blocking the search for longer than
+     * {@link Properties#LLM_QUERY_DEADLINE}. If no valid answer is ready by then, a random
+     * variable is chosen; the query stays in flight, and its answer is handed to the next
+     * identical query without waiting.
+     */
+    private VariableReference getLLMSelectedObjectAsync(LLMService llmService, String context,
+                                                        List<VariableReference> variables,
+                                                        LLMResponseCache cache, String cacheKey) {
+        String answer = llmService.queryLLM(context, Properties.LLM_QUERY_DEADLINE);
+        if (answer != null) {
+            int index = parseSelectedIndex(answer, variables.size());
+            if (index >= 0) {
+                logger.debug("LLM asynchronously selected index {}", index);
+                if (cache != null) {
+                    cache.put(cacheKey, String.valueOf(index));
+                }
+                return variables.get(index);
+            }
+            logger.debug("LLM returned no valid index, response: {}", answer);
+        }
+        logger.debug("No LLM answer before deadline, falling back to random selection");
+        return Randomness.choice(variables);
+    }
+
+    /**
+     * Extracts the index of the selected variable from the answer of the LLM
+     *
+     * @return the index, or -1 if the answer does not contain a valid index
+     */
+    private static int parseSelectedIndex(String answer, int numVariables) {
+        String cleanedIndex = answer.replaceAll("[^0-9]", "").trim();
+        if (cleanedIndex.isEmpty()) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(cleanedIndex);
+            return index < numVariables ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Build a key that identifies a selection query independently of where it happens in the
+     * test: it consists of the target type and, for each candidate, its declaration and its
+     * distance to the usage. The variables used in a declaration are named after their
+     * distance to the usage as well, so that the key does not depend on absolute positions
+     * but still tells apart declarations that use different variables.
+     */
+    String buildSelectionKey(Type type, int position, List<VariableReference> variables) {
+        StringBuilder key = new StringBuilder();
+        key.append(type.getTypeName()).append('\n');
+        for (VariableReference ref : variables) {
+            Statement stmt = this.getStatement(ref.getStPosition());
+            key.append(position - ref.getStPosition()).append('|');
+            key.append(stmt.getVariableReferences().size()).append('|');
+            appendNormalizedDeclaration(key, stmt, position);
+            key.append('\n');
+        }
+        return key.toString();
+    }
+
+    /**
+     * Append the code of the statement, with every variable name emitted by the
+     * {@link TestCodeVisitor} replaced by the distance of that variable to {@code position}
+     */
+    private static void appendNormalizedDeclaration(StringBuilder key, Statement stmt, int position) {
+        TestCodeVisitor visitor = new TestCodeVisitor();
+        visitor.visitStatement(stmt);
+        String code = visitor.getCode();
+
+        Map<String, Integer> distances = new HashMap<>();
+        for (VariableReference var : stmt.getVariableReferences()) {
+            if (var instanceof ConstantValue || var instanceof FieldReference || var instanceof ArrayIndex) {
+                continue;
+            }
+            distances.put(visitor.getVariableName(var), position - var.getStPosition());
+        }
+
+        Matcher matcher = IDENTIFIER.matcher(code);
+        int last = 0;
+        while (matcher.find()) {
+            Integer distance = distances.get(matcher.group());
+            if (distance != null) {
+                key.append(code, last, matcher.start()).append("var@").append(distance);
+                last = matcher.end();
+            }
+        }
+        key.append(code, last, code.length());
+    }
+
     /**
      * Build context information for LLM to make selection
      */
@@ -849,6 +1017,25 @@ public class DefaultTestCase implements TestCase, Serializable {
 
         // 可用变量列表
         context.append("=== Available Variables ===\n");
+        appendCandidates(context, position, variables);
+
+        // 选择指导
+        context.append("\n=== Selection Guidelines ===\n");
+        context.append("1. MUST choose a variable declared before position ").append(position).append("\n");
+        context.append("2. Prefer variables declared closer to position ").append(position)
+                .append(" to minimize the scope\n");
+        context.append("3. Prefer variables with fewer dependencies\n");
+        context.append("4. Prefer variables that are directly of type ").append(type)
+                .append(" over those requiring type conversion\n");
+
+        context.append("\nReturn **only the index number** of the most appropriate variable based on the above guidelines.");
+        return context.toString();
+    }
+
+    /**
+     * Describe the candidate variables for a selection at the given position
+     */
+    private void appendCandidates(StringBuilder context, int position, List<VariableReference> variables) {
         for (int i = 0; i < variables.size(); i++) {
             VariableReference ref = variables.get(i);
             Statement stmt = this.getStatement(ref.getStPosition());
@@ -885,18 +1072,6 @@ public class DefaultTestCase implements TestCase, Serializable {
                 context.append("- Constructor of: ").append(ctorStmt.getDeclaringClassName()).append("\n");
             }
         }
-
-        // 选择指导
-        context.append("\n=== Selection Guidelines ===\n");
-        context.append("1. MUST choose a variable declared before position ").append(position).append("\n");
-        context.append("2. Prefer variables declared closer to position ").append(position)
-                .append(" to minimize the scope\n");
-        context.append("3. Prefer variables with fewer dependencies\n");
-        context.append("4. Prefer variables that are directly of type ").append(type)
-                .append(" over those requiring type conversion\n");
-
-        context.append("\nReturn **only the index number** of the most appropriate variable based on the above guidelines.");
-        return context.toString();
     }
 
     /* (non-Javadoc)
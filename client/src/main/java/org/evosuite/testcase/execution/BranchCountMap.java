@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from branch ids to execution counts, stored in a dense primitive array indexed by the
+ * branch id. Incrementing a count through {@link #increment(int)} neither boxes nor allocates
+ * once the array is large enough. Counts are positive, a count of 0 means that there is no
+ * entry for the branch.
+ * <p>
+ * This class is not synchronized: counts are only written by the thread executing the test.
+ */
+public class BranchCountMap extends AbstractMap<Integer, Integer> implements Serializable {
+
+    private static final long serialVersionUID = -4328165386049516113L;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private int[] counts;
+
+    private int size = 0;
+
+    public BranchCountMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of branch ids that can be stored without growing the array
+     */
+    public BranchCountMap(int capacity) {
+        counts = new int[Math.max(capacity, 1)];
+    }
+
+    /**
+     * @return number of branch ids that can be stored without growing the array
+     */
+    public int capacity() {
+        return counts.length;
+    }
+
+    public boolean containsKey(int branch) {
+        return branch >= 0 && branch < counts.length && counts[branch] != 0;
+    }
+
+    /**
+     * @return the count of the branch, 0 if there is none
+     */
+    public int getCount(int branch) {
+        return branch >= 0 && branch < counts.length ? counts[branch] : 0;
+    }
+
+    public void increment(int branch) {
+        ensureCapacity(branch);
+        if (counts[branch]++ == 0) {
+            size++;
+        }
+    }
+
+    public void put(int branch, int count) {
+        if (count <= 0) {
+            throw new IllegalArgumentException("Counts have to be positive: " + count);
+        }
+        ensureCapacity(branch);
+        if (counts[branch] == 0) {
+            size++;
+        }
+        counts[branch] = count;
+    }
+
+    private void ensureCapacity(int branch) {
+        if (branch < 0) {
+            throw new IllegalArgumentException("Negative branch id: " + branch);
+        }
+        if (branch >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(branch + 1, counts.length * 2));
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public Integer get(Object key) {
+        return containsKey(key) ? counts[(Integer) key] : null;
+    }
+
+    @Override
+    public Integer put(Integer key, Integer value) {
+        Integer previous = get(key);
+        put(key.intValue(), value.intValue());
+        return previous;
+    }
+
+    @Override
+    public Integer remove(Object key) {
+        Integer previous = get(key);
+        if (previous != null) {
+            counts[(Integer) key] = 0;
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(counts, 0);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, Integer>> entrySet() {
+        return new AbstractSet<Entry<Integer, Integer>>() {
+            @Override
+            public Iterator<Entry<Integer, Integer>> iterator() {
+                return new Iterator<Entry<Integer, Integer>>() {
+                    private int next = advance(0);
+                    private int last = -1;
+
+                    private int advance(int from) {
+                        while (from < counts.length && counts[from] == 0) {
+                            from++;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < counts.length;
+                    }
+
+                    @Override
+                    public Entry<Integer, Integer> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = advance(next + 1);
+                        return new SimpleEntry<>(last, counts[last]);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0 || counts[last] == 0) {
+                            throw new IllegalStateException();
+                        }
+                        counts[last] = 0;
+                        size--;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Integer> m) {
+        for (Entry<? extends Integer, ? extends Integer> entry : m.entrySet()) {
+            put(entry.getKey().intValue(), entry.getValue().intValue());
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map from branch ids to distances, stored in dense primitive arrays indexed by the branch id.
+ * Branch ids are assigned consecutively by the BranchPool, so the arrays stay small. Updating
+ * a distance through {@link #min(int, double)} or {@link #add(int, double)} neither boxes nor
+ * allocates once the arrays are large enough.
+ * <p>
+ * This class is not synchronized: branch distances are only written by the thread executing
+ * the test.
+ */
+public class BranchDistanceMap extends AbstractMap<Integer, Double> implements Serializable {
+
+    private static final long serialVersionUID = 2093462573580125366L;
+
+    private static final int DEFAULT_CAPACITY = 64;
+
+    private double[] values;
+
+    private boolean[] present;
+
+    private int size = 0;
+
+    public BranchDistanceMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity number of branch ids that can be stored without growing the arrays
+     */
+    public BranchDistanceMap(int capacity) {
+        values = new double[Math.max(capacity, 1)];
+        present = new boolean[values.length];
+    }
+
+    /**
+     * @return number of branch ids that can be stored without growing the arrays
+     */
+    public int capacity() {
+        return values.length;
+    }
+
+    public boolean containsKey(int branch) {
+        return branch >= 0 && branch < present.length && present[branch];
+    }
+
+    /**
+     * @return the distance of the branch, or {@code NaN} if there is none
+     */
+    public double getDistance(int branch) {
+        return containsKey(branch) ? values[branch] : Double.NaN;
+    }
+
+    /**
+     * Stores the distance of the branch, unless it already has a smaller one
+     */
+    public void min(int branch, double distance) {
+        ensureCapacity(branch);
+        if (!present[branch]) {
+            present[branch] = true;
+            size++;
+            values[branch] = distance;
+        } else if (distance < values[branch]) {
+            values[branch] = distance;
+        }
+    }
+
+    /**
+     * Adds the distance to the one stored for the branch
+     */
+    public void add(int branch, double distance) {
+        ensureCapacity(branch);
+        if (!present[branch]) {
+            present[branch] = true;
+            size++;
+            values[branch] = distance;
+        } else {
+            values[branch] += distance;
+        }
+    }
+
+    public void put(int branch, double distance) {
+        ensureCapacity(branch);
+        if (!present[branch]) {
+            present[branch] = true;
+            size++;
+        }
+        values[branch] = distance;
+    }
+
+    private void ensureCapacity(int branch) {
+        if (branch < 0) {
+            throw new IllegalArgumentException("Negative branch id: " + branch);
+        }
+        if (branch >= values.length) {
+            int capacity = Math.max(branch + 1, values.length * 2);
+            values = Arrays.copyOf(values, capacity);
+            present = Arrays.copyOf(present, capacity);
+        }
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public Double get(Object key) {
+        return containsKey(key) ? values[(Integer) key] : null;
+    }
+
+    @Override
+    public Double put(Integer key, Double value) {
+        Double previous = get(key);
+        put(key.intValue(), value.doubleValue());
+        return previous;
+    }
+
+    @Override
+    public Double remove(Object key) {
+        Double previous = get(key);
+        if (previous != null) {
+            present[(Integer) key] = false;
+            size--;
+        }
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(present, false);
+        size = 0;
+    }
+
+    @Override
+    public Set<Entry<Integer, Double>> entrySet() {
+        return new AbstractSet<Entry<Integer, Double>>() {
+            @Override
+            public Iterator<Entry<Integer, Double>> iterator() {
+                return new Iterator<Entry<Integer, Double>>() {
+                    private int next = advance(0);
+                    private int last = -1;
+
+                    private int advance(int from) {
+                        while (from < present.length && !present[from]) {
+                            from++;
+                        }
+                        return from;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < present.length;
+                    }
+
+                    @Override
+                    public Entry<Integer, Double> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        last = next;
+                        next = advance(next + 1);
+                        return new SimpleEntry<>(last, values[last]);
+                    }
+
+                    @Override
+                    public void remove() {
+                        if (last < 0 || !present[last]) {
+                            throw new IllegalStateException();
+                        }
+                        present[last] = false;
+                        size--;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    @Override
+    public void putAll(Map<? extends Integer, ? extends Double> m) {
+        for (Entry<? extends Integer, ? extends Double> entry : m.entrySet()) {
+            put(entry.getKey().intValue(), entry.getValue().doubleValue());
+        }
+    }
+}
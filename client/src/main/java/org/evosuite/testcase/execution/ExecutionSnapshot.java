@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.runtime.Runtime;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.variable.VariableReference;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * The state after a complete execution of a test: the objects of its variables, the state of
+ * the simulated JVM and the execution trace. If statements are appended to the test afterwards, the execution can be
+ * continued from this state, instead of executing the test from its first statement again.
+ *
+ * <p>
+ * The objects in the snapshot are the live objects of the execution, which change when the
+ * execution is continued. A snapshot can hence only be used once, even though all clones of
+ * the test refer to it.
+ */
+public class ExecutionSnapshot {
+
+    /**
+     * Copy of the test when it was executed, to check that later versions start with the same
+     * statements
+     */
+    private final TestCase prefix;
+
+    /**
+     * Object of the return value of each statement, null once the snapshot was used or released
+     */
+    private Object[] values;
+
+    /**
+     * Whether a statement had a value in the scope, e.g., not if it is void
+     */
+    private boolean[] hasValue;
+
+    private final ExecutionTrace trace;
+
+    private final Set<String> readProperties;
+
+    private final Runtime.State runtimeState;
+
+    ExecutionSnapshot(TestCase test, Scope scope, ExecutionResult result, Runtime.State runtimeState) {
+        this.prefix = test.clone();
+        this.values = new Object[test.size()];
+        this.hasValue = new boolean[test.size()];
+        for (int i = 0; i < test.size(); i++) {
+            VariableReference var = test.getStatement(i).getReturnValue();
+            hasValue[i] = scope.getVariables().contains(var);
+            values[i] = scope.getObject(var);
+        }
+        this.trace = result.getTrace().lazyClone();
+        this.readProperties = result.getReadProperties() == null
+                ? new LinkedHashSet<>() : new LinkedHashSet<>(result.getReadProperties());
+        this.runtimeState = runtimeState;
+    }
+
+    /**
+     * @return the number of statements that were executed
+     */
+    public int size() {
+        return prefix.size();
+    }
+
+    /**
+     * @param test a test
+     * @return whether the test consists of the executed statements and at least one more
+     */
+    public boolean isPrefixOf(TestCase test) {
+        if (test.size() <= prefix.size()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++) {
+            if (!prefix.getStatement(i).same(test.getStatement(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the objects out of the snapshot, to continue the execution of the given test
+     *
+     * @param test a test starting with the executed statements
+     * @return a scope with the objects of the executed statements, or {@code null} if the
+     * snapshot was already used or released
+     */
+    synchronized Scope restore(TestCase test) {
+        if (values == null) {
+            return null;
+        }
+        Scope scope = new Scope();
+        for (int i = 0; i < values.length; i++) {
+            if (hasValue[i]) {
+                scope.setObject(test.getStatement(i).getReturnValue(), values[i]);
+            }
+        }
+        release();
+        return scope;
+    }
+
+    /**
+     * Drops the objects of the execution, after which the snapshot cannot be used anymore
+     */
+    synchronized void release() {
+        values = null;
+        hasValue = null;
+    }
+
+    ExecutionTrace getTrace() {
+        return trace;
+    }
+
+    Set<String> getReadProperties() {
+        return readProperties;
+    }
+
+    Runtime.State getRuntimeState() {
+        return runtimeState;
+    }
+}
@@ -194,15 +194,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     public Map<String, Map<String, Map<Integer, Integer>>> coverage = Collections
             .synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredFalse = Collections.synchronizedMap(new HashMap<>());
+    public BranchCountMap coveredFalse = new BranchCountMap();
 
     public Map<String, Integer> coveredMethods = Collections.synchronizedMap(new HashMap<>());
 
     public Map<String, Integer> coveredBranchlessMethods = Collections.synchronizedMap(new HashMap<>());
 
-    public Map<Integer, Integer> coveredPredicates = Collections.synchronizedMap(new HashMap<>());
+    public BranchCountMap coveredPredicates = new BranchCountMap();
 
-    public Map<Integer, Integer> coveredTrue = Collections.synchronizedMap(new HashMap<>());
+    public BranchCountMap coveredTrue = new BranchCountMap();
 
     public Map<Integer, Integer> coveredDefs = Collections.synchronizedMap(new HashMap<>());
 
@@ -223,8 +223,8 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
     // The last explicitly thrown exception is kept here
     private Throwable explicitException = null;
 
-    public Map<Integer, Double> falseDistances = Collections.synchronizedMap(new HashMap<>());
-    private final Map<Integer, Double> falseDistancesSum = Collections.synchronizedMap(new HashMap<>());
+    public BranchDistanceMap falseDistances = new BranchDistanceMap();
+    private final BranchDistanceMap falseDistancesSum = new BranchDistanceMap();
     // finished_calls;
     public List<MethodCall> finishedCalls = Collections.synchronizedList(new ArrayList<>());
     public Map<Integer, Object> knownCallerObjects = Collections.synchronizedMap(new HashMap<>());
@@ -256,9 +256,9 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
 
     public Set<Integer> touchedMutants = Collections.synchronizedSet(new HashSet<>());
 
-    public Map<Integer, Double> trueDistances = Collections.synchronizedMap(new HashMap<>());
+    public BranchDistanceMap trueDistances = new BranchDistanceMap();
 
-    private final Map<Integer, Double> trueDistancesSum = Collections.synchronizedMap(new HashMap<>());
+    private final BranchDistanceMap trueDistancesSum = new BranchDistanceMap();
 
     public static Set<Integer> gradientBranches = Collections.synchronizedSet(new HashSet<>());
 
@@ -284,6 +284,19 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         stack.add(new MethodCall("", "", 0, 0, 0)); // Main method
     }
 
+    /**
+     * Creates a trace that is only accessed by the thread executing the test,
+     * and therefore does not synchronize any of its collections.
+     *
+     * @return a new, empty trace
+     */
+    public static ExecutionTraceImpl createThreadConfined() {
+        ExecutionTraceImpl trace = new ExecutionTraceImpl();
+        trace.clear();
+        trace.coveredMethodContext = new HashMap<>();
+        return trace;
+    }
+
     /**
      * <p>
      * addProxy
@@ -321,24 +334,14 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         }
 
         if (traceCoverage) {
-            if (!coveredPredicates.containsKey(branch))
-                coveredPredicates.put(branch, 1);
-            else
-                coveredPredicates.put(branch, coveredPredicates.get(branch) + 1);
+            coveredPredicates.increment(branch);
 
             if (true_distance == 0.0) {
-                if (!coveredTrue.containsKey(branch))
-                    coveredTrue.put(branch, 1);
-                else
-                    coveredTrue.put(branch, coveredTrue.get(branch) + 1);
-
+                coveredTrue.increment(branch);
             }
 
             if (false_distance == 0.0) {
-                if (!coveredFalse.containsKey(branch))
-                    coveredFalse.put(branch, 1);
-                else
-                    coveredFalse.put(branch, coveredFalse.get(branch) + 1);
+                coveredFalse.increment(branch);
             }
         }
 
@@ -447,25 +450,10 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
             }
         }
 
-        if (!trueDistances.containsKey(branch))
-            trueDistances.put(branch, true_distance);
-        else
-            trueDistances.put(branch, Math.min(trueDistances.get(branch), true_distance));
-
-        if (!falseDistances.containsKey(branch))
-            falseDistances.put(branch, false_distance);
-        else
-            falseDistances.put(branch, Math.min(falseDistances.get(branch), false_distance));
-
-        if (!trueDistancesSum.containsKey(branch))
-            trueDistancesSum.put(branch, true_distance);
-        else
-            trueDistancesSum.put(branch, trueDistancesSum.get(branch) + true_distance);
-
-        if (!falseDistancesSum.containsKey(branch))
-            falseDistancesSum.put(branch, false_distance);
-        else
-            falseDistancesSum.put(branch, falseDistancesSum.get(branch) + false_distance);
+        trueDistances.min(branch, true_distance);
+        falseDistances.min(branch, false_distance);
+        trueDistancesSum.add(branch, true_distance);
+        falseDistancesSum.add(branch, false_distance);
 
         if (!disableContext && (Properties.INSTRUMENT_CONTEXT || Properties.INSTRUMENT_METHOD_CALLS
                 || ArrayUtil.contains(Properties.CRITERION, Criterion.IBRANCH)
@@ -543,15 +531,15 @@ public class ExecutionTraceImpl implements ExecutionTrace, Cloneable {
         duCounter = 0;
         objectCounter = 0;
         knownCallerObjects = new HashMap<>();
-        trueDistances = new HashMap<>();
-        falseDistances = new HashMap<>();
+        trueDistances = new BranchDistanceMap(trueDistances.capacity());
+        falseDistances = new BranchDistanceMap(falseDistances.capacity());
         mutantDistances = new HashMap<>();
         touchedMutants = new HashSet<>();
         coveredMethods = new HashMap<>();
         coveredBranchlessMethods = new HashMap<>();
-        coveredPredicates = new HashMap<>();
-        coveredTrue = new HashMap<>();
-        coveredFalse = new HashMap<>();
+        coveredPredicates = new BranchCountMap(coveredPredicates.capacity());
+        coveredTrue = new BranchCountMap(coveredTrue.capacity());
+        coveredFalse = new BranchCountMap(coveredFalse.capacity());
         coveredDefs = new HashMap<>();
         passedDefinitions = new HashMap<>();
         passedUses = new HashMap<>();
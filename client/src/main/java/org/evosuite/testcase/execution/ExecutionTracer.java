@@ -19,6 +19,7 @@
  */
 package org.evosuite.testcase.execution;
 
+import org.evosuite.Properties;
 import org.evosuite.coverage.dataflow.DefUsePool;
 import org.evosuite.coverage.dataflow.Definition;
 import org.evosuite.coverage.dataflow.Use;
@@ -55,6 +56,20 @@ public class ExecutionTracer {
 
     private int num_statements = 0;
 
+    /**
+     * With {@link Properties#THREAD_CONFINED_TRACING}, the kill switch is only
+     * inspected every this many events
+     */
+    private static final int TIMEOUT_CHECK_INTERVAL = 1024;
+
+    private int eventsUntilTimeoutCheck = TIMEOUT_CHECK_INTERVAL;
+
+    /**
+     * The trace of the current execution. With {@link Properties#THREAD_CONFINED_TRACING}
+     * this is an unsynchronized {@link ExecutionTraceImpl} that is only written by the
+     * executing thread, and it is wrapped into an {@link ExecutionTraceProxy} by
+     * {@link #getTrace()} once the execution is finished.
+     */
     private ExecutionTrace trace;
 
 
@@ -192,11 +207,28 @@ public class ExecutionTracer {
      * Reset for new execution
      */
     public void clear() {
-        trace = new ExecutionTraceProxy();
+        if (Properties.THREAD_CONFINED_TRACING) {
+            trace = ExecutionTraceImpl.createThreadConfined();
+        } else {
+            trace = new ExecutionTraceProxy();
+        }
+        eventsUntilTimeoutCheck = TIMEOUT_CHECK_INTERVAL;
         BooleanHelper.clearStack();
         num_statements = 0;
     }
 
+    /**
+     * Reset for an execution that continues a previous one, whose trace is extended
+     *
+     * @param previousTrace the trace of the previous execution, which is not changed
+     * @param statements    the number of statements of the previous execution
+     */
+    public void continueTrace(ExecutionTrace previousTrace, int statements) {
+        clear();
+        trace = previousTrace.lazyClone();
+        num_statements = statements;
+    }
+
     /**
      * Obviously more than one thread is executing during the creation of
      * concurrent TestCases. #TODO steenbuck we should test if
@@ -229,6 +261,10 @@ public class ExecutionTracer {
      * @return a {@link org.evosuite.testcase.execution.ExecutionTrace} object.
      */
     public ExecutionTrace getTrace() {
+        if (trace instanceof ExecutionTraceImpl) {
+            // Publish the thread-confined trace; from now on it is copied on write
+            trace = new ExecutionTraceProxy((ExecutionTraceImpl) trace);
+        }
         trace.finishCalls();
         return trace;
 
@@ -264,7 +300,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         //logger.trace("Entering method " + classname + "." + methodname);
         tracer.trace.enteredMethod(classname, methodname, caller);
@@ -375,6 +411,18 @@ public class ExecutionTracer {
         }
     }
 
+    /**
+     * Same as {@link #checkTimeout()}, but with {@link Properties#THREAD_CONFINED_TRACING}
+     * the kill switch is only inspected every {@link #TIMEOUT_CHECK_INTERVAL} events
+     */
+    private static void checkTimeout(ExecutionTracer tracer) {
+        if (Properties.THREAD_CONFINED_TRACING && --tracer.eventsUntilTimeoutCheck > 0)
+            return;
+
+        tracer.eventsUntilTimeoutCheck = TIMEOUT_CHECK_INTERVAL;
+        checkTimeout();
+    }
+
     private static boolean isInStaticInit() {
         for (StackTraceElement elem : Thread.currentThread().getStackTrace()) {
             if (elem.getMethodName().equals("<clinit>"))
@@ -398,7 +446,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.trace.linePassed(className, methodName, line);
     }
@@ -421,7 +469,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         ConstantPoolManager.getInstance().addDynamicConstant(val);
 
@@ -482,7 +530,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.trace.putStaticPassed(classNameWithDots, fieldName);
     }
@@ -522,7 +570,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.trace.getStaticPassed(classNameWithDots, fieldName);
     }
@@ -546,7 +594,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         ConstantPoolManager.getInstance().addDynamicConstant(val1);
         ConstantPoolManager.getInstance().addDynamicConstant(val2);
@@ -622,7 +670,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         double distance_true = 0;
         double distance_false = 0;
@@ -659,7 +707,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         double distance_true = 0;
         double distance_false = 0;
@@ -763,7 +811,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.trace.mutationPassed(mutationId, distance);
     }
@@ -786,7 +834,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.trace.setExplicitException((Throwable) exception);
 
@@ -805,7 +853,7 @@ public class ExecutionTracer {
         if (isThreadNeqCurrentThread())
             return;
 
-        checkTimeout();
+        checkTimeout(tracer);
 
         tracer.num_statements++;
     }
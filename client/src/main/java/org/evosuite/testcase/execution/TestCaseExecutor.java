@@ -25,17 +25,23 @@ import org.evosuite.ga.stoppingconditions.MaxStatementsStoppingCondition;
 import org.evosuite.ga.stoppingconditions.MaxTestsStoppingCondition;
 import org.evosuite.runtime.LoopCounter;
 import org.evosuite.runtime.Runtime;
+import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.sandbox.PermissionStatistics;
 import org.evosuite.runtime.sandbox.Sandbox;
 import org.evosuite.runtime.util.JOptionPaneInputs;
 import org.evosuite.runtime.util.SystemInUtil;
+import org.evosuite.runtime.vfs.VirtualFileSystem;
+import org.evosuite.runtime.vnet.VirtualNetwork;
 import org.evosuite.setup.TestCluster;
+import org.evosuite.testcase.DefaultTestCase;
 import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.execution.reset.ClassReInitializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
@@ -86,6 +92,11 @@ public class TestCaseExecutor implements ThreadFactory {
 
     private final Set<Thread> stalledThreads = new HashSet<>();
 
+    /**
+     * The snapshots that can still be used, oldest first, see {@link Properties#SUFFIX_EXECUTION}
+     */
+    private final Deque<ExecutionSnapshot> snapshots = new ArrayDeque<>();
+
     /**
      * Constant <code>timeExecuted=0</code>
      */
@@ -265,8 +276,18 @@ public class TestCaseExecutor implements ThreadFactory {
      * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
      */
     public ExecutionResult execute(TestCase tc, int timeout) {
-        Scope scope = new Scope();
-        ExecutionResult result = execute(tc, scope, timeout);
+        ExecutionSnapshot snapshot = getSnapshotToContinue(tc);
+        Scope scope = snapshot == null ? null : snapshot.restore(tc);
+        if (scope == null) {
+            snapshot = null;
+            scope = new Scope();
+        }
+        ExecutionResult result = execute(tc, scope, timeout, snapshot);
+
+        if (Properties.SUFFIX_EXECUTION && tc instanceof DefaultTestCase) {
+            // has to be done before the classes are reset, and the runtime for the next test
+            ((DefaultTestCase) tc).setExecutionSnapshot(takeSnapshot(tc, scope, result));
+        }
 
         if (Properties.RESET_STATIC_FIELDS) {
             logger.debug("Resetting classes after execution");
@@ -275,29 +296,94 @@ public class TestCaseExecutor implements ThreadFactory {
         return result;
     }
 
+    /**
+     * @param tc a test about to be executed
+     * @return the snapshot of a previous execution of a prefix of the test, if only the rest of
+     * the test needs to be executed
+     */
+    private ExecutionSnapshot getSnapshotToContinue(TestCase tc) {
+        if (!Properties.SUFFIX_EXECUTION || !observers.isEmpty() || !(tc instanceof DefaultTestCase)) {
+            return null;
+        }
+        ExecutionSnapshot snapshot = ((DefaultTestCase) tc).getExecutionSnapshot();
+        if (snapshot == null || !snapshot.isPrefixOf(tc)) {
+            return null;
+        }
+        snapshots.remove(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * The state after an execution can only be used to continue it if executing the same
+     * statements again would lead to the same state: the test has to run to its end, and must
+     * neither change static state (which is reset after the execution) nor the environment
+     * (which is reset before the next one). The state of the simulated JVM non-determinism
+     * (e.g., the next random number, the identity hash codes) is kept with the snapshot, and
+     * restored when the execution is continued.
+     *
+     * @return a snapshot of the state after the execution, or {@code null} if it cannot be
+     * continued
+     */
+    private ExecutionSnapshot takeSnapshot(TestCase tc, Scope scope, ExecutionResult result) {
+        if (!observers.isEmpty() || tc.isEmpty()
+                || result.getExecutedStatements() != tc.size() || !result.noThrownExceptions()
+                || result.wasAnyPropertyWritten()
+                || ClassReInitializer.getInstance().hasStaticSideEffects(tc, result)) {
+            return null;
+        }
+        if (RuntimeSettings.useVFS && !VirtualFileSystem.getInstance().getAccessedFiles().isEmpty()) {
+            return null;
+        }
+        if (RuntimeSettings.useVNET && (!VirtualNetwork.getInstance().getViewOfRemoteContactedPorts().isEmpty()
+                || !VirtualNetwork.getInstance().getViewOfLocalListeningPorts().isEmpty()
+                || !VirtualNetwork.getInstance().getViewOfRemoteAccessedFiles().isEmpty())) {
+            return null;
+        }
+        Runtime.State runtimeState = Runtime.getInstance().saveState();
+        if (runtimeState == null) {
+            return null;
+        }
+
+        ExecutionSnapshot snapshot = new ExecutionSnapshot(tc, scope, result, runtimeState);
+        snapshots.addLast(snapshot);
+        while (snapshots.size() > Properties.SUFFIX_EXECUTION_SNAPSHOTS) {
+            // the objects of old executions are not kept alive by all the clones of their tests
+            snapshots.removeFirst().release();
+        }
+        return snapshot;
+    }
+
     /**
      * Execute a test case on an existing scope
      *
-     * @param tc    a {@link org.evosuite.testcase.TestCase} object.
-     * @param scope a {@link org.evosuite.testcase.execution.Scope} object.
+     * @param tc       a {@link org.evosuite.testcase.TestCase} object.
+     * @param scope    a {@link org.evosuite.testcase.execution.Scope} object.
+     * @param snapshot the execution continued on the scope, if any
      * @return a {@link org.evosuite.testcase.execution.ExecutionResult} object.
      */
     @SuppressWarnings("deprecation")
-    private ExecutionResult execute(TestCase tc, Scope scope, int timeout) {
-        ExecutionTracer.getExecutionTracer().clear();
+    private ExecutionResult execute(TestCase tc, Scope scope, int timeout, ExecutionSnapshot snapshot) {
+        if (snapshot == null) {
+            ExecutionTracer.getExecutionTracer().clear();
+        } else {
+            ExecutionTracer.getExecutionTracer().continueTrace(snapshot.getTrace(), snapshot.size());
+        }
 
         // TODO: Re-insert!
         resetObservers();
         ExecutionObserver.setCurrentTest(tc);
         MaxTestsStoppingCondition.testExecuted();
         Runtime.getInstance().resetRuntime();
+        if (snapshot != null) {
+            Runtime.getInstance().restoreState(snapshot.getRuntimeState());
+        }
 
         long startTime = System.currentTimeMillis();
 
         TimeoutHandler<ExecutionResult> handler = new TimeoutHandler<>();
 
         // #TODO steenbuck could be nicer (TestRunnable should be an interface
-        TestRunnable callable = new TestRunnable(tc, scope, observers);
+        TestRunnable callable = new TestRunnable(tc, scope, observers, snapshot == null ? 0 : snapshot.size());
         callable.storeCurrentThreads();
 
         /*
@@ -329,6 +415,13 @@ public class TestCaseExecutor implements ThreadFactory {
 
             PermissionStatistics.getInstance().countThreads(threadGroup.activeCount());
             result.setSecurityException(PermissionStatistics.getInstance().getAndResetExceptionInfo());
+            if (snapshot != null) {
+                Set<String> readProperties = new LinkedHashSet<>(snapshot.getReadProperties());
+                if (result.getReadProperties() != null) {
+                    readProperties.addAll(result.getReadProperties());
+                }
+                result.setReadProperties(readProperties);
+            }
             /*
              * TODO: this will need proper care when we ll start to handle
              * threads in the search.
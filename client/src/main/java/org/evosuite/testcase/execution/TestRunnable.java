@@ -56,6 +56,12 @@ public class TestRunnable implements InterfaceTestRunnable {
 
     private final Scope scope;
 
+    /**
+     * Position of the first statement to execute, the previous ones have already been executed
+     * on the scope
+     */
+    private final int firstStatement;
+
     protected boolean runFinished;
 
     /**
@@ -78,8 +84,22 @@ public class TestRunnable implements InterfaceTestRunnable {
      * @param observers a {@link java.util.Set} object.
      */
     public TestRunnable(TestCase tc, Scope scope, Set<ExecutionObserver> observers) {
+        this(tc, scope, observers, 0);
+    }
+
+    /**
+     * Constructor for a TestRunnable that only executes the statements of the test from the given
+     * position on, on a scope that contains the objects of the previous statements.
+     *
+     * @param tc             a {@link org.evosuite.testcase.TestCase} object.
+     * @param scope          a {@link org.evosuite.testcase.execution.Scope} object.
+     * @param observers      a {@link java.util.Set} object.
+     * @param firstStatement position of the first statement to execute
+     */
+    public TestRunnable(TestCase tc, Scope scope, Set<ExecutionObserver> observers, int firstStatement) {
         test = tc;
         this.scope = scope;
+        this.firstStatement = firstStatement;
         this.observers = observers;
         runFinished = false;
 
@@ -182,7 +202,7 @@ public class TestRunnable implements InterfaceTestRunnable {
          *  need AtomicInteger as we want to get latest updated value even if exception is thrown in the 'try' block.
          *  we practically use it as wrapper for int, which we can then pass by reference
          */
-        AtomicInteger num = new AtomicInteger(0);
+        AtomicInteger num = new AtomicInteger(firstStatement);
 
         try {
             if (Properties.REPLACE_CALLS) {
@@ -266,7 +286,8 @@ public class TestRunnable implements InterfaceTestRunnable {
             InvocationTargetException, IllegalAccessException,
             InstantiationException, VMError, EvosuiteError {
 
-        for (Statement s : test) {
+        for (int position = firstStatement; position < test.size(); position++) {
+            Statement s = test.getStatement(position);
 
             if (Thread.currentThread().isInterrupted() || Thread.interrupted()) {
                 logger.info("Thread interrupted at statement " + num + ": " + s.getCode());
@@ -30,7 +30,7 @@ import org.evosuite.runtime.sandbox.Sandbox;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
 import java.util.List;
 
 /**
@@ -92,6 +92,12 @@ class ClassReInitializeExecutor {
 
     private void resetClass(String className) {
 
+        MethodHandle resetMethod = ClassResetter.getInstance().getResetMethodHandle(className);
+        if (resetMethod == null) {
+            // nothing to reset, so no need to prepare the runtime for executing SUT code
+            return;
+        }
+
         // className.__STATIC_RESET() exists
         logger.debug("Resetting class " + className);
 
@@ -107,15 +113,12 @@ class ClassReInitializeExecutor {
         boolean wasLoopCheckOn = LoopCounter.getInstance().isActivated();
 
         try {
-            Method resetMethod = ClassResetter.getInstance().getResetMethod(className);
-            if (resetMethod != null) {
-                LoopCounter.getInstance().setActive(false);
-                resetMethod.invoke(null, (Object[]) null);
-            }
+            LoopCounter.getInstance().setActive(false);
+            resetMethod.invokeExact();
         } catch (Throwable e) {
             ClassResetter.getInstance().logWarn(className,
                     e.getClass() + " thrown during execution of method  __STATIC_RESET() for class " + className + ", "
-                            + e.getCause());
+                            + e);
         } finally {
             Sandbox.doneWithExecutingSUTCode();
             TestGenerationContext.getInstance().doneWithExecutingSUTCode();
@@ -63,6 +63,12 @@ public class ClassReInitializer {
         return instance;
     }
 
+    /**
+     * Whether the static state is known to be the one right after re-initializing all the
+     * observed classes, i.e., nothing happened that could have changed it since then
+     */
+    private boolean allClassesClean = false;
+
     private ClassReInitializer() {
     }
 
@@ -131,6 +137,27 @@ public class ClassReInitializer {
         return moreClassesForStaticReset;
     }
 
+    /**
+     * Checks whether the state of the classes after a test execution may differ from their state
+     * before it, i.e., whether the execution initialized classes, or used static fields in a way
+     * that makes them be re-initialized afterwards.
+     *
+     * @param executedTestCase
+     * @param testCaseResult
+     * @return {@code false} if the execution left the static state as it was
+     */
+    public boolean hasStaticSideEffects(TestCase executedTestCase, ExecutionResult testCaseResult) {
+        final ExecutionTrace trace = testCaseResult.getTrace();
+        if (!trace.getInitializedClasses().isEmpty() || !trace.getClassesWithStaticWrites().isEmpty()) {
+            return true;
+        }
+        if ((Properties.RESET_STATIC_FIELD_GETS || reset_all_observed_classes)
+                && !trace.getClassesWithStaticReads().isEmpty()) {
+            return true;
+        }
+        return !getMoreClassesToReset(executedTestCase, testCaseResult).isEmpty();
+    }
+
     /**
      * This method is invoked after a test execution has ended. The classes to
      * be resetted will depend on the value of the reset_a
@@ -152,8 +179,16 @@ public class ClassReInitializer {
 
             // second, re-initialize classes
             if (reset_all_observed_classes) {
+                if (allClassesClean && !testCaseResult.hasTimeout() && !testCaseResult.hasTestException()
+                        && !hasStaticSideEffects(executedTestCase, testCaseResult)) {
+                    // the test neither initialized classes nor accessed their static fields,
+                    // so all of them are still as left by the previous reset
+                    return;
+                }
                 ClassReInitializeExecutor.getInstance().resetClasses(initializedClasses);
+                allClassesClean = true;
             } else {
+                allClassesClean = false;
                 // reset only classes that were "observed" to have some
                 // GETSTATIC/PUTSTATIC updating their state during test
                 // execution
@@ -192,6 +227,9 @@ public class ClassReInitializer {
      * @param reInitializeAllClasses
      */
     public void setReInitializeAllClasses(boolean reInitializeAllClasses) {
+        if (reInitializeAllClasses != reset_all_observed_classes) {
+            allClassesClean = false;
+        }
         reset_all_observed_classes = reInitializeAllClasses;
     }
 
@@ -7,6 +7,7 @@ import org.evosuite.testcase.TestCase;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.TestFactory;
 import org.evosuite.testcase.execution.ExecutionTracer;
+import org.evosuite.testcase.llm.LLMSelectionBatch;
 import org.evosuite.utils.Randomness;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,9 +24,14 @@ public class LLMBasedTestFactory implements ChromosomeFactory<TestChromosome> {
         if (tracerEnabled)
             ExecutionTracer.disable();
 
-        final TestCase test = getNewTestCase();
+        final DefaultTestCase test = getNewTestCase();
         final TestFactory testFactory = TestFactory.getInstance();
 
+        // Collect all selections and send them to the LLM at once, instead of one query per
+        // statement
+        final LLMSelectionBatch batch = Properties.LLM_BATCH_SELECTION ? new LLMSelectionBatch() : null;
+        test.setLLMSelectionBatch(batch);
+
         // Choose a random length between 1 (inclusive) and size (exclusive).
         final int length = Randomness.nextInt(1, size);
 
@@ -37,6 +43,11 @@ public class LLMBasedTestFactory implements ChromosomeFactory<TestChromosome> {
             // returned test case would indeed be empty!
             testFactory.insertLLMGuidedStatement(test, test.size() - 1);
 
+        if (batch != null) {
+            test.setLLMSelectionBatch(null);
+            batch.apply(test);
+        }
+
         if (logger.isDebugEnabled())
             logger.debug("LLM-guided test case:" + test.toCode());
 
@@ -50,7 +61,7 @@ public class LLMBasedTestFactory implements ChromosomeFactory<TestChromosome> {
         return c;
     }
 
-    private TestCase getNewTestCase() {
+    private DefaultTestCase getNewTestCase() {
         return new DefaultTestCase();
     }
 }
@@ -0,0 +1,76 @@
+package org.evosuite.testcase.llm;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Answers selection prompts in-process by applying the selection guidelines that are given to
+ * the LLM: choose the variable declared closest to its usage and, among those, the one with
+ * the fewest dependencies. Batched prompts are answered with a JSON array of indices.
+ */
+public class HeuristicLLMProvider implements LLMProvider {
+
+    private static final Pattern DECISION = Pattern.compile("##### Decision \\d+ #####");
+
+    private static final Pattern VARIABLE = Pattern.compile("Variable #(\\d+):");
+
+    private static final Pattern DISTANCE = Pattern.compile("- Statements between declaration and usage: (-?\\d+)");
+
+    private static final Pattern DEPENDENCIES = Pattern.compile("- Dependencies: (.*)");
+
+    @Override
+    public String query(String prompt) {
+        String[] decisions = DECISION.split(prompt);
+        if (decisions.length == 1) {
+            return String.valueOf(select(prompt));
+        }
+        List<Integer> indices = new ArrayList<>();
+        // The first part is the preamble before the first decision
+        for (int i = 1; i < decisions.length; i++) {
+            indices.add(select(decisions[i]));
+        }
+        return indices.toString();
+    }
+
+    /**
+     * Selects a variable among those described in the given part of a prompt
+     *
+     * @return the index of the selected variable, or 0 if the prompt does not describe any
+     */
+    static int select(String candidates) {
+        Matcher variable = VARIABLE.matcher(candidates);
+        List<Integer> starts = new ArrayList<>();
+        List<Integer> indices = new ArrayList<>();
+        while (variable.find()) {
+            starts.add(variable.start());
+            indices.add(Integer.parseInt(variable.group(1)));
+        }
+
+        int best = 0;
+        int bestDistance = Integer.MAX_VALUE;
+        int bestDependencies = Integer.MAX_VALUE;
+        for (int i = 0; i < starts.size(); i++) {
+            int end = i + 1 < starts.size() ? starts.get(i + 1) : candidates.length();
+            String description = candidates.substring(starts.get(i), end);
+
+            Matcher distanceMatcher = DISTANCE.matcher(description);
+            int distance = distanceMatcher.find() ? Integer.parseInt(distanceMatcher.group(1)) : Integer.MAX_VALUE;
+            Matcher dependencyMatcher = DEPENDENCIES.matcher(description);
+            int dependencies = dependencyMatcher.find() ? countTokens(dependencyMatcher.group(1)) : 0;
+
+            if (distance < bestDistance || (distance == bestDistance && dependencies < bestDependencies)) {
+                best = indices.get(i);
+                bestDistance = distance;
+                bestDependencies = dependencies;
+            }
+        }
+        return best;
+    }
+
+    private static int countTokens(String s) {
+        String trimmed = s.trim();
+        return trimmed.isEmpty() ? 0 : trimmed.split("\\s+").length;
+    }
+}
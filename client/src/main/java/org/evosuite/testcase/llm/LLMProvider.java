@@ -0,0 +1,36 @@
+package org.evosuite.testcase.llm;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A backend that answers the prompts sent by {@link LLMService}.
+ * The backend is chosen with {@link org.evosuite.Properties#LLM_PROVIDER}.
+ */
+public interface LLMProvider {
+
+    /**
+     * Answers the given prompt, blocking the calling thread until the answer is available
+     *
+     * @param prompt The formatted prompt
+     * @return The answer
+     * @throws Exception if no answer could be obtained
+     */
+    String query(String prompt) throws Exception;
+
+    /**
+     * Answers the given prompt without blocking the calling thread. Providers that answer
+     * locally can rely on this default implementation, which answers synchronously.
+     *
+     * @param prompt The formatted prompt
+     * @return a future that completes with the answer
+     */
+    default CompletableFuture<String> queryAsync(String prompt) {
+        CompletableFuture<String> future = new CompletableFuture<>();
+        try {
+            future.complete(query(prompt));
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+}
@@ -0,0 +1,313 @@
+package org.evosuite.testcase.llm;
+
+import org.evosuite.Properties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Content-addressed cache for LLM answers. Entries are looked up by the SHA-256 digest of a
+ * normalized key, so that prompts which only differ in irrelevant details (e.g., absolute
+ * statement positions) share the same answer.
+ * <p>
+ * The most recently used answers are kept in memory. If {@link Properties#LLM_CACHE_DIR} is
+ * set, all answers are also appended to a memory-mapped store in that directory, which is
+ * reloaded by later runs. The mapping grows in chunks of doubling size, and the store is
+ * limited to a single mapping of at most {@link #MAX_STORE_SIZE} bytes: once it is full,
+ * further answers are only kept in memory.
+ */
+public class LLMResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(LLMResponseCache.class);
+
+    private static final String STORE_FILE = "llm-cache.bin";
+
+    /**
+     * Largest store a single mapping can hold
+     */
+    static final long MAX_STORE_SIZE = Integer.MAX_VALUE;
+
+    private static final long INITIAL_MAPPING_SIZE = 64 * 1024;
+
+    private static LLMResponseCache instance = null;
+
+    private final Map<String, String> memory;
+
+    /**
+     * Offsets of the answers in the on-disk store, by key digest
+     */
+    private final Map<String, Long> diskIndex = new HashMap<>();
+
+    private FileChannel channel = null;
+
+    private MappedByteBuffer mapped = null;
+
+    /**
+     * Where the next record is written; the mapping beyond it is zero
+     */
+    private long end = 0;
+
+    private final long maxStoreSize;
+
+    /**
+     * Whether the store cannot take more answers, which are then only kept in memory
+     */
+    private boolean full = false;
+
+    /**
+     * How often the store was mapped, which should be logarithmic in its size
+     */
+    private int mappings = 0;
+
+    private int hits = 0;
+
+    private int misses = 0;
+
+    /**
+     * Creates a cache that keeps {@code capacity} entries in memory
+     *
+     * @param capacity  maximum number of entries kept in memory
+     * @param directory directory of the persistent store, or {@code null} to keep the cache in memory only
+     */
+    LLMResponseCache(final int capacity, File directory) {
+        this(capacity, directory, MAX_STORE_SIZE);
+    }
+
+    LLMResponseCache(final int capacity, File directory, long maxStoreSize) {
+        this.maxStoreSize = Math.min(maxStoreSize, MAX_STORE_SIZE);
+        this.memory = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > capacity;
+            }
+        };
+        if (directory != null) {
+            openStore(directory);
+        }
+    }
+
+    /**
+     * Returns the singleton instance of the cache configured by the current properties
+     *
+     * @return LLMResponseCache instance
+     */
+    public static synchronized LLMResponseCache getInstance() {
+        if (instance == null) {
+            File directory = Properties.LLM_CACHE_DIR == null || Properties.LLM_CACHE_DIR.isEmpty()
+                    ? null : new File(Properties.LLM_CACHE_DIR);
+            instance = new LLMResponseCache(Properties.LLM_CACHE_SIZE, directory);
+        }
+        return instance;
+    }
+
+    /**
+     * Returns the cached answer for the given normalized key
+     *
+     * @param key normalized key
+     * @return the answer, or {@code null} if there is none
+     */
+    public synchronized String get(String key) {
+        String digest = digest(key);
+        String answer = memory.get(digest);
+        if (answer == null) {
+            answer = readFromStore(digest);
+            if (answer != null) {
+                memory.put(digest, answer);
+            }
+        }
+        if (answer == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return answer;
+    }
+
+    /**
+     * Stores the answer for the given normalized key
+     *
+     * @param key    normalized key
+     * @param answer answer of the LLM
+     */
+    public synchronized void put(String key, String answer) {
+        String digest = digest(key);
+        String previous = memory.put(digest, answer);
+        if (answer.equals(previous) || diskIndex.containsKey(digest)) {
+            return;
+        }
+        writeToStore(digest, answer);
+    }
+
+    public synchronized int getNumberOfHits() {
+        return hits;
+    }
+
+    public synchronized int getNumberOfMisses() {
+        return misses;
+    }
+
+    synchronized int getNumberOfMappings() {
+        return mappings;
+    }
+
+    /**
+     * Closes the on-disk store, if any
+     */
+    public synchronized void close() {
+        if (channel != null) {
+            try {
+                mapped.force();
+                mapped = null;
+                // drop the unused part of the last chunk
+                channel.truncate(end);
+                channel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close LLM cache store: {}", e.getMessage());
+            }
+            channel = null;
+            mapped = null;
+        }
+    }
+
+    private void openStore(File directory) {
+        try {
+            if (!directory.exists() && !directory.mkdirs()) {
+                logger.warn("Cannot create LLM cache directory {}", directory);
+                return;
+            }
+            channel = new RandomAccessFile(new File(directory, STORE_FILE), "rw").getChannel();
+            if (channel.size() > maxStoreSize) {
+                logger.warn("LLM cache store {} is larger than {} bytes, using memory only",
+                        new File(directory, STORE_FILE), maxStoreSize);
+                channel.close();
+                channel = null;
+                return;
+            }
+            map(Math.min(Math.max(channel.size(), INITIAL_MAPPING_SIZE), maxStoreSize));
+            loadIndex();
+        } catch (IOException e) {
+            logger.warn("Failed to open LLM cache store, using memory only: {}", e.getMessage());
+            channel = null;
+            mapped = null;
+        }
+    }
+
+    /**
+     * Records are stored as [int key length][key][int value length][value], keys and values
+     * encoded in UTF-8, and are followed by zeros up to the end of the mapping. A truncated
+     * record at the end of the data (e.g., after a crash) is dropped.
+     */
+    private void loadIndex() {
+        long size = mapped.capacity();
+        long position = 0;
+        while (position + 4 <= size) {
+            int keyLength = mapped.getInt((int) position);
+            if (keyLength <= 0 || position + 4 + keyLength + 4 > size) {
+                break;
+            }
+            byte[] key = new byte[keyLength];
+            readBytes(position + 4, key);
+            long valuePosition = position + 4 + keyLength;
+            int valueLength = mapped.getInt((int) valuePosition);
+            if (valueLength < 0 || valuePosition + 4 + valueLength > size) {
+                break;
+            }
+            diskIndex.put(new String(key, StandardCharsets.UTF_8), valuePosition);
+            position = valuePosition + 4 + valueLength;
+        }
+        end = position;
+        // clear what is left of a truncated record, so that it is not read as part of later ones
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) end);
+        byte[] zeros = new byte[4096];
+        while (view.hasRemaining()) {
+            view.put(zeros, 0, Math.min(zeros.length, view.remaining()));
+        }
+        logger.debug("Loaded {} LLM cache entries from disk", diskIndex.size());
+    }
+
+    private String readFromStore(String digest) {
+        Long offset = diskIndex.get(digest);
+        if (offset == null || mapped == null) {
+            return null;
+        }
+        byte[] value = new byte[mapped.getInt((int) offset.longValue())];
+        readBytes(offset + 4, value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+
+    private void writeToStore(String digest, String answer) {
+        if (channel == null || full) {
+            return;
+        }
+        byte[] key = digest.getBytes(StandardCharsets.UTF_8);
+        byte[] value = answer.getBytes(StandardCharsets.UTF_8);
+        long recordEnd = end + 8 + key.length + value.length;
+        if (recordEnd > maxStoreSize) {
+            logger.warn("LLM cache store is full ({} bytes), further answers are only kept in memory",
+                    maxStoreSize);
+            full = true;
+            return;
+        }
+        try {
+            if (recordEnd > mapped.capacity()) {
+                long size = mapped.capacity();
+                while (size < recordEnd) {
+                    size *= 2;
+                }
+                map(Math.min(size, maxStoreSize));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to grow LLM cache store, further answers are only kept in memory: {}",
+                    e.getMessage());
+            full = true;
+            return;
+        }
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) end);
+        view.putInt(key.length).put(key).putInt(value.length).put(value);
+        diskIndex.put(digest, end + 4 + key.length);
+        end = recordEnd;
+    }
+
+    /**
+     * Maps the first {@code size} bytes of the store, extending the file if needed
+     */
+    private void map(long size) throws IOException {
+        mapped = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        mappings++;
+    }
+
+    private void readBytes(long position, byte[] target) {
+        ByteBuffer view = mapped.duplicate();
+        view.position((int) position);
+        view.get(target);
+    }
+
+    private static String digest(String key) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder builder = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                builder.append(String.format("%02x", b));
+            }
+            return builder.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package org.evosuite.testcase.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.evosuite.setup.TestUsageChecker;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.ArrayIndex;
+import org.evosuite.testcase.variable.VariableReference;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the callee selections of a test under construction, so that they can be decided by
+ * a single LLM query once the test is complete instead of one query per statement.
+ * <p>
+ * While the test is built, each selection is answered provisionally and recorded as a
+ * decision. The decision is bound to the method statement that uses the provisional callee as
+ * soon as that statement is added to the test. {@link #apply(TestCase)} then asks the LLM for
+ * all decisions at once and replaces the provisional callees with the selected ones.
+ */
+public class LLMSelectionBatch {
+
+    private static final Logger logger = LoggerFactory.getLogger(LLMSelectionBatch.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private static class Decision {
+        private final Type type;
+        private final List<VariableReference> candidates;
+        private final VariableReference provisional;
+        private final String description;
+        private final String cacheKey;
+        private MethodStatement statement = null;
+
+        private Decision(Type type, List<VariableReference> candidates, VariableReference provisional,
+                         String description, String cacheKey) {
+            this.type = type;
+            this.candidates = new ArrayList<>(candidates);
+            this.provisional = provisional;
+            this.description = description;
+            this.cacheKey = cacheKey;
+        }
+    }
+
+    private final List<Decision> decisions = new ArrayList<>();
+
+    private Decision pending = null;
+
+    /**
+     * Decisions of the closed batch that still wait for the answer of the LLM
+     */
+    private final List<Decision> open = new ArrayList<>();
+
+    /**
+     * Records a selection that is to be decided later
+     *
+     * @param type        the type that is needed
+     * @param candidates  the variables the LLM can choose from
+     * @param provisional the variable that is used until the decision is applied
+     * @param description description of the candidates, as presented to the LLM
+     * @param cacheKey    normalized key of the selection, or {@code null} if answers are not cached
+     */
+    public void defer(Type type, List<VariableReference> candidates, VariableReference provisional,
+                      String description, String cacheKey) {
+        pending = new Decision(type, candidates, provisional, description, cacheKey);
+    }
+
+    /**
+     * Has to be called whenever a statement is added to the test under construction
+     *
+     * @param statement the new statement
+     */
+    public void statementAdded(Statement statement) {
+        if (pending == null || !(statement instanceof MethodStatement)) {
+            return;
+        }
+        MethodStatement methodStatement = (MethodStatement) statement;
+        if (!methodStatement.isStatic() && methodStatement.getCallee() == pending.provisional) {
+            pending.statement = methodStatement;
+            decisions.add(pending);
+            pending = null;
+        }
+    }
+
+    public int getNumberOfDecisions() {
+        return decisions.size();
+    }
+
+    /**
+     * Asks the LLM for all recorded decisions with one query and replaces the provisional
+     * callees in {@code test} accordingly. Decisions whose statements were removed in the
+     * meantime are skipped, and provisional callees are kept whenever the LLM does not provide a
+     * valid answer.
+     *
+     * @param test the test that has been constructed
+     * @return the number of callees that were replaced
+     */
+    public int apply(TestCase test) {
+        String prompt = getPrompt(test);
+        if (prompt == null) {
+            return 0;
+        }
+        String answer;
+        try {
+            answer = LLMService.getInstance().queryLLM(prompt);
+        } catch (Exception e) {
+            logger.warn("Batched LLM selection failed, keeping provisional selections: {}", e.getMessage());
+            return 0;
+        }
+        return apply(test, answer);
+    }
+
+    /**
+     * Closes the batch and builds the query for the recorded decisions whose statements are
+     * still part of {@code test}. Together with {@link #apply(TestCase, String)}, this allows
+     * the caller to send the query itself, e.g., to overlap the queries of several tests.
+     *
+     * @param test the test that has been constructed
+     * @return the prompt to send to the LLM, or {@code null} if there is nothing to decide
+     */
+    public String getPrompt(TestCase test) {
+        open.clear();
+        for (Decision decision : decisions) {
+            if (indexOf(test, decision.statement) >= 0) {
+                open.add(decision);
+            }
+        }
+        decisions.clear();
+        pending = null;
+        return open.isEmpty() ? null : buildPrompt(open);
+    }
+
+    /**
+     * Replaces the provisional callees in {@code test} according to the answer of the LLM to
+     * the prompt returned by {@link #getPrompt(TestCase)}
+     *
+     * @param test   the test that has been constructed
+     * @param answer answer of the LLM, or {@code null} to keep the provisional callees
+     * @return the number of callees that were replaced
+     */
+    public int apply(TestCase test, String answer) {
+        if (open.isEmpty() || answer == null) {
+            open.clear();
+            return 0;
+        }
+        List<Integer> answers;
+        try {
+            answers = parseIndices(answer);
+        } catch (Exception e) {
+            logger.warn("Batched LLM selection failed, keeping provisional selections: {}", e.getMessage());
+            open.clear();
+            return 0;
+        }
+
+        int replaced = 0;
+        for (int i = 0; i < open.size() && i < answers.size(); i++) {
+            Decision decision = open.get(i);
+            int index = answers.get(i);
+            if (index < 0 || index >= decision.candidates.size()) {
+                logger.debug("LLM returned invalid index {} for decision {}", index, i);
+                continue;
+            }
+            VariableReference selected = decision.candidates.get(index);
+            if (!canBeCallee(test, decision, selected)) {
+                logger.debug("LLM selected unusable callee {} for decision {}", index, i);
+                continue;
+            }
+            if (decision.cacheKey != null) {
+                LLMResponseCache.getInstance().put(decision.cacheKey, String.valueOf(index));
+            }
+            if (selected == decision.provisional) {
+                continue;
+            }
+            MethodStatement statement = decision.statement;
+            statement.setMethod(statement.getMethod().copyWithNewOwner(selected.getGenericClass()));
+            statement.setCallee(selected);
+            replaced++;
+        }
+        logger.debug("Applied {} of {} batched LLM selections", replaced, open.size());
+        open.clear();
+        return replaced;
+    }
+
+    private String buildPrompt(List<Decision> toDecide) {
+        StringBuilder prompt = new StringBuilder();
+        prompt.append("Task: For each of the following decisions, select the most appropriate variable for testing.\n\n");
+        for (int i = 0; i < toDecide.size(); i++) {
+            prompt.append("##### Decision ").append(i).append(" #####\n");
+            prompt.append(toDecide.get(i).description).append("\n");
+        }
+        prompt.append("=== Selection Guidelines ===\n");
+        prompt.append("1. Prefer variables declared closer to the position where they are used\n");
+        prompt.append("2. Prefer variables with fewer dependencies\n");
+        prompt.append("3. Prefer variables that are directly of the needed type over those requiring type conversion\n\n");
+        prompt.append("Return **only a JSON array** with one index per decision, in the order of the decisions, e.g. [0, 2, 1].");
+        return prompt.toString();
+    }
+
+    /**
+     * Extracts the indices from the answer of the LLM
+     *
+     * @param answer answer of the LLM
+     * @return the selected indices, in the order of the decisions
+     */
+    static List<Integer> parseIndices(String answer) throws IOException {
+        int start = answer.indexOf('[');
+        int end = answer.lastIndexOf(']');
+        if (start < 0 || end < start) {
+            throw new IllegalArgumentException("No JSON array in LLM response: " + answer);
+        }
+        int[] indices = mapper.readValue(answer.substring(start, end + 1), int[].class);
+        List<Integer> result = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            result.add(index);
+        }
+        return result;
+    }
+
+    private static int indexOf(TestCase test, Statement statement) {
+        for (int i = 0; i < test.size(); i++) {
+            if (test.getStatement(i) == statement) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Applies the same checks as a callee that is selected while the test is built, see
+     * {@link org.evosuite.testcase.TestFactory#insertLLMGuidedCall(TestCase, int)}
+     */
+    private static boolean canBeCallee(TestCase test, Decision decision, VariableReference selected) {
+        int position = indexOf(test, decision.statement);
+        return isDeclaredBefore(test, selected, position)
+                && selected.isAssignableTo(decision.type)
+                && TestUsageChecker.canUse(decision.statement.getMethod().getMethod(), selected.getVariableClass());
+    }
+
+    private static boolean isDeclaredBefore(TestCase test, VariableReference var, int position) {
+        VariableReference expected = var instanceof ArrayIndex ? ((ArrayIndex) var).getArray() : var;
+        for (int i = 0; i < position; i++) {
+            if (test.getStatement(i).getReturnValue() == expected) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
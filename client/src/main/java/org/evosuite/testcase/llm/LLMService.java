@@ -1,55 +1,63 @@
 package org.evosuite.testcase.llm;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import okhttp3.*;
+import org.evosuite.Properties;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Properties;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * LLMService is responsible for interacting with Large Language Models (LLM) APIs
  * to generate test cases based on given context.
  * This service implements the Singleton pattern to ensure single point of API access.
+ * The prompts are answered by the {@link LLMProvider} selected with {@link Properties#LLM_PROVIDER}.
  */
 public class LLMService {
     private static final Logger logger = LoggerFactory.getLogger(LLMService.class);
     private static LLMService instance = null;
-    private final Properties config;
-    private final OkHttpClient client;
-    private final ObjectMapper mapper;
-    private static final String CONFIG_FILE = "/llm.properties";
-    private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+    private final LLMProvider provider;
 
     /**
-     * Private constructor to enforce singleton pattern and load configuration
+     * Bounds the number of asynchronous queries that are pending at the same time
      */
-    private LLMService() {
-        config = new Properties();
-        try (InputStream input = getClass().getResourceAsStream(CONFIG_FILE)) {
-            if (input == null) {
-                throw new RuntimeException("Unable to find " + CONFIG_FILE);
-            }
-            config.load(input);
-        } catch (IOException e) {
-            logger.error("Failed to load LLM configuration", e);
-            throw new RuntimeException("Failed to initialize LLM service", e);
-        }
+    private final Semaphore inFlight = new Semaphore(Properties.LLM_MAX_IN_FLIGHT);
+
+    /**
+     * Asynchronous queries that have been sent but not answered yet, by prompt
+     */
+    private final Map<String, CompletableFuture<String>> pendingQueries = new HashMap<>();
+
+    private static final int MAX_LATE_ANSWERS = 1000;
+
+    /**
+     * Answers that arrived after their caller stopped waiting, by prompt. Each answer is
+     * consumed by the next identical query; the oldest ones are dropped beyond
+     * {@link #MAX_LATE_ANSWERS}.
+     */
+    private final Map<String, String> lateAnswers = new LinkedHashMap<String, String>() {
+        private static final long serialVersionUID = 1L;
 
-        // Initialize OkHttpClient with timeouts
-        client = new OkHttpClient.Builder()
-                .connectTimeout(30, TimeUnit.SECONDS)
-                .writeTimeout(30, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
-                .build();
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+            return size() > MAX_LATE_ANSWERS;
+        }
+    };
 
-        mapper = new ObjectMapper();
+    /**
+     * Private constructor to enforce singleton pattern, package-private for tests
+     */
+    LLMService(LLMProvider provider) {
+        this.provider = provider;
     }
 
     /**
@@ -59,11 +67,27 @@ public class LLMService {
      */
     public static LLMService getInstance() {
         if (instance == null) {
-            instance = new LLMService();
+            instance = new LLMService(createProvider());
         }
         return instance;
     }
 
+    private static LLMProvider createProvider() {
+        switch (Properties.LLM_PROVIDER) {
+            case REPLAY:
+                return new ReplayLLMProvider(Properties.LLM_TRANSCRIPT);
+            case HEURISTIC:
+                return new HeuristicLLMProvider();
+            case HTTP:
+            default:
+                HttpLLMProvider http = new HttpLLMProvider();
+                if (Properties.LLM_TRANSCRIPT == null || Properties.LLM_TRANSCRIPT.isEmpty()) {
+                    return http;
+                }
+                return new ReplayLLMProvider.Recorder(http, Properties.LLM_TRANSCRIPT);
+        }
+    }
+
     /**
      * Queries the LLM API with the given prompt
      *
@@ -72,92 +96,126 @@ public class LLMService {
      */
     public String queryLLM(String prompt) {
         try {
-            Map<String, Object> body = new HashMap<>();
-            String model = config.getProperty("openai.model");
-            if (model == null) {
-                throw new IllegalStateException("openai.model not configured in llm.properties");
-            }
-            body.put("model", model);
+            return provider.query(prompt);
+        } catch (Exception e) {
+            logger.error("Failed to query LLM API", e);
+            throw new RuntimeException("Failed to generate test code: " + e.getMessage(), e);
+        }
+    }
 
-            String tempStr = config.getProperty("openai.temperature");
-            if (tempStr == null) {
-                throw new IllegalStateException("openai.temperature not configured in llm.properties");
+    /**
+     * Queries the LLM API with the given prompt without blocking the calling thread.
+     * At most {@link Properties#LLM_MAX_IN_FLIGHT} queries are pending at the same time;
+     * if the window is full, the returned future fails immediately with a
+     * {@link RejectedExecutionException} so that the caller can fall back to random selection.
+     * Identical prompts that are already in flight share the same future, and an answer that
+     * arrived after its caller gave up (see {@link #queryLLM(String, long)}) is returned as a
+     * completed future to the next identical query.
+     *
+     * @param prompt The formatted prompt to send to the LLM
+     * @return a future that completes with the generated response from the LLM
+     */
+    public CompletableFuture<String> queryLLMAsync(String prompt) {
+        final CompletableFuture<String> future;
+        synchronized (pendingQueries) {
+            String late = lateAnswers.remove(prompt);
+            if (late != null) {
+                return CompletableFuture.completedFuture(late);
             }
-            body.put("temperature", Double.parseDouble(tempStr));
-
-            String maxTokensStr = config.getProperty("openai.max_tokens");
-            if (maxTokensStr == null) {
-                throw new IllegalStateException("openai.max_tokens not configured in llm.properties");
+            CompletableFuture<String> pending = pendingQueries.get(prompt);
+            if (pending != null) {
+                return pending;
             }
-            body.put("max_tokens", Integer.parseInt(maxTokensStr));
-
-            body.put("stream", false);
-
-            ArrayList<Map<String, String>> messages = new ArrayList<>();
-            Map<String, String> systemMessage = new HashMap<>();
-            systemMessage.put("role", "system");
-            systemMessage.put("content", "You are a test generation system. Return content ONLY in the required format");
-            messages.add(systemMessage);
-
-            Map<String, String> userMessage = new HashMap<>();
-            userMessage.put("role", "user");
-            userMessage.put("content", prompt);
-            messages.add(userMessage);
-
-            body.put("messages", messages);
-
-            String jsonBody = mapper.writeValueAsString(body);
-            logger.debug("Sending request to LLM API:\n{}", jsonBody);
-
-            RequestBody requestBody = RequestBody.create(jsonBody, JSON);
-
-            String apiUrl = config.getProperty("openai.api.url");
-            if (apiUrl == null) {
-                throw new IllegalStateException("openai.api.url not configured in llm.properties");
+            if (!inFlight.tryAcquire()) {
+                CompletableFuture<String> rejected = new CompletableFuture<>();
+                rejected.completeExceptionally(new RejectedExecutionException(
+                        "Too many LLM queries in flight: " + Properties.LLM_MAX_IN_FLIGHT));
+                return rejected;
             }
+            future = new CompletableFuture<>();
+            pendingQueries.put(prompt, future);
+        }
 
-            String apiKey = config.getProperty("openai.api.key");
-            if (apiKey == null) {
-                throw new IllegalStateException("openai.api.key not configured in llm.properties");
+        provider.queryAsync(prompt).whenComplete((answer, e) -> {
+            finish(prompt);
+            if (e != null) {
+                logger.debug("Asynchronous LLM query failed: {}", e.getMessage());
+                future.completeExceptionally(e);
+            } else {
+                future.complete(answer);
             }
+        });
+        return future;
+    }
 
-            Request request = new Request.Builder()
-                    .url(apiUrl)
-                    .addHeader("Authorization", "Bearer " + apiKey)
-                    .post(requestBody)
-                    .build();
-
-            try (Response response = client.newCall(request).execute()) {
-                if (!response.isSuccessful() || response.body() == null) {
-                    String errorMsg = response.body() != null ? response.body().string() : "No response body";
-                    logger.error("API call failed: " + errorMsg);
-                    throw new RuntimeException("Failed to get response from LLM API: " + response.code());
-                }
-
-                String responseBody = response.body().string();
-                Map<String, Object> responseMap = mapper.readValue(responseBody, Map.class);
-                ArrayList<Map<String, Object>> choices = (ArrayList<Map<String, Object>>) responseMap.get("choices");
-
-                if (choices == null || choices.isEmpty()) {
-                    throw new RuntimeException("No choices in LLM response");
+    /**
+     * Queries the LLM API with the given prompt and waits at most {@code deadlineMillis} for
+     * the answer. If the answer is not ready by then, the query stays in flight and its answer
+     * is kept for the next identical query instead of being dropped.
+     *
+     * @param prompt         The formatted prompt to send to the LLM
+     * @param deadlineMillis maximum time to wait in milliseconds
+     * @return the response of the LLM, or {@code null} if it is not available before the deadline
+     * or if the query failed
+     */
+    public String queryLLM(String prompt, long deadlineMillis) {
+        CompletableFuture<String> future = queryLLMAsync(prompt);
+        String answer = getIfReady(future, deadlineMillis);
+        if (answer == null && future.isDone()) {
+            // Completed right after the deadline, or failed
+            return getIfReady(future, 0);
+        }
+        if (answer == null) {
+            future.thenAccept(late -> {
+                synchronized (pendingQueries) {
+                    lateAnswers.put(prompt, late);
                 }
+            });
+        }
+        return answer;
+    }
 
-                Map<String, Object> message = (Map<String, Object>) choices.get(0).get("message");
-                if (message == null) {
-                    throw new RuntimeException("No message in LLM response choice");
-                }
+    /**
+     * Waits at most {@code deadlineMillis} for the given query to complete.
+     *
+     * @param future         a future obtained from {@link #queryLLMAsync(String)}
+     * @param deadlineMillis maximum time to wait in milliseconds; 0 only consumes finished answers
+     * @return the response of the LLM, or {@code null} if it is not available before the deadline
+     * or if the query failed
+     */
+    public static String getIfReady(CompletableFuture<String> future, long deadlineMillis) {
+        try {
+            if (deadlineMillis <= 0) {
+                return future.isDone() ? future.getNow(null) : null;
+            }
+            return future.get(deadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            logger.debug("LLM answer not ready after {} ms", deadlineMillis);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | CompletionException | CancellationException e) {
+            logger.debug("LLM query failed: {}", e.getMessage());
+            return null;
+        }
+    }
 
-                String content = (String) message.get("content");
-                if (content == null) {
-                    throw new RuntimeException("No content in LLM response message");
-                }
+    /**
+     * Returns the number of asynchronous queries that are currently pending
+     *
+     * @return number of queries in flight
+     */
+    public int getNumberOfQueriesInFlight() {
+        synchronized (pendingQueries) {
+            return pendingQueries.size();
+        }
+    }
 
-                logger.debug("Received response from LLM:\n{}", content);
-                return content;
-            }
-        } catch (Exception e) {
-            logger.error("Failed to query LLM API", e);
-            throw new RuntimeException("Failed to generate test code: " + e.getMessage(), e);
+    private void finish(String prompt) {
+        synchronized (pendingQueries) {
+            pendingQueries.remove(prompt);
         }
+        inFlight.release();
     }
 }
@@ -0,0 +1,115 @@
+package org.evosuite.testcase.llm;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Answers prompts from a transcript recorded by {@link Recorder}, so that runs can be
+ * reproduced without contacting an LLM. A transcript has one JSON object per line, with the
+ * fields {@code prompt} and {@code response}. If the same prompt was recorded several times,
+ * its responses are replayed in the recorded order, starting over after the last one.
+ */
+public class ReplayLLMProvider implements LLMProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayLLMProvider.class);
+
+    private static final ObjectMapper mapper = new ObjectMapper();
+
+    private final Map<String, List<String>> responses = new HashMap<>();
+
+    private final Map<String, Integer> nextResponse = new HashMap<>();
+
+    /**
+     * @param transcript path of the recorded transcript
+     */
+    public ReplayLLMProvider(String transcript) {
+        if (transcript == null || transcript.isEmpty()) {
+            throw new IllegalStateException("llm_transcript has to be set to replay LLM answers");
+        }
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(transcript), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                Map<?, ?> record = mapper.readValue(line, Map.class);
+                responses.computeIfAbsent((String) record.get("prompt"), p -> new ArrayList<>())
+                        .add((String) record.get("response"));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read LLM transcript " + transcript, e);
+        }
+        logger.debug("Loaded {} recorded prompts from {}", responses.size(), transcript);
+    }
+
+    @Override
+    public synchronized String query(String prompt) throws IOException {
+        List<String> recorded = responses.get(prompt);
+        if (recorded == null) {
+            throw new IOException("No recorded answer for prompt");
+        }
+        int next = nextResponse.getOrDefault(prompt, 0);
+        nextResponse.put(prompt, (next + 1) % recorded.size());
+        return recorded.get(next);
+    }
+
+    /**
+     * Forwards prompts to another provider and appends each answered prompt to a transcript
+     * that can be replayed by {@link ReplayLLMProvider}.
+     */
+    public static class Recorder implements LLMProvider {
+
+        private final LLMProvider delegate;
+
+        private final Path transcript;
+
+        public Recorder(LLMProvider delegate, String transcript) {
+            this.delegate = delegate;
+            this.transcript = Paths.get(transcript);
+        }
+
+        @Override
+        public String query(String prompt) throws Exception {
+            String response = delegate.query(prompt);
+            record(prompt, response);
+            return response;
+        }
+
+        @Override
+        public CompletableFuture<String> queryAsync(String prompt) {
+            return delegate.queryAsync(prompt).thenApply(response -> {
+                record(prompt, response);
+                return response;
+            });
+        }
+
+        private synchronized void record(String prompt, String response) {
+            Map<String, String> record = new LinkedHashMap<>();
+            record.put("prompt", prompt);
+            record.put("response", response);
+            try (Writer writer = Files.newBufferedWriter(transcript, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(mapper.writeValueAsString(record));
+                writer.write("\n");
+            } catch (IOException e) {
+                logger.warn("Failed to record LLM answer: {}", e.getMessage());
+            }
+        }
+    }
+}
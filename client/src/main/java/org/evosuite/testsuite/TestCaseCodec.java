@@ -0,0 +1,869 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.TestGenerationContext;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.TestCase;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.statements.*;
+import org.evosuite.testcase.statements.numeric.*;
+import org.evosuite.testcase.variable.*;
+import org.evosuite.utils.ParameterizedTypeImpl;
+import org.evosuite.utils.generic.*;
+
+import java.io.*;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact binary encoding of test cases as sequences of statements.
+ *
+ * <p>
+ * Statements are encoded by their kind, the signatures of the methods, constructors and fields
+ * they access, the positions of the variables they use, and their primitive values. Class names,
+ * member names, descriptors and strings are stored once, in a dictionary at the end of the file.
+ * Neither assertions nor cached execution results and fitness values are stored, as loaded
+ * tests are executed again anyway. Tests with statements this encoding does not support (e.g.,
+ * functional mocks or reflection statements) are stored with Java serialization instead.
+ *
+ * <p>
+ * Layout: magic and version, one block (length and bytes) per test, the offsets of the blocks,
+ * the dictionary, and a trailer with the positions of offsets and dictionary. Tests can thus be
+ * written one at a time and read individually.
+ */
+public class TestCaseCodec {
+
+    static final int MAGIC = 0x45565453;
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TRAILER_SIZE = 8 + 8 + 4;
+
+    private static final byte ENCODED = 0;
+    private static final byte SERIALIZED = 1;
+
+    private static final byte ST_BOOLEAN = 1;
+    private static final byte ST_BYTE = 2;
+    private static final byte ST_CHAR = 3;
+    private static final byte ST_SHORT = 4;
+    private static final byte ST_INT = 5;
+    private static final byte ST_LONG = 6;
+    private static final byte ST_FLOAT = 7;
+    private static final byte ST_DOUBLE = 8;
+    private static final byte ST_STRING = 9;
+    private static final byte ST_ENUM = 10;
+    private static final byte ST_CLASS = 11;
+    private static final byte ST_NULL = 12;
+    private static final byte ST_CONSTRUCTOR = 13;
+    private static final byte ST_METHOD = 14;
+    private static final byte ST_FIELD = 15;
+    private static final byte ST_ASSIGNMENT = 16;
+    private static final byte ST_ARRAY = 17;
+
+    private static final byte REF_NONE = 0;
+    private static final byte REF_STATEMENT = 1;
+    private static final byte REF_ARRAY_INDEX = 2;
+    private static final byte REF_FIELD = 3;
+    private static final byte REF_NULL = 4;
+    private static final byte REF_CONSTANT = 5;
+
+    private static final byte RET_VARIABLE = 0;
+    private static final byte RET_ARRAY = 1;
+
+    private static final byte TYPE_NONE = 0;
+    private static final byte TYPE_RAW = 1;
+    private static final byte TYPE_PARAMETERIZED = 2;
+
+    private static final byte VALUE_NULL = 0;
+    private static final byte VALUE_BOOLEAN = 1;
+    private static final byte VALUE_BYTE = 2;
+    private static final byte VALUE_CHAR = 3;
+    private static final byte VALUE_SHORT = 4;
+    private static final byte VALUE_INT = 5;
+    private static final byte VALUE_LONG = 6;
+    private static final byte VALUE_FLOAT = 7;
+    private static final byte VALUE_DOUBLE = 8;
+    private static final byte VALUE_STRING = 9;
+
+    /**
+     * Thrown while encoding a test that contains something this encoding does not support
+     */
+    private static class UnsupportedTestException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedTestException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Writes tests one at a time, so that the whole suite never needs to be encoded in memory
+     */
+    static class Writer implements Closeable {
+
+        private final DataOutputStream out;
+
+        private final List<Long> offsets = new ArrayList<>();
+
+        private final List<String> dictionary = new ArrayList<>();
+
+        private final Map<String, Integer> dictionaryIds = new HashMap<>();
+
+        private long position;
+
+        Writer(OutputStream output) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(output));
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            position = 8;
+        }
+
+        public void write(TestChromosome test) throws IOException {
+            ByteArrayOutputStream block = new ByteArrayOutputStream();
+            try {
+                DataOutputStream encoded = new DataOutputStream(block);
+                encoded.writeByte(ENCODED);
+                writeTest(encoded, test.getTestCase());
+            } catch (UnsupportedTestException e) {
+                block.reset();
+                block.write(SERIALIZED);
+                try (ObjectOutputStream serialized = new ObjectOutputStream(block)) {
+                    serialized.writeObject(test);
+                }
+            }
+            offsets.add(position);
+            out.writeInt(block.size());
+            block.writeTo(out);
+            position += 4 + block.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            long offsetsPosition = position;
+            out.writeInt(offsets.size());
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            long dictionaryPosition = offsetsPosition + 4 + 8L * offsets.size();
+            out.writeInt(dictionary.size());
+            for (String value : dictionary) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(out, bytes.length);
+                out.write(bytes);
+            }
+            out.writeLong(offsetsPosition);
+            out.writeLong(dictionaryPosition);
+            out.writeInt(MAGIC);
+            out.close();
+        }
+
+        private void writeString(DataOutputStream out, String value) throws IOException {
+            Integer id = dictionaryIds.get(value);
+            if (id == null) {
+                id = dictionary.size();
+                dictionary.add(value);
+                dictionaryIds.put(value, id);
+            }
+            writeVarInt(out, id);
+        }
+
+        private void writeTest(DataOutputStream out, TestCase test) throws IOException, UnsupportedTestException {
+            if (!(test instanceof DefaultTestCase)) {
+                throw new UnsupportedTestException("Unsupported test case " + test.getClass());
+            }
+            out.writeBoolean(test.isFailing());
+            out.writeBoolean(test.isUnstable());
+            writeVarInt(out, test.size());
+            for (Statement statement : test) {
+                writeStatement(out, test, statement);
+            }
+        }
+
+        private void writeStatement(DataOutputStream out, TestCase test, Statement statement)
+                throws IOException, UnsupportedTestException {
+            Class<?> kind = statement.getClass();
+            if (kind == AssignmentStatement.class) {
+                AssignmentStatement assignment = (AssignmentStatement) statement;
+                out.writeByte(ST_ASSIGNMENT);
+                writeReference(out, test, assignment.getReturnValue(), statement.getPosition());
+                writeReference(out, test, assignment.getValue(), statement.getPosition());
+            } else if (kind == ArrayStatement.class) {
+                out.writeByte(ST_ARRAY);
+                writeReturnValue(out, statement.getReturnValue());
+                writeLengths(out, ((ArrayStatement) statement).getLengths());
+            } else if (kind == NullStatement.class) {
+                out.writeByte(ST_NULL);
+                writeType(out, statement.getReturnValue().getGenericClass());
+            } else if (kind == ConstructorStatement.class) {
+                ConstructorStatement cs = (ConstructorStatement) statement;
+                out.writeByte(ST_CONSTRUCTOR);
+                writeReturnValue(out, statement.getReturnValue());
+                writeConstructor(out, cs.getConstructor());
+                writeReferences(out, test, cs.getParameterReferences(), statement.getPosition());
+            } else if (kind == MethodStatement.class) {
+                MethodStatement ms = (MethodStatement) statement;
+                out.writeByte(ST_METHOD);
+                writeReturnValue(out, statement.getReturnValue());
+                writeMethod(out, ms.getMethod());
+                writeReference(out, test, ms.getCallee(), statement.getPosition());
+                writeReferences(out, test, ms.getParameterReferences(), statement.getPosition());
+            } else if (kind == FieldStatement.class) {
+                FieldStatement fs = (FieldStatement) statement;
+                out.writeByte(ST_FIELD);
+                writeReturnValue(out, statement.getReturnValue());
+                writeField(out, fs.getField());
+                writeReference(out, test, fs.getSource(), statement.getPosition());
+            } else if (kind == EnumPrimitiveStatement.class) {
+                EnumPrimitiveStatement<?> es = (EnumPrimitiveStatement<?>) statement;
+                out.writeByte(ST_ENUM);
+                writeReturnValue(out, statement.getReturnValue());
+                writeString(out, es.getEnumClass().getName());
+                writeString(out, es.getValue() == null ? "" : es.getValue().name());
+            } else if (kind == ClassPrimitiveStatement.class) {
+                ClassPrimitiveStatement cs = (ClassPrimitiveStatement) statement;
+                if (cs.getValue() == null) {
+                    throw new UnsupportedTestException("Class statement without value");
+                }
+                out.writeByte(ST_CLASS);
+                writeReturnValue(out, statement.getReturnValue());
+                writeString(out, cs.getValue().getName());
+            } else {
+                writePrimitiveStatement(out, statement);
+            }
+            writeString(out, ((AbstractStatement) statement).getComment());
+        }
+
+        private void writePrimitiveStatement(DataOutputStream out, Statement statement)
+                throws IOException, UnsupportedTestException {
+            Class<?> kind = statement.getClass();
+            Object value = statement instanceof PrimitiveStatement ? ((PrimitiveStatement<?>) statement).getValue() : null;
+            if (value == null) {
+                throw new UnsupportedTestException("Unsupported statement " + kind);
+            }
+            if (kind == BooleanPrimitiveStatement.class) {
+                out.writeByte(ST_BOOLEAN);
+                writeReturnValue(out, statement.getReturnValue());
+                out.writeBoolean((Boolean) value);
+            } else if (kind == BytePrimitiveStatement.class) {
+                out.writeByte(ST_BYTE);
+                writeReturnValue(out, statement.getReturnValue());
+                out.writeByte((Byte) value);
+            } else if (kind == CharPrimitiveStatement.class) {
+                out.writeByte(ST_CHAR);
+                writeReturnValue(out, statement.getReturnValue());
+                writeVarInt(out, (Character) value);
+            } else if (kind == ShortPrimitiveStatement.class) {
+                out.writeByte(ST_SHORT);
+                writeReturnValue(out, statement.getReturnValue());
+                writeVarLong(out, zigZag((Short) value));
+            } else if (kind == IntPrimitiveStatement.class) {
+                out.writeByte(ST_INT);
+                writeReturnValue(out, statement.getReturnValue());
+                writeVarLong(out, zigZag((Integer) value));
+            } else if (kind == LongPrimitiveStatement.class) {
+                out.writeByte(ST_LONG);
+                writeReturnValue(out, statement.getReturnValue());
+                writeVarLong(out, zigZag((Long) value));
+            } else if (kind == FloatPrimitiveStatement.class) {
+                out.writeByte(ST_FLOAT);
+                writeReturnValue(out, statement.getReturnValue());
+                out.writeFloat((Float) value);
+            } else if (kind == DoublePrimitiveStatement.class) {
+                out.writeByte(ST_DOUBLE);
+                writeReturnValue(out, statement.getReturnValue());
+                out.writeDouble((Double) value);
+            } else if (kind == StringPrimitiveStatement.class) {
+                out.writeByte(ST_STRING);
+                writeReturnValue(out, statement.getReturnValue());
+                writeString(out, (String) value);
+            } else {
+                throw new UnsupportedTestException("Unsupported statement " + kind);
+            }
+        }
+
+        private void writeReturnValue(DataOutputStream out, VariableReference retval)
+                throws IOException, UnsupportedTestException {
+            if (retval.getClass() == VariableReferenceImpl.class) {
+                out.writeByte(RET_VARIABLE);
+                writeType(out, retval.getGenericClass());
+            } else if (retval.getClass() == ArrayReference.class) {
+                out.writeByte(RET_ARRAY);
+                writeType(out, retval.getGenericClass());
+                writeLengths(out, ((ArrayReference) retval).getLengths());
+            } else {
+                throw new UnsupportedTestException("Unsupported return value " + retval.getClass());
+            }
+        }
+
+        private void writeLengths(DataOutputStream out, List<Integer> lengths) throws IOException {
+            writeVarInt(out, lengths.size());
+            for (int length : lengths) {
+                writeVarLong(out, zigZag(length));
+            }
+        }
+
+        private void writeReferences(DataOutputStream out, TestCase test, List<VariableReference> references,
+                                     int position) throws IOException, UnsupportedTestException {
+            writeVarInt(out, references.size());
+            for (VariableReference reference : references) {
+                writeReference(out, test, reference, position);
+            }
+        }
+
+        /**
+         * @param position the position of the statement using the reference, which can only refer
+         *                 to the values of preceding statements
+         */
+        private void writeReference(DataOutputStream out, TestCase test, VariableReference reference, int position)
+                throws IOException, UnsupportedTestException {
+            if (reference == null) {
+                out.writeByte(REF_NONE);
+                return;
+            }
+            int stPosition = reference.getStPosition();
+            if (stPosition >= 0 && stPosition < position && test.getStatement(stPosition).getReturnValue() == reference) {
+                out.writeByte(REF_STATEMENT);
+                writeVarInt(out, stPosition);
+            } else if (reference.getClass() == ArrayIndex.class) {
+                ArrayIndex index = (ArrayIndex) reference;
+                out.writeByte(REF_ARRAY_INDEX);
+                writeReference(out, test, index.getArray(), position);
+                writeVarInt(out, index.getArrayIndices().size());
+                for (int i : index.getArrayIndices()) {
+                    writeVarLong(out, zigZag(i));
+                }
+            } else if (reference.getClass() == FieldReference.class) {
+                FieldReference field = (FieldReference) reference;
+                out.writeByte(REF_FIELD);
+                writeField(out, field.getField());
+                writeType(out, field.getGenericClass());
+                writeReference(out, test, field.getSource(), position);
+            } else if (reference.getClass() == NullReference.class) {
+                out.writeByte(REF_NULL);
+                writeType(out, reference.getGenericClass());
+            } else if (reference.getClass() == ConstantValue.class) {
+                out.writeByte(REF_CONSTANT);
+                writeType(out, reference.getGenericClass());
+                writeValue(out, ((ConstantValue) reference).getValue());
+            } else {
+                throw new UnsupportedTestException("Unsupported reference " + reference.getClass());
+            }
+        }
+
+        private void writeValue(DataOutputStream out, Object value) throws IOException, UnsupportedTestException {
+            if (value == null) {
+                out.writeByte(VALUE_NULL);
+            } else if (value instanceof Boolean) {
+                out.writeByte(VALUE_BOOLEAN);
+                out.writeBoolean((Boolean) value);
+            } else if (value instanceof Byte) {
+                out.writeByte(VALUE_BYTE);
+                out.writeByte((Byte) value);
+            } else if (value instanceof Character) {
+                out.writeByte(VALUE_CHAR);
+                writeVarInt(out, (Character) value);
+            } else if (value instanceof Short) {
+                out.writeByte(VALUE_SHORT);
+                writeVarLong(out, zigZag((Short) value));
+            } else if (value instanceof Integer) {
+                out.writeByte(VALUE_INT);
+                writeVarLong(out, zigZag((Integer) value));
+            } else if (value instanceof Long) {
+                out.writeByte(VALUE_LONG);
+                writeVarLong(out, zigZag((Long) value));
+            } else if (value instanceof Float) {
+                out.writeByte(VALUE_FLOAT);
+                out.writeFloat((Float) value);
+            } else if (value instanceof Double) {
+                out.writeByte(VALUE_DOUBLE);
+                out.writeDouble((Double) value);
+            } else if (value instanceof String) {
+                out.writeByte(VALUE_STRING);
+                writeString(out, (String) value);
+            } else {
+                throw new UnsupportedTestException("Unsupported constant " + value.getClass());
+            }
+        }
+
+        /**
+         * Keeps the same information about a type as its Java serialization does: the raw class
+         * and, for parameterized types, the owner and the type arguments
+         */
+        private void writeType(DataOutputStream out, GenericClass<?> type) throws IOException {
+            if (type == null || type.getRawClass() == null) {
+                out.writeByte(TYPE_NONE);
+            } else if (type.getType() instanceof ParameterizedType) {
+                ParameterizedType pt = (ParameterizedType) type.getType();
+                out.writeByte(TYPE_PARAMETERIZED);
+                writeString(out, type.getRawClass().getName());
+                writeType(out, pt.getOwnerType() == null ? null : GenericClassFactory.get(pt.getOwnerType()));
+                writeVarInt(out, pt.getActualTypeArguments().length);
+                for (Type argument : pt.getActualTypeArguments()) {
+                    writeType(out, GenericClassFactory.get(argument));
+                }
+            } else {
+                out.writeByte(TYPE_RAW);
+                writeString(out, type.getRawClass().getName());
+            }
+        }
+
+        private void writeConstructor(DataOutputStream out, GenericConstructor constructor)
+                throws IOException, UnsupportedTestException {
+            checkTypeParameters(constructor);
+            writeType(out, constructor.getOwnerClass());
+            writeString(out, constructor.getDeclaringClass().getName());
+            writeString(out, org.objectweb.asm.Type.getConstructorDescriptor(constructor.getConstructor()));
+        }
+
+        private void writeMethod(DataOutputStream out, GenericMethod method)
+                throws IOException, UnsupportedTestException {
+            checkTypeParameters(method);
+            writeType(out, method.getOwnerClass());
+            writeString(out, method.getDeclaringClass().getName());
+            writeString(out, method.getName());
+            writeString(out, org.objectweb.asm.Type.getMethodDescriptor(method.getMethod()));
+        }
+
+        private void writeField(DataOutputStream out, GenericField field) throws IOException {
+            writeType(out, field.getOwnerClass());
+            writeString(out, field.getDeclaringClass().getName());
+            writeString(out, field.getName());
+        }
+
+        /**
+         * The instantiated type variables of generic methods and constructors are not encoded
+         */
+        private static void checkTypeParameters(GenericAccessibleObject<?> accessibleObject)
+                throws UnsupportedTestException {
+            if (accessibleObject.hasTypeParameters()) {
+                throw new UnsupportedTestException("Unsupported generic " + accessibleObject);
+            }
+        }
+    }
+
+    /**
+     * Reads the tests of a file on demand
+     */
+    public static class Reader implements Closeable {
+
+        private final RandomAccessFile file;
+
+        private final long[] offsets;
+
+        private final String[] dictionary;
+
+        private final ClassLoader loader;
+
+        Reader(File target) throws IOException {
+            this.file = new RandomAccessFile(target, "r");
+            this.loader = TestGenerationContext.getInstance().getClassLoaderForSUT();
+            try {
+                if (file.length() < 8 + TRAILER_SIZE || file.readInt() != MAGIC || file.readInt() != FORMAT_VERSION) {
+                    throw new IOException("Unknown test format of " + target);
+                }
+                file.seek(file.length() - TRAILER_SIZE);
+                long offsetsPosition = file.readLong();
+                long dictionaryPosition = file.readLong();
+                if (file.readInt() != MAGIC || offsetsPosition < 8 || dictionaryPosition < offsetsPosition
+                        || dictionaryPosition > file.length() - TRAILER_SIZE) {
+                    throw new IOException("Incomplete test file " + target);
+                }
+
+                file.seek(offsetsPosition);
+                offsets = new long[file.readInt()];
+                for (int i = 0; i < offsets.length; i++) {
+                    offsets[i] = file.readLong();
+                }
+
+                byte[] bytes = new byte[(int) (file.length() - TRAILER_SIZE - dictionaryPosition)];
+                file.seek(dictionaryPosition);
+                file.readFully(bytes);
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+                dictionary = new String[in.readInt()];
+                for (int i = 0; i < dictionary.length; i++) {
+                    byte[] value = new byte[readVarInt(in)];
+                    in.readFully(value);
+                    dictionary[i] = new String(value, StandardCharsets.UTF_8);
+                }
+            } catch (IOException | RuntimeException e) {
+                file.close();
+                throw e instanceof IOException ? (IOException) e : new IOException("Corrupted test file " + target, e);
+            }
+        }
+
+        public int size() {
+            return offsets.length;
+        }
+
+        /**
+         * Decodes a single test
+         *
+         * @param index
+         * @return the test
+         * @throws IOException if the test cannot be decoded, e.g., because the classes under test changed
+         */
+        public TestChromosome read(int index) throws IOException {
+            file.seek(offsets[index]);
+            byte[] block = new byte[file.readInt()];
+            file.readFully(block);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+            try {
+                if (in.readByte() == SERIALIZED) {
+                    try (ObjectInputStream serialized = new ObjectInputStream(in)) {
+                        return (TestChromosome) serialized.readObject();
+                    }
+                }
+                TestChromosome test = new TestChromosome();
+                test.setTestCase(readTest(in));
+                return test;
+            } catch (ClassNotFoundException | NoSuchMethodException | NoSuchFieldException
+                     | RuntimeException e) {
+                throw new IOException("Cannot decode test " + index + ": " + e, e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            file.close();
+        }
+
+        private String readString(DataInputStream in) throws IOException {
+            return dictionary[readVarInt(in)];
+        }
+
+        private DefaultTestCase readTest(DataInputStream in)
+                throws IOException, ClassNotFoundException, NoSuchMethodException, NoSuchFieldException {
+            DefaultTestCase test = new DefaultTestCase();
+            test.setFailing(in.readBoolean());
+            test.setUnstable(in.readBoolean());
+            for (int size = readVarInt(in); size > 0; size--) {
+                Statement statement = readStatement(in, test);
+                ((AbstractStatement) statement).addComment(readString(in));
+                test.addStatement(statement);
+            }
+            return test;
+        }
+
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        private Statement readStatement(DataInputStream in, TestCase test)
+                throws IOException, ClassNotFoundException, NoSuchMethodException, NoSuchFieldException {
+            byte kind = in.readByte();
+            if (kind == ST_ASSIGNMENT) {
+                VariableReference var = readReference(in, test);
+                VariableReference value = readReference(in, test);
+                return new AssignmentStatement(test, var, value);
+            } else if (kind == ST_NULL) {
+                return new NullStatement(test, readType(in).getType());
+            }
+
+            VariableReference retval = readReturnValue(in, test);
+            Statement statement;
+            switch (kind) {
+                case ST_ARRAY:
+                    return new ArrayStatement(test, (ArrayReference) retval, readLengths(in));
+                case ST_CONSTRUCTOR:
+                    statement = new ConstructorStatement(test, readConstructor(in), readReferences(in, test));
+                    break;
+                case ST_METHOD: {
+                    GenericMethod method = readMethod(in);
+                    VariableReference callee = readReference(in, test);
+                    statement = new MethodStatement(test, method, callee, readReferences(in, test));
+                    break;
+                }
+                case ST_FIELD: {
+                    GenericField field = readField(in);
+                    statement = new FieldStatement(test, field, readReference(in, test));
+                    break;
+                }
+                case ST_ENUM: {
+                    Class enumClass = loadClass(readString(in));
+                    EnumPrimitiveStatement enumStatement = new EnumPrimitiveStatement(test, enumClass);
+                    String name = readString(in);
+                    enumStatement.setValue(name.isEmpty() ? null : Enum.valueOf(enumClass, name));
+                    statement = enumStatement;
+                    break;
+                }
+                case ST_CLASS:
+                    statement = new ClassPrimitiveStatement(test, loadClass(readString(in)));
+                    break;
+                case ST_BOOLEAN:
+                    statement = new BooleanPrimitiveStatement(test, in.readBoolean());
+                    break;
+                case ST_BYTE:
+                    statement = new BytePrimitiveStatement(test, in.readByte());
+                    break;
+                case ST_CHAR:
+                    statement = new CharPrimitiveStatement(test, (char) readVarInt(in));
+                    break;
+                case ST_SHORT:
+                    statement = new ShortPrimitiveStatement(test, (short) unZigZag(readVarLong(in)));
+                    break;
+                case ST_INT:
+                    statement = new IntPrimitiveStatement(test, (int) unZigZag(readVarLong(in)));
+                    break;
+                case ST_LONG:
+                    statement = new LongPrimitiveStatement(test, unZigZag(readVarLong(in)));
+                    break;
+                case ST_FLOAT:
+                    statement = new FloatPrimitiveStatement(test, in.readFloat());
+                    break;
+                case ST_DOUBLE:
+                    statement = new DoublePrimitiveStatement(test, in.readDouble());
+                    break;
+                case ST_STRING:
+                    statement = new StringPrimitiveStatement(test, readString(in));
+                    break;
+                default:
+                    throw new IOException("Unknown statement kind " + kind);
+            }
+            statement.setRetval(retval);
+            return statement;
+        }
+
+        private VariableReference readReturnValue(DataInputStream in, TestCase test)
+                throws IOException, ClassNotFoundException {
+            byte kind = in.readByte();
+            GenericClass<?> type = readType(in);
+            if (kind == RET_VARIABLE) {
+                return new VariableReferenceImpl(test, type);
+            } else if (kind == RET_ARRAY) {
+                return new ArrayReference(test, type, readLengths(in));
+            }
+            throw new IOException("Unknown return value kind " + kind);
+        }
+
+        private int[] readLengths(DataInputStream in) throws IOException {
+            int[] lengths = new int[readVarInt(in)];
+            for (int i = 0; i < lengths.length; i++) {
+                lengths[i] = (int) unZigZag(readVarLong(in));
+            }
+            return lengths;
+        }
+
+        private List<VariableReference> readReferences(DataInputStream in, TestCase test)
+                throws IOException, ClassNotFoundException, NoSuchFieldException {
+            int size = readVarInt(in);
+            List<VariableReference> references = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                references.add(readReference(in, test));
+            }
+            return references;
+        }
+
+        private VariableReference readReference(DataInputStream in, TestCase test)
+                throws IOException, ClassNotFoundException, NoSuchFieldException {
+            byte kind = in.readByte();
+            switch (kind) {
+                case REF_NONE:
+                    return null;
+                case REF_STATEMENT:
+                    return test.getStatement(readVarInt(in)).getReturnValue();
+                case REF_ARRAY_INDEX: {
+                    ArrayReference array = (ArrayReference) readReference(in, test);
+                    List<Integer> indices = new ArrayList<>();
+                    for (int size = readVarInt(in); size > 0; size--) {
+                        indices.add((int) unZigZag(readVarLong(in)));
+                    }
+                    return new ArrayIndex(test, array, indices);
+                }
+                case REF_FIELD: {
+                    GenericField field = readField(in);
+                    GenericClass<?> type = readType(in);
+                    VariableReference source = readReference(in, test);
+                    return source == null ? new FieldReference(test, field, type.getType())
+                            : new FieldReference(test, field, type.getType(), source);
+                }
+                case REF_NULL:
+                    return new NullReference(test, readType(in).getType());
+                case REF_CONSTANT: {
+                    GenericClass<?> type = readType(in);
+                    return new ConstantValue(test, type, readValue(in));
+                }
+                default:
+                    throw new IOException("Unknown reference kind " + kind);
+            }
+        }
+
+        private Object readValue(DataInputStream in) throws IOException {
+            byte kind = in.readByte();
+            switch (kind) {
+                case VALUE_NULL:
+                    return null;
+                case VALUE_BOOLEAN:
+                    return in.readBoolean();
+                case VALUE_BYTE:
+                    return in.readByte();
+                case VALUE_CHAR:
+                    return (char) readVarInt(in);
+                case VALUE_SHORT:
+                    return (short) unZigZag(readVarLong(in));
+                case VALUE_INT:
+                    return (int) unZigZag(readVarLong(in));
+                case VALUE_LONG:
+                    return unZigZag(readVarLong(in));
+                case VALUE_FLOAT:
+                    return in.readFloat();
+                case VALUE_DOUBLE:
+                    return in.readDouble();
+                case VALUE_STRING:
+                    return readString(in);
+                default:
+                    throw new IOException("Unknown value kind " + kind);
+            }
+        }
+
+        private GenericClass<?> readType(DataInputStream in) throws IOException, ClassNotFoundException {
+            byte kind = in.readByte();
+            if (kind == TYPE_NONE) {
+                return null;
+            }
+            Class<?> rawClass = loadClass(readString(in));
+            if (kind == TYPE_RAW) {
+                return GenericClassFactory.get(rawClass);
+            }
+            GenericClass<?> owner = readType(in);
+            Type[] arguments = new Type[readVarInt(in)];
+            for (int i = 0; i < arguments.length; i++) {
+                GenericClass<?> argument = readType(in);
+                arguments[i] = argument == null ? null : argument.getType();
+            }
+            return GenericClassFactory.get(new ParameterizedTypeImpl(rawClass, arguments,
+                    owner == null ? null : owner.getType()), rawClass);
+        }
+
+        private GenericConstructor readConstructor(DataInputStream in)
+                throws IOException, ClassNotFoundException, NoSuchMethodException {
+            GenericClass<?> owner = readType(in);
+            Class<?> declaringClass = loadClass(readString(in));
+            String descriptor = readString(in);
+            for (Constructor<?> constructor : declaringClass.getDeclaredConstructors()) {
+                if (org.objectweb.asm.Type.getConstructorDescriptor(constructor).equals(descriptor)) {
+                    return new GenericConstructor(constructor, owner);
+                }
+            }
+            throw new NoSuchMethodException(declaringClass.getName() + ".<init>" + descriptor);
+        }
+
+        private GenericMethod readMethod(DataInputStream in)
+                throws IOException, ClassNotFoundException, NoSuchMethodException {
+            GenericClass<?> owner = readType(in);
+            Class<?> declaringClass = loadClass(readString(in));
+            String name = readString(in);
+            String descriptor = readString(in);
+            for (Method method : declaringClass.getDeclaredMethods()) {
+                if (method.getName().equals(name)
+                        && org.objectweb.asm.Type.getMethodDescriptor(method).equals(descriptor)) {
+                    return new GenericMethod(method, owner);
+                }
+            }
+            throw new NoSuchMethodException(declaringClass.getName() + "." + name + descriptor);
+        }
+
+        private GenericField readField(DataInputStream in)
+                throws IOException, ClassNotFoundException, NoSuchFieldException {
+            GenericClass<?> owner = readType(in);
+            Class<?> declaringClass = loadClass(readString(in));
+            Field field = declaringClass.getDeclaredField(readString(in));
+            return new GenericField(field, owner);
+        }
+
+        private Class<?> loadClass(String name) throws ClassNotFoundException {
+            switch (name) {
+                case "void":
+                    return void.class;
+                case "boolean":
+                    return boolean.class;
+                case "byte":
+                    return byte.class;
+                case "char":
+                    return char.class;
+                case "short":
+                    return short.class;
+                case "int":
+                    return int.class;
+                case "long":
+                    return long.class;
+                case "float":
+                    return float.class;
+                case "double":
+                    return double.class;
+                default:
+                    return Class.forName(name, false, loader);
+            }
+        }
+    }
+
+    /**
+     * @return whether the file was written by this codec
+     */
+    static boolean isEncoded(File target) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(target))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        writeVarLong(out, value & 0xFFFFFFFFL);
+    }
+
+    private static void writeVarLong(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        long value = readVarLong(in);
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IOException("Invalid length or index " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Invalid variable-length number");
+    }
+}
@@ -23,7 +23,6 @@ import org.evosuite.TestGenerationContext;
 import org.evosuite.runtime.util.Inputs;
 import org.evosuite.testcase.TestChromosome;
 import org.evosuite.testcase.statements.Statement;
-import org.evosuite.utils.DebuggingObjectOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -47,15 +46,12 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
-        try (ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target))) {
+        try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(new FileOutputStream(target))) {
             for (TestSuiteChromosome ts : list) {
                 for (TestChromosome tc : ts.getTestChromosomes()) {
-                    out.writeObject(tc);
+                    out.write(tc);
                 }
             }
-
-            out.flush();
-            out.close();
         } catch (IOException e) {
             logger.error("Failed to open/handle " + target.getAbsolutePath() + " for writing: " + e.getMessage());
             return false;
@@ -70,13 +66,10 @@ public class TestSuiteSerialization {
             parent.mkdirs();
         }
 
-        try (ObjectOutputStream out = new DebuggingObjectOutputStream(new FileOutputStream(target))) {
+        try (TestCaseCodec.Writer out = new TestCaseCodec.Writer(new FileOutputStream(target))) {
             for (TestChromosome tc : ts.getTestChromosomes()) {
-                out.writeObject(tc);
+                out.write(tc);
             }
-
-            out.flush();
-            out.close();
         } catch (IOException e) {
             logger.error("Failed to open/handle " + target.getAbsolutePath() + " for writing: " + e.getMessage());
             return false;
@@ -107,9 +100,25 @@ public class TestSuiteSerialization {
         return loadTests(new File(target));
     }
 
+    /**
+     * Opens a file written by {@link #saveTests} to decode its tests one at a time
+     *
+     * @param target
+     * @return a reader, which has to be closed
+     * @throws IOException if the file cannot be read or was written with Java serialization
+     */
+    public static TestCaseCodec.Reader openTests(File target) throws IOException {
+        Inputs.checkNull(target);
+        return new TestCaseCodec.Reader(target);
+    }
+
     public static List<TestChromosome> loadTests(File target) throws IllegalArgumentException {
         Inputs.checkNull(target);
 
+        if (TestCaseCodec.isEncoded(target)) {
+            return loadEncodedTests(target);
+        }
+
         List<TestChromosome> list = new ArrayList<>();
 
         try (ObjectInputStream in = new ObjectInputStream(new FileInputStream(target))) {
@@ -143,4 +152,29 @@ public class TestSuiteSerialization {
 
         return list;
     }
+
+    /**
+     * Tests that cannot be decoded anymore are skipped, the others are still loaded
+     */
+    private static List<TestChromosome> loadEncodedTests(File target) {
+        List<TestChromosome> list = new ArrayList<>();
+
+        try (TestCaseCodec.Reader in = openTests(target)) {
+            for (int i = 0; i < in.size(); i++) {
+                try {
+                    TestChromosome tc = in.read(i);
+                    for (Statement st : tc.getTestCase()) {
+                        st.changeClassLoader(TestGenerationContext.getInstance().getClassLoaderForSUT());
+                    }
+                    list.add(tc);
+                } catch (IOException e) {
+                    logger.warn("Problems when reading a serialized test from " + target.getAbsolutePath() + " : " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to open/handle " + target.getAbsolutePath() + " for reading: " + e.getMessage());
+        }
+
+        return list;
+    }
 }
@@ -0,0 +1,51 @@
+package org.evosuite.ga.metaheuristics;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+public class SummitTest {
+
+    @Test
+    public void testAnswerInTime() {
+        Assert.assertEquals("[1]", Summit.getAnswer(CompletableFuture.completedFuture("[1]"), 0));
+    }
+
+    @Test
+    public void testFailedQueryHasNoAnswer() {
+        CompletableFuture<String> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new RuntimeException("no connection"));
+        Assert.assertNull(Summit.getAnswer(failed, 1000));
+    }
+
+    @Test(timeout = 10_000)
+    public void testHangingQueryIsCancelled() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch interrupted = new CountDownLatch(1);
+            Future<String> hanging = executor.submit(() -> {
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                }
+                return "[0]";
+            });
+
+            long start = System.currentTimeMillis();
+            Assert.assertNull(Summit.getAnswer(hanging, 200));
+            Assert.assertTrue(System.currentTimeMillis() - start < 5_000);
+            Assert.assertTrue(hanging.isCancelled());
+            // the thread of the query is free again
+            Assert.assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics.mosa;
+
+import org.evosuite.Properties;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.ga.stoppingconditions.MaxFitnessEvaluationsStoppingCondition;
+import org.evosuite.ga.stoppingconditions.MaxTimeStoppingCondition;
+import org.evosuite.ga.stoppingconditions.StoppingCondition;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.evosuite.testsuite.TestSuiteSerialization;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+public class SearchCheckpointTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        Archive.getArchiveInstance().reset();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static TestChromosome createTest(int value) throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference i = builder.appendIntPrimitive(value);
+        builder.appendMethod(null, Math.class.getMethod("abs", int.class), i);
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(builder.getDefaultTestCase());
+        return test;
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        List<TestChromosome> population = Arrays.asList(createTest(1), createTest(-2));
+
+        MaxFitnessEvaluationsStoppingCondition<TestChromosome> evaluations = new MaxFitnessEvaluationsStoppingCondition<>();
+        evaluations.forceCurrentValue(500);
+        MaxTimeStoppingCondition<TestChromosome> time = new MaxTimeStoppingCondition<>();
+        time.forceCurrentValue(System.currentTimeMillis() - 20_000);
+        List<StoppingCondition<TestChromosome>> conditions = Arrays.asList(evaluations, time);
+
+        File tests = new File(folder.getRoot(), "Foo.tests");
+        File state = new File(folder.getRoot(), "Foo.checkpoint");
+        SearchCheckpoint.take(population, 7, 20_000, conditions).write(tests, state);
+
+        SearchCheckpoint checkpoint = SearchCheckpoint.read(tests, state);
+        Assert.assertEquals(0, checkpoint.getArchive().size());
+        Assert.assertEquals(2, checkpoint.getPopulation().size());
+        Assert.assertEquals(population.get(1).getTestCase().toCode(),
+                checkpoint.getPopulation().get(1).getTestCase().toCode());
+        Assert.assertEquals(7, checkpoint.getIteration());
+        Assert.assertEquals(20_000, checkpoint.getSearchTime());
+
+        MaxFitnessEvaluationsStoppingCondition<TestChromosome> resumedEvaluations = new MaxFitnessEvaluationsStoppingCondition<>();
+        MaxTimeStoppingCondition<TestChromosome> resumedTime = new MaxTimeStoppingCondition<>();
+        resumedTime.reset();
+        checkpoint.restoreStoppingConditions(Arrays.asList(resumedEvaluations, resumedTime));
+        Assert.assertEquals(500, resumedEvaluations.getCurrentValue());
+        Assert.assertTrue(resumedTime.getCurrentValue() >= 20);
+    }
+
+    @Test
+    public void testTestsNotBelongingToState() throws Exception {
+        File tests = new File(folder.getRoot(), "Foo.tests");
+        File state = new File(folder.getRoot(), "Foo.checkpoint");
+        SearchCheckpoint.take(Arrays.asList(createTest(1), createTest(2)), 1, 1000, Arrays.asList())
+                .write(tests, state);
+
+        // e.g., the client failed between replacing the tests and replacing the state
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        suite.addTest(createTest(3));
+        TestSuiteSerialization.saveTests(suite, tests);
+
+        try {
+            SearchCheckpoint.read(tests, state);
+            Assert.fail();
+        } catch (IOException e) {
+            // expected
+        }
+        Assert.assertNull(new SearchCheckpointer(folder.getRoot(), "Foo", 1000).load());
+    }
+
+    @Test
+    public void testNoCheckpoint() {
+        Assert.assertNull(new SearchCheckpointer(folder.getRoot(), "Foo", 1000).load());
+
+        Properties.CHECKPOINT_DIR = "";
+        Assert.assertNull(SearchCheckpointer.forTargetClass());
+    }
+}
@@ -0,0 +1,226 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.instrumentation;
+
+import com.examples.with.different.packagename.ArrayStack;
+import org.evosuite.Properties;
+import org.evosuite.classpath.ClassPathHandler;
+import org.evosuite.instrumentation.InstrumentedClassCache.Registration;
+import org.evosuite.runtime.instrumentation.LoopCounterClassAdapter;
+import org.evosuite.runtime.instrumentation.RemoveFinalClassAdapter;
+import org.evosuite.seeding.ConstantPoolManager;
+import org.evosuite.utils.Randomness;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.tree.AbstractInsnNode;
+import org.objectweb.asm.tree.ClassNode;
+import org.objectweb.asm.tree.LdcInsnNode;
+import org.objectweb.asm.tree.MethodNode;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class InstrumentedClassCacheTest {
+
+    private static final String CONSTANT = "cached-constant";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void tearDown() {
+        ConstantPoolManager.getInstance().reset();
+        RemoveFinalClassAdapter.reset();
+        Properties.getInstance().resetToDefaults();
+    }
+
+    public static class Loops {
+        public static int sum(int[] values) {
+            int sum = 0;
+            for (int value : values) {
+                sum += value;
+            }
+            return sum;
+        }
+    }
+
+    private byte[] instrument(AtomicInteger count) {
+        count.incrementAndGet();
+        ConstantPoolManager.getInstance().addSUTConstant(CONSTANT);
+        return new byte[]{1, 2, 3};
+    }
+
+    private static boolean poolContainsConstant() {
+        Randomness.setSeed(42);
+        for (int i = 0; i < 1000; i++) {
+            if (CONSTANT.equals(ConstantPoolManager.getInstance().getConstantPool().getRandomString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Test
+    public void testCachedInstrumentationReplaysRegistrations() {
+        AtomicInteger count = new AtomicInteger();
+        byte[] original = {42};
+
+        InstrumentedClassCache cache = new InstrumentedClassCache(folder.getRoot(), "config");
+        byte[] first = cache.getTransformedBytes("foo/Bar", original, () -> instrument(count));
+
+        ConstantPoolManager.getInstance().reset();
+        InstrumentedClassCache otherRun = new InstrumentedClassCache(folder.getRoot(), "config");
+        byte[] second = otherRun.getTransformedBytes("foo/Bar", original, () -> instrument(count));
+
+        assertEquals(1, count.get());
+        assertArrayEquals(first, second);
+        assertTrue(poolContainsConstant());
+    }
+
+    @Test
+    public void testDifferentConfigurationOrBytecodeIsNotShared() {
+        AtomicInteger count = new AtomicInteger();
+
+        new InstrumentedClassCache(folder.getRoot(), "config").getTransformedBytes("foo/Bar", new byte[]{42}, () -> instrument(count));
+        new InstrumentedClassCache(folder.getRoot(), "other").getTransformedBytes("foo/Bar", new byte[]{42}, () -> instrument(count));
+        new InstrumentedClassCache(folder.getRoot(), "config").getTransformedBytes("foo/Bar", new byte[]{43}, () -> instrument(count));
+
+        assertEquals(3, count.get());
+    }
+
+    @Test
+    public void testClassLoaderUsesCache() throws Exception {
+        ClassPathHandler.getInstance().changeTargetCPtoTheSameAsEvoSuite();
+        Properties.INSTRUMENTATION_CACHE_DIR = folder.getRoot().getAbsolutePath();
+        Properties.TARGET_CLASS = "com.examples.with.different.packagename.Buffer";
+
+        Class<?> first = new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+        String[] entries = folder.getRoot().list();
+        assertEquals(1, entries.length);
+
+        Class<?> second = new InstrumentingClassLoader().loadClass(ArrayStack.class.getName());
+        assertEquals(first.getName(), second.getName());
+        assertEquals(1, folder.getRoot().list().length);
+
+        // the cached bytecode, with renumbered loop checks, is still valid
+        Object stack = second.getDeclaredConstructor().newInstance();
+        second.getMethod("push", Object.class).invoke(stack, "x");
+        assertEquals("x", second.getMethod("peek").invoke(stack));
+    }
+
+    @Test
+    public void testClasspathFingerprintTracksDependencies() throws Exception {
+        File classes = folder.newFolder("classes");
+        File dependency = new File(classes, "foo/Super.class");
+        assertTrue(dependency.getParentFile().mkdirs());
+        Files.write(dependency.toPath(), new byte[]{1});
+        File jar = folder.newFile("lib.jar");
+        String[] classpath = {classes.getAbsolutePath(), jar.getAbsolutePath()};
+
+        String fingerprint = InstrumentedClassCache.getClasspathFingerprint(classpath);
+        assertEquals(fingerprint, InstrumentedClassCache.getClasspathFingerprint(classpath));
+
+        Files.write(dependency.toPath(), new byte[]{1, 2});
+        String changedClass = InstrumentedClassCache.getClasspathFingerprint(classpath);
+        assertNotEquals(fingerprint, changedClass);
+
+        Files.write(jar.toPath(), new byte[]{3});
+        assertNotEquals(changedClass, InstrumentedClassCache.getClasspathFingerprint(classpath));
+    }
+
+    @Test
+    public void testCachedFinalClassesAreReplayed() {
+        AtomicInteger count = new AtomicInteger();
+        byte[] original = {42};
+        Supplier<byte[]> instrumentation = () -> {
+            count.incrementAndGet();
+            RemoveFinalClassAdapter.finalClasses.add("foo.Bar");
+            InstrumentedClassCache.record(Registration.FINAL_CLASS, "foo.Bar");
+            return new byte[]{1, 2, 3};
+        };
+
+        new InstrumentedClassCache(folder.getRoot(), "config").getTransformedBytes("foo/Bar", original, instrumentation);
+        RemoveFinalClassAdapter.reset();
+        assertFalse(RemoveFinalClassAdapter.finalClasses.contains("foo.Bar"));
+
+        new InstrumentedClassCache(folder.getRoot(), "config").getTransformedBytes("foo/Bar", original, instrumentation);
+        assertEquals(1, count.get());
+        assertTrue(RemoveFinalClassAdapter.finalClasses.contains("foo.Bar"));
+    }
+
+    @Test
+    public void testCachedLoopChecksGetNewIndices() throws IOException {
+        String className = Loops.class.getName().replace('.', '/');
+        ClassWriter copy = new ClassWriter(0);
+        new ClassReader(Loops.class.getName()).accept(copy, 0);
+        byte[] original = copy.toByteArray();
+        AtomicInteger count = new AtomicInteger();
+        Supplier<byte[]> instrumentation = () -> {
+            count.incrementAndGet();
+            InstrumentedClassCache.record(Registration.LOOP_CHECKS);
+            ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+            new ClassReader(original).accept(new LoopCounterClassAdapter(writer), 0);
+            return writer.toByteArray();
+        };
+
+        List<Integer> first = getLoopIndices(new InstrumentedClassCache(folder.getRoot(), "config")
+                .getTransformedBytes(className, original, instrumentation));
+        List<Integer> second = getLoopIndices(new InstrumentedClassCache(folder.getRoot(), "config")
+                .getTransformedBytes(className, original, instrumentation));
+
+        assertEquals(1, count.get());
+        assertFalse(first.isEmpty());
+        assertEquals(first.size(), second.size());
+        // the indices of the cached class are allocated again, not shared with the first load
+        assertTrue(Collections.min(second) > Collections.max(first));
+        assertEquals(second.size(), second.stream().distinct().count());
+    }
+
+    private static List<Integer> getLoopIndices(byte[] bytes) {
+        ClassNode classNode = new ClassNode();
+        new ClassReader(bytes).accept(classNode, 0);
+        List<Integer> indices = new ArrayList<>();
+        for (MethodNode method : classNode.methods) {
+            for (AbstractInsnNode insn : method.instructions) {
+                if (insn instanceof LdcInsnNode && ((LdcInsnNode) insn).cst instanceof Integer) {
+                    indices.add((Integer) ((LdcInsnNode) insn).cst);
+                }
+            }
+        }
+        return indices;
+    }
+}
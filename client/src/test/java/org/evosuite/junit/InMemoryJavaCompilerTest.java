@@ -0,0 +1,39 @@
+package org.evosuite.junit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class InMemoryJavaCompilerTest {
+
+    private final InMemoryJavaCompiler compiler = new InMemoryJavaCompiler(System.getProperty("java.class.path"));
+
+    @Test
+    public void testCompileInMemory() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("foo.A", "package foo; public class A { Runnable r = new Runnable() { public void run() {} }; }");
+        sources.put("foo.B", "package foo; public class B extends A { }");
+
+        InMemoryJavaCompiler.Result result = compiler.compile(sources);
+        Assert.assertTrue(result.isSuccessful());
+        Assert.assertTrue(result.getErrors().isEmpty());
+        Assert.assertTrue(result.getClasses().containsKey("foo.A"));
+        Assert.assertTrue(result.getClasses().containsKey("foo.A$1"));
+        Assert.assertTrue(result.getClasses().containsKey("foo.B"));
+    }
+
+    @Test
+    public void testErrorsAreMappedToSources() {
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("foo.Good", "package foo; public class Good { }");
+        sources.put("foo.Bad", "package foo; public class Bad { int x = \"not an int\"; }");
+
+        InMemoryJavaCompiler.Result result = compiler.compile(sources);
+        Assert.assertFalse(result.isSuccessful());
+        Assert.assertEquals(1, result.getErrors().size());
+        Assert.assertTrue(result.getErrors().containsKey("foo.Bad"));
+        Assert.assertTrue(result.getClasses().isEmpty());
+    }
+}
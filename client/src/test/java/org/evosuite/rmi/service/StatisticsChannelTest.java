@@ -0,0 +1,104 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.rmi.service;
+
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testcase.TestChromosome;
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class StatisticsChannelTest {
+
+    private final StatisticsChannel<TestChromosome> channel = new StatisticsChannel<>();
+
+    @After
+    public void tearDown() {
+        channel.stop();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testVariablesAreCoalesced() throws Exception {
+        MasterNodeRemote master = mock(MasterNodeRemote.class);
+        // long interval, so that the updates below are only sent by the flush
+        channel.start(master, "client", 60_000);
+
+        TestChromosome individual = new TestChromosome();
+        channel.offerIndividual(individual);
+        channel.offerVariable(RuntimeVariable.Coverage, 0.5);
+        channel.offerVariable(RuntimeVariable.Coverage, 0.75);
+        channel.offerVariable(RuntimeVariable.Fitness_Evaluations, 10);
+        channel.flush();
+
+        ArgumentCaptor<Map<RuntimeVariable, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(master, timeout(5000).atLeastOnce()).evosuite_collectStatistics(eq("client"), variables.capture(), any());
+        Map<RuntimeVariable, Object> sent = variables.getAllValues().stream()
+                .filter(m -> m.containsKey(RuntimeVariable.Coverage)).findFirst().get();
+        assertEquals(0.75, sent.get(RuntimeVariable.Coverage));
+        assertEquals(10, sent.get(RuntimeVariable.Fitness_Evaluations));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testUnchangedVariablesAreNotSentAgain() throws Exception {
+        MasterNodeRemote master = mock(MasterNodeRemote.class);
+        channel.start(master, "client", 60_000);
+
+        channel.offerVariable(RuntimeVariable.Coverage, 0.5);
+        channel.flush();
+        reset(master);
+
+        channel.offerVariable(RuntimeVariable.Coverage, 0.5);
+        channel.offerVariable(RuntimeVariable.Fitness_Evaluations, 20);
+        channel.flush();
+
+        ArgumentCaptor<Map<RuntimeVariable, Object>> variables = ArgumentCaptor.forClass(Map.class);
+        verify(master, timeout(5000).atLeastOnce()).evosuite_collectStatistics(eq("client"), variables.capture(), any());
+        for (Map<RuntimeVariable, Object> sent : variables.getAllValues()) {
+            assertNull(sent.get(RuntimeVariable.Coverage));
+        }
+    }
+
+    @Test
+    public void testPropertiesAreSentInOrder() throws Exception {
+        MasterNodeRemote master = mock(MasterNodeRemote.class);
+        channel.start(master, "client", 60_000);
+
+        channel.offerProperty("a", 1);
+        channel.offerProperty("b", 2);
+        channel.offerProperty("a", 3);
+        channel.flush();
+
+        verify(master, timeout(5000)).evosuite_updateProperty("client", "b", 2);
+        verify(master, timeout(5000)).evosuite_updateProperty("client", "a", 3);
+        verify(master, never()).evosuite_updateProperty("client", "a", 1);
+        verify(master, never()).evosuite_collectStatistics(anyString(), anyMap(), any());
+    }
+}
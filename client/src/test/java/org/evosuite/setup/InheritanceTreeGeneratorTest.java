@@ -33,4 +33,17 @@ public class InheritanceTreeGeneratorTest {
         Assert.assertNotNull(it);
     }
 
+    @Test
+    public void testJDKIndexOfOtherJavaVersionIsNotUsed() {
+        String javaVersion = System.getProperty("java.specification.version");
+        System.setProperty("java.specification.version", "1.1");
+        try {
+            InheritanceTree it = InheritanceTreeGenerator.readJDKData();
+            // falls back to the XML resource, which is not always there
+            Assert.assertTrue(it == null || it.hasClass("java.lang.Object"));
+        } finally {
+            System.setProperty("java.specification.version", javaVersion);
+        }
+    }
+
 }
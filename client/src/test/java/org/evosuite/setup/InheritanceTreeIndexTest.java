@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.setup;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.tree.ClassNode;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+public class InheritanceTreeIndexTest {
+
+    private static final Class<?>[] CLASSES = {ArrayList.class, AbstractList.class, AbstractCollection.class,
+            List.class, Collection.class, Iterable.class, LinkedList.class, AbstractSequentialList.class};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    private static ClassNode readClass(Class<?> clazz) throws IOException {
+        try (InputStream in = ClassLoader.getSystemResourceAsStream(clazz.getName().replace('.', '/') + ".class")) {
+            ClassNode cn = new ClassNode();
+            new ClassReader(in).accept(cn, ClassReader.SKIP_FRAMES | ClassReader.SKIP_DEBUG | ClassReader.SKIP_CODE);
+            return cn;
+        }
+    }
+
+    private static void assertSameTree(InheritanceTree expected, InheritanceTree actual) {
+        Assert.assertEquals(expected.getAllClasses(), actual.getAllClasses());
+        for (String className : expected.getAllClasses()) {
+            Assert.assertEquals(expected.getSubclasses(className), actual.getSubclasses(className));
+            Assert.assertEquals(expected.getOrderedSuperclasses(className), actual.getOrderedSuperclasses(className));
+            Assert.assertEquals(expected.isInterface(className), actual.isInterface(className));
+            Assert.assertEquals(expected.isAbstractClass(className), actual.isAbstractClass(className));
+        }
+        Assert.assertTrue(actual.isMethodDefined("java.util.ArrayList", "add", "(Ljava/lang/Object;)Z"));
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        InheritanceTree expected = new InheritanceTree();
+        InheritanceTreeIndex index = new InheritanceTreeIndex(false);
+        for (Class<?> clazz : CLASSES) {
+            ClassNode cn = readClass(clazz);
+            index.addClass(cn);
+            List<String[]> methods = new ArrayList<>();
+            cn.methods.forEach(mn -> methods.add(new String[]{mn.name, mn.desc}));
+            InheritanceTreeGenerator.analyzeClass(expected, cn.name, cn.access, cn.superName, cn.interfaces,
+                    methods, false);
+        }
+
+        File file = folder.newFile("index.bin");
+        index.write(file);
+        InheritanceTreeIndex read = InheritanceTreeIndex.read(file);
+        Assert.assertEquals(CLASSES.length, read.getNumClasses());
+        Assert.assertFalse(read.isOnlyPublic());
+        Assert.assertEquals(System.getProperty("java.specification.version"), read.getJavaVersion());
+
+        InheritanceTree actual = new InheritanceTree();
+        read.applyTo(actual);
+        assertSameTree(expected, actual);
+    }
+
+    @Test(expected = IOException.class)
+    public void testCorruptedIndex() throws IOException {
+        File file = folder.newFile("corrupted.bin");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[]{0x45, 0x56, 0x49, 0x54, 0, 0, 0, 1, 0, 0x7f});
+        }
+        InheritanceTreeIndex.read(file);
+    }
+
+    @Test
+    public void testRelocation() throws IOException {
+        InheritanceTreeIndex index = new InheritanceTreeIndex(false);
+        for (Class<?> clazz : CLASSES) {
+            index.addClass(readClass(clazz));
+        }
+        File file = folder.newFile("index.bin");
+        index.write(file);
+
+        InheritanceTreeIndex read = InheritanceTreeIndex.read(file);
+        read.relocate("java/util/", "shaded/util/");
+        InheritanceTree tree = new InheritanceTree();
+        read.applyTo(tree);
+
+        Assert.assertTrue(tree.hasClass("shaded.util.ArrayList"));
+        Assert.assertFalse(tree.hasClass("java.util.ArrayList"));
+        Assert.assertTrue(tree.getSuperclasses("shaded.util.ArrayList").contains("shaded.util.AbstractList"));
+        Assert.assertTrue(tree.isMethodDefined("shaded.util.ArrayList", "addAll", "(Lshaded/util/Collection;)Z"));
+    }
+
+    private File writeJar() throws IOException {
+        File jar = folder.newFile("classes.jar");
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(jar))) {
+            for (Class<?> clazz : CLASSES) {
+                String resource = clazz.getName().replace('.', '/') + ".class";
+                out.putNextEntry(new ZipEntry(resource));
+                try (InputStream in = ClassLoader.getSystemResourceAsStream(resource)) {
+                    byte[] buffer = new byte[8192];
+                    int length;
+                    while ((length = in.read(buffer)) >= 0) {
+                        out.write(buffer, 0, length);
+                    }
+                }
+                out.closeEntry();
+            }
+        }
+        return jar;
+    }
+
+    @Test
+    public void testCachedJar() throws IOException {
+        File jar = writeJar();
+        File cacheDir = folder.newFolder("cache");
+        Properties.INHERITANCE_CACHE_DIR = cacheDir.getAbsolutePath();
+
+        InheritanceTree first = InheritanceTreeGenerator.createFromClassPath(Collections.singletonList(jar.getAbsolutePath()));
+        // the classpath is only analyzed on first use
+        Assert.assertEquals(0, cacheDir.listFiles().length);
+        Assert.assertTrue(first.hasClass("java.util.ArrayList"));
+        File[] cached = cacheDir.listFiles();
+        Assert.assertEquals(1, cached.length);
+        long lastModified = cached[0].lastModified();
+
+        // the index is keyed on the content of the jar, not on its modification time
+        Assert.assertTrue(jar.setLastModified(jar.lastModified() - 60_000));
+        InheritanceTree second = InheritanceTreeGenerator.createFromClassPath(Collections.singletonList(jar.getAbsolutePath()));
+        second.load();
+        Assert.assertEquals(1, cacheDir.listFiles().length);
+        Assert.assertEquals(lastModified, cached[0].lastModified());
+        assertSameTree(first, second);
+    }
+}
@@ -0,0 +1,98 @@
+package org.evosuite.setup;
+
+import org.evosuite.Properties;
+import org.evosuite.coverage.method.MethodCoverageTestFitness;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.utils.generic.GenericAccessibleObject;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class UncoveredTestCallIndexTest {
+
+    private Properties.Criterion[] criterion;
+
+    private boolean sortCalls;
+
+    private GenericAccessibleObject<?> constructor;
+
+    private GenericAccessibleObject<?> length;
+
+    private GenericAccessibleObject<?> isEmpty;
+
+    private List<GenericAccessibleObject<?>> calls;
+
+    @Before
+    public void setUp() throws Exception {
+        criterion = Properties.CRITERION;
+        sortCalls = Properties.SORT_CALLS;
+        Properties.CRITERION = new Properties.Criterion[]{Properties.Criterion.METHOD};
+        Properties.SORT_CALLS = false;
+        Archive.getArchiveInstance().reset();
+
+        constructor = new GenericConstructor(String.class.getConstructor(String.class), String.class);
+        length = new GenericMethod(String.class.getMethod("length"), String.class);
+        isEmpty = new GenericMethod(String.class.getMethod("isEmpty"), String.class);
+        calls = Arrays.asList(constructor, length, isEmpty);
+    }
+
+    @After
+    public void tearDown() {
+        Archive.getArchiveInstance().reset();
+        Properties.CRITERION = criterion;
+        Properties.SORT_CALLS = sortCalls;
+    }
+
+    private void addGoal(String method) {
+        Archive.getArchiveInstance().addTarget(new MethodCoverageTestFitness("java.lang.String", method));
+    }
+
+    @Test
+    public void testOnlyCallsWithUncoveredTargets() {
+        UncoveredTestCallIndex index = new UncoveredTestCallIndex();
+        Assert.assertTrue(index.getUncovered(calls).isEmpty());
+        Assert.assertEquals(calls, index.getAll(calls));
+
+        addGoal("<init>(Ljava/lang/String;)V");
+        addGoal("isEmpty()Z");
+        // not visible until the index is told about the change
+        Assert.assertTrue(index.getUncovered(calls).isEmpty());
+
+        index.invalidate();
+        Assert.assertEquals(Arrays.asList(constructor, isEmpty), index.getUncovered(calls));
+        Assert.assertEquals(Collections.singletonList(isEmpty), index.getUncoveredNonConstructors(calls));
+    }
+
+    @Test
+    public void testSortedByRemainingTargets() {
+        addGoal("isEmpty()Z");
+        addGoal("length()I");
+        Archive.getArchiveInstance().addTarget(new MethodCoverageTestFitness("java.lang.String", "isEmpty()Z") {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public boolean equals(Object obj) {
+                return this == obj;
+            }
+
+            @Override
+            public int hashCode() {
+                return System.identityHashCode(this);
+            }
+        });
+
+        UncoveredTestCallIndex index = new UncoveredTestCallIndex();
+        Assert.assertEquals(Arrays.asList(length, isEmpty), index.getUncovered(calls));
+
+        Properties.SORT_CALLS = true;
+        Assert.assertEquals(Arrays.asList(isEmpty, length), index.getUncovered(calls));
+        Assert.assertEquals(Arrays.asList(isEmpty, length, constructor), index.getAll(calls));
+    }
+}
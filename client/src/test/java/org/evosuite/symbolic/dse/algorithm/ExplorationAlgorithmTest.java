@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ * <p>
+ * This file is part of EvoSuite.
+ * <p>
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ * <p>
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ * <p>
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.dse.algorithm;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class ExplorationAlgorithmTest {
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testEvoSuiteSolverIsNotPooled() {
+        Properties.DSE_SOLVER = Properties.SolverType.EVOSUITE_SOLVER;
+        Properties.DSE_SOLVER_THREADS = 4;
+        assertEquals(1, ExplorationAlgorithm.getSolverThreads());
+    }
+
+    @Test
+    public void testExternalSolverIsPooled() {
+        Properties.DSE_SOLVER = Properties.SolverType.Z3_SOLVER;
+        Properties.DSE_SOLVER_THREADS = 4;
+        assertEquals(4, ExplorationAlgorithm.getSolverThreads());
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+
+public class ConcurrentSolvingTest {
+
+    /**
+     * Stands for an external solver: both queries must be waited for at the same time
+     */
+    private static class WaitingSolver extends Solver {
+
+        private final CountDownLatch waiting = new CountDownLatch(2);
+
+        private WaitingSolver() {
+            super(false, new SolverCache(10, null));
+        }
+
+        @Override
+        public SolverResult executeSolver(Collection<Constraint<?>> constraints) throws SolverTimeoutException,
+                SolverErrorException, IOException {
+            runWithoutConcreteValues(() -> {
+                waiting.countDown();
+                try {
+                    if (!waiting.await(10, TimeUnit.SECONDS)) {
+                        throw new SolverTimeoutException();
+                    }
+                } catch (InterruptedException e) {
+                    throw new SolverTimeoutException();
+                }
+            });
+            return SolverResult.newSAT(new HashMap<>());
+        }
+    }
+
+    private static List<Constraint<?>> query(long value) {
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(ConstraintFactory.lt(x, new IntegerConstant(value)));
+        return constraints;
+    }
+
+    @Test
+    public void testExternalSolvingIsConcurrent() throws Exception {
+        WaitingSolver solver = new WaitingSolver();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<SolverResult> first = pool.submit(() -> solver.solve(query(1)));
+            Future<SolverResult> second = pool.submit(() -> solver.solve(query(2)));
+            assertTrue(first.get(20, TimeUnit.SECONDS).isSAT());
+            assertTrue(second.get(20, TimeUnit.SECONDS).isSAT());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
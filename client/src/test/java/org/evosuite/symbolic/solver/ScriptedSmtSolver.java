@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+
+/**
+ * Stand-in for an SMT solver process: records the commands it receives in the file given as
+ * first argument, answers {@code sat} to every {@code (check-sat)} (or {@code unsat} if
+ * {@code (assert false)} is asserted) and a fixed model to {@code (get-model)}.
+ */
+public class ScriptedSmtSolver {
+
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+        int unsatLevel = -1;
+        int level = 0;
+        try (PrintWriter transcript = new PrintWriter(new FileWriter(args[0]), true)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                transcript.println(line);
+                if (line.equals("(push 1)")) {
+                    level++;
+                } else if (line.startsWith("(pop ")) {
+                    level -= Integer.parseInt(line.substring(5, line.length() - 1));
+                    if (level < unsatLevel) {
+                        unsatLevel = -1;
+                    }
+                } else if (line.equals("(assert false)") && unsatLevel < 0) {
+                    unsatLevel = level;
+                } else if (line.equals("(check-sat)")) {
+                    System.out.println(unsatLevel < 0 ? "sat" : "unsat");
+                    System.out.flush();
+                } else if (line.equals("(get-model)")) {
+                    System.out.println("(model");
+                    System.out.println("  (define-fun x () Int 1)");
+                    System.out.println(")");
+                    System.out.flush();
+                }
+            }
+        }
+    }
+}
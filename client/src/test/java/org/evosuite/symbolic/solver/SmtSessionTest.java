@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.solver.smt.SmtAssertion;
+import org.evosuite.symbolic.solver.smt.SmtExpr;
+import org.evosuite.symbolic.solver.smt.SmtModelParser;
+import org.evosuite.symbolic.solver.smt.SmtQuery;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SmtSessionTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private File transcript;
+
+    private String solverCmd;
+
+    @Before
+    public void setUp() throws Exception {
+        transcript = folder.newFile("transcript.smt2");
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+        solverCmd = java + " -cp " + System.getProperty("java.class.path") + " "
+                + ScriptedSmtSolver.class.getName() + " " + transcript.getAbsolutePath();
+    }
+
+    @After
+    public void tearDown() {
+        SmtSession.closeAll();
+    }
+
+    private static SmtQuery query(SmtExpr... assertions) {
+        SmtQuery query = new SmtQuery();
+        query.addOption(":timeout", "1000");
+        query.addConstantDeclaration(SmtExprBuilder.mkIntConstantDeclaration("x"));
+        for (SmtExpr assertion : assertions) {
+            query.addAssertion(new SmtAssertion(assertion));
+        }
+        return query;
+    }
+
+    private static SmtExpr xGreaterThan(int value) {
+        return SmtExprBuilder.mkGt(SmtExprBuilder.mkIntVariable("x"), SmtExprBuilder.mkIntConstant(value));
+    }
+
+    private List<String> readTranscript() throws Exception {
+        return Files.readAllLines(transcript.toPath(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void testOnlySuffixIsSent() throws Exception {
+        SmtSession session = SmtSession.acquire(solverCmd, query());
+        String output = session.solve(query(xGreaterThan(0), xGreaterThan(1)), 10000);
+        assertTrue(new SmtModelParser().parse(output).isSAT());
+
+        List<String> first = readTranscript();
+        assertEquals(Arrays.asList(
+                "(set-option :timeout 1000)",
+                "(declare-const x Int)",
+                "(push 1)",
+                "(assert (> x 0))",
+                "(push 1)",
+                "(assert (> x 1))",
+                "(check-sat)",
+                "(get-model)"), first);
+
+        session.solve(query(xGreaterThan(0), xGreaterThan(2)), 10000);
+        List<String> second = readTranscript();
+        assertEquals(Arrays.asList(
+                "(pop 1)",
+                "(push 1)",
+                "(assert (> x 2))",
+                "(check-sat)",
+                "(get-model)"), second.subList(first.size(), second.size()));
+        session.close();
+    }
+
+    @Test
+    public void testSessionIsPooled() throws Exception {
+        SmtSession session = SmtSession.acquire(solverCmd, query());
+        String output = session.solve(query(SmtExprBuilder.FALSE), 10000);
+        assertTrue(new SmtModelParser().parse(output).isUNSAT());
+        SmtSession.release(session);
+
+        SmtSession reused = SmtSession.acquire(solverCmd, query());
+        assertSame(session, reused);
+        output = reused.solve(query(xGreaterThan(0)), 10000);
+        assertTrue(new SmtModelParser().parse(output).isSAT());
+
+        List<String> lines = readTranscript();
+        assertEquals("(pop 1)", lines.get(lines.size() - 5));
+    }
+}
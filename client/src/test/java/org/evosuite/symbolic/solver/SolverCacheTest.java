@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver;
+
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SolverCacheTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<Constraint<?>> constraints(String first, String second) {
+        IntegerVariable x = new IntegerVariable(first, 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        IntegerVariable y = new IntegerVariable(second, 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(ConstraintFactory.lt(x, y));
+        constraints.add(ConstraintFactory.eq(y, new IntegerConstant(10)));
+        return constraints;
+    }
+
+    private static SolverResult sat(String first, long firstValue, String second, long secondValue) {
+        Map<String, Object> model = new HashMap<>();
+        model.put(first, firstValue);
+        model.put(second, secondValue);
+        return SolverResult.newSAT(model);
+    }
+
+    @Test
+    public void testRenamedAndReorderedConstraintsShareResult() {
+        SolverCache cache = new SolverCache(10, null);
+        cache.saveSolverResult(constraints("x", "y"), sat("x", 3L, "y", 10L));
+
+        List<Constraint<?>> query = constraints("a", "b");
+        Collection<Constraint<?>> reordered = new ArrayList<>();
+        reordered.add(query.get(1));
+        reordered.add(query.get(0));
+
+        SolverResult result = cache.getCachedResult(reordered);
+        assertNotNull(result);
+        assertTrue(result.isSAT());
+        assertEquals(3L, result.getModel().get("a"));
+        assertEquals(10L, result.getModel().get("b"));
+        assertEquals(1.0, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void testDifferentConstraintsAreNotShared() {
+        SolverCache cache = new SolverCache(10, null);
+        cache.saveSolverResult(constraints("x", "y"), SolverResult.newUNSAT());
+
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> other = new ArrayList<>();
+        other.add(ConstraintFactory.lt(x, new IntegerConstant(10)));
+        assertNull(cache.getCachedResult(other));
+    }
+
+    @Test
+    public void testLeastRecentlyUsedResultIsEvicted() {
+        SolverCache cache = new SolverCache(1, null);
+        cache.saveSolverResult(constraints("x", "y"), SolverResult.newUNSAT());
+
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> other = new ArrayList<>();
+        other.add(ConstraintFactory.lt(x, new IntegerConstant(10)));
+        cache.saveSolverResult(other, SolverResult.newUNSAT());
+
+        assertNull(cache.getCachedResult(constraints("x", "y")));
+        assertNotNull(cache.getCachedResult(other));
+    }
+
+    @Test
+    public void testResultsAreReloadedFromFile() throws Exception {
+        File store = new File(folder.getRoot(), "solver.cache");
+        new SolverCache(10, store).saveSolverResult(constraints("x", "y"), sat("x", 3L, "y", 10L));
+
+        SolverCache reloaded = new SolverCache(10, store);
+        SolverResult result = reloaded.getCachedResult(constraints("p", "q"));
+        assertNotNull(result);
+        assertEquals(3L, result.getModel().get("p"));
+        assertEquals(10L, result.getModel().get("q"));
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.avm;
+
+import org.evosuite.Properties;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.solver.DistanceEstimator;
+import org.evosuite.symbolic.solver.SolverTimeoutException;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TestIncrementalDistance {
+
+    @Test
+    public void testDistanceOnlyReevaluatesDependentConstraints() throws SolverTimeoutException {
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        IntegerVariable y = new IntegerVariable("y", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+
+        Constraint<?> xConstraint = ConstraintFactory.gte(x, new IntegerConstant(100));
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(xConstraint);
+        constraints.add(ConstraintFactory.eq(y, new IntegerConstant(3)));
+
+        long timeout = Properties.DSE_CONSTRAINT_SOLVER_TIMEOUT_MILLIS;
+        IntegerAVM avm = new IntegerAVM(x, constraints, Collections.singletonList(xConstraint),
+                System.currentTimeMillis(), timeout);
+        assertEquals(DistanceEstimator.getDistance(constraints), avm.getDistance(), 1e-9);
+
+        x.setConcreteValue(42L);
+        assertEquals(DistanceEstimator.getDistance(constraints), avm.getDistance(), 1e-9);
+
+        assertTrue(avm.applyAVM());
+        assertTrue(x.getConcreteValue() >= 100);
+        // y still violates its constraint, and is not touched by the search on x
+        assertEquals(DistanceEstimator.getDistance(constraints), avm.getDistance(), 1e-9);
+        assertTrue(avm.getDistance() > 0);
+    }
+}
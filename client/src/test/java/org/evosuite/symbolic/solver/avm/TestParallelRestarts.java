@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.symbolic.solver.avm;
+
+import org.evosuite.Properties;
+import org.evosuite.RandomizedTC;
+import org.evosuite.symbolic.expr.Comparator;
+import org.evosuite.symbolic.expr.Constraint;
+import org.evosuite.symbolic.expr.Operator;
+import org.evosuite.symbolic.expr.bv.IntegerConstant;
+import org.evosuite.symbolic.expr.bv.IntegerVariable;
+import org.evosuite.symbolic.expr.bv.StringBinaryComparison;
+import org.evosuite.symbolic.expr.constraint.StringConstraint;
+import org.evosuite.symbolic.expr.str.StringConstant;
+import org.evosuite.symbolic.expr.str.StringVariable;
+import org.evosuite.symbolic.solver.SolverResult;
+import org.evosuite.symbolic.solver.SolverTimeoutException;
+import org.evosuite.symbolic.vm.ConstraintFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TestParallelRestarts extends RandomizedTC {
+
+    @Before
+    public void setUpRestarts() {
+        Properties.DSE_SOLVER_RESTART_THREADS = 4;
+        Properties.DSE_VARIABLE_RESETS = 3;
+    }
+
+    @After
+    public void resetProperties() {
+        Properties.getInstance().resetToDefaults();
+    }
+
+    @Test
+    public void testSolvesOnCopiesOfTheConstraints() throws Exception {
+        StringVariable s = new StringVariable("s", "foo");
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(new StringConstraint(new StringBinaryComparison(s, Operator.EQUALS,
+                new StringConstant("test"), 0L), Comparator.NE, new IntegerConstant(0)));
+        constraints.add(ConstraintFactory.gte(x, new IntegerConstant(100)));
+
+        SolverResult result = new EvoSuiteSolver().solve(constraints);
+
+        assertTrue(result.isSAT());
+        assertEquals("test", result.getModel().get("s"));
+        assertTrue((Long) result.getModel().get("x") >= 100);
+        // the restarts searched on their own variables
+        assertEquals("foo", s.getConcreteValue());
+        assertEquals(0L, (long) x.getConcreteValue());
+    }
+
+    @Test(timeout = 30_000)
+    public void testUnsolvableConstraintsEndWithinTimeout() throws Exception {
+        Properties.DSE_CONSTRAINT_SOLVER_TIMEOUT_MILLIS = 500;
+        IntegerVariable x = new IntegerVariable("x", 0L, Long.MIN_VALUE, Long.MAX_VALUE);
+        List<Constraint<?>> constraints = new ArrayList<>();
+        constraints.add(ConstraintFactory.gte(x, new IntegerConstant(100)));
+        constraints.add(ConstraintFactory.lt(x, new IntegerConstant(50)));
+
+        try {
+            SolverResult result = new EvoSuiteSolver().solve(constraints);
+            assertFalse(result.isSAT());
+        } catch (SolverTimeoutException e) {
+            // expected as well
+        }
+        assertEquals(0L, (long) x.getConcreteValue());
+    }
+}
@@ -19,9 +19,16 @@
  */
 package org.evosuite.testcase;
 
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.StringPrimitiveStatement;
+import org.evosuite.testcase.statements.numeric.IntPrimitiveStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.Collections;
+
 public class DefaultTestCaseTest {
 
     @Test
@@ -31,4 +38,45 @@ public class DefaultTestCaseTest {
         DefaultTestCase clone = tc.clone();
         Assert.assertTrue(tc.statements != clone.statements);
     }
+
+    private static VariableReference addStringBuilder(DefaultTestCase tc, VariableReference argument)
+            throws NoSuchMethodException {
+        GenericConstructor constructor = new GenericConstructor(
+                StringBuilder.class.getConstructor(String.class), StringBuilder.class);
+        return tc.addStatement(new ConstructorStatement(tc, constructor, Collections.singletonList(argument)));
+    }
+
+    @Test
+    public void testSelectionKeyIgnoresAbsolutePositions() throws Exception {
+        DefaultTestCase first = new DefaultTestCase();
+        VariableReference string = first.addStatement(new StringPrimitiveStatement(first, "foo"));
+        addStringBuilder(first, string);
+
+        DefaultTestCase second = new DefaultTestCase();
+        second.addStatement(new IntPrimitiveStatement(second, 42));
+        second.addStatement(new StringPrimitiveStatement(second, "bar"));
+        string = second.addStatement(new StringPrimitiveStatement(second, "foo"));
+        addStringBuilder(second, string);
+
+        Assert.assertEquals(
+                first.buildSelectionKey(StringBuilder.class, 2, first.getObjects(StringBuilder.class, 2)),
+                second.buildSelectionKey(StringBuilder.class, 4, second.getObjects(StringBuilder.class, 4)));
+    }
+
+    @Test
+    public void testSelectionKeyDependsOnUsedVariables() throws Exception {
+        DefaultTestCase first = new DefaultTestCase();
+        VariableReference used = first.addStatement(new StringPrimitiveStatement(first, "foo"));
+        first.addStatement(new StringPrimitiveStatement(first, "foo"));
+        addStringBuilder(first, used);
+
+        DefaultTestCase second = new DefaultTestCase();
+        second.addStatement(new StringPrimitiveStatement(second, "foo"));
+        used = second.addStatement(new StringPrimitiveStatement(second, "foo"));
+        addStringBuilder(second, used);
+
+        Assert.assertNotEquals(
+                first.buildSelectionKey(StringBuilder.class, 3, first.getObjects(StringBuilder.class, 3)),
+                second.buildSelectionKey(StringBuilder.class, 3, second.getObjects(StringBuilder.class, 3)));
+    }
 }
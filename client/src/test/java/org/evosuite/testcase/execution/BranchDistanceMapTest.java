@@ -0,0 +1,70 @@
+package org.evosuite.testcase.execution;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class BranchDistanceMapTest {
+
+    @Test
+    public void testMinAndSum() {
+        BranchDistanceMap min = new BranchDistanceMap(2);
+        BranchDistanceMap sum = new BranchDistanceMap(2);
+        min.min(5, 3.0);
+        min.min(5, 1.0);
+        min.min(5, 2.0);
+        sum.add(5, 3.0);
+        sum.add(5, 1.0);
+
+        Assert.assertEquals(1, min.size());
+        Assert.assertEquals(1.0, min.get(5), 0.0);
+        Assert.assertEquals(4.0, sum.get(5), 0.0);
+        Assert.assertTrue(min.capacity() > 5);
+        Assert.assertNull(min.get(4));
+        Assert.assertFalse(min.containsKey(100));
+        Assert.assertTrue(Double.isNaN(min.getDistance(100)));
+    }
+
+    @Test
+    public void testBehavesLikeMap() {
+        BranchDistanceMap map = new BranchDistanceMap();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < 200; i += 7) {
+            map.put(i, (double) i);
+            expected.put(i, (double) i);
+        }
+        map.put(0, 0.5);
+        expected.put(0, 0.5);
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(expected.keySet(), map.keySet());
+
+        map.remove(7);
+        expected.remove(7);
+        Assert.assertEquals(expected, map);
+
+        BranchDistanceMap copy = new BranchDistanceMap();
+        copy.putAll(map);
+        Assert.assertEquals(map, copy);
+    }
+
+    @Test
+    public void testCounts() {
+        BranchCountMap counts = new BranchCountMap(1);
+        counts.increment(3);
+        counts.increment(3);
+        counts.increment(10);
+
+        Map<Integer, Integer> expected = new HashMap<>();
+        expected.put(3, 2);
+        expected.put(10, 1);
+        Assert.assertEquals(expected, counts);
+        Assert.assertEquals(0, counts.getCount(4));
+        Assert.assertNull(counts.get(4));
+
+        counts.clear();
+        Assert.assertTrue(counts.isEmpty());
+        Assert.assertFalse(counts.containsKey(3));
+    }
+}
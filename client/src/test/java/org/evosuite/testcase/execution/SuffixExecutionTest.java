@@ -0,0 +1,216 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.evosuite.runtime.RuntimeSettings;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.Statement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SuffixExecutionTest {
+
+    public static class Counter {
+
+        public static int instances = 0;
+
+        public static int lastValue = 0;
+
+        private int value = 0;
+
+        public Counter() {
+            instances++;
+        }
+
+        public void increment() {
+            lastValue = ++value;
+        }
+
+        public void fail() {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Calls the simulated JVM classes, as instrumented code would
+     */
+    public static class Dice {
+
+        public static int instances = 0;
+
+        public static int lastId = 0;
+
+        public static int lastRoll = 0;
+
+        public Dice() {
+            instances++;
+            lastId = org.evosuite.runtime.System.identityHashCode(this);
+        }
+
+        public void roll() {
+            lastRoll = org.evosuite.runtime.Random.nextInt();
+        }
+
+        public long now() {
+            return org.evosuite.runtime.System.currentTimeMillis();
+        }
+    }
+
+    private boolean mockJVMNonDeterminism;
+
+    @Before
+    public void setUp() {
+        Properties.SUFFIX_EXECUTION = true;
+        Counter.instances = 0;
+        Counter.lastValue = 0;
+        Dice.instances = 0;
+        mockJVMNonDeterminism = RuntimeSettings.mockJVMNonDeterminism;
+    }
+
+    @After
+    public void tearDown() {
+        Properties.getInstance().resetToDefaults();
+        RuntimeSettings.mockJVMNonDeterminism = mockJVMNonDeterminism;
+    }
+
+    private static DefaultTestCase createTest() throws NoSuchMethodException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference counter = builder.appendConstructor(Counter.class.getConstructor());
+        builder.appendMethod(counter, Counter.class.getMethod("increment"));
+        return builder.getDefaultTestCase();
+    }
+
+    private static void appendCopyOf(DefaultTestCase test, int position) {
+        Statement copy = test.getStatement(position).clone(test);
+        test.addStatement(copy);
+    }
+
+    @Test
+    public void testAppendedStatementsContinueExecution() throws Exception {
+        DefaultTestCase test = createTest();
+        ExecutionResult result = TestCaseExecutor.getInstance().execute(test);
+        Assert.assertTrue(result.noThrownExceptions());
+        Assert.assertEquals(1, Counter.instances);
+        Assert.assertNotNull(test.getExecutionSnapshot());
+
+        appendCopyOf(test, 1);
+        result = TestCaseExecutor.getInstance().execute(test);
+        Assert.assertTrue(result.noThrownExceptions());
+        Assert.assertEquals(3, result.getExecutedStatements());
+        // the counter was not created again, and was incremented further
+        Assert.assertEquals(1, Counter.instances);
+        Assert.assertEquals(2, Counter.lastValue);
+    }
+
+    @Test
+    public void testSnapshotIsUsedOnlyOnce() throws Exception {
+        DefaultTestCase test = createTest();
+        TestCaseExecutor.getInstance().execute(test);
+
+        // as when an offspring is mutated
+        DefaultTestCase offspring = test.clone();
+        appendCopyOf(offspring, 1);
+        TestCaseExecutor.getInstance().execute(offspring);
+        Assert.assertEquals(1, Counter.instances);
+        Assert.assertEquals(2, Counter.lastValue);
+
+        // the objects of the parent were changed by the offspring, so it is executed from scratch
+        appendCopyOf(test, 1);
+        ExecutionResult result = TestCaseExecutor.getInstance().execute(test);
+        Assert.assertEquals(3, result.getExecutedStatements());
+        Assert.assertEquals(2, Counter.instances);
+        Assert.assertEquals(2, Counter.lastValue);
+    }
+
+    @Test
+    public void testChangedPrefixIsExecutedAgain() throws Exception {
+        DefaultTestCase test = createTest();
+        TestCaseExecutor.getInstance().execute(test);
+
+        test.remove(1);
+        appendCopyOf(test, 0);
+        TestCaseExecutor.getInstance().execute(test);
+        Assert.assertEquals(3, Counter.instances);
+    }
+
+    @Test
+    public void testNoSnapshotAfterException() throws Exception {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference counter = builder.appendConstructor(Counter.class.getConstructor());
+        builder.appendMethod(counter, Counter.class.getMethod("fail"));
+        DefaultTestCase test = builder.getDefaultTestCase();
+
+        ExecutionResult result = TestCaseExecutor.getInstance().execute(test);
+        Assert.assertFalse(result.noThrownExceptions());
+        Assert.assertNull(test.getExecutionSnapshot());
+    }
+
+    @Test
+    public void testContinuedExecutionKeepsSimulatedJVMState() throws Exception {
+        RuntimeSettings.mockJVMNonDeterminism = true;
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference dice = builder.appendConstructor(Dice.class.getConstructor());
+        builder.appendMethod(dice, Dice.class.getMethod("roll"));
+        builder.appendMethod(dice, Dice.class.getMethod("now"));
+        DefaultTestCase test = builder.getDefaultTestCase();
+        TestCaseExecutor.getInstance().execute(test);
+        Assert.assertNotNull(test.getExecutionSnapshot());
+
+        // the runtime is reset by the execution of other tests in between
+        TestCaseExecutor.getInstance().execute(createTest());
+        Assert.assertFalse(org.evosuite.runtime.Random.wasAccessed());
+
+        appendCopyOf(test, 0);
+        appendCopyOf(test, 1);
+        TestCaseExecutor.getInstance().execute(test);
+        Assert.assertEquals(2, Dice.instances);
+        int continuedId = Dice.lastId;
+        int continuedRoll = Dice.lastRoll;
+        Assert.assertTrue(org.evosuite.runtime.Random.wasAccessed());
+        Assert.assertTrue(org.evosuite.runtime.System.wasTimeAccessed());
+
+        // the same values as when executing the whole test
+        Properties.SUFFIX_EXECUTION = false;
+        Dice.instances = 0;
+        TestCaseExecutor.getInstance().execute(test.clone());
+        Assert.assertEquals(2, Dice.instances);
+        Assert.assertEquals(Dice.lastId, continuedId);
+        Assert.assertEquals(Dice.lastRoll, continuedRoll);
+        Assert.assertEquals(2, continuedId);
+        Assert.assertEquals(1, continuedRoll);
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        Properties.SUFFIX_EXECUTION = false;
+        DefaultTestCase test = createTest();
+        TestCaseExecutor.getInstance().execute(test);
+        Assert.assertNull(test.getExecutionSnapshot());
+
+        appendCopyOf(test, 1);
+        TestCaseExecutor.getInstance().execute(test);
+        Assert.assertEquals(2, Counter.instances);
+    }
+}
@@ -0,0 +1,55 @@
+package org.evosuite.testcase.execution;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ThreadConfinedTracingTest {
+
+    private boolean confined;
+
+    @Before
+    public void setUp() {
+        confined = Properties.THREAD_CONFINED_TRACING;
+        Properties.THREAD_CONFINED_TRACING = true;
+        ExecutionTracer.setThread(Thread.currentThread());
+        ExecutionTracer.getExecutionTracer().clear();
+        ExecutionTracer.enable();
+    }
+
+    @After
+    public void tearDown() {
+        ExecutionTracer.setKillSwitch(false);
+        ExecutionTracer.disable();
+        Properties.THREAD_CONFINED_TRACING = confined;
+        ExecutionTracer.getExecutionTracer().clear();
+    }
+
+    @Test
+    public void testTraceIsPublished() {
+        ExecutionTracer.passedLine("Foo", "bar()V", 3);
+        ExecutionTracer.passedLine("Foo", "bar()V", 3);
+
+        ExecutionTrace trace = ExecutionTracer.getExecutionTracer().getTrace();
+        Assert.assertTrue(trace instanceof ExecutionTraceProxy);
+        Assert.assertTrue(trace.getCoveredLines("Foo").contains(3));
+        Assert.assertSame(trace, ExecutionTracer.getExecutionTracer().getTrace());
+    }
+
+    @Test
+    public void testTimeoutIsCheckedPeriodically() {
+        ExecutionTracer.setKillSwitch(true);
+        int events = 0;
+        try {
+            for (; events < 10000; events++) {
+                ExecutionTracer.passedLine("Foo", "bar()V", 3);
+            }
+            Assert.fail("Kill switch was ignored");
+        } catch (TestCaseExecutor.TimeoutExceeded e) {
+            Assert.assertTrue(events > 0);
+            Assert.assertTrue(events < 10000);
+        }
+    }
+}
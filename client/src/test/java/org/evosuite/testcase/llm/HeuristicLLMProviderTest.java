@@ -0,0 +1,41 @@
+package org.evosuite.testcase.llm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HeuristicLLMProviderTest {
+
+    private static String candidate(int index, int distance, String dependencies) {
+        return "\nVariable #" + index + ":\n"
+                + "- Declared at position: 0\n"
+                + "- Statements between declaration and usage: " + distance + "\n"
+                + "- Declaration: Foo foo0 = new Foo();\n"
+                + (dependencies.isEmpty() ? "" : "- Dependencies: " + dependencies + "\n");
+    }
+
+    @Test
+    public void testClosestDeclarationIsSelected() {
+        String prompt = "=== Available Variables ===\n"
+                + candidate(0, 5, "")
+                + candidate(1, 2, "var0 var1 ")
+                + candidate(2, 3, "");
+        Assert.assertEquals("1", new HeuristicLLMProvider().query(prompt));
+    }
+
+    @Test
+    public void testFewestDependenciesBreakTies() {
+        String prompt = candidate(0, 2, "var0 var1 ")
+                + candidate(1, 2, "var3 ")
+                + candidate(2, 2, "var0 var1 var2 ");
+        Assert.assertEquals("1", new HeuristicLLMProvider().query(prompt));
+    }
+
+    @Test
+    public void testBatchedPrompt() {
+        String prompt = "Task: For each of the following decisions...\n\n"
+                + "##### Decision 0 #####\n" + candidate(0, 4, "") + candidate(1, 1, "")
+                + "##### Decision 1 #####\n" + candidate(0, 1, "") + candidate(1, 3, "")
+                + "Return **only a JSON array**";
+        Assert.assertEquals("[1, 0]", new HeuristicLLMProvider().query(prompt));
+    }
+}
@@ -0,0 +1,105 @@
+package org.evosuite.testcase.llm;
+
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+public class LLMResponseCacheTest {
+
+    private File directory;
+
+    @Before
+    public void createDirectory() throws Exception {
+        directory = Files.createTempDirectory("llm-cache").toFile();
+    }
+
+    @After
+    public void deleteDirectory() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        LLMResponseCache cache = new LLMResponseCache(2, null);
+        cache.put("a", "0");
+        cache.put("b", "1");
+        Assert.assertEquals("0", cache.get("a"));
+        cache.put("c", "2");
+
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals("0", cache.get("a"));
+        Assert.assertEquals("2", cache.get("c"));
+        Assert.assertEquals(3, cache.getNumberOfHits());
+        Assert.assertEquals(1, cache.getNumberOfMisses());
+    }
+
+    @Test
+    public void testEvictedEntriesAreReadFromDisk() {
+        LLMResponseCache cache = new LLMResponseCache(1, directory);
+        cache.put("a", "0");
+        cache.put("b", "1");
+        Assert.assertEquals("0", cache.get("a"));
+        Assert.assertEquals("1", cache.get("b"));
+        cache.close();
+    }
+
+    @Test
+    public void testEntriesSurviveRuns() {
+        LLMResponseCache first = new LLMResponseCache(10, directory);
+        first.put("a", "0");
+        first.put("b", "12");
+        first.close();
+
+        LLMResponseCache second = new LLMResponseCache(10, directory);
+        Assert.assertEquals("0", second.get("a"));
+        Assert.assertEquals("12", second.get("b"));
+        Assert.assertNull(second.get("c"));
+        second.close();
+    }
+
+    @Test
+    public void testStoreIsMappedInGrowingChunks() {
+        LLMResponseCache first = new LLMResponseCache(1, directory);
+        for (int i = 0; i < 5000; i++) {
+            first.put("key" + i, "" + i);
+        }
+        // about 380KB of records, mapped as 64KB, 128KB, 256KB and 512KB
+        Assert.assertEquals(4, first.getNumberOfMappings());
+        Assert.assertEquals("0", first.get("key0"));
+        first.close();
+
+        LLMResponseCache second = new LLMResponseCache(1, directory);
+        for (int i = 0; i < 5000; i += 7) {
+            Assert.assertEquals("" + i, second.get("key" + i));
+        }
+        second.put("new", "answer");
+        second.close();
+
+        LLMResponseCache third = new LLMResponseCache(1, directory);
+        Assert.assertEquals("answer", third.get("new"));
+        Assert.assertEquals("4999", third.get("key4999"));
+        third.close();
+    }
+
+    @Test
+    public void testFullStoreKeepsAnswersInMemory() {
+        // room for two records with a 64 character digest and a single character answer
+        LLMResponseCache first = new LLMResponseCache(10, directory, 2 * 73);
+        first.put("a", "0");
+        first.put("b", "1");
+        first.put("c", "2");
+        Assert.assertEquals("2", first.get("c"));
+        first.close();
+
+        LLMResponseCache second = new LLMResponseCache(10, directory, 2 * 73);
+        Assert.assertEquals("0", second.get("a"));
+        Assert.assertEquals("1", second.get("b"));
+        Assert.assertNull(second.get("c"));
+        second.close();
+    }
+}
@@ -0,0 +1,99 @@
+package org.evosuite.testcase.llm;
+
+import org.evosuite.testcase.DefaultTestCase;
+import org.evosuite.testcase.statements.ConstructorStatement;
+import org.evosuite.testcase.statements.MethodStatement;
+import org.evosuite.testcase.variable.VariableReference;
+import org.evosuite.utils.generic.GenericConstructor;
+import org.evosuite.utils.generic.GenericMethod;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LLMSelectionBatchTest {
+
+    @Test
+    public void testParseIndices() throws Exception {
+        Assert.assertEquals(Arrays.asList(0, 2, 1), LLMSelectionBatch.parseIndices("[0, 2, 1]"));
+        Assert.assertEquals(Arrays.asList(3), LLMSelectionBatch.parseIndices("Answer:\n```json\n[3]\n```"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParseIndicesWithoutArray() throws Exception {
+        LLMSelectionBatch.parseIndices("2");
+    }
+
+    @Test
+    public void testApplyWithoutDecisions() {
+        LLMSelectionBatch batch = new LLMSelectionBatch();
+        Assert.assertEquals(0, batch.getNumberOfDecisions());
+        Assert.assertEquals(0, batch.apply(new DefaultTestCase()));
+    }
+
+    private static MethodStatement defer(DefaultTestCase test, LLMSelectionBatch batch, Class<?> type,
+                                         String methodName, String cacheKey) throws Exception {
+        GenericConstructor constructor = new GenericConstructor(type.getConstructor(), type);
+        VariableReference first = test.addStatement(
+                new ConstructorStatement(test, constructor, Collections.emptyList()));
+        VariableReference second = test.addStatement(
+                new ConstructorStatement(test, constructor, Collections.emptyList()));
+        List<VariableReference> candidates = Arrays.asList(first, second);
+
+        test.setLLMSelectionBatch(batch);
+        batch.defer(type, candidates, first, "candidates", cacheKey);
+        MethodStatement call = new MethodStatement(test,
+                new GenericMethod(type.getMethod(methodName), type), first, Collections.emptyList());
+        test.addStatement(call);
+        test.setLLMSelectionBatch(null);
+        return call;
+    }
+
+    private static MethodStatement deferSize(DefaultTestCase test, LLMSelectionBatch batch) throws Exception {
+        return defer(test, batch, ArrayList.class, "size", null);
+    }
+
+    @Test
+    public void testApplySeparatelyQueriedAnswer() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        LLMSelectionBatch batch = new LLMSelectionBatch();
+        MethodStatement call = deferSize(test, batch);
+        Assert.assertEquals(1, batch.getNumberOfDecisions());
+
+        String prompt = batch.getPrompt(test);
+        Assert.assertNotNull(prompt);
+        Assert.assertTrue(prompt.contains("candidates"));
+        Assert.assertEquals(0, batch.getNumberOfDecisions());
+
+        Assert.assertEquals(1, batch.apply(test, "[1]"));
+        Assert.assertSame(test.getStatement(1).getReturnValue(), call.getCallee());
+    }
+
+    @Test
+    public void testUnusableSelectionIsNeitherAppliedNorCached() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        LLMSelectionBatch batch = new LLMSelectionBatch();
+        String cacheKey = "LLMSelectionBatchTest#testUnusableSelectionIsNeitherAppliedNorCached";
+        // methods declared by Object are never called in generated tests
+        MethodStatement call = defer(test, batch, Object.class, "hashCode", cacheKey);
+
+        Assert.assertNotNull(batch.getPrompt(test));
+        Assert.assertEquals(0, batch.apply(test, "[1]"));
+        Assert.assertSame(test.getStatement(0).getReturnValue(), call.getCallee());
+        Assert.assertNull(LLMResponseCache.getInstance().get(cacheKey));
+    }
+
+    @Test
+    public void testMissingAnswerKeepsProvisionalCallee() throws Exception {
+        DefaultTestCase test = new DefaultTestCase();
+        LLMSelectionBatch batch = new LLMSelectionBatch();
+        MethodStatement call = deferSize(test, batch);
+
+        Assert.assertNotNull(batch.getPrompt(test));
+        Assert.assertEquals(0, batch.apply(test, null));
+        Assert.assertSame(test.getStatement(0).getReturnValue(), call.getCallee());
+    }
+}
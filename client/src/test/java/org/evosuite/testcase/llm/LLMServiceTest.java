@@ -0,0 +1,149 @@
+package org.evosuite.testcase.llm;
+
+import org.evosuite.Properties;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+public class LLMServiceTest {
+
+    private final int maxInFlight = Properties.LLM_MAX_IN_FLIGHT;
+
+    @After
+    public void restoreProperties() {
+        Properties.LLM_MAX_IN_FLIGHT = maxInFlight;
+    }
+
+    /**
+     * Provider whose answers are completed by the test
+     */
+    private static class ControlledProvider implements LLMProvider {
+
+        private final List<String> prompts = new CopyOnWriteArrayList<>();
+
+        private final List<CompletableFuture<String>> answers = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String query(String prompt) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public CompletableFuture<String> queryAsync(String prompt) {
+            CompletableFuture<String> answer = new CompletableFuture<>();
+            prompts.add(prompt);
+            answers.add(answer);
+            return answer;
+        }
+    }
+
+    @Test
+    public void testConcurrentIdenticalQueriesAreSentOnce() throws Exception {
+        Properties.LLM_MAX_IN_FLIGHT = 100;
+        ControlledProvider provider = new ControlledProvider();
+        LLMService service = new LLMService(provider);
+
+        int threads = 16;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        List<CompletableFuture<String>> futures = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    futures.add(service.queryLLMAsync("prompt"));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        Assert.assertTrue(done.await(10, TimeUnit.SECONDS));
+
+        Assert.assertEquals(1, provider.prompts.size());
+        Assert.assertEquals(1, service.getNumberOfQueriesInFlight());
+        provider.answers.get(0).complete("3");
+        for (CompletableFuture<String> future : futures) {
+            Assert.assertEquals("3", future.get());
+        }
+        Assert.assertEquals(0, service.getNumberOfQueriesInFlight());
+    }
+
+    @Test
+    public void testQueriesBeyondWindowAreRejected() throws Exception {
+        Properties.LLM_MAX_IN_FLIGHT = 1;
+        ControlledProvider provider = new ControlledProvider();
+        LLMService service = new LLMService(provider);
+
+        CompletableFuture<String> first = service.queryLLMAsync("a");
+        CompletableFuture<String> second = service.queryLLMAsync("b");
+        try {
+            second.get();
+            Assert.fail("Expected the second query to be rejected");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+        Assert.assertNull(LLMService.getIfReady(second, 0));
+
+        provider.answers.get(0).complete("0");
+        Assert.assertEquals("0", first.get());
+        Assert.assertEquals("1", completeLatest(provider, service.queryLLMAsync("b"), "1"));
+    }
+
+    @Test
+    public void testLateAnswerIsConsumedByNextIdenticalQuery() {
+        ControlledProvider provider = new ControlledProvider();
+        LLMService service = new LLMService(provider);
+
+        Assert.assertNull(service.queryLLM("prompt", 10));
+        provider.answers.get(0).complete("2");
+        Assert.assertEquals(0, service.getNumberOfQueriesInFlight());
+
+        Assert.assertEquals("2", service.queryLLM("prompt", 0));
+        Assert.assertEquals(1, provider.prompts.size());
+
+        // The late answer is consumed only once
+        Assert.assertNull(service.queryLLM("prompt", 0));
+        Assert.assertEquals(2, provider.prompts.size());
+    }
+
+    @Test
+    public void testAnswerBeforeDeadlineIsNotKept() {
+        List<String> prompts = new CopyOnWriteArrayList<>();
+        LLMService service = new LLMService(prompt -> {
+            prompts.add(prompt);
+            return "1";
+        });
+
+        Assert.assertEquals("1", service.queryLLM("prompt", 1000));
+        Assert.assertEquals("1", service.queryLLM("prompt", 1000));
+        Assert.assertEquals(2, prompts.size());
+    }
+
+    @Test
+    public void testFailedQueryFallsBack() {
+        ControlledProvider provider = new ControlledProvider();
+        LLMService service = new LLMService(provider);
+
+        CompletableFuture<String> future = service.queryLLMAsync("prompt");
+        provider.answers.get(0).completeExceptionally(new RuntimeException("unavailable"));
+        Assert.assertNull(LLMService.getIfReady(future, 1000));
+        Assert.assertEquals(0, service.getNumberOfQueriesInFlight());
+    }
+
+    private static String completeLatest(ControlledProvider provider, CompletableFuture<String> future,
+                                         String answer) throws Exception {
+        provider.answers.get(provider.answers.size() - 1).complete(answer);
+        return future.get();
+    }
+}
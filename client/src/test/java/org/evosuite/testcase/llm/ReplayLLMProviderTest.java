@@ -0,0 +1,43 @@
+package org.evosuite.testcase.llm;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+public class ReplayLLMProviderTest {
+
+    @Test
+    public void testRecordedAnswersAreReplayedInOrder() throws Exception {
+        File transcript = File.createTempFile("llm-transcript", ".jsonl");
+        transcript.deleteOnExit();
+        Files.delete(transcript.toPath());
+
+        LLMProvider recorder = new ReplayLLMProvider.Recorder(new HeuristicLLMProvider() {
+            private int calls = 0;
+
+            @Override
+            public String query(String prompt) {
+                return prompt + "\n" + (calls++);
+            }
+        }, transcript.getAbsolutePath());
+        recorder.query("a");
+        recorder.query("b\"quoted\"");
+        recorder.query("a");
+
+        ReplayLLMProvider replay = new ReplayLLMProvider(transcript.getAbsolutePath());
+        Assert.assertEquals("a\n0", replay.query("a"));
+        Assert.assertEquals("a\n2", replay.query("a"));
+        Assert.assertEquals("a\n0", replay.query("a"));
+        Assert.assertEquals("b\"quoted\"\n1", replay.query("b\"quoted\""));
+    }
+
+    @Test(expected = IOException.class)
+    public void testUnknownPrompt() throws Exception {
+        File transcript = File.createTempFile("llm-transcript", ".jsonl");
+        transcript.deleteOnExit();
+        new ReplayLLMProvider(transcript.getAbsolutePath()).query("unknown");
+    }
+}
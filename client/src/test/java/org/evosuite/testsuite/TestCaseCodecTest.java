@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.testsuite;
+
+import org.evosuite.runtime.testdata.EvoSuiteFile;
+import org.evosuite.symbolic.TestCaseBuilder;
+import org.evosuite.testcase.TestChromosome;
+import org.evosuite.testcase.variable.ArrayReference;
+import org.evosuite.testcase.variable.VariableReference;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class TestCaseCodecTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static TestChromosome createTest() throws NoSuchMethodException, NoSuchFieldException {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        VariableReference string = builder.appendStringPrimitive("Hello é世");
+        VariableReference sb = builder.appendConstructor(StringBuilder.class.getConstructor(String.class), string);
+        builder.appendMethod(sb, StringBuilder.class.getMethod("reverse"));
+        VariableReference index = builder.appendIntPrimitive(-42);
+        builder.appendMethod(null, Math.class.getMethod("abs", int.class), index);
+        builder.appendLongPrimitive(Long.MIN_VALUE);
+        builder.appendShortPrimitive((short) 7);
+        builder.appendBytePrimitive((byte) -1);
+        builder.appendCharPrimitive('世');
+        builder.appendFloatPrimitive(1.5f);
+        builder.appendDoublePrimitive(Double.NaN);
+        builder.appendBooleanPrimitive(true);
+        builder.appendEnumPrimitive(TimeUnit.SECONDS);
+        builder.appendClassPrimitive(String.class);
+        builder.appendNull(Object.class);
+        builder.appendStaticFieldStmt(Integer.class.getField("MAX_VALUE"));
+        ArrayReference array = builder.appendArrayStmt(String[].class, 2);
+        builder.appendAssignment(array, 1, string);
+        builder.appendMethod(null, Arrays.class.getMethod("toString", Object[].class), array);
+
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(builder.getDefaultTestCase());
+        return test;
+    }
+
+    private static TestSuiteChromosome createSuite(TestChromosome... tests) {
+        TestSuiteChromosome suite = new TestSuiteChromosome();
+        for (TestChromosome test : tests) {
+            suite.addTest(test);
+        }
+        return suite;
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        TestChromosome test = createTest();
+        String code = test.getTestCase().toCode();
+        File file = folder.newFile("tests.bin");
+        Assert.assertTrue(TestSuiteSerialization.saveTests(createSuite(test, createTest()), file));
+
+        List<TestChromosome> loaded = TestSuiteSerialization.loadTests(file);
+        Assert.assertEquals(2, loaded.size());
+        Assert.assertEquals(code, loaded.get(0).getTestCase().toCode());
+        Assert.assertEquals(code, loaded.get(1).getTestCase().toCode());
+        Assert.assertTrue(loaded.get(0).getTestCase().isValid());
+    }
+
+    @Test
+    public void testSmallerThanJavaSerialization() throws Exception {
+        TestChromosome[] tests = new TestChromosome[20];
+        for (int i = 0; i < tests.length; i++) {
+            tests[i] = createTest();
+        }
+        File encoded = folder.newFile("tests.bin");
+        TestSuiteSerialization.saveTests(createSuite(tests), encoded);
+
+        File serialized = folder.newFile("tests.ser");
+        try (ObjectOutputStream out = new ObjectOutputStream(new FileOutputStream(serialized))) {
+            for (TestChromosome test : tests) {
+                out.writeObject(test);
+            }
+        }
+        Assert.assertTrue(encoded.length() * 5 < serialized.length());
+
+        // files written with Java serialization can still be read
+        Assert.assertEquals(tests.length, TestSuiteSerialization.loadTests(serialized).size());
+    }
+
+    @Test
+    public void testUnsupportedStatementsAreSerialized() throws Exception {
+        TestCaseBuilder builder = new TestCaseBuilder();
+        builder.appendIntPrimitive(1);
+        builder.appendFileNamePrimitive(new EvoSuiteFile("foo.txt"));
+        TestChromosome test = new TestChromosome();
+        test.setTestCase(builder.getDefaultTestCase());
+
+        File file = folder.newFile("tests.bin");
+        TestSuiteSerialization.saveTests(createSuite(createTest(), test), file);
+
+        try (TestCaseCodec.Reader reader = TestSuiteSerialization.openTests(file)) {
+            Assert.assertEquals(2, reader.size());
+            // tests can be read in any order
+            Assert.assertEquals(test.getTestCase().toCode(), reader.read(1).getTestCase().toCode());
+            Assert.assertEquals(createTest().getTestCase().toCode(), reader.read(0).getTestCase().toCode());
+        }
+    }
+
+    @Test
+    public void testIncompleteFile() throws Exception {
+        File file = folder.newFile("tests.bin");
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            // the writer is not closed, so the file misses its trailer
+            new TestCaseCodec.Writer(out).write(createTest());
+        }
+        Assert.assertTrue(TestSuiteSerialization.loadTests(file).isEmpty());
+    }
+}
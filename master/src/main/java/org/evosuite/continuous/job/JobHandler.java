@@ -31,7 +31,9 @@ import org.evosuite.utils.LoggingUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
@@ -40,6 +42,9 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * The class that actually execute the job as a separated process
@@ -50,9 +55,34 @@ public class JobHandler extends Thread {
 
     private static final Logger logger = LoggerFactory.getLogger(JobHandler.class);
 
+    /**
+     * Exit code used when a worker JVM died before completing its job
+     */
+    private static final int WORKER_DIED = Integer.MIN_VALUE;
+
+    /*
+     * TODO: this will likely need better handling
+     */
+    private static final int MASTER_MB = 250;
+
     private final JobExecutor executor;
 
-    private Process latestProcess;
+    private volatile Process latestProcess;
+
+    /**
+     * Input of the current warm worker JVM, if any
+     */
+    private DataOutputStream workerInput;
+
+    /**
+     * Exit codes of the jobs completed by the current warm worker JVM
+     */
+    private BlockingQueue<Integer> workerResults;
+
+    /**
+     * How many jobs the current warm worker JVM has run so far
+     */
+    private int jobsOnWorker;
 
     /**
      * Main constructor
@@ -107,60 +137,21 @@ public class JobHandler extends Thread {
                 break;
             }
 
-            Process process = null;
-
             try {
-
-                List<String> commands = getCommandString(job);
-
-                String baseDir = System.getProperty("user.dir");
-                File dir = new File(baseDir);
-
-                // String[] parsedCommand = parseCommand(command);
-                String[] parsedCommand = new String[commands.size()];
-                commands.toArray(parsedCommand);
-
-                ProcessBuilder builder = new ProcessBuilder(parsedCommand);
-                builder.directory(dir);
-                builder.redirectErrorStream(true);
-
-                LocalDateTime endBy = LocalDateTime.now().plus(job.seconds, ChronoUnit.SECONDS);
-
-                LoggingUtils.getEvoLogger().info("Going to start job for: " + job.cut +
-                        ". Expected to end in " + job.seconds + " seconds, by " + endBy.toString());
-
-
-                logger.debug("Base directory: " + baseDir);
-                if (logger.isDebugEnabled()) {
-                    String commandString = String.join(" ", parsedCommand);
-                    commandString = commandString.replace("\\", "\\\\"); //needed for nice print in bash shell on Windows (eg Cygwin and GitBash)
-                    logger.debug("Commands: " + commandString);
+                if (useWarmWorkers()) {
+                    executeOnWorker(job);
+                } else {
+                    executeOnNewProcess(job);
                 }
-                process = builder.start();
-                latestProcess = process;
-                handleProcessOutput(process);
-
-                int exitCode = process.waitFor(); //no need to have timeout here, as it is handled by the scheduler/executor
-
-                if (exitCode != 0) {
-                    handleProcessError(job, process);
-                }
-
             } catch (InterruptedException e) {
                 this.interrupt();
-                if (process != null) {
-                    try {
-                        //be sure streamers are closed, otherwise process might hang on Windows
-                        process.getOutputStream().close();
-                        process.getInputStream().close();
-                        process.getErrorStream().close();
-                    } catch (Exception t) {
-                        logger.error("Failed to close process stream: " + t);
-                    }
-                    process.destroy();
-                }
+                destroyLatestProcess();
             } catch (Exception e) {
                 logger.error("Failed to start new job: " + e.getMessage(), e);
+                if (useWarmWorkers()) {
+                    //do not reuse a worker in unknown state
+                    destroyLatestProcess();
+                }
             } finally {
                 /*
                  * if there were problems with this job, still
@@ -169,8 +160,163 @@ public class JobHandler extends Thread {
                 executor.doneWithJob(job);
             }
         }
+
+        stopWorker();
+    }
+
+    private static boolean useWarmWorkers() {
+        //a worker is debugged as a single process, which can only be done for a single CUT
+        return Properties.CTG_JOBS_PER_WORKER > 1 && Properties.CTG_DEBUG_PORT == null;
+    }
+
+    private void executeOnNewProcess(JobDefinition job) throws IOException, InterruptedException {
+
+        List<String> commands = getCommandString(job);
+
+        String baseDir = System.getProperty("user.dir");
+        File dir = new File(baseDir);
+
+        // String[] parsedCommand = parseCommand(command);
+        String[] parsedCommand = new String[commands.size()];
+        commands.toArray(parsedCommand);
+
+        ProcessBuilder builder = new ProcessBuilder(parsedCommand);
+        builder.directory(dir);
+        builder.redirectErrorStream(true);
+
+        logJobStart(job);
+
+        logger.debug("Base directory: " + baseDir);
+        if (logger.isDebugEnabled()) {
+            String commandString = String.join(" ", parsedCommand);
+            commandString = commandString.replace("\\", "\\\\"); //needed for nice print in bash shell on Windows (eg Cygwin and GitBash)
+            logger.debug("Commands: " + commandString);
+        }
+        Process process = builder.start();
+        latestProcess = process;
+        handleProcessOutput(process, null);
+
+        int exitCode = process.waitFor(); //no need to have timeout here, as it is handled by the scheduler/executor
+
+        if (exitCode != 0) {
+            handleProcessError(job, process);
+        }
+    }
+
+    /**
+     * Run the job on a warm worker JVM, starting a new one if needed.
+     * A worker is replaced after {@link Properties#CTG_JOBS_PER_WORKER} jobs,
+     * to limit the effects of any state leaking from one job to the next
+     */
+    private void executeOnWorker(JobDefinition job) throws IOException, InterruptedException {
+
+        if (latestProcess == null || !latestProcess.isAlive() || workerInput == null) {
+            startWorker(job);
+        }
+
+        logJobStart(job);
+
+        List<String> systemProperties = new ArrayList<>();
+        for (String option : getJvmCommands(job)) {
+            if (option.startsWith("-D")) {
+                systemProperties.add(option.substring(2));
+            }
+        }
+
+        JobWorker.writeJob(workerInput, systemProperties, getEvoSuiteArguments(job));
+        jobsOnWorker++;
+
+        int exitCode = workerResults.take(); //no need to have timeout here, as it is handled by the scheduler/executor
+
+        if (exitCode == WORKER_DIED) {
+            logger.warn("Worker process died while running job for: " + job.cut);
+            destroyLatestProcess();
+            return;
+        }
+
+        if (exitCode != 0) {
+            logger.warn("Job ended with erroneous exit code: " + job.cut);
+        }
+
+        if (jobsOnWorker >= Properties.CTG_JOBS_PER_WORKER) {
+            stopWorker();
+        }
+    }
+
+    private void startWorker(JobDefinition job) throws IOException {
+        destroyLatestProcess();
+
+        List<String> commands = getJvmCommands(job);
+        commands.add(JobWorker.class.getName());
+
+        ProcessBuilder builder = new ProcessBuilder(commands);
+        builder.directory(new File(System.getProperty("user.dir")));
+        builder.redirectErrorStream(true);
+
+        logger.debug("Starting new CTG worker process");
+        Process process = builder.start();
+        latestProcess = process;
+        workerInput = new DataOutputStream(new BufferedOutputStream(process.getOutputStream()));
+        workerResults = new LinkedBlockingQueue<>();
+        jobsOnWorker = 0;
+        handleProcessOutput(process, workerResults);
+    }
+
+    /**
+     * Let the current worker, if any, exit once it has no more jobs to run
+     */
+    private void stopWorker() {
+        if (workerInput == null) {
+            return;
+        }
+        Process process = latestProcess;
+        try {
+            workerInput.close(); //the worker exits when its input is closed
+            if (process != null && !process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroy();
+            }
+        } catch (InterruptedException e) {
+            this.interrupt();
+            destroyLatestProcess();
+        } catch (IOException e) {
+            destroyLatestProcess();
+        }
+        workerInput = null;
+        workerResults = null;
+        latestProcess = null;
     }
-    private final void handleProcessOutput(final Process process) {
+
+    private void destroyLatestProcess() {
+        Process process = latestProcess;
+        if (process != null) {
+            try {
+                //be sure streamers are closed, otherwise process might hang on Windows
+                process.getOutputStream().close();
+                process.getInputStream().close();
+                process.getErrorStream().close();
+            } catch (Exception t) {
+                logger.error("Failed to close process stream: " + t);
+            }
+            process.destroy();
+        }
+        latestProcess = null;
+        workerInput = null;
+        workerResults = null;
+    }
+
+    private void logJobStart(JobDefinition job) {
+        LocalDateTime endBy = LocalDateTime.now().plus(job.seconds, ChronoUnit.SECONDS);
+
+        LoggingUtils.getEvoLogger().info("Going to start job for: " + job.cut +
+                ". Expected to end in " + job.seconds + " seconds, by " + endBy.toString());
+    }
+
+    /**
+     * @param process
+     * @param results if not null, where to put the exit codes reported by a worker process.
+     *                {@link #WORKER_DIED} is added when the process output ends
+     */
+    private final void handleProcessOutput(final Process process, final BlockingQueue<Integer> results) {
         Thread reader = new Thread() {
             @Override
             public void run() {
@@ -180,12 +326,21 @@ public class JobHandler extends Thread {
                     String line = "";
                     while (!this.isInterrupted()) {
                         line = in.readLine();
-                        if (line != null && !line.isEmpty()) {
+                        if (line == null) {
+                            break; //end of stream, ie the process has terminated
+                        }
+                        if (results != null && line.startsWith(JobWorker.JOB_DONE)) {
+                            results.add(Integer.parseInt(line.substring(JobWorker.JOB_DONE.length()).trim()));
+                        } else if (!line.isEmpty()) {
                             logger.info(line);
                         }
                     }
                 } catch (Exception e) {
                     logger.error("Exception while reading spawn process output: " + e);
+                } finally {
+                    if (results != null) {
+                        results.add(WORKER_DIED);
+                    }
                 }
             }
         };
@@ -230,6 +385,24 @@ public class JobHandler extends Thread {
 
     private List<String> getCommandString(JobDefinition job) {
 
+        List<String> commands = getJvmCommands(job);
+
+		/*
+			Actual call to EvoSuite. "Commands" before this line will be applied
+			to the spawn process, whereas the ones after will be its input parameters
+		 */
+        commands.add(org.evosuite.EvoSuite.class.getName());
+
+        commands.addAll(getEvoSuiteArguments(job));
+
+        return commands;
+    }
+
+    /**
+     * @return the java executable and the options for the JVM of the spawn process
+     */
+    private List<String> getJvmCommands(JobDefinition job) {
+
         List<String> commands = new ArrayList<>();
         commands.add(JavaExecCmdUtil.getJavaBinExecutablePath()/*"java"*/);
 
@@ -260,13 +433,7 @@ public class JobHandler extends Thread {
             commands.add("-Dlog.level=" + Properties.LOG_LEVEL);
         }
 
-        /*
-         * TODO: this will likely need better handling
-         */
-        int masterMB = 250;
-        int clientMB = job.memoryInMB - masterMB;
-
-        commands.add("-Xmx" + masterMB + "m");
+        commands.add("-Xmx" + MASTER_MB + "m");
 
         if (Properties.CTG_DEBUG_PORT != null) {
             //set for Master
@@ -276,11 +443,16 @@ public class JobHandler extends Thread {
             );
         }
 
-		/*
-			Actual call to EvoSuite. "Commands" before this line will be applied
-			to the spawn process, whereas the ones after will be its input parameters
-		 */
-        commands.add(org.evosuite.EvoSuite.class.getName());
+        return commands;
+    }
+
+    /**
+     * @return the input parameters for EvoSuite to run the given job
+     */
+    private List<String> getEvoSuiteArguments(JobDefinition job) {
+
+        List<String> commands = new ArrayList<>();
+        StorageManager storage = executor.getStorage();
 
         if (Properties.CTG_DEBUG_PORT != null) {
             //set for Client
@@ -288,6 +460,8 @@ public class JobHandler extends Thread {
             commands.add("-Dport=" + (Properties.CTG_DEBUG_PORT + 1));
         }
 
+        int clientMB = job.memoryInMB - MASTER_MB;
+
         commands.add("-mem");
         commands.add("" + clientMB);
         commands.add("-class");
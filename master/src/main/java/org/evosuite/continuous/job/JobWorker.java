@@ -0,0 +1,183 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.TestGenerationContext;
+import org.evosuite.TimeController;
+import org.evosuite.ga.archive.Archive;
+import org.evosuite.rmi.MasterServices;
+import org.evosuite.testcase.execution.reset.ClassReInitializer;
+import org.evosuite.utils.LoggingUtils;
+import org.evosuite.utils.Randomness;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entry point of a long-lived CTG worker JVM.
+ * Instead of starting a new JVM for each job, a {@link JobHandler} can start a worker
+ * and send it several jobs, one after the other, on its standard input.
+ * For each job, the worker resets the static state of EvoSuite (properties, class loaders
+ * for the SUT, etc) and runs a test generation exactly as {@link EvoSuite#main} would.
+ * The client JVMs are still started anew for each job by the test generation.
+ *
+ * <p>
+ * TODO: keep the client JVMs warm as well. That needs the client to accept further CUTs over
+ * RMI once a search is done, resetting Runtime and the ClassReInitializer and using a new
+ * instrumenting class loader for each CUT. Most of the per-job cost is in the client (JVM
+ * startup, JDK inheritance tree, classpath scan), so the saving of this worker alone is small.
+ *
+ * <p>
+ * Each job is sent as two lists of strings: the system properties to set
+ * (as {@code key=value}) and the EvoSuite command line arguments.
+ * When a job is completed, the worker prints a line starting with {@link #JOB_DONE}
+ * followed by its exit code. Closing the input makes the worker exit.
+ */
+public class JobWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobWorker.class);
+
+    /**
+     * Prefix of the line printed on standard output when a job is completed
+     */
+    public static final String JOB_DONE = "__EVOSUITE_CTG_JOB_DONE__ ";
+
+    public static void main(String[] args) {
+
+        /*
+         * EvoSuite might redirect the output streams, so keep a reference to
+         * the original one used to communicate with the handler
+         */
+        PrintStream out = System.out;
+        java.util.Properties baseline = (java.util.Properties) System.getProperties().clone();
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+
+        while (true) {
+            List<String> systemProperties;
+            List<String> arguments;
+            try {
+                systemProperties = readStrings(in);
+                arguments = readStrings(in);
+            } catch (EOFException e) {
+                //no more jobs
+                break;
+            } catch (IOException e) {
+                logger.error("Failed to read job definition: " + e.getMessage(), e);
+                break;
+            }
+
+            int exitCode = runJob(baseline, systemProperties, arguments);
+            out.println(JOB_DONE + exitCode);
+            out.flush();
+        }
+
+        /*
+         * Some threads could still be running, so we need to kill the process explicitly
+         */
+        System.exit(0);
+    }
+
+    private static int runJob(java.util.Properties baseline, List<String> systemProperties, List<String> arguments) {
+
+        java.util.Properties jobProperties = (java.util.Properties) baseline.clone();
+        for (String property : systemProperties) {
+            int index = property.indexOf('=');
+            if (index < 0) {
+                jobProperties.setProperty(property, "");
+            } else {
+                jobProperties.setProperty(property.substring(0, index), property.substring(index + 1));
+            }
+        }
+        System.setProperties(jobProperties);
+
+        //log files are specific to each job
+        LoggingUtils.changeLogbackFile(LoggingUtils.getLogbackFileName());
+
+        resetStaticState();
+
+        try {
+            EvoSuite evosuite = new EvoSuite();
+            evosuite.parseCommandLine(arguments.toArray(new String[0]));
+            return 0;
+        } catch (Throwable t) {
+            logger.error("Fatal crash on CTG worker process. Class "
+                    + Properties.TARGET_CLASS + " using seed " + Randomness.getSeed()
+                    + ". Configuration id : " + Properties.CONFIGURATION_ID, t);
+            return -1;
+        } finally {
+            //in case the test generation did not get to its end
+            MasterServices.getInstance().stopServices();
+        }
+    }
+
+    /**
+     * Bring the static state of this JVM back to the one of a freshly started EvoSuite process
+     */
+    private static void resetStaticState() {
+        Properties.getInstance().resetToDefaults();
+        TestGenerationContext.getInstance().resetContext();
+        ClassReInitializer.resetSingleton();
+        TimeController.resetSingleton();
+        Archive.getArchiveInstance().reset();
+    }
+
+    /**
+     * Send a job to a worker
+     */
+    static void writeJob(DataOutputStream out, List<String> systemProperties, List<String> arguments)
+            throws IOException {
+        writeStrings(out, systemProperties);
+        writeStrings(out, arguments);
+        out.flush();
+    }
+
+    private static void writeStrings(DataOutputStream out, List<String> strings) throws IOException {
+        out.writeInt(strings.size());
+        for (String s : strings) {
+            // not writeUTF, as it is limited to 64KB
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    static List<String> readStrings(DataInputStream in) throws IOException {
+        int n = in.readInt();
+        List<String> strings = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            strings.add(new String(bytes, StandardCharsets.UTF_8));
+        }
+        return strings;
+    }
+}
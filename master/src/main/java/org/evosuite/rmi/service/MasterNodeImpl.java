@@ -169,6 +169,18 @@ public class MasterNodeImpl implements MasterNodeRemote, MasterNodeLocal {
         SearchStatistics.getInstance(clientRmiIdentifier).setOutputVariable(variable, value);
     }
 
+    @Override
+    public void evosuite_collectStatistics(String clientRmiIdentifier, Map<RuntimeVariable, Object> variables,
+                                           Chromosome<?> individual) throws RemoteException {
+        SearchStatistics statistics = SearchStatistics.getInstance(clientRmiIdentifier);
+        for (Map.Entry<RuntimeVariable, Object> variable : variables.entrySet()) {
+            statistics.setOutputVariable(variable.getKey(), variable.getValue());
+        }
+        if (individual != null) {
+            statistics.currentIndividual(individual);
+        }
+    }
+
     @Override
     public void evosuite_collectTestGenerationResult(
             String clientRmiIdentifier, List<TestGenerationResult> results)
@@ -63,6 +63,22 @@ public class JobExecutorIntTest {
 
     @Test(timeout = 90_000)
     public void testActualExecutionOfSchedule() throws IOException {
+        executeSimpleAndTrivial();
+    }
+
+    @Test(timeout = 90_000)
+    public void testActualExecutionOfScheduleOnWarmWorker() throws IOException {
+        int jobsPerWorker = Properties.CTG_JOBS_PER_WORKER;
+        Properties.CTG_JOBS_PER_WORKER = 2;
+        try {
+            //both jobs run on the same worker JVM
+            executeSimpleAndTrivial();
+        } finally {
+            Properties.CTG_JOBS_PER_WORKER = jobsPerWorker;
+        }
+    }
+
+    private void executeSimpleAndTrivial() throws IOException {
 
         Properties.TEST_SCAFFOLDING = true;
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.continuous.job;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JobWorkerTest {
+
+    @Test
+    public void testJobsAreReadAsWritten() throws IOException {
+        char[] chars = new char[70_000];
+        Arrays.fill(chars, 'x');
+        String longArgument = new String(chars);
+
+        List<String> properties = Arrays.asList("evosuite.ctg=true", "empty=", "unicode=\u00e9\u4e2d");
+        List<String> arguments = Arrays.asList("-class", "foo.Bar", "-Dcp=" + longArgument);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        JobWorker.writeJob(out, properties, arguments);
+        JobWorker.writeJob(out, Collections.emptyList(), Collections.singletonList("-help"));
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        Assert.assertEquals(properties, JobWorker.readStrings(in));
+        Assert.assertEquals(arguments, JobWorker.readStrings(in));
+        Assert.assertEquals(Collections.emptyList(), JobWorker.readStrings(in));
+        Assert.assertEquals(Collections.singletonList("-help"), JobWorker.readStrings(in));
+
+        // the worker exits once the handler closes its input
+        try {
+            JobWorker.readStrings(in);
+            Assert.fail();
+        } catch (EOFException e) {
+            // expected
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.ga.metaheuristics;
+
+import com.examples.with.different.packagename.BMICalculator;
+import org.evosuite.EvoSuite;
+import org.evosuite.Properties;
+import org.evosuite.SystemTestBase;
+import org.evosuite.statistics.OutputVariable;
+import org.evosuite.statistics.RuntimeVariable;
+import org.evosuite.testsuite.TestSuiteChromosome;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * System tests for the implementation of the SUMMIT algorithm, with the LLM replaced by the
+ * local heuristic provider
+ */
+public class SummitSystemTest extends SystemTestBase {
+
+    private void test(int candidates) {
+        Properties.ALGORITHM = Properties.Algorithm.SUMMIT;
+        Properties.LLM_PROVIDER = Properties.LLMBackend.HEURISTIC;
+        Properties.SUMMIT_CANDIDATES = candidates;
+        Properties.OUTPUT_VARIABLES = "" + RuntimeVariable.Coverage;
+
+        String targetClass = BMICalculator.class.getCanonicalName();
+        Properties.TARGET_CLASS = targetClass;
+
+        String[] command = new String[]{"-generateMOSuite", "-Dalgorithm=SUMMIT", "-Dstrategy=MOSuite",
+                "-Dllm_provider=HEURISTIC", "-Dsummit_candidates=" + candidates, "-class", targetClass};
+
+        EvoSuite evoSuite = new EvoSuite();
+
+        GeneticAlgorithm<TestSuiteChromosome> ga = getGAFromResult(evoSuite.parseCommandLine(command));
+        Assert.assertEquals(SummitTestSuiteAdapter.class, ga.getClass());
+
+        SummitTestSuiteAdapter summit = (SummitTestSuiteAdapter) ga;
+
+        Assert.assertEquals(Summit.class, summit.getAlgorithm().getClass());
+
+        OutputVariable<?> coverage = getOutputVariable(RuntimeVariable.Coverage);
+        Assert.assertNotNull(coverage);
+        Assert.assertEquals(1d, (Double) coverage.getValue(), 0.001);
+    }
+
+    @Test
+    public void testSingleCandidate() {
+        test(1);
+    }
+
+    @Test
+    public void testSeveralCandidates() {
+        test(3);
+    }
+}
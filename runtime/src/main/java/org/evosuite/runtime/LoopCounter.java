@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * In some cases, we can end up with infinite loops: eg due to a bug, a seeded mutation,
@@ -40,13 +39,21 @@ public class LoopCounter {
     private boolean activated = true;
 
     /**
-     * Number of iterations so far
+     * Number of iterations so far, indexed by the ids given at instrumentation time.
+     * Kept as a primitive array, as checkLoop is called on each back-edge of
+     * each instrumented loop and should not allocate
      */
-    private final List<Long> counters;
+    private volatile long[] counters;
+
+    /**
+     * How many indices have been handed out by {@link #getNewIndex()}
+     */
+    private int numberOfIndices;
 
 
     private LoopCounter() {
-        counters = new ArrayList<>();
+        counters = new long[1024];
+        numberOfIndices = 0;
     }
 
     public static LoopCounter getInstance() {
@@ -54,7 +61,27 @@ public class LoopCounter {
     }
 
     public void reset() {
-        counters.clear();
+        /*
+         * indices are kept, so loops instrumented before the reset
+         * still have their own counter
+         */
+        Arrays.fill(counters, 0L);
+    }
+
+    /**
+     * @return a copy of the number of iterations of each loop so far
+     */
+    public long[] getCounters() {
+        return counters.clone();
+    }
+
+    /**
+     * Replace the number of iterations of each loop, e.g., with ones from {@link #getCounters()}
+     */
+    public synchronized void restoreCounters(long[] iterations) {
+        long[] current = ensureCapacity(Math.max(iterations.length - 1, 0));
+        Arrays.fill(current, 0L);
+        java.lang.System.arraycopy(iterations, 0, current, 0, iterations.length);
     }
 
     public void setActive(boolean active) {
@@ -71,9 +98,9 @@ public class LoopCounter {
      *
      * @return the next valid index for a new loop
      */
-    public int getNewIndex() {
-        int index = counters.size();
-        counters.add(0L);
+    public synchronized int getNewIndex() {
+        int index = numberOfIndices++;
+        ensureCapacity(index);
         return index;
     }
 
@@ -94,34 +121,42 @@ public class LoopCounter {
             return;
         }
 
-        if (RuntimeSettings.maxNumberOfIterationsPerLoop < 0) {
+        final long max = RuntimeSettings.maxNumberOfIterationsPerLoop;
+        if (max < 0) {
             return; //do nothing, no check
         }
 
-        //first check initialization
-        int size = counters.size();
-        if (index >= size) {
-            for (int i = 0; i < 1 + (index - size); i++) {
-                counters.add(0L);
-            }
+        //indices are pre-allocated by getNewIndex at instrumentation time, but checkLoop can still be called with unseen ones
+        long[] current = counters;
+        if (index >= current.length) {
+            current = ensureCapacity(index);
         }
-        assert index < counters.size();
 
         //do increment
-        try {
-            long value = counters.get(index) + 1L;
-            counters.set(index, value);
-
-            if (value >= RuntimeSettings.maxNumberOfIterationsPerLoop && !isInStaticInit()) {
-                this.reset();
-                throw new TooManyResourcesException("Loop has been executed more times than the allowed " +
-                        RuntimeSettings.maxNumberOfIterationsPerLoop);
+        long value = ++current[index];
+
+        if (value >= max && !isInStaticInit()) {
+            this.reset();
+            throw new TooManyResourcesException("Loop has been executed more times than the allowed " + max);
+        }
+    }
+
+    /**
+     * Grow the counters so that {@code index} is valid
+     *
+     * @return the counters array after growing
+     */
+    private synchronized long[] ensureCapacity(int index) {
+        long[] current = counters;
+        if (index >= current.length) {
+            int newLength = current.length;
+            while (newLength <= index) {
+                newLength = newLength > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : newLength * 2;
             }
-        } catch (NullPointerException e) {
-            // Some weird Java internal NPE can happen:
-            // https://github.com/EvoSuite/evosuite/issues/143
-            // Seems safe to swallow this instead of crashing EvoSuite
+            current = Arrays.copyOf(current, newLength);
+            counters = current;
         }
+        return current;
     }
 
 
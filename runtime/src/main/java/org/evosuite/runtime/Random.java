@@ -144,6 +144,14 @@ public class Random {
         wasAccessed = false;
     }
 
+    /**
+     * Restore a state saved with {@link Runtime#saveState()}
+     */
+    static void restore(int number, boolean accessed) {
+        currentNumber = number;
+        wasAccessed = accessed;
+    }
+
     /**
      * Getter to check whether this runtime replacement was accessed during test
      * execution
@@ -32,6 +32,8 @@ import org.evosuite.runtime.vnet.VirtualNetwork;
 
 import javax.swing.*;
 import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
 
 /**
  * <p>
@@ -94,4 +96,67 @@ public class Runtime {
         LoopCounter.getInstance().reset();
     }
 
+    /**
+     * Saves the state the simulated classes were left in by the current test execution, so that
+     * another execution can continue from it after {@link #resetRuntime()}
+     *
+     * @return the state, or {@code null} if it cannot be restored, i.e., if preferences were
+     * stored. The virtual file system and network are not part of the state
+     */
+    public State saveState() {
+        if (RuntimeSettings.mockJVMNonDeterminism && !MockPreferences.isEmpty()) {
+            return null;
+        }
+        return new State();
+    }
+
+    /**
+     * Brings the simulated classes back to a state saved with {@link #saveState()}
+     *
+     * @param state a saved state
+     */
+    public void restoreState(State state) {
+        if (state.mocked) {
+            Random.restore(state.randomNumber, state.randomAccessed);
+            System.restore(state.time, state.timeAccessed, state.identityHashCodes);
+            MockThread.restoreThreadIds(state.threadIds);
+            ThreadCounter.getInstance().setNumberOfStartedThreads(state.startedThreads);
+            TimeZone.setDefault((TimeZone) state.timeZone.clone());
+            Locale.setDefault(state.locale);
+            Locale.setDefault(Locale.Category.DISPLAY, state.displayLocale);
+            Locale.setDefault(Locale.Category.FORMAT, state.formatLocale);
+            JComponent.setDefaultLocale(state.componentLocale);
+        }
+        LoopCounter.getInstance().restoreCounters(state.loopIterations);
+    }
+
+    /**
+     * State of the simulated classes, see {@link #saveState()}
+     */
+    public static final class State {
+
+        /**
+         * Whether the JVM non-determinism was simulated, otherwise only the loops are part of
+         * the state
+         */
+        private final boolean mocked = RuntimeSettings.mockJVMNonDeterminism;
+
+        private final int randomNumber = Random.getCurrentNumber();
+        private final boolean randomAccessed = Random.wasAccessed();
+        private final long time = System.getCurrentTimeMillisForVFS();
+        private final boolean timeAccessed = System.wasTimeAccessed();
+        private final Map<Integer, Integer> identityHashCodes = System.getIdentityHashCodes();
+        private final Map<Integer, Long> threadIds = MockThread.getThreadIds();
+        private final int startedThreads = ThreadCounter.getInstance().getNumberOfStartedThreads();
+        private final TimeZone timeZone = TimeZone.getDefault();
+        private final Locale locale = Locale.getDefault();
+        private final Locale displayLocale = Locale.getDefault(Locale.Category.DISPLAY);
+        private final Locale formatLocale = Locale.getDefault(Locale.Category.FORMAT);
+        private final Locale componentLocale = JComponent.getDefaultLocale();
+        private final long[] loopIterations = LoopCounter.getInstance().getCounters();
+
+        private State() {
+        }
+    }
+
 }
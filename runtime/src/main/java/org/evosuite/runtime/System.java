@@ -320,6 +320,24 @@ public class System {
         //readProperties.clear(); //we cannot reset read properties here
     }
 
+    static Map<Integer, Integer> getIdentityHashCodes() {
+        synchronized (hashKeys) {
+            return new HashMap<>(hashKeys);
+        }
+    }
+
+    /**
+     * Restore a state saved with {@link Runtime#saveState()}
+     */
+    static void restore(long time, boolean timeAccessed, Map<Integer, Integer> identityHashCodes) {
+        currentTime = time;
+        wasTimeAccessed = timeAccessed;
+        synchronized (hashKeys) {
+            hashKeys.clear();
+            hashKeys.putAll(identityHashCodes);
+        }
+    }
+
     /**
      * Fully reset the state, not only the one related to
      * latest test case execution
@@ -29,7 +29,9 @@ import org.slf4j.LoggerFactory;
 
 import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
@@ -54,14 +56,37 @@ public class ClassResetter {
      */
     private static final ClassResetter instance = new ClassResetter();
 
+    private static final MethodType RESET_TYPE = MethodType.methodType(void.class);
+
+    /**
+     * Marker for classes that are known to have no reset method, so that
+     * they are not looked up again each time they should be reset
+     */
+    private static final ResetEntry NO_RESET = new ResetEntry(null, null);
+
     private ClassLoader loader;
 
-    private final Map<ClassLoader, Map<String, Method>> resetMethodCache;
+    private final Map<ClassLoader, Map<String, ResetEntry>> resetMethodCache;
 
     private ClassResetter() {
         resetMethodCache = new HashMap<>();
     }
 
+    /**
+     * The reset method of a class, bound once to a method handle so that
+     * it can be invoked directly instead of going through reflection each time
+     */
+    private static class ResetEntry {
+
+        private final Method method;
+        private final MethodHandle handle;
+
+        private ResetEntry(Method method, MethodHandle handle) {
+            this.method = method;
+            this.handle = handle;
+        }
+    }
+
     /**
      * Return singleton instance
      *
@@ -89,39 +114,52 @@ public class ClassResetter {
         AtMostOnceLogger.warn(logger, msg);
     }
 
-    private void cacheResetMethod(String classNameWithDots) {
+    private synchronized ResetEntry cacheResetMethod(String classNameWithDots) {
 
-        if (!resetMethodCache.containsKey(loader)) {
-            resetMethodCache.put(loader, new HashMap<>());
-        }
-
-        Map<String, Method> methodMap = resetMethodCache.get(loader);
-        if (methodMap.containsKey(classNameWithDots)) {
-            return;
+        Map<String, ResetEntry> methodMap = resetMethodCache.computeIfAbsent(loader, l -> new HashMap<>());
+        ResetEntry entry = methodMap.get(classNameWithDots);
+        if (entry != null) {
+            return entry;
         }
 
         try {
             Class<?> clazz = loader.loadClass(classNameWithDots);
 
             if (clazz.isInterface() || clazz.isAnonymousClass()) {
-                return;
+                methodMap.put(classNameWithDots, NO_RESET);
+                return NO_RESET;
             }
 
             Method m = clazz.getDeclaredMethod(STATIC_RESET, (Class<?>[]) null);
             m.setAccessible(true);
-            methodMap.put(classNameWithDots, m);
+            MethodHandle handle = MethodHandles.lookup().unreflect(m).asType(RESET_TYPE);
+            entry = new ResetEntry(m, handle);
 
         } catch (NoSuchMethodException e) {
             //this can happen if class was not instrumented with a static reset
             logger.debug("__STATIC_RESET() method does not exists in class {}", classNameWithDots);
+            entry = NO_RESET;
         } catch (Exception | Error e) {
             logWarn(classNameWithDots, e.getClass() + " thrown while loading method  __STATIC_RESET() for class " + classNameWithDots);
+            //not cached, as it might be a transient problem
+            return NO_RESET;
         }
+
+        methodMap.put(classNameWithDots, entry);
+        return entry;
     }
 
     public Method getResetMethod(String classNameWithDots) {
-        cacheResetMethod(classNameWithDots);
-        return resetMethodCache.get(loader).get(classNameWithDots);
+        return cacheResetMethod(classNameWithDots).method;
+    }
+
+    /**
+     * @param classNameWithDots
+     * @return a handle with type {@code ()void} to invoke the reset method of the class,
+     * or {@code null} if the class has no such method
+     */
+    public MethodHandle getResetMethodHandle(String classNameWithDots) {
+        return cacheResetMethod(classNameWithDots).handle;
     }
 
     /**
@@ -138,7 +176,7 @@ public class ClassResetter {
             throw new IllegalStateException("No specified loader");
         }
 
-        Method m = getResetMethod(classNameWithDots);
+        MethodHandle m = getResetMethodHandle(classNameWithDots);
         if (m == null) {
             return;
         }
@@ -156,22 +194,14 @@ public class ClassResetter {
                 Sandbox.goingToExecuteUnsafeCodeOnSameThread();
             }
             LoopCounter.getInstance().setActive(false);
-            m.invoke(null, (Object[]) null);
-        } catch (IllegalAccessException | IllegalArgumentException e) {
-            logger.error("" + e, e);
-        } catch (NoClassDefFoundError e) {
-            AtMostOnceLogger.error(logger, e.toString());
-        } catch (InvocationTargetException e) {
-
-            Throwable cause = e.getCause();
-            if (cause instanceof TooManyResourcesException || cause instanceof NoClassDefFoundError) {
-                logWarn(classNameWithDots, e + ", caused by: " + cause);
-            } else {
-                StringWriter errors = new StringWriter();
-                cause.printStackTrace(new PrintWriter(errors));
-                logWarn(classNameWithDots, e + ", caused by: " + cause + "\n" + errors);
-                // we are only interested in the stack trace of the cause
-            }
+            m.invokeExact();
+        } catch (TooManyResourcesException | NoClassDefFoundError e) {
+            logWarn(classNameWithDots, "Failed reset of " + classNameWithDots + ", caused by: " + e);
+        } catch (Throwable e) {
+            // the handle is invoked directly, so this is what the reset method itself threw
+            StringWriter errors = new StringWriter();
+            e.printStackTrace(new PrintWriter(errors));
+            logWarn(classNameWithDots, "Failed reset of " + classNameWithDots + ", caused by: " + e + "\n" + errors);
         } finally {
             if (!safe) {
                 Sandbox.doneWithExecutingUnsafeCodeOnSameThread();
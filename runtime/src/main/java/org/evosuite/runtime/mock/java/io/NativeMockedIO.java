@@ -60,6 +60,28 @@ public class NativeMockedIO {
 		return b; 
 	}
 
+	/**
+	 * Bulk version of {@link #read(String, AtomicInteger)}: copy up to {@code len} bytes
+	 * into {@code b}, and advance {@code position} by the number of bytes actually read
+	 * 
+	 * @return the number of read bytes, or -1 if the end of the file was already reached
+	 */
+	public static int read(String path, AtomicInteger position, byte[] b, int off, int len) throws IOException{
+		VFile vf = NativeMockedIO.getFileForReading(path);
+		if(vf==null){
+			throw new MockIOException();
+		}
+		
+		VirtualFileSystem.getInstance().throwSimuledIOExceptionIfNeeded(path);
+		
+		int n = vf.read(position.get(), b, off, len);
+		if(n > 0){
+			position.addAndGet(n);
+		}
+		
+		return n; 
+	}
+
 	
 	public static VFile getFileForWriting(String path){
 		FSObject target = VirtualFileSystem.getInstance().findFSObject(path);
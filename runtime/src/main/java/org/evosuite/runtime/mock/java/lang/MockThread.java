@@ -63,6 +63,25 @@ public class MockThread extends Thread implements OverrideMock {
         threadMap.clear();
     }
 
+    /**
+     * @return a copy of the ids given to the threads so far
+     */
+    public static Map<Integer, Long> getThreadIds() {
+        synchronized (threadMap) {
+            return new HashMap<>(threadMap);
+        }
+    }
+
+    /**
+     * Replace the ids given to the threads so far, e.g., with ones from {@link #getThreadIds()}
+     */
+    public static void restoreThreadIds(Map<Integer, Long> ids) {
+        synchronized (threadMap) {
+            threadMap.clear();
+            threadMap.putAll(ids);
+        }
+    }
+
     private boolean isSutRelated() {
         String sut = RuntimeSettings.className;
         String threadName = this.getClass().getName();
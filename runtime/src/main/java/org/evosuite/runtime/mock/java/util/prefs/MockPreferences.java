@@ -46,6 +46,13 @@ public class MockPreferences implements StaticReplacementMock {
         }
     }
 
+    /**
+     * @return whether no preferences were stored since the last reset
+     */
+    public static boolean isEmpty() {
+        return userRoot.isEmpty() && systemRoot.isEmpty();
+    }
+
     public static Preferences userRoot() {
         return userRoot;
     }
@@ -63,6 +63,13 @@ public class PreferencesImpl extends AbstractPreferences {
         }
     }
 
+    /**
+     * @return whether neither values nor child nodes are stored in this node
+     */
+    boolean isEmpty() {
+        return values.isEmpty() && children.isEmpty();
+    }
+
     @Override
     protected void removeNodeSpi() throws BackingStoreException {
         values.clear();
@@ -51,6 +51,14 @@ public class ThreadCounter {
         counter = 0;
     }
 
+    public synchronized int getNumberOfStartedThreads() {
+        return counter;
+    }
+
+    public synchronized void setNumberOfStartedThreads(int started) {
+        counter = started;
+    }
+
     public synchronized void checkIfCanStartNewThread() throws TooManyResourcesException {
         if (counter >= RuntimeSettings.maxNumberOfThreads) {
             throw new TooManyResourcesException("This test case has tried to start too many threads. " +
@@ -19,8 +19,7 @@
  */
 package org.evosuite.runtime.vfs;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Representation of a virtual file
@@ -30,45 +29,63 @@ import java.util.List;
 public class VFile extends FSObject {
 
     /**
-     * the actual data contained in file as a list of bytes
+     * size in bytes of each of the pages in which the data is stored
      */
-    private final List<Byte> data;
+    private static final int PAGE_SIZE = 4096;
+
+    /**
+     * the actual data contained in file, stored in fixed size pages.
+     * Pages are allocated lazily, so only the first {@code (size-1)/PAGE_SIZE + 1}
+     * entries are guaranteed to be non-null
+     */
+    private byte[][] pages;
+
+    /**
+     * number of valid bytes in the file
+     */
+    private int size;
 
     public VFile(String path, VFolder parent) {
         super(path, parent);
 
-        //TODO might need a better type of data structure supporting multi-threading
-        data = new ArrayList<>(1024);
+        pages = new byte[1][];
+        size = 0;
     }
 
-    public void eraseData() {
-        data.clear();
+    public synchronized void eraseData() {
+        pages = new byte[1][];
+        size = 0;
     }
 
     public synchronized int getDataSize() {
-        return data.size();
+        return size;
     }
 
 
     public synchronized void setLength(int newLength) {
 
-        /*
-         * Note: this implementation is not particularly efficient...
-         * but setLength is rarely called
-         */
-
-        while (newLength > data.size()) {
-            data.add((byte) 0);
+        if (newLength < 0) {
+            throw new IllegalArgumentException("Length of the file cannot be negative");
         }
 
         if (newLength == 0) {
-            data.clear();
+            eraseData();
             return;
         }
 
-        while (data.size() > newLength) {
-            data.remove(data.size() - 1);
+        if (newLength > size) {
+            ensureCapacity(newLength);
+        } else {
+            int needed = pageCount(newLength);
+            clear(newLength, (int) Math.min(size, (long) needed * PAGE_SIZE));
+            /*
+             * release the pages that are no longer needed
+             */
+            for (int i = needed; i < pages.length; i++) {
+                pages[i] = null;
+            }
         }
+        size = newLength;
     }
 
     /**
@@ -80,15 +97,50 @@ public class VFile extends FSObject {
             throw new IllegalArgumentException("Position in the file cannot be negative");
         }
 
-        if (position >= data.size()) {
+        if (position >= size) {
             return -1; //this represent the end of the stream
         }
 
-        return data.get(position) & 0xFF;
+        return pages[position / PAGE_SIZE][position % PAGE_SIZE] & 0xFF;
+    }
+
+    /**
+     * Copy up to {@code len} bytes starting from {@code position} into {@code b}
+     *
+     * @return the number of bytes copied, or -1 if {@code position} is at (or after) the end of the file
+     * and {@code len} is positive
+     */
+    public synchronized int read(int position, byte[] b, int off, int len) throws IllegalArgumentException {
+        if (position < 0) {
+            throw new IllegalArgumentException("Position in the file cannot be negative");
+        }
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+
+        if (len == 0) {
+            return 0;
+        }
+
+        if (position >= size) {
+            return -1; //this represent the end of the stream
+        }
+
+        int toRead = Math.min(len, size - position);
+        int copied = 0;
+        while (copied < toRead) {
+            int current = position + copied;
+            int inPage = current % PAGE_SIZE;
+            int chunk = Math.min(toRead - copied, PAGE_SIZE - inPage);
+            System.arraycopy(pages[current / PAGE_SIZE], inPage, b, off + copied, chunk);
+            copied += chunk;
+        }
+
+        return copied;
     }
 
     public synchronized int writeBytes(byte[] b, int off, int len) {
-        return writeBytes(data.size(), b, off, len);
+        return writeBytes(size, b, off, len);
     }
 
 
@@ -102,19 +154,32 @@ public class VFile extends FSObject {
             return 0;
         }
 
-        if (position >= data.size()) {
-            setLength(position);
+        int toWrite = Math.max(0, Math.min(len, b.length - off));
+        if (toWrite > Integer.MAX_VALUE - position) {
+            throw new IllegalArgumentException("Virtual file system does not handle files larger than "
+                    + Integer.MAX_VALUE + " bytes");
+        }
+
+        int end = position + toWrite;
+        if (end > size) {
+            ensureCapacity(end);
+        }
+        if (position > size) {
+            //the gap between the old end of the file and the position is already zeroed
+            size = position;
         }
 
         int written = 0;
-        for (int i = off; i < b.length & (i - off) < len; i++) {
-            if (position < data.size()) {
-                data.set(position, (b[i]));
-            } else {
-                data.add(b[i]);
-            }
-            position++;
-            written++;
+        while (written < toWrite) {
+            int current = position + written;
+            int inPage = current % PAGE_SIZE;
+            int chunk = Math.min(toWrite - written, PAGE_SIZE - inPage);
+            System.arraycopy(b, off + written, pages[current / PAGE_SIZE], inPage, chunk);
+            written += chunk;
+        }
+
+        if (end > size) {
+            size = end;
         }
 
         setLastModified(getCurrentTimeMillis());
@@ -128,4 +193,37 @@ public class VFile extends FSObject {
         eraseData();
         return super.delete();
     }
+
+    private static int pageCount(int bytes) {
+        return bytes == 0 ? 0 : ((bytes - 1) / PAGE_SIZE) + 1;
+    }
+
+    /**
+     * Make sure that all the pages needed to store {@code capacity} bytes are allocated.
+     * Pages covering the current size are always allocated, and bytes after the current size are always zero
+     */
+    private void ensureCapacity(int capacity) {
+        int needed = pageCount(capacity);
+        if (needed > pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(needed, pages.length * 2));
+        }
+        for (int i = pageCount(size); i < needed; i++) {
+            if (pages[i] == null) {
+                pages[i] = new byte[PAGE_SIZE];
+            }
+        }
+    }
+
+    /**
+     * Zero the bytes in [from,to), so that a later growth of the file does not resurface old data
+     */
+    private void clear(int from, int to) {
+        int current = from;
+        while (current < to) {
+            int inPage = current % PAGE_SIZE;
+            int chunk = Math.min(to - current, PAGE_SIZE - inPage);
+            Arrays.fill(pages[current / PAGE_SIZE], inPage, inPage + chunk, (byte) 0);
+            current += chunk;
+        }
+    }
 }
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+import java.util.Arrays;
+
+/**
+ * Unbounded FIFO of bytes backed by a circular array, used as TCP buffer.
+ * It grows when full, and data is always copied in bulk.
+ *
+ * <p>
+ * This class is not thread-safe: synchronization is left to its users
+ */
+class ByteRingBuffer {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private byte[] data;
+
+    /**
+     * Index of the first byte that can be read
+     */
+    private int head;
+
+    /**
+     * Number of bytes in the buffer
+     */
+    private int size;
+
+    ByteRingBuffer() {
+        data = new byte[INITIAL_CAPACITY];
+        head = 0;
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void add(byte b) {
+        ensureCapacity(size + 1);
+        data[(head + size) % data.length] = b;
+        size++;
+    }
+
+    void add(byte[] b, int off, int len) {
+        checkBounds(b, off, len);
+        ensureCapacity(size + len);
+
+        int tail = (head + size) % data.length;
+        int first = Math.min(len, data.length - tail);
+        System.arraycopy(b, off, data, tail, first);
+        System.arraycopy(b, off + first, data, 0, len - first);
+        size += len;
+    }
+
+    /**
+     * @return the first byte in the buffer, as an int in [0,255], or -1 if the buffer is empty
+     */
+    int poll() {
+        if (size == 0) {
+            return -1;
+        }
+        int b = data[head] & 0xFF;
+        head = (head + 1) % data.length;
+        size--;
+        return b;
+    }
+
+    /**
+     * Move up to {@code len} bytes from the buffer into {@code b}
+     *
+     * @return the number of bytes moved
+     */
+    int poll(byte[] b, int off, int len) {
+        checkBounds(b, off, len);
+
+        int n = Math.min(len, size);
+        int first = Math.min(n, data.length - head);
+        System.arraycopy(data, head, b, off, first);
+        System.arraycopy(data, 0, b, off + first, n - first);
+
+        head = (head + n) % data.length;
+        size -= n;
+        if (size == 0) {
+            head = 0;
+        }
+        return n;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalStateException("TCP buffer cannot hold more than " + Integer.MAX_VALUE + " bytes");
+        }
+        if (capacity <= data.length) {
+            return;
+        }
+
+        int newLength = data.length;
+        while (newLength < capacity) {
+            newLength = newLength > Integer.MAX_VALUE / 2 ? Integer.MAX_VALUE : newLength * 2;
+        }
+
+        byte[] copy = new byte[newLength];
+        int first = Math.min(size, data.length - head);
+        System.arraycopy(data, head, copy, 0, first);
+        System.arraycopy(data, 0, copy, first, size - first);
+        data = copy;
+        head = 0;
+    }
+
+    private static void checkBounds(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException("Invalid offset " + off + " and length " + len
+                    + " for array of length " + b.length);
+        }
+    }
+}
@@ -19,9 +19,6 @@
  */
 package org.evosuite.runtime.vnet;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
 /**
  * Class used to simulate a bi-directional TCP socket connection between two hosts.
  * This class only handle the exchange of data between SUT and EvoSuite tests, and not
@@ -42,12 +39,12 @@ public class NativeTcp {
     /**
      * The TCP buffer used locally by the SUT
      */
-    private final Queue<Byte> localBuffer;
+    private final ByteRingBuffer localBuffer;
 
     /**
      * The TCP buffer used by the EvoSuite tests to simulate a remote connection
      */
-    private final Queue<Byte> remoteBuffer;
+    private final ByteRingBuffer remoteBuffer;
 
     /**
      * Info on local (SUT) address/port
@@ -67,8 +64,8 @@ public class NativeTcp {
 
         this.localEndPoint = localEndPoint; //this can be null
         this.remoteEndPoint = remoteEndPoint;
-        localBuffer = new ArrayDeque<>();
-        remoteBuffer = new ArrayDeque<>();
+        localBuffer = new ByteRingBuffer();
+        remoteBuffer = new ByteRingBuffer();
     }
 
     public boolean isBound() {
@@ -91,6 +88,13 @@ public class NativeTcp {
         remoteBuffer.add(b);
     }
 
+    /**
+     * Bulk version of {@link #writeToRemote(byte)}
+     */
+    public synchronized void writeToRemote(byte[] b, int off, int len) {
+        remoteBuffer.add(b, off, len);
+    }
+
     /**
      * Read one byte from stream
      *
@@ -106,7 +110,17 @@ public class NativeTcp {
             return -1;
         }
 
-        return localBuffer.poll() & 0xFF;
+        return localBuffer.poll();
+    }
+
+    /**
+     * Read up to {@code len} bytes sent by the remote host
+     *
+     * @return the number of read bytes, or -1 if there is no data to read and {@code len} is positive
+     */
+    public synchronized int readInSUTfromRemote(byte[] b, int off, int len) {
+        int n = localBuffer.poll(b, off, len);
+        return (n == 0 && len > 0) ? -1 : n;
     }
 
     /**
@@ -118,6 +132,13 @@ public class NativeTcp {
         localBuffer.add(b);
     }
 
+    /**
+     * Bulk version of {@link #writeToSUT(byte)}
+     */
+    public synchronized void writeToSUT(byte[] b, int off, int len) {
+        localBuffer.add(b, off, len);
+    }
+
     /**
      * Get the data sent by the SUT.
      * This would mainly be useful for assertion generation and
@@ -126,10 +147,17 @@ public class NativeTcp {
      * @return
      */
     public synchronized int readInTestFromSUT() {
-        if (remoteBuffer.isEmpty()) {
-            return -1;
-        }
-        return remoteBuffer.poll() & 0xFF;
+        return remoteBuffer.poll();
+    }
+
+    /**
+     * Bulk version of {@link #readInTestFromSUT()}
+     *
+     * @return the number of read bytes, or -1 if there is no data to read and {@code len} is positive
+     */
+    public synchronized int readInTestFromSUT(byte[] b, int off, int len) {
+        int n = remoteBuffer.poll(b, off, len);
+        return (n == 0 && len > 0) ? -1 : n;
     }
 
     /**
@@ -74,4 +74,36 @@ public class LoopCounterTest {
         LoopCounter.getInstance().checkLoop(5);
         LoopCounter.getInstance().checkLoop(6);
     }
+
+    @Test
+    public void testResetKeepsIndices() {
+        int first = LoopCounter.getInstance().getNewIndex();
+        LoopCounter.getInstance().reset();
+        int second = LoopCounter.getInstance().getNewIndex();
+        Assert.assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testCounterIsResetAfterLimit() {
+        int index = LoopCounter.getInstance().getNewIndex();
+        long max = RuntimeSettings.maxNumberOfIterationsPerLoop;
+
+        for (int run = 0; run < 2; run++) {
+            for (long i = 1; i < max; i++) {
+                LoopCounter.getInstance().checkLoop(index);
+            }
+            try {
+                LoopCounter.getInstance().checkLoop(index);
+                Assert.fail();
+            } catch (TooManyResourcesException e) {
+                //expected, and counters are now back to 0
+            }
+        }
+    }
+
+    @Test
+    public void testUnseenLargeIndex() {
+        LoopCounter.getInstance().checkLoop(100_000);
+        LoopCounter.getInstance().checkLoop(100_000);
+    }
 }
@@ -20,12 +20,14 @@
 package org.evosuite.runtime.classhandling;
 
 import com.examples.with.different.packagename.classhandling.MutableEnum;
+import com.examples.with.different.packagename.classhandling.StaticCounter;
 import org.evosuite.runtime.RuntimeSettings;
 import org.evosuite.runtime.instrumentation.EvoClassLoader;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 
 
@@ -87,4 +89,46 @@ public class ClassResetterTest {
         Assert.assertEquals("a", getter.invoke(enums[0]));
         Assert.assertEquals("b", getter.invoke(enums[1]));
     }
+
+    @Test
+    public void testResetOfStaticField() throws Exception {
+
+        ClassLoader loader = new EvoClassLoader();
+        boolean resetValue = RuntimeSettings.resetStaticState;
+        RuntimeSettings.resetStaticState = true;
+        try {
+            ClassResetter.getInstance().setClassLoader(loader);
+
+            String cut = StaticCounter.class.getCanonicalName();
+            Class<?> klass = loader.loadClass(cut);
+            Method m = klass.getDeclaredMethod("increment");
+
+            Assert.assertEquals(1, m.invoke(null));
+            Assert.assertEquals(2, m.invoke(null));
+
+            MethodHandle handle = ClassResetter.getInstance().getResetMethodHandle(cut);
+            Assert.assertNotNull(handle);
+            //bound only once
+            Assert.assertSame(handle, ClassResetter.getInstance().getResetMethodHandle(cut));
+
+            ClassResetter.getInstance().reset(cut);
+            Assert.assertEquals(1, m.invoke(null));
+
+            ClassResetter.getInstance().reset(cut);
+            Assert.assertEquals(1, m.invoke(null));
+        } finally {
+            RuntimeSettings.resetStaticState = resetValue;
+        }
+    }
+
+    @Test
+    public void testNoResetMethod() {
+        ClassResetter.getInstance().setClassLoader(ClassResetterTest.class.getClassLoader());
+
+        //not instrumented, so no reset method
+        String name = ClassResetterTest.class.getName();
+        Assert.assertNull(ClassResetter.getInstance().getResetMethodHandle(name));
+        Assert.assertNull(ClassResetter.getInstance().getResetMethod(name));
+        ClassResetter.getInstance().reset(name);
+    }
 }
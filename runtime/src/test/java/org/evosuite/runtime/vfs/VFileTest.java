@@ -0,0 +1,145 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vfs;
+
+import org.evosuite.runtime.mock.MockFramework;
+import org.evosuite.runtime.mock.java.io.MockFile;
+import org.evosuite.runtime.mock.java.io.MockFileInputStream;
+import org.evosuite.runtime.mock.java.io.MockFileOutputStream;
+import org.evosuite.runtime.mock.java.io.MockRandomAccessFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+public class VFileTest {
+
+    @Before
+    public void init() {
+        MockFramework.enable();
+        VirtualFileSystem.getInstance().resetSingleton();
+        VirtualFileSystem.getInstance().init();
+    }
+
+    @After
+    public void tearDown() {
+        VirtualFileSystem.getInstance().resetSingleton();
+    }
+
+    private static byte[] sequence(int n) {
+        byte[] data = new byte[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = (byte) (i * 31);
+        }
+        return data;
+    }
+
+    @Test
+    public void testWriteAndReadAcrossPages() {
+        VFile file = new VFile("/foo", null);
+        byte[] data = sequence(10_000);
+
+        Assert.assertEquals(data.length, file.writeBytes(data, 0, data.length));
+        Assert.assertEquals(data.length, file.getDataSize());
+
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(data[i] & 0xFF, file.read(i));
+        }
+        Assert.assertEquals(-1, file.read(data.length));
+
+        byte[] copy = new byte[data.length + 10];
+        Assert.assertEquals(data.length - 100, file.read(100, copy, 5, copy.length - 5));
+        for (int i = 0; i < data.length - 100; i++) {
+            Assert.assertEquals(data[100 + i], copy[5 + i]);
+        }
+        Assert.assertEquals(-1, file.read(data.length, copy, 0, 1));
+        Assert.assertEquals(0, file.read(data.length, copy, 0, 0));
+    }
+
+    @Test
+    public void testWriteAfterEndPadsWithZeros() {
+        VFile file = new VFile("/foo", null);
+        byte[] data = sequence(5000);
+        file.writeBytes(data, 0, data.length);
+
+        //shrinking and growing back should not resurface old data
+        file.setLength(10);
+        file.writeBytes(6000, new byte[]{42}, 0, 1);
+
+        Assert.assertEquals(6001, file.getDataSize());
+        for (int i = 10; i < 6000; i++) {
+            Assert.assertEquals(0, file.read(i));
+        }
+        Assert.assertEquals(42, file.read(6000));
+        Assert.assertEquals(data[9] & 0xFF, file.read(9));
+
+        file.setLength(0);
+        Assert.assertEquals(0, file.getDataSize());
+        Assert.assertEquals(-1, file.read(0));
+    }
+
+    @Test
+    public void testStreamsUseBulkAccess() throws IOException {
+        File file = new MockFile("bulk.bin");
+        byte[] data = sequence(9000);
+
+        MockFileOutputStream out = new MockFileOutputStream(file);
+        out.write(data);
+        out.close();
+
+        MockFileInputStream in = new MockFileInputStream(file);
+        byte[] buffer = new byte[data.length + 1];
+        Assert.assertEquals(data.length, in.read(buffer));
+        Assert.assertEquals(0, in.available());
+        Assert.assertEquals(-1, in.read(buffer));
+        in.close();
+
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(data[i], buffer[i]);
+        }
+
+        MockRandomAccessFile raf = new MockRandomAccessFile(file, "rw");
+        raf.seek(data.length - 3);
+        //partial read at the end of the file
+        Assert.assertEquals(3, raf.read(buffer, 0, 10));
+        Assert.assertEquals(-1, raf.read(buffer, 0, 10));
+
+        raf.close();
+
+        MockFileInputStream channelIn = new MockFileInputStream(file);
+        FileChannel readChannel = channelIn.getChannel();
+        ByteBuffer direct = ByteBuffer.allocateDirect(100);
+        Assert.assertEquals(100, readChannel.read(direct));
+        Assert.assertEquals(data[99], direct.get(99));
+        channelIn.close();
+
+        MockFileOutputStream channelOut = new MockFileOutputStream(file, true);
+        FileChannel writeChannel = channelOut.getChannel();
+        writeChannel.position(data.length);
+        Assert.assertEquals(4, writeChannel.write(ByteBuffer.wrap(new byte[]{1, 2, 3, 4})));
+        Assert.assertEquals(data.length + 4, writeChannel.size());
+        channelOut.close();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2010-2018 Gordon Fraser, Andrea Arcuri and EvoSuite
+ * contributors
+ *
+ * This file is part of EvoSuite.
+ *
+ * EvoSuite is free software: you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3.0 of the License, or
+ * (at your option) any later version.
+ *
+ * EvoSuite is distributed in the hope that it will be useful, but
+ * WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with EvoSuite. If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.evosuite.runtime.vnet;
+
+import org.evosuite.runtime.mock.java.net.SocketIn;
+import org.evosuite.runtime.mock.java.net.SocketOut;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+
+public class NativeTcpTest {
+
+    private static NativeTcp createConnection() {
+        EndPointInfo local = new EndPointInfo("127.0.0.1", 42, VirtualNetwork.ConnectionType.TCP);
+        EndPointInfo remote = new EndPointInfo("192.168.0.1", 4242, VirtualNetwork.ConnectionType.TCP);
+        return new NativeTcp(local, remote);
+    }
+
+    private static byte[] sequence(int n) {
+        byte[] data = new byte[n];
+        for (int i = 0; i < n; i++) {
+            data[i] = (byte) (i * 7);
+        }
+        return data;
+    }
+
+    @Test
+    public void testBulkAcrossWrapAround() {
+        NativeTcp tcp = createConnection();
+        byte[] data = sequence(1000);
+        byte[] buffer = new byte[1000];
+
+        //fill and consume repeatedly, so that data wraps around the end of the buffer and it has to grow
+        for (int round = 0; round < 5; round++) {
+            tcp.writeToSUT(data, 0, 700);
+            Assert.assertEquals(data[0] & 0xFF, tcp.readInSUTfromRemote());
+            tcp.writeToSUT(data, 700, 300);
+            tcp.writeToSUT(data, 0, 1000);
+            Assert.assertEquals(1999, tcp.getAmountOfDataInLocalBuffer());
+
+            Assert.assertEquals(999, tcp.readInSUTfromRemote(buffer, 0, 999));
+            for (int i = 0; i < 999; i++) {
+                Assert.assertEquals(data[i + 1], buffer[i]);
+            }
+            Assert.assertEquals(1000, tcp.readInSUTfromRemote(buffer, 0, 1000));
+            Assert.assertArrayEquals(data, buffer);
+        }
+
+        Assert.assertEquals(0, tcp.getAmountOfDataInLocalBuffer());
+        Assert.assertEquals(-1, tcp.readInSUTfromRemote(buffer, 0, 10));
+        Assert.assertEquals(0, tcp.readInSUTfromRemote(buffer, 0, 0));
+        Assert.assertEquals(-1, tcp.readInSUTfromRemote());
+    }
+
+    @Test
+    public void testSocketStreams() throws IOException {
+        NativeTcp tcp = createConnection();
+        SocketOut sutOut = new SocketOut(tcp, true);
+        SocketIn testIn = new SocketIn(tcp, false);
+
+        byte[] data = sequence(5000);
+        sutOut.write(data);
+        sutOut.write(255);
+        Assert.assertEquals(5001, testIn.available());
+
+        byte[] buffer = new byte[6000];
+        Assert.assertEquals(5001, testIn.read(buffer));
+        for (int i = 0; i < data.length; i++) {
+            Assert.assertEquals(data[i], buffer[i]);
+        }
+        Assert.assertEquals((byte) 255, buffer[5000]);
+        Assert.assertEquals(-1, testIn.read(buffer));
+
+        //other direction, with partial reads
+        SocketOut testOut = new SocketOut(tcp, false);
+        SocketIn sutIn = new SocketIn(tcp, true);
+        testOut.write(data, 10, 20);
+        Assert.assertEquals(5, sutIn.read(buffer, 0, 5));
+        Assert.assertEquals(15, sutIn.read(buffer, 5, 100));
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals(data[10 + i], buffer[i]);
+        }
+    }
+}